@@ -0,0 +1,176 @@
+package com.taskapp.reactive.Controller;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.taskapp.reactive.Models.Task;
+import com.taskapp.reactive.Models.TaskFilter;
+import com.taskapp.reactive.Models.TaskPage;
+import com.taskapp.reactive.Services.TaskService;
+import com.taskapp.reactive.Util.Exceptions.InvalidRequestException;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The task endpoints of the servlet application's {@code TaskController} that
+ * work on single tasks and pages, with the same bodies, status codes and
+ * {@code ETag}, {@code If-Match} and {@code Prefer} handling.
+ */
+@RestController
+@RequestMapping("/api/tasks")
+public class TaskController {
+    private final TaskService taskService;
+
+    public TaskController(TaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Task>> createTask(@Valid @RequestBody Task task) {
+        return taskService.createTask(task)
+                .map(createdTask -> ResponseEntity.created(URI.create("/tasks/" + createdTask.getId()))
+                        .eTag(etag(createdTask.getVersion()))
+                        .body(createdTask));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Task>> updateTask(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody Task task) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (InvalidRequestException ex) {
+            return Mono.error(ex);
+        }
+        return taskService.updateTask(id, task, expectedVersion)
+                .map(updatedTask -> ResponseEntity.ok().eTag(etag(updatedTask.getVersion())).body(updatedTask));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Task>> getTask(@PathVariable UUID id) {
+        return taskService.getTask(id).map(task -> {
+            ResponseEntity.BodyBuilder response = revalidated().eTag("W/" + etag(task.getVersion()));
+            if (task.getUpdatedAt() != null) {
+                response.lastModified(task.getUpdatedAt());
+            }
+            return response.body(task);
+        });
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<TaskPage>> searchTasks(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String titlePrefix,
+            @RequestParam(required = false) Instant createdFrom,
+            @RequestParam(required = false) Instant createdTo,
+            @RequestParam(required = false) Instant updatedFrom,
+            @RequestParam(required = false) Instant updatedTo,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDir) {
+        TaskFilter filter = new TaskFilter(search, completed, titlePrefix, createdFrom, createdTo, updatedFrom, updatedTo);
+        return taskService.searchTasks(filter, page, size, sortBy, sortDir)
+                .map(tasks -> revalidated().body(tasks));
+    }
+
+    /**
+     * All matching tasks as newline-delimited JSON, written as the rows arrive
+     * and read no faster than the client consumes them.
+     */
+    @GetMapping(params = "stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Task> streamTasks(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String titlePrefix,
+            @RequestParam(required = false) Instant createdFrom,
+            @RequestParam(required = false) Instant createdTo,
+            @RequestParam(required = false) Instant updatedFrom,
+            @RequestParam(required = false) Instant updatedTo,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDir) {
+        TaskFilter filter = new TaskFilter(search, completed, titlePrefix, createdFrom, createdTo, updatedFrom, updatedTo);
+        return taskService.streamTasks(filter, sortBy, sortDir);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteTask(@PathVariable UUID id) {
+        return taskService.deleteTask(id).then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Task>> partialUpdateTask(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestBody Map<String, Object> updates) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (InvalidRequestException ex) {
+            return Mono.error(ex);
+        }
+        if (expectedVersion != null && prefer != null && prefer.contains("return=minimal")) {
+            return taskService.patchTask(id, updates, expectedVersion)
+                    .map(newVersion -> ResponseEntity.noContent()
+                            .eTag(etag(newVersion))
+                            .header("Preference-Applied", "return=minimal")
+                            .build());
+        }
+        return taskService.partialUpdate(id, updates, expectedVersion)
+                .map(updatedTask -> ResponseEntity.ok().eTag(etag(updatedTask.getVersion())).body(updatedTask));
+    }
+
+    private static ResponseEntity.BodyBuilder revalidated() {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache());
+    }
+
+    private static String etag(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * Returns the version an {@code If-Match} header refers to, or
+     * {@code null} if the header is absent or {@code *}.
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException ex) {
+            throw new InvalidRequestException("If-Match must be an ETag returned by this API");
+        }
+    }
+}
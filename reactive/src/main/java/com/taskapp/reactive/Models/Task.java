@@ -0,0 +1,126 @@
+package com.taskapp.reactive.Models;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.taskapp.taskapp.Models.Constraints.TaskDescription;
+import com.taskapp.taskapp.Models.Constraints.TaskTitle;
+
+/**
+ * A row of the {@code task} table that the servlet application maintains,
+ * with the same JSON form and validation rules as its task entity. Rows with
+ * {@code deleted_at} set are deleted and never loaded.
+ */
+@Table("task")
+public class Task {
+  @Id
+  private UUID id;
+
+  @JsonIgnore
+  private String tenantId;
+
+  @TaskTitle
+  private String title;
+
+  @TaskDescription
+  private String description;
+
+  private boolean completed;
+
+  @Version
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Long version;
+
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Instant createdAt;
+
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Instant updatedAt;
+
+  @JsonIgnore
+  private Instant deletedAt;
+
+  /** Current time at the precision the columns store. */
+  public static Instant now() {
+    return Instant.now().truncatedTo(ChronoUnit.MICROS);
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public void setId(UUID id) {
+    this.id = id;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public void setTenantId(String tenantId) {
+    this.tenantId = tenantId;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public void setDescription(String description) {
+    this.description = description;
+  }
+
+  public boolean isCompleted() {
+    return completed;
+  }
+
+  public void setCompleted(boolean completed) {
+    this.completed = completed;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+
+  public Instant getDeletedAt() {
+    return deletedAt;
+  }
+
+  public void setDeletedAt(Instant deletedAt) {
+    this.deletedAt = deletedAt;
+  }
+}
@@ -0,0 +1,8 @@
+package com.taskapp.reactive.Models;
+
+import java.time.Instant;
+
+/** The filters of a task listing; null fields do not restrict it. */
+public record TaskFilter(String search, Boolean completed, String titlePrefix, Instant createdFrom, Instant createdTo,
+        Instant updatedFrom, Instant updatedTo) {
+}
@@ -0,0 +1,14 @@
+package com.taskapp.reactive.Models;
+
+import java.util.List;
+
+/** A page of tasks, with the properties of the servlet application's page responses that clients read. */
+public record TaskPage(List<Task> content, int number, int size, long totalElements, int totalPages,
+        int numberOfElements, boolean first, boolean last, boolean empty) {
+
+    public static TaskPage of(List<Task> content, int number, int size, long totalElements) {
+        int totalPages = size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+        return new TaskPage(content, number, size, totalElements, totalPages, content.size(), number == 0,
+                number + 1 >= totalPages, content.isEmpty());
+    }
+}
@@ -0,0 +1,13 @@
+package com.taskapp.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveTaskApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveTaskApplication.class, args);
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.taskapp.reactive.Repository;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Logs writes in {@code task_change_log}, which the servlet application reads
+ * to evict, reindex, recount and publish the tasks written here. An entry has
+ * to be written in the transaction of the write it records.
+ */
+@Repository
+public class TaskChangeLog {
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    private final DatabaseClient databaseClient;
+
+    public TaskChangeLog(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Void> record(String tenantId, UUID id, String type, Instant changedAt) {
+        return databaseClient.sql("INSERT INTO task_change_log (tenant_id, task_id, change_type, changed_at) "
+                        + "VALUES (:tenantId, :id, :type, :changedAt)")
+                .bind("tenantId", tenantId)
+                .bind("id", ByteBuffer.allocate(16)
+                        .putLong(id.getMostSignificantBits())
+                        .putLong(id.getLeastSignificantBits())
+                        .array())
+                .bind("type", type)
+                .bind("changedAt", LocalDateTime.ofInstant(changedAt, ZoneOffset.UTC))
+                .then();
+    }
+}
@@ -0,0 +1,129 @@
+package com.taskapp.reactive.Repository;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+import static org.springframework.data.relational.core.query.Query.query;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.taskapp.reactive.Models.Task;
+import com.taskapp.reactive.Models.TaskFilter;
+import com.taskapp.taskapp.Util.SearchTokens;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tasks of one tenant, excluding deleted ones. Listings are returned as they
+ * are read from the driver, which fetches further rows only as they are
+ * requested downstream. Updates are conditional on the version the caller
+ * read, so a read-modify-write needs no transaction to be safe.
+ */
+@Repository
+public class TaskRepository {
+    private final R2dbcEntityTemplate template;
+
+    public TaskRepository(R2dbcEntityTemplate template) {
+        this.template = template;
+    }
+
+    public Mono<Task> insert(Task task) {
+        return template.insert(task);
+    }
+
+    public Mono<Task> findById(String tenantId, UUID id) {
+        return template.selectOne(query(live(tenantId).and("id").is(id)), Task.class);
+    }
+
+    public Mono<Boolean> existsById(String tenantId, UUID id) {
+        return template.exists(query(live(tenantId).and("id").is(id)), Task.class);
+    }
+
+    /**
+     * Sets the given columns of a task still at {@code expectedVersion}, along
+     * with the next version and the update time. Returns the number of rows
+     * changed, 0 if the task is gone or at another version.
+     */
+    public Mono<Long> updateFields(String tenantId, UUID id, long expectedVersion, Map<String, Object> updates,
+            Instant updatedAt) {
+        Update update = Update.update("version", expectedVersion + 1).set("updatedAt", updatedAt);
+        for (Map.Entry<String, Object> entry : updates.entrySet()) {
+            update = update.set(entry.getKey(), entry.getValue());
+        }
+        return template.update(query(live(tenantId).and("id").is(id).and("version").is(expectedVersion)), update,
+                Task.class);
+    }
+
+    public Mono<Long> softDelete(String tenantId, UUID id, Instant deletedAt) {
+        return template.update(query(live(tenantId).and("id").is(id)), Update.update("deletedAt", deletedAt),
+                Task.class);
+    }
+
+    public Mono<Long> delete(String tenantId, UUID id) {
+        return template.delete(query(live(tenantId).and("id").is(id)), Task.class);
+    }
+
+    public Flux<Task> find(String tenantId, TaskFilter filter, Sort sort, long offset, int limit) {
+        return template.select(query(matching(tenantId, filter)).sort(sort).offset(offset).limit(limit), Task.class);
+    }
+
+    public Flux<Task> findAll(String tenantId, TaskFilter filter, Sort sort) {
+        return template.select(query(matching(tenantId, filter)).sort(sort), Task.class);
+    }
+
+    public Mono<Long> count(String tenantId, TaskFilter filter) {
+        return template.count(query(matching(tenantId, filter)), Task.class);
+    }
+
+    private static Criteria live(String tenantId) {
+        return where("tenantId").is(tenantId).and("deletedAt").isNull();
+    }
+
+    private static Criteria matching(String tenantId, TaskFilter filter) {
+        Criteria criteria = live(tenantId);
+        if (filter.search() != null && !filter.search().isEmpty()) {
+            // Same words as the servlet app's search; they hold only letters and digits, so nothing needs escaping
+            Set<String> tokens = SearchTokens.tokenize(filter.search());
+            if (tokens.isEmpty()) {
+                // A term without words matches nothing; ids are never null
+                criteria = criteria.and("id").isNull();
+            }
+            for (String token : tokens) {
+                String pattern = "%" + token + "%";
+                criteria = criteria.and(where("title").like(pattern).ignoreCase(true)
+                        .or("description").like(pattern).ignoreCase(true));
+            }
+        }
+        if (filter.completed() != null) {
+            criteria = criteria.and("completed").is(filter.completed());
+        }
+        if (filter.titlePrefix() != null) {
+            criteria = criteria.and("title").like(escapeLike(filter.titlePrefix()) + "%");
+        }
+        if (filter.createdFrom() != null) {
+            criteria = criteria.and("createdAt").greaterThanOrEquals(filter.createdFrom());
+        }
+        if (filter.createdTo() != null) {
+            criteria = criteria.and("createdAt").lessThan(filter.createdTo());
+        }
+        if (filter.updatedFrom() != null) {
+            criteria = criteria.and("updatedAt").greaterThanOrEquals(filter.updatedFrom());
+        }
+        if (filter.updatedTo() != null) {
+            criteria = criteria.and("updatedAt").lessThan(filter.updatedTo());
+        }
+        return criteria;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
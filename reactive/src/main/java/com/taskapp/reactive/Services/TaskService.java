@@ -0,0 +1,214 @@
+package com.taskapp.reactive.Services;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.taskapp.reactive.Models.Task;
+import com.taskapp.reactive.Models.TaskFilter;
+import com.taskapp.reactive.Models.TaskPage;
+import com.taskapp.reactive.Repository.TaskChangeLog;
+import com.taskapp.reactive.Repository.TaskRepository;
+import com.taskapp.reactive.Tenancy.TenantContext;
+import com.taskapp.reactive.Util.Exceptions.InvalidRequestException;
+import com.taskapp.reactive.Util.Exceptions.TaskNotFoundException;
+import com.taskapp.reactive.Util.Exceptions.TaskVersionConflictException;
+import com.taskapp.taskapp.Util.UuidV7;
+
+import jakarta.validation.Validator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Every write is logged in {@link TaskChangeLog} in the same transaction, so
+ * the servlet application sharing the table can follow it.
+ */
+@Service
+public class TaskService {
+    public static final String SORT_BY_RELEVANCE = "relevance";
+    public static final Set<String> SORTABLE_FIELDS = new LinkedHashSet<>(List.of("id", "title", "createdAt", "updatedAt"));
+    private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
+
+    private final TaskRepository taskRepository;
+    private final TaskChangeLog changeLog;
+    private final TransactionalOperator transactions;
+    private final Validator validator;
+    private final boolean softDelete;
+
+    public TaskService(TaskRepository taskRepository, TaskChangeLog changeLog, TransactionalOperator transactions,
+            Validator validator, @Value("${taskapp.delete.soft:true}") boolean softDelete) {
+        this.taskRepository = taskRepository;
+        this.changeLog = changeLog;
+        this.transactions = transactions;
+        this.validator = validator;
+        this.softDelete = softDelete;
+    }
+
+    public Mono<Task> createTask(Task task) {
+        return TenantContext.current().flatMap(tenantId -> {
+            task.setId(UuidV7.next());
+            task.setTenantId(tenantId);
+            task.setVersion(null);
+            task.setCreatedAt(Task.now());
+            task.setUpdatedAt(task.getCreatedAt());
+            task.setDeletedAt(null);
+            return transactions.transactional(taskRepository.insert(task)
+                    .flatMap(saved -> changeLog.record(tenantId, saved.getId(), TaskChangeLog.CREATED,
+                            saved.getUpdatedAt()).thenReturn(saved)));
+        }).doOnNext(saved -> logger.info("Task created successfully with ID: {}", saved.getId()));
+    }
+
+    public Mono<Task> getTask(UUID id) {
+        return TenantContext.current()
+                .flatMap(tenantId -> taskRepository.findById(tenantId, id))
+                .switchIfEmpty(Mono.error(() -> new TaskNotFoundException("Task not found with id: " + id)));
+    }
+
+    public Mono<Task> updateTask(UUID id, Task task, Long expectedVersion) {
+        Map<String, Object> updates = new LinkedHashMap<>();
+        updates.put("title", task.getTitle());
+        updates.put("description", task.getDescription());
+        updates.put("completed", task.isCompleted());
+        return update(id, updates, expectedVersion);
+    }
+
+    public Mono<Task> partialUpdate(UUID id, Map<String, Object> updates, Long expectedVersion) {
+        return Mono.fromRunnable(() -> validate(updates)).then(update(id, updates, expectedVersion));
+    }
+
+    /**
+     * Applies a partial update with a single conditional UPDATE and no prior
+     * SELECT, returning the new version of the task.
+     */
+    public Mono<Long> patchTask(UUID id, Map<String, Object> updates, long expectedVersion) {
+        return Mono.fromRunnable(() -> validate(updates))
+                .then(TenantContext.current())
+                .flatMap(tenantId -> logged(tenantId, id, TaskChangeLog.UPDATED, Task.now(),
+                        updatedAt -> taskRepository.updateFields(tenantId, id, expectedVersion, updates, updatedAt))
+                        .flatMap(rows -> rows > 0 ? Mono.just(expectedVersion + 1)
+                                : taskRepository.existsById(tenantId, id).flatMap(exists -> Mono.error(exists
+                                        ? new TaskVersionConflictException(
+                                                "Task " + id + " is no longer at version " + expectedVersion)
+                                        : new TaskNotFoundException("Task not found with id: " + id)))));
+    }
+
+    public Mono<Void> deleteTask(UUID id) {
+        return TenantContext.current()
+                .flatMap(tenantId -> logged(tenantId, id, TaskChangeLog.DELETED, Task.now(),
+                        deletedAt -> softDelete ? taskRepository.softDelete(tenantId, id, deletedAt)
+                                : taskRepository.delete(tenantId, id)))
+                .flatMap(rows -> rows > 0 ? Mono.<Void>empty()
+                        : Mono.error(new TaskNotFoundException("Task not found with id: " + id)));
+    }
+
+    public Mono<TaskPage> searchTasks(TaskFilter filter, int page, int size, String sortBy, String sortDir) {
+        if (page < 0 || size < 1) {
+            return Mono.error(new InvalidRequestException("page must not be negative and size must be positive"));
+        }
+        Sort sort;
+        try {
+            sort = listSort(sortBy, Sort.Direction.fromString(sortDir));
+        } catch (RuntimeException ex) {
+            return Mono.error(ex);
+        }
+        long offset = (long) page * size;
+        return TenantContext.current().flatMap(tenantId -> taskRepository.find(tenantId, filter, sort, offset, size)
+                .collectList()
+                .flatMap(content -> total(tenantId, filter, offset, size, content.size())
+                        .map(total -> TaskPage.of(content, page, size, total))));
+    }
+
+    /**
+     * Counts the matches only when the page does not tell: a partial page
+     * other than an empty one past the end is the last one. The count runs
+     * after the page query rather than beside it, so a search holds at most
+     * one connection at a time.
+     */
+    private Mono<Long> total(String tenantId, TaskFilter filter, long offset, int size, int found) {
+        if (found < size && (found > 0 || offset == 0)) {
+            return Mono.just(offset + found);
+        }
+        return taskRepository.count(tenantId, filter);
+    }
+
+    /** Every matching task, read from the database as fast as the client takes them. */
+    public Flux<Task> streamTasks(TaskFilter filter, String sortBy, String sortDir) {
+        return Mono.fromCallable(() -> listSort(sortBy, Sort.Direction.fromString(sortDir)))
+                .zipWith(TenantContext.current())
+                .flatMapMany(sortAndTenant -> taskRepository.findAll(sortAndTenant.getT2(), filter,
+                        sortAndTenant.getT1()));
+    }
+
+    /**
+     * Loads the task for the response and writes the changes conditionally on
+     * the version it was loaded at; a concurrent write in between fails with
+     * {@link OptimisticLockingFailureException}.
+     */
+    private Mono<Task> update(UUID id, Map<String, Object> updates, Long expectedVersion) {
+        return getTask(id).flatMap(task -> {
+            if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+                return Mono.error(new TaskVersionConflictException(
+                        "Task " + id + " is at version " + task.getVersion() + ", not " + expectedVersion));
+            }
+            TaskUpdates.apply(task, updates);
+            task.setUpdatedAt(Task.now());
+            return logged(task.getTenantId(), id, TaskChangeLog.UPDATED, task.getUpdatedAt(),
+                    updatedAt -> taskRepository.updateFields(task.getTenantId(), id, task.getVersion(), updates,
+                            updatedAt))
+                    .flatMap(rows -> {
+                        if (rows == 0) {
+                            return Mono.error(new OptimisticLockingFailureException(
+                                    "Task " + id + " was changed or deleted concurrently"));
+                        }
+                        task.setVersion(task.getVersion() + 1);
+                        logger.info("Task updated successfully with ID: {}", id);
+                        return Mono.just(task);
+                    });
+        });
+    }
+
+    /** Runs a write at {@code at} and, if it changed a row, logs it in the same transaction. */
+    private Mono<Long> logged(String tenantId, UUID id, String type, Instant at, Function<Instant, Mono<Long>> write) {
+        return transactions.transactional(write.apply(at).flatMap(rows -> rows > 0
+                ? changeLog.record(tenantId, id, type, at).thenReturn(rows)
+                : Mono.just(rows)));
+    }
+
+    private void validate(Map<String, Object> updates) {
+        if (updates.isEmpty()) {
+            throw new InvalidRequestException("At least one field to update is required");
+        }
+        List<String> errors = TaskUpdates.validate(validator, updates);
+        if (!errors.isEmpty()) {
+            throw new InvalidRequestException(String.join("; ", errors));
+        }
+    }
+
+    /**
+     * Sorts only on the indexed columns, with the id as tie-breaker so pages
+     * are stable. Without a search engine to rank matches, relevance is id order.
+     */
+    private static Sort listSort(String sortBy, Sort.Direction direction) {
+        if (sortBy == null || sortBy.isEmpty() || SORT_BY_RELEVANCE.equals(sortBy)) {
+            sortBy = "id";
+        }
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new InvalidRequestException("Cannot sort by " + sortBy + "; sortable fields are " + SORTABLE_FIELDS);
+        }
+        Sort sort = Sort.by(direction, sortBy);
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.taskapp.reactive.Services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.taskapp.reactive.Models.Task;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/** Checks of partial task updates, with the messages of the servlet application. */
+final class TaskUpdates {
+
+    private TaskUpdates() {
+    }
+
+    static void apply(Task task, Map<String, Object> updates) {
+        updates.forEach((key, value) -> {
+            switch (key) {
+                case "title":
+                    task.setTitle((String) value);
+                    break;
+                case "description":
+                    task.setDescription((String) value);
+                    break;
+                case "completed":
+                    task.setCompleted((Boolean) value);
+                    break;
+                default:
+                    break;
+            }
+        });
+    }
+
+    static List<String> validate(Validator validator, String field, Object value) {
+        switch (field) {
+            case "title":
+            case "description":
+                if (value != null && !(value instanceof String)) {
+                    return List.of(field + " must be a string");
+                }
+                return violations(validator.validateValue(Task.class, field, value));
+            case "completed":
+                if (!(value instanceof Boolean)) {
+                    return List.of("completed must be a boolean");
+                }
+                return List.of();
+            default:
+                return List.of("Unknown field: " + field);
+        }
+    }
+
+    static List<String> validate(Validator validator, Map<String, Object> updates) {
+        return updates.entrySet().stream()
+                .flatMap(entry -> validate(validator, entry.getKey(), entry.getValue()).stream())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> violations(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.toList());
+    }
+}
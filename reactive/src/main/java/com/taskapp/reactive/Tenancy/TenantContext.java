@@ -0,0 +1,25 @@
+package com.taskapp.reactive.Tenancy;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * The tenant of the current request. Without a request thread to bind it to,
+ * it travels in the Reactor {@link Context} of each response pipeline.
+ */
+public final class TenantContext {
+    public static final String DEFAULT_TENANT = "default";
+    private static final Class<TenantContext> KEY = TenantContext.class;
+
+    private TenantContext() {
+    }
+
+    public static Context with(String tenantId) {
+        return Context.of(KEY, tenantId);
+    }
+
+    /** The tenant of the subscribing request, or the default tenant outside of one. */
+    public static Mono<String> current() {
+        return Mono.deferContextual(context -> Mono.just(context.getOrDefault(KEY, DEFAULT_TENANT)));
+    }
+}
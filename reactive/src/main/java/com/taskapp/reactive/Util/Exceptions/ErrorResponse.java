@@ -0,0 +1,7 @@
+package com.taskapp.reactive.Util.Exceptions;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ErrorResponse(LocalDateTime timestamp, int status, String message, List<String> details) {
+}
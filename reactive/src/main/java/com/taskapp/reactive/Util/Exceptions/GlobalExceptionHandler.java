@@ -0,0 +1,72 @@
+package com.taskapp.reactive.Util.Exceptions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** The error responses of the servlet application, for the same failures. */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    @ExceptionHandler(TaskNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleTaskNotFoundException(TaskNotFoundException ex) {
+        logger.error("TaskNotFoundException: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, "Task not found", List.of(ex.getMessage()));
+    }
+
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleVersionConflict(TaskVersionConflictException ex) {
+        logger.error("TaskVersionConflictException: {}", ex.getMessage());
+        return error(HttpStatus.PRECONDITION_FAILED, "Task version mismatch", List.of(ex.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        logger.error("Concurrent modification: {}", ex.getMessage());
+        return error(HttpStatus.CONFLICT, "Concurrent modification",
+                List.of("The task was modified by another request, reload it and retry"));
+    }
+
+    /** No pooled connection within {@code spring.r2dbc.pool.max-acquire-time}: shed the request as the bulkhead does. */
+    @ExceptionHandler(DataAccessResourceFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConnectionUnavailable(DataAccessResourceFailureException ex) {
+        logger.warn("Rejecting request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(new ErrorResponse(LocalDateTime.now(), HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Server busy, retry later", List.of(ex.getMessage())));
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(InvalidRequestException ex) {
+        logger.error("InvalidRequestException: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "Invalid request", List.of(ex.getMessage()));
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationExceptions(WebExchangeBindException ex) {
+        logger.error("Validation failed: {}", ex.getFieldErrors());
+        List<String> errors = ex.getFieldErrors()
+            .stream()
+            .map(FieldError::getDefaultMessage)
+            .collect(Collectors.toList());
+        return error(HttpStatus.BAD_REQUEST, "Validation failed", errors);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String message, List<String> details) {
+        return new ResponseEntity<>(new ErrorResponse(LocalDateTime.now(), status.value(), message, details), status);
+    }
+}
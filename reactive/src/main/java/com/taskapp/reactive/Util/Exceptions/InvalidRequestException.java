@@ -0,0 +1,7 @@
+package com.taskapp.reactive.Util.Exceptions;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
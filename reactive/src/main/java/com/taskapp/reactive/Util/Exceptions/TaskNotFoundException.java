@@ -0,0 +1,7 @@
+package com.taskapp.reactive.Util.Exceptions;
+
+public class TaskNotFoundException extends RuntimeException {
+    public TaskNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.taskapp.reactive.Util.Exceptions;
+
+public class TaskVersionConflictException extends RuntimeException {
+    public TaskVersionConflictException(String message) {
+        super(message);
+    }
+}
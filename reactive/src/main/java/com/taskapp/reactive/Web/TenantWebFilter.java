@@ -0,0 +1,77 @@
+package com.taskapp.reactive.Web;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskapp.reactive.Tenancy.TenantContext;
+import com.taskapp.reactive.Util.Exceptions.ErrorResponse;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Puts the tenant named by the {@code X-Tenant-Id} header into the context of
+ * the request's pipeline, with the rules of the servlet application's
+ * {@code TenantFilter}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TenantWebFilter implements WebFilter {
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.-]{0,63}");
+
+    private final ObjectMapper objectMapper;
+    private final boolean headerRequired;
+
+    public TenantWebFilter(ObjectMapper objectMapper,
+            @Value("${taskapp.tenant.header-required:false}") boolean headerRequired) {
+        this.objectMapper = objectMapper;
+        this.headerRequired = headerRequired;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+        String tenant = exchange.getRequest().getHeaders().getFirst(TENANT_HEADER);
+        if (tenant == null || tenant.isBlank()) {
+            if (headerRequired) {
+                return reject(exchange.getResponse(), TENANT_HEADER + " header is required");
+            }
+            tenant = TenantContext.DEFAULT_TENANT;
+        } else if (!TENANT_ID.matcher(tenant.trim()).matches()) {
+            return reject(exchange.getResponse(), TENANT_HEADER + " must be 1 to 64 letters, digits, '.', '_' or '-'");
+        }
+        return chain.filter(exchange).contextWrite(TenantContext.with(tenant.trim()));
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, String detail) {
+        response.setStatusCode(HttpStatus.BAD_REQUEST);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new ErrorResponse(LocalDateTime.now(),
+                    HttpStatus.BAD_REQUEST.value(), "Request refused", List.of(detail)));
+        } catch (JsonProcessingException ex) {
+            body = detail.getBytes(StandardCharsets.UTF_8);
+        }
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -0,0 +1,67 @@
+package com.taskapp.reactive.config;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Column types as the servlet application's Hibernate mapping writes them:
+ * ids in {@code BINARY(16)} and instants as UTC {@code DATETIME(6)}.
+ */
+@Configuration
+public class R2dbcConfig {
+
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions(DatabaseClient databaseClient) {
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(databaseClient.getConnectionFactory()),
+                List.of(new UuidToBytes(), new BytesToUuid(), new InstantToDateTime(), new DateTimeToInstant()));
+    }
+
+    @WritingConverter
+    static class UuidToBytes implements Converter<UUID, byte[]> {
+        @Override
+        public byte[] convert(UUID id) {
+            return ByteBuffer.allocate(16)
+                    .putLong(id.getMostSignificantBits())
+                    .putLong(id.getLeastSignificantBits())
+                    .array();
+        }
+    }
+
+    @ReadingConverter
+    static class BytesToUuid implements Converter<byte[], UUID> {
+        @Override
+        public UUID convert(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+    }
+
+    @WritingConverter
+    static class InstantToDateTime implements Converter<Instant, LocalDateTime> {
+        @Override
+        public LocalDateTime convert(Instant instant) {
+            return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+        }
+    }
+
+    @ReadingConverter
+    static class DateTimeToInstant implements Converter<LocalDateTime, Instant> {
+        @Override
+        public Instant convert(LocalDateTime dateTime) {
+            return dateTime.toInstant(ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.taskapp.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.taskapp.reactive.Models.Task;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+public class TaskControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private Task create(String tenant, String title, boolean completed) {
+        return client.post().uri("/api/tasks")
+                .header("X-Tenant-Id", tenant)
+                .bodyValue(Map.of("title", title, "description", "About " + title, "completed", completed))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody(Task.class).returnResult().getResponseBody();
+    }
+
+    @Test
+    public void testWrites_FollowTheVersionOfTheTask() {
+        Task task = create("writes", "Write report", false);
+        assertThat(task.getId().version()).isEqualTo(7);
+
+        client.get().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "writes")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"0\"")
+                .expectBody().jsonPath("$.title").isEqualTo("Write report");
+
+        client.patch().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "writes")
+                .header(HttpHeaders.IF_MATCH, "\"0\"").header("Prefer", "return=minimal")
+                .bodyValue(Map.of("completed", true))
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+        client.patch().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "writes")
+                .header(HttpHeaders.IF_MATCH, "\"0\"").header("Prefer", "return=minimal")
+                .bodyValue(Map.of("title", "Late patch"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        client.put().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "writes")
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .bodyValue(Map.of("title", "Rewritten report", "completed", false))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
+                .expectBody().jsonPath("$.title").isEqualTo("Rewritten report")
+                .jsonPath("$.version").isEqualTo(2);
+
+        client.patch().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "writes")
+                .bodyValue(Map.of("description", "Updated"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.description").isEqualTo("Updated")
+                .jsonPath("$.completed").isEqualTo(false)
+                .jsonPath("$.version").isEqualTo(3);
+
+        client.delete().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "writes")
+                .exchange().expectStatus().isNoContent();
+        client.get().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "writes")
+                .exchange().expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Task not found");
+        client.delete().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "writes")
+                .exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testWrites_AreLoggedForTheServletApp() {
+        Task task = create("logged", "Logged task", false);
+        client.patch().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "logged")
+                .header(HttpHeaders.IF_MATCH, "\"0\"").header("Prefer", "return=minimal")
+                .bodyValue(Map.of("completed", true))
+                .exchange().expectStatus().isNoContent();
+        client.patch().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "logged")
+                .header(HttpHeaders.IF_MATCH, "\"0\"").header("Prefer", "return=minimal")
+                .bodyValue(Map.of("title", "Late patch"))
+                .exchange().expectStatus().isEqualTo(412);
+        client.put().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "logged")
+                .bodyValue(Map.of("title", "Rewritten task", "completed", false))
+                .exchange().expectStatus().isOk();
+        client.delete().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "logged")
+                .exchange().expectStatus().isNoContent();
+        client.delete().uri("/api/tasks/{id}", task.getId()).header("X-Tenant-Id", "logged")
+                .exchange().expectStatus().isNotFound();
+
+        // Only the writes that changed the task, in order
+        List<String> logged = databaseClient.sql("SELECT change_type FROM task_change_log "
+                        + "WHERE tenant_id = 'logged' ORDER BY seq")
+                .map(row -> row.get("change_type", String.class))
+                .all().collectList().block();
+        assertThat(logged).containsExactly("CREATED", "UPDATED", "UPDATED", "DELETED");
+    }
+
+    @Test
+    public void testValidation_UsesTheRulesOfTheTaskModel() {
+        client.post().uri("/api/tasks").bodyValue(Map.of("title", "ab", "description", "x".repeat(501)))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Validation failed")
+                .jsonPath("$.details.length()").isEqualTo(2);
+
+        Task task = create("default", "Valid task", false);
+        client.patch().uri("/api/tasks/{id}", task.getId())
+                .bodyValue(Map.of("title", "", "priority", 1))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.details[0]").value(detail ->
+                        assertThat((String) detail).contains("Title is required").contains("Unknown field: priority"));
+        client.get().uri("/api/tasks?sortBy=description").exchange().expectStatus().isBadRequest();
+        client.get().uri("/api/tasks").header("X-Tenant-Id", "no spaces").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testSearch_PagesAndStreamsTheTenantsMatches() {
+        for (int i = 0; i < 12; i++) {
+            create("search", "Report " + i, i % 2 == 0);
+        }
+        create("search", "Something else", true);
+        create("other", "Report of another tenant", true);
+
+        client.get().uri("/api/tasks?search=REPORT&page=1&size=5&sortBy=title&sortDir=asc")
+                .header("X-Tenant-Id", "search")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(12)
+                .jsonPath("$.totalPages").isEqualTo(3)
+                .jsonPath("$.number").isEqualTo(1)
+                .jsonPath("$.content[*].title")
+                .isEqualTo(List.of("Report 3", "Report 4", "Report 5", "Report 6", "Report 7"));
+
+        List<Task> streamed = client.get().uri("/api/tasks?stream&completed=true&sortBy=createdAt")
+                .header("X-Tenant-Id", "search")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Task.class).getResponseBody().collectList().block();
+        assertThat(streamed).extracting(Task::getTitle)
+                .containsExactly("Something else", "Report 10", "Report 8", "Report 6", "Report 4", "Report 2", "Report 0");
+    }
+
+    @Test
+    public void testSearch_MatchesWordsLikeTheServletApp() {
+        create("words", "Quarterly report", false);
+        create("words", "Customer portal", false);
+        create("words", "100% done_right", false);
+
+        Map<String, Integer> expected = Map.of("port", 2, "uarter REP", 1, "port 100", 0, "%", 0, "_", 0,
+                "done_right", 1);
+        expected.forEach((search, total) -> client.get()
+                .uri(builder -> builder.path("/api/tasks").queryParam("search", "{search}").build(search))
+                .header("X-Tenant-Id", "words")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(total));
+    }
+}
@@ -0,0 +1,62 @@
+package com.taskapp.taskapp.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.TaskappApplication;
+
+/**
+ * Boots the application without a web server against an in-memory H2
+ * database in MySQL mode, for benchmarks that go through the real service and
+ * repository beans.
+ */
+final class BenchmarkContext {
+
+    static final String[] WORDS = {
+            "report", "meeting", "invoice", "deploy", "review", "budget", "release", "backup", "design", "audit" };
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.properties.hibernate.generate_statistics=false",
+                "taskapp.search.rebuild-on-startup=false",
+                "taskapp.sql.log-sample-rate=0",
+                "logging.level.root=WARN"));
+        all.addAll(List.of(properties));
+        return new SpringApplicationBuilder(TaskappApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(all.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i + " " + WORDS[i % WORDS.length]);
+            task.setDescription("Benchmark " + WORDS[(i / WORDS.length) % WORDS.length] + " item number " + i);
+            task.setCompleted(i % 3 == 0);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    static void seed(TaskRepository repository, int count) {
+        List<Task> tasks = tasks(count);
+        for (int from = 0; from < count; from += 1000) {
+            repository.saveAll(tasks.subList(from, Math.min(count, from + 1000)));
+        }
+    }
+}
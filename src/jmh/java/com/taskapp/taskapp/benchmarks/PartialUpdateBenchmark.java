@@ -0,0 +1,89 @@
+package com.taskapp.taskapp.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Search.DatabaseTaskSearchEngine;
+import com.taskapp.taskapp.Services.TaskService;
+import com.taskapp.taskapp.Services.TaskStatistics;
+
+import jakarta.validation.Validation;
+
+/**
+ * The map-driven field handling of {@link TaskService#partialUpdate} and
+ * {@link TaskService#patchTask} in isolation: the repository is an in-memory
+ * stub so only dispatch, validation and event publishing are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartialUpdateBenchmark {
+
+    @Param({ "1", "3" })
+    public int fields;
+
+    private TaskService taskService;
+    private UUID id;
+    private Map<String, Object> updates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LoggingSystem.get(getClass().getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.WARN);
+        Task task = BenchmarkContext.tasks(1).get(0);
+        id = UUID.randomUUID();
+        task.setId(id);
+        task.setVersion(0L);
+
+        TaskRepository repository = (TaskRepository) Proxy.newProxyInstance(TaskRepository.class.getClassLoader(),
+                new Class<?>[] { TaskRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.of(task);
+                    case "save" -> args[0];
+                    case "updateFields" -> 1;
+                    case "existsById" -> true;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        taskService = new TaskService(repository, new DatabaseTaskSearchEngine(repository), event -> {
+        }, Validation.buildDefaultValidatorFactory().getValidator(), new TaskStatistics(repository));
+
+        updates = new LinkedHashMap<>();
+        updates.put("completed", true);
+        if (fields > 1) {
+            updates.put("title", "Updated benchmark title");
+            updates.put("description", "Updated benchmark description");
+        }
+    }
+
+    @Benchmark
+    public Task partialUpdate() {
+        return taskService.partialUpdate(id, updates);
+    }
+
+    @Benchmark
+    public long patchTask() {
+        return taskService.patchTask(id, updates, 0L);
+    }
+}
@@ -0,0 +1,96 @@
+package com.taskapp.taskapp.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Services.TaskService;
+
+/**
+ * The same service calls on the JPA repository over H2 and on the
+ * {@code memory} profile's in-memory store, from several threads at once.
+ * The memory store runs without a journal, so neither side touches the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class StorageEngineBenchmark {
+
+    private static final TaskFilter OPEN = TaskFilter.attributes(false, null, null, null, null, null);
+
+    @Param({ "jpa", "memory" })
+    public String engine;
+
+    @Param({ "10000" })
+    public int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private List<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spring.cache.type=none",
+                "spring.profiles.active=" + (engine.equals("memory") ? "memory" : "default"),
+                "taskapp.memory.data-dir=");
+        TaskRepository repository = context.getBean(TaskRepository.class);
+        BenchmarkContext.seed(repository, tasks);
+        ids = repository.findAll().stream().map(Task::getId).toList();
+        taskService = context.getBean(TaskService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private UUID anyId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @Benchmark
+    public Task create() {
+        return taskService.createTask(BenchmarkContext.tasks(1).get(0));
+    }
+
+    @Benchmark
+    public Task get() {
+        return taskService.getTask(anyId());
+    }
+
+    @Benchmark
+    public Task update() {
+        return taskService.partialUpdate(anyId(), Map.of("completed", ThreadLocalRandom.current().nextBoolean()));
+    }
+
+    @Benchmark
+    public Page<Task> openByTitle() {
+        return taskService.searchTasks(null, OPEN, 0, 50, "title", "asc");
+    }
+}
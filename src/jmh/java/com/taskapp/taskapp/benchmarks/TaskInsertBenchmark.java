@@ -0,0 +1,182 @@
+package com.taskapp.taskapp.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.taskapp.taskapp.Util.UuidV7;
+
+/**
+ * Inserts into a task table that already holds {@code rows} rows, keyed by
+ * random (version 4) or time-ordered (version 7) ids. Setup loads the table in
+ * ten segments and prints the insert rate of each and the size of the table,
+ * so the slowdown of random keys as the primary key outgrows the page cache
+ * shows up next to the steady-state cost of {@link #insertBatch}. For H2 the
+ * size of the database file is printed too; it also holds the page versions
+ * that page splits wrote over and that are not reclaimed yet.
+ * <p>
+ * By default the table lives in an H2 file database with a 16 MB cache. Pass
+ * {@code -p url=jdbc:mysql://host/db?rewriteBatchedStatements=true -p user=...
+ * -p password=...} to measure InnoDB instead; its size is the clustered index
+ * as reported by {@code information_schema.TABLES.DATA_LENGTH}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int SEGMENTS = 10;
+    private static final String TABLE = "task_insert_benchmark";
+    private static final Path H2_DIRECTORY = Path.of("target", "jmh", "insert");
+
+    @Param({ "random", "time-ordered" })
+    public String ids;
+
+    @Param({ "1000000" })
+    public int rows;
+
+    @Param({ "" })
+    public String url;
+
+    @Param({ "root" })
+    public String user;
+
+    @Param({ "" })
+    public String password;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private Path h2File;
+    private long inserted;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        if (url.isEmpty()) {
+            Files.createDirectories(H2_DIRECTORY);
+            deleteH2Files();
+            h2File = H2_DIRECTORY.resolve(ids + ".mv.db");
+            connection = DriverManager.getConnection("jdbc:h2:file:./" + H2_DIRECTORY.resolve(ids)
+                    + ";MODE=MySQL;CACHE_SIZE=16384", "sa", "");
+        } else {
+            connection = DriverManager.getConnection(url, user, password);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id BINARY(16) NOT NULL PRIMARY KEY, "
+                    + "title VARCHAR(255) NOT NULL, description VARCHAR(500), completed BOOLEAN NOT NULL, "
+                    + "version BIGINT, created_at TIMESTAMP(6) NOT NULL, updated_at TIMESTAMP(6) NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("INSERT INTO " + TABLE
+                + " (id, title, description, completed, version, created_at, updated_at) VALUES (?, ?, ?, ?, 0, ?, ?)");
+
+        int segment = rows / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            long start = System.nanoTime();
+            for (int row = 0; row < segment; row += BATCH_SIZE) {
+                insertBatch(Math.min(BATCH_SIZE, segment - row));
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%s ids, rows %,d-%,d: %,.0f rows/s%n", ids, inserted - segment, inserted,
+                    segment / seconds);
+        }
+        System.out.printf("%s ids, %,d rows: table %,.1f MB%n", ids, inserted, tableBytes() / 1e6);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + TABLE);
+        }
+        connection.commit();
+        connection.close();
+        if (url.isEmpty()) {
+            deleteH2Files();
+        }
+    }
+
+    @Benchmark
+    public long insertBatch() throws SQLException {
+        return insertBatch(BATCH_SIZE);
+    }
+
+    private long insertBatch(int size) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < size; i++) {
+            long n = inserted++;
+            insert.setBytes(1, bytes("random".equals(ids) ? UUID.randomUUID() : UuidV7.next()));
+            insert.setString(2, "Task " + n + " " + BenchmarkContext.WORDS[(int) (n % BenchmarkContext.WORDS.length)]);
+            insert.setString(3, "Benchmark item number " + n);
+            insert.setBoolean(4, n % 3 == 0);
+            insert.setTimestamp(5, now);
+            insert.setTimestamp(6, now);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+        return inserted;
+    }
+
+    private long tableBytes() throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            if (h2File != null) {
+                statement.execute("CHECKPOINT SYNC");
+                System.out.printf("%s ids, database file: %,.1f MB%n", ids, Files.size(h2File) / 1e6);
+                try (ResultSet result = statement.executeQuery("CALL DISK_SPACE_USED('" + TABLE + "')")) {
+                    result.next();
+                    return result.getLong(1);
+                }
+            }
+            statement.execute("ANALYZE TABLE " + TABLE);
+            try (ResultSet result = statement.executeQuery("SELECT data_length FROM information_schema.TABLES "
+                    + "WHERE table_schema = DATABASE() AND table_name = '" + TABLE + "'")) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private void deleteH2Files() throws IOException {
+        try (Stream<Path> files = Files.list(H2_DIRECTORY)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().startsWith(ids + ".")).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.taskapp.taskapp.benchmarks;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Models.TaskView;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Services.TaskService;
+
+/**
+ * The filtered list views of {@code GET /api/tasks}, with and without the
+ * entity cache behind the id query, and as a sparse fieldset that selects
+ * columns instead of loading entities. Before measuring, the plan of each
+ * view's id query is printed so the index it runs on can be checked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskListBenchmark {
+
+    private static final Set<String> SUMMARY_FIELDS = Set.of("id", "title", "completed");
+
+    private static final Map<String, String> ID_QUERIES = Map.of(
+            "open-by-title",
+            "SELECT id FROM task WHERE completed = FALSE ORDER BY completed, title, id LIMIT 50",
+            "title-prefix",
+            "SELECT id FROM task WHERE title LIKE 'Task 12%' ORDER BY title, id LIMIT 50",
+            "open-recently-created",
+            "SELECT id FROM task WHERE completed = FALSE ORDER BY completed DESC, created_at DESC, id DESC LIMIT 50",
+            "recently-updated",
+            "SELECT id FROM task WHERE updated_at >= TIMESTAMP '2000-01-01 00:00:00' ORDER BY updated_at DESC, id DESC LIMIT 50");
+
+    @Param({ "open-by-title", "title-prefix", "open-recently-created", "recently-updated" })
+    public String view;
+
+    @Param({ "true", "false" })
+    public boolean entityCache;
+
+    @Param({ "50" })
+    public int size;
+
+    @Param({ "10000" })
+    public int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskFilter filter;
+    private String sortBy;
+    private String sortDir;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spring.cache.type=none",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + entityCache);
+        BenchmarkContext.seed(context.getBean(TaskRepository.class), tasks);
+        taskService = context.getBean(TaskService.class);
+
+        Instant hourAgo = Instant.now().minus(1, ChronoUnit.HOURS);
+        switch (view) {
+            case "open-by-title" -> list(TaskFilter.attributes(false, null, null, null, null, null), "title", "asc");
+            case "title-prefix" -> list(TaskFilter.attributes(null, "Task 12", null, null, null, null), "title", "asc");
+            case "open-recently-created" ->
+                list(TaskFilter.attributes(false, null, null, null, null, null), "createdAt", "desc");
+            case "recently-updated" ->
+                list(TaskFilter.attributes(null, null, null, null, hourAgo, null), "updatedAt", "desc");
+            default -> throw new IllegalArgumentException("Unknown view: " + view);
+        }
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        String plan = jdbc.queryForObject("EXPLAIN " + ID_QUERIES.get(view), String.class);
+        System.out.println("Plan for " + view + ": " + plan.replaceAll("\\s+", " "));
+    }
+
+    private void list(TaskFilter filter, String sortBy, String sortDir) {
+        this.filter = filter;
+        this.sortBy = sortBy;
+        this.sortDir = sortDir;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Task> firstPage() {
+        return taskService.searchTasks(null, filter, 0, size, sortBy, sortDir);
+    }
+
+    @Benchmark
+    public Page<Task> deepPage() {
+        return taskService.searchTasks(null, filter, 20, size, sortBy, sortDir);
+    }
+
+    @Benchmark
+    public Page<TaskView> firstPageSummary() {
+        return taskService.searchTaskViews(null, filter, SUMMARY_FIELDS, 0, size, sortBy, sortDir);
+    }
+}
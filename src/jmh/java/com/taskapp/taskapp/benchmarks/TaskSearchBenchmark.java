@@ -0,0 +1,76 @@
+package com.taskapp.taskapp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Search.TaskSearchEngine;
+import com.taskapp.taskapp.Services.TaskService;
+
+/**
+ * {@link TaskService#searchTasks} through the Spring proxy with the result
+ * cache switched off, so every call reaches the search engine and database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSearchBenchmark {
+
+    @Param({ "index", "database" })
+    public String engine;
+
+    @Param({ "", "report", "release item" })
+    public String term;
+
+    @Param({ "10", "50", "200" })
+    public int size;
+
+    @Param({ "10000" })
+    public int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("taskapp.search.engine=" + engine, "spring.cache.type=none");
+        BenchmarkContext.seed(context.getBean(TaskRepository.class), tasks);
+        context.getBean(TaskSearchEngine.class).rebuild();
+        taskService = context.getBean(TaskService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Task> firstPage() {
+        return taskService.searchTasks(term, TaskFilter.none(), 0, size, null, "asc");
+    }
+
+    @Benchmark
+    public Page<Task> deepPageByTitle() {
+        return taskService.searchTasks(term, TaskFilter.none(), 5, size, "title", "desc");
+    }
+}
@@ -0,0 +1,70 @@
+package com.taskapp.taskapp.benchmarks;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskapp.taskapp.Models.CursorPage;
+import com.taskapp.taskapp.Models.Task;
+
+/**
+ * Jackson serialization of the list responses: the offset {@link Page} body
+ * of {@code GET /api/tasks} and the {@link CursorPage} body of its cursor
+ * variant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    @Param({ "10", "50", "200" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Page<Task> page;
+    private CursorPage<Task> cursorPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Task> tasks = BenchmarkContext.tasks(size);
+        for (Task task : tasks) {
+            task.setId(UUID.randomUUID());
+            task.setVersion(1L);
+        }
+        page = new PageImpl<>(tasks, PageRequest.of(0, size), 10_000);
+        cursorPage = new CursorPage<>(tasks, size, true, "eyJzIjoiaWQ6IERFU0MiLCJrIjp7fX0", null);
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cursorPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cursorPage);
+    }
+}
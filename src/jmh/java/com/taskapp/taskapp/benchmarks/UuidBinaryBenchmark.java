@@ -0,0 +1,83 @@
+package com.taskapp.taskapp.benchmarks;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.type.descriptor.java.UUIDJavaType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversion of task ids to and from their {@code BINARY(16)} column form.
+ * The Hibernate benchmarks are what the mapping uses today; the others are
+ * reference points for a hand-written converter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidBinaryBenchmark {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private UUID uuid;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        uuid = UUID.randomUUID();
+        bytes = UUIDJavaType.INSTANCE.unwrap(uuid, byte[].class, null);
+    }
+
+    @Benchmark
+    public byte[] hibernateToBytes() {
+        return UUIDJavaType.INSTANCE.unwrap(uuid, byte[].class, null);
+    }
+
+    @Benchmark
+    public UUID hibernateFromBytes() {
+        return UUIDJavaType.INSTANCE.wrap(bytes, null);
+    }
+
+    @Benchmark
+    public byte[] byteBufferToBytes() {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    @Benchmark
+    public UUID byteBufferFromBytes() {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    @Benchmark
+    public byte[] varHandleToBytes() {
+        byte[] out = new byte[16];
+        LONGS.set(out, 0, uuid.getMostSignificantBits());
+        LONGS.set(out, 8, uuid.getLeastSignificantBits());
+        return out;
+    }
+
+    @Benchmark
+    public UUID varHandleFromBytes() {
+        return new UUID((long) LONGS.get(bytes, 0), (long) LONGS.get(bytes, 8));
+    }
+}
@@ -0,0 +1,188 @@
+package com.taskapp.taskapp.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.Protobuf.TaskMessage;
+import com.taskapp.taskapp.Web.TaskProtobufHttpMessageConverter;
+
+/**
+ * The message converters of {@code WireFormatConfig} against JSON: writing a
+ * {@code GET /api/tasks} page, and reading a create body and a PATCH body.
+ * Setup prints the size of each body, plain and gzipped, as the server
+ * compresses JSON responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({ "json", "smile", "cbor", "protobuf" })
+    public String format;
+
+    @Param({ "50" })
+    public int size;
+
+    private HttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+    private Page<Task> page;
+    private byte[] taskBody;
+    private byte[] patchBody;
+    private final Output output = new Output();
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        converter = (HttpMessageConverter<Object>) (HttpMessageConverter<?>) switch (format) {
+            case "json" -> new MappingJackson2HttpMessageConverter(objectMapper);
+            case "smile" -> new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+            case "cbor" -> new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+            case "protobuf" -> new TaskProtobufHttpMessageConverter();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        mediaType = converter.getSupportedMediaTypes().get(0);
+
+        List<Task> tasks = BenchmarkContext.tasks(size);
+        for (Task task : tasks) {
+            task.setId(UUID.randomUUID());
+            task.setVersion(1L);
+            task.setCreatedAt(Task.now());
+            task.setUpdatedAt(task.getCreatedAt());
+        }
+        page = new PageImpl<>(tasks, PageRequest.of(0, size), 10_000);
+
+        Task create = BenchmarkContext.tasks(1).get(0);
+        Map<String, Object> patch = new LinkedHashMap<>();
+        patch.put("title", "Updated benchmark title");
+        patch.put("completed", true);
+        if (format.equals("protobuf")) {
+            taskBody = TaskMessage.newBuilder().setTitle(create.getTitle()).setDescription(create.getDescription())
+                    .setCompleted(create.isCompleted()).build().toByteArray();
+            patchBody = TaskMessage.newBuilder().setTitle("Updated benchmark title").setCompleted(true)
+                    .build().toByteArray();
+        } else {
+            taskBody = write(create);
+            patchBody = write(patch);
+        }
+
+        byte[] pageBody = write(page);
+        System.out.printf("%s bytes: page of %d %d (gzip %d), task %d, patch %d%n", format, size,
+                pageBody.length, gzipped(pageBody), taskBody.length, patchBody.length);
+    }
+
+    private byte[] write(Object body) throws IOException {
+        output.reset();
+        converter.write(body, mediaType, output);
+        return output.body.toByteArray();
+    }
+
+    private static int gzipped(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return compressed.size();
+    }
+
+    @Benchmark
+    public int writePage() throws IOException {
+        output.reset();
+        converter.write(page, mediaType, output);
+        return output.body.size();
+    }
+
+    @Benchmark
+    public Object readTask() throws IOException {
+        return converter.read(Task.class, new Input(taskBody, mediaType));
+    }
+
+    @Benchmark
+    public Object readPatch() throws IOException {
+        return converter.read(Map.class, new Input(patchBody, mediaType));
+    }
+
+    private static final class Output implements HttpOutputMessage {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(64 * 1024);
+        final HttpHeaders headers = new HttpHeaders();
+
+        void reset() {
+            body.reset();
+            headers.clear();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    private static final class Input implements HttpInputMessage {
+        private final byte[] body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        Input(byte[] body, MediaType mediaType) {
+            this.body = body;
+            headers.setContentType(mediaType);
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.taskapp.taskapp.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ids of the tasks that exist on the server, to pick patch and delete targets
+ * from. Removal swaps in the last id, so it stays constant-time with millions
+ * of seeded tasks.
+ */
+final class IdPool {
+    private final List<UUID> ids = new ArrayList<>();
+
+    synchronized void add(UUID id) {
+        ids.add(id);
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+
+    /** A random id, or {@code null} if there is none. */
+    synchronized UUID pick(RandomGenerator random) {
+        return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+    }
+
+    /** Removes and returns a random id, or {@code null} if there is none. */
+    synchronized UUID take(RandomGenerator random) {
+        if (ids.isEmpty()) {
+            return null;
+        }
+        int index = random.nextInt(ids.size());
+        UUID id = ids.get(index);
+        ids.set(index, ids.get(ids.size() - 1));
+        ids.remove(ids.size() - 1);
+        return id;
+    }
+}
@@ -0,0 +1,518 @@
+package com.taskapp.taskapp.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Load driver for a running TaskApp instance: seeds tasks, replays a
+ * search/scroll/create/patch/delete mix and summarises the run as throughput,
+ * HdrHistogram latency percentiles, error rates and connection pool
+ * saturation per operation.
+ *
+ * <p>With {@code loadtest.rate} set, requests arrive at that rate whether or
+ * not earlier ones have finished (open model), at most
+ * {@code loadtest.concurrency} at a time; arrivals beyond that are dropped
+ * and counted. Latency runs from when a request was due, so a stalled server
+ * is not hidden by requests that were never sent. Without a rate, a fixed
+ * number of clients send requests back to back (closed model). Arrival times
+ * and the operations, search terms and targets they pick come from
+ * {@code loadtest.random-seed}, so runs replay the same schedule.
+ *
+ * <p>Run through the {@code loadtest} Maven profile, which boots the app
+ * first. Configuration comes from system properties ({@code loadtest.*}).
+ * With {@code -Dloadtest.compare=a.json,b.json} it only prints a side-by-side
+ * comparison of two earlier reports, e.g. platform vs virtual threads; with
+ * {@code -Dloadtest.check=report.json} it checks a report against the
+ * {@code loadtest.slo.*} objectives (see {@link Slo}) and fails if it misses
+ * one.
+ */
+public final class LoadTest {
+
+    enum Operation { SEARCH, SCROLL, CREATE, PATCH, DELETE }
+
+    private static final String[] WORDS = {
+            "report", "meeting", "invoice", "deploy", "review", "budget", "release", "backup", "design", "audit" };
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /** Chunk size of the batch endpoint ({@code taskapp.batch.chunk-size}). */
+    private static final int SEED_BATCH = 500;
+
+    private final String baseUrl;
+    private final int concurrency;
+    private final double rate;
+    private final boolean poisson;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int seed;
+    private final int seedConcurrency;
+    private final int[] mix;
+    private final long randomSeed;
+    private final HttpClient client;
+    private final IdPool ids = new IdPool();
+
+    LoadTest(String baseUrl, int concurrency, double rate, boolean poisson, Duration warmup, Duration duration,
+            int seed, int seedConcurrency, int[] mix, long randomSeed) {
+        this.baseUrl = baseUrl;
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.poisson = poisson;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.seed = seed;
+        this.seedConcurrency = seedConcurrency;
+        this.mix = mix;
+        this.randomSeed = randomSeed;
+        if (seed == 0 && (mix[Operation.PATCH.ordinal()] > 0 || mix[Operation.DELETE.ordinal()] > 0)) {
+            throw new IllegalArgumentException("Patches and deletes need seeded tasks, set loadtest.seed");
+        }
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 8), runnable -> {
+                    Thread thread = new Thread(runnable, "loadtest-http");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String compare = System.getProperty("loadtest.compare", "");
+        if (!compare.isBlank()) {
+            String[] files = compare.split(",");
+            System.out.println(compare(MAPPER.readTree(Path.of(files[0].trim()).toFile()),
+                    MAPPER.readTree(Path.of(files[1].trim()).toFile())));
+            return;
+        }
+        String check = System.getProperty("loadtest.check", "");
+        if (!check.isBlank()) {
+            check(Path.of(check.trim()));
+            return;
+        }
+
+        String label = System.getProperty("loadtest.label", "run");
+        LoadTest test = new LoadTest(
+                System.getProperty("loadtest.base-url", "http://localhost:8081"),
+                Integer.getInteger("loadtest.concurrency", 200),
+                Double.parseDouble(System.getProperty("loadtest.rate", "0")),
+                System.getProperty("loadtest.arrivals", "constant").equals("poisson"),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 10L)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 60L)),
+                Integer.getInteger("loadtest.seed", 1000),
+                Integer.getInteger("loadtest.seed-concurrency", 4),
+                parseMix(System.getProperty("loadtest.mix", "45,15,20,15,5")),
+                Long.getLong("loadtest.random-seed", 42L));
+
+        test.seed();
+        test.run(test.warmup, test.randomSeed - 1, null);
+        Path dir = Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"));
+        Files.createDirectories(dir);
+        Map<String, Object> report = test.run(test.duration, test.randomSeed, dir.resolve(label));
+        report.put("label", label);
+
+        Path file = dir.resolve(label + ".json");
+        MAPPER.writeValue(file.toFile(), report);
+        System.out.println(summary(MAPPER.valueToTree(report)));
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    static int[] parseMix(String mix) {
+        int[] weights = Arrays.stream(mix.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+        if (weights.length != Operation.values().length) {
+            throw new IllegalArgumentException("loadtest.mix needs " + Operation.values().length
+                    + " weights (search,scroll,create,patch,delete), got: " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * Creates the seed tasks in batches from several clients at once, or one
+     * by one for APIs without the batch endpoint, such as the reactive one.
+     */
+    private void seed() throws Exception {
+        long started = System.nanoTime();
+        int chunks = (seed + SEED_BATCH - 1) / SEED_BATCH;
+        boolean batches = chunks == 0 || seedChunk(0, true);
+        AtomicInteger next = new AtomicInteger(1);
+        Callable<Object> seeder = () -> {
+            for (int chunk = next.getAndIncrement(); chunk < chunks; chunk = next.getAndIncrement()) {
+                seedChunk(chunk, batches);
+                if (chunk % 200 == 0) {
+                    System.out.printf("Seeded %d of %d tasks%n", chunk * SEED_BATCH, seed);
+                }
+            }
+            return null;
+        };
+        ExecutorService seeders = Executors.newFixedThreadPool(seedConcurrency);
+        List<Future<Object>> results = seeders.invokeAll(Collections.nCopies(seedConcurrency, seeder));
+        seeders.shutdown();
+        for (Future<Object> result : results) {
+            result.get();
+        }
+        System.out.printf("Seeded %d tasks in %ds%n", ids.size(), TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+    }
+
+    /** Creates one chunk of seed tasks; returns false if the API has no batch endpoint. */
+    private boolean seedChunk(int chunk, boolean batch) throws IOException, InterruptedException {
+        int from = chunk * SEED_BATCH;
+        int n = Math.min(SEED_BATCH, seed - from);
+        if (!batch) {
+            for (int i = 0; i < n; i++) {
+                HttpResponse<String> response = send(post("/api/tasks", taskJson(from + i)));
+                checkSeeded(response);
+                ids.add(UUID.fromString(MAPPER.readTree(response.body()).path("id").asText()));
+            }
+            return false;
+        }
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < n; i++) {
+            body.append(i == 0 ? "" : ",").append(taskJson(from + i));
+        }
+        HttpResponse<String> response = send(post("/api/tasks/batch", body.append(']').toString()));
+        if (chunk == 0 && (response.statusCode() == 404 || response.statusCode() == 405)) {
+            return seedChunk(chunk, false);
+        }
+        checkSeeded(response);
+        for (JsonNode item : MAPPER.readTree(response.body()).path("items")) {
+            ids.add(UUID.fromString(item.path("id").asText()));
+        }
+        return true;
+    }
+
+    private static void checkSeeded(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    /** Runs the mix for the given time; writes each operation's latency distribution next to {@code histograms}. */
+    private Map<String, Object> run(Duration length, long randomSeed, Path histograms) throws Exception {
+        Results results = new Results();
+        PoolSampler pool = histograms == null ? null : PoolSampler.start(client, baseUrl);
+        long started = System.nanoTime();
+        if (rate > 0) {
+            runOpen(length, randomSeed, results);
+        } else {
+            runClosed(length, randomSeed, results);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("model", rate > 0 ? "open" : "closed");
+        if (rate > 0) {
+            report.put("rate", rate);
+            report.put("arrivals", poisson ? "poisson" : "constant");
+        }
+        report.put("concurrency", concurrency);
+        report.put("seed", seed);
+        report.put("randomSeed", randomSeed);
+        report.put("durationSeconds", Math.round(seconds));
+        Map<String, Object> perOperation = new LinkedHashMap<>();
+        long requests = 0, failed = 0, rejected = 0;
+        for (Operation op : Operation.values()) {
+            Map<String, Object> stats = results.stats(op, seconds);
+            requests += (long) stats.get("requests");
+            failed += (long) stats.get("errors") + (long) stats.get("dropped");
+            rejected += (long) stats.get("rejected");
+            perOperation.put(op.name().toLowerCase(), stats);
+            if (histograms != null && results.latencies[op.ordinal()].getTotalCount() > 0) {
+                try (PrintStream out = new PrintStream(histograms + "-" + op.name().toLowerCase() + ".hgrm")) {
+                    results.latencies[op.ordinal()].outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        }
+        report.put("throughput", round(requests / seconds));
+        report.put("errorRate", ratio(failed, requests));
+        report.put("rejectionRate", ratio(rejected, requests));
+        report.put("operations", perOperation);
+        if (pool != null) {
+            pool.close();
+            report.put("connectionPool", pool.report());
+        }
+        return report;
+    }
+
+    private void runClosed(Duration length, long randomSeed, Results results) throws InterruptedException {
+        long deadline = System.nanoTime() + length.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        SplittableRandom seeds = new SplittableRandom(randomSeed);
+        for (int w = 0; w < concurrency; w++) {
+            SplittableRandom random = seeds.split();
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    Operation op = pick(random);
+                    HttpRequest request = request(op, random);
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = send(request);
+                        completed(op, response);
+                        results.record(op, response.statusCode(), System.nanoTime() - t0);
+                    } catch (IOException ex) {
+                        results.record(op, -1, System.nanoTime() - t0);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(length.toSeconds() + 60, TimeUnit.SECONDS);
+    }
+
+    private void runOpen(Duration length, long randomSeed, Results results) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        Semaphore inFlight = new Semaphore(concurrency);
+        double interval = 1e9 / rate;
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        double due = start;
+        while (due < end) {
+            long wait = (long) due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation op = pick(random);
+            HttpRequest request = request(op, random);
+            if (!inFlight.tryAcquire()) {
+                results.dropped(op);
+            } else {
+                long scheduled = (long) due;
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, ex) -> {
+                    try {
+                        if (response != null) {
+                            completed(op, response);
+                        }
+                    } catch (IOException ignored) {
+                        // a create whose body could not be read only leaves its task out of the pool
+                    } finally {
+                        results.record(op, response == null ? -1 : response.statusCode(), System.nanoTime() - scheduled);
+                        inFlight.release();
+                    }
+                });
+            }
+            due += poisson ? -Math.log(1 - random.nextDouble()) * interval : interval;
+        }
+        inFlight.tryAcquire(concurrency, 60, TimeUnit.SECONDS);
+    }
+
+    private Operation pick(RandomGenerator random) {
+        int total = Arrays.stream(mix).sum();
+        int roll = random.nextInt(total);
+        for (Operation op : Operation.values()) {
+            roll -= mix[op.ordinal()];
+            if (roll < 0) {
+                return op;
+            }
+        }
+        return Operation.SEARCH;
+    }
+
+    /** The request for an operation; a delete takes its target out of the pool right away. */
+    private HttpRequest request(Operation op, RandomGenerator random) {
+        return switch (op) {
+            case SEARCH -> get("/api/tasks?size=20&search=" + WORDS[random.nextInt(WORDS.length)]);
+            case SCROLL -> get("/api/tasks?size=20&cursor=");
+            case CREATE -> post("/api/tasks", taskJson(random.nextInt()));
+            case PATCH -> HttpRequest.newBuilder(uri("/api/tasks/" + ids.pick(random)))
+                    .timeout(Duration.ofSeconds(30))
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"completed\":" + random.nextBoolean() + "}"))
+                    .header("Content-Type", "application/json")
+                    .build();
+            case DELETE -> HttpRequest.newBuilder(uri("/api/tasks/" + ids.take(random)))
+                    .timeout(Duration.ofSeconds(30))
+                    .DELETE()
+                    .build();
+        };
+    }
+
+    private void completed(Operation op, HttpResponse<String> response) throws IOException {
+        if (op == Operation.CREATE && response.statusCode() / 100 == 2) {
+            ids.add(UUID.fromString(MAPPER.readTree(response.body()).path("id").asText()));
+        }
+    }
+
+    private static String taskJson(int n) {
+        String word = WORDS[Math.floorMod(n, WORDS.length)];
+        return "{\"title\":\"Task " + n + " " + word + "\",\"description\":\"Load test " + word + " item\"}";
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static void check(Path file) throws IOException {
+        JsonNode report = MAPPER.readTree(file.toFile());
+        String baselineFile = System.getProperty("loadtest.baseline", "");
+        JsonNode baseline = baselineFile.isBlank() ? null : MAPPER.readTree(Path.of(baselineFile.trim()).toFile());
+        List<String> violations = new Slo(System.getProperties()).check(report, baseline);
+        System.out.println(summary(report));
+        if (!violations.isEmpty()) {
+            violations.forEach(violation -> System.out.println("SLO missed: " + violation));
+            throw new IllegalStateException(violations.size() + " service level objective(s) missed by "
+                    + file + ", see above");
+        }
+        System.out.println("All service level objectives met");
+    }
+
+    static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0.0 : Math.round(part * 1e5 / whole) / 1e5;
+    }
+
+    static String summary(JsonNode report) {
+        StringBuilder out = new StringBuilder();
+        String load = report.path("model").asText().equals("open")
+                ? String.format("%s arrivals at %s req/s, at most %d in flight", report.path("arrivals").asText(),
+                        report.path("rate").asText(), report.path("concurrency").asInt())
+                : String.format("%d clients", report.path("concurrency").asInt());
+        out.append(String.format("%n== %s: %s, %ss, %.2f req/s, %.2f%% errors, %.2f%% rejected%n",
+                report.path("label").asText(), load, report.path("durationSeconds").asText(),
+                report.path("throughput").asDouble(), report.path("errorRate").asDouble() * 100,
+                report.path("rejectionRate").asDouble() * 100));
+        out.append(String.format("%-8s %9s %9s %9s %9s %9s %9s %9s %9s %9s%n",
+                "op", "requests", "rejected", "errors", "dropped", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        report.path("operations").fields().forEachRemaining(e -> {
+            JsonNode s = e.getValue();
+            out.append(String.format("%-8s %9d %9d %9d %9d %9.2f %9.2f %9.2f %9.2f %9.2f%n", e.getKey(),
+                    s.path("requests").asLong(), s.path("rejected").asLong(), s.path("errors").asLong(),
+                    s.path("dropped").asLong(), s.path("throughput").asDouble(), s.path("p50Ms").asDouble(),
+                    s.path("p99Ms").asDouble(), s.path("p999Ms").asDouble(), s.path("maxMs").asDouble()));
+        });
+        JsonNode pool = report.path("connectionPool");
+        if (!pool.isMissingNode()) {
+            out.append(String.format("%s pool of %.0f: active mean %.1f max %.0f, pending mean %.1f max %.0f, "
+                    + "saturated in %.0f%% of samples%n", pool.path("pool").asText(), pool.path("maxConnections").asDouble(),
+                    pool.path("activeMean").asDouble(), pool.path("activeMax").asDouble(),
+                    pool.path("pendingMean").asDouble(), pool.path("pendingMax").asDouble(),
+                    pool.path("saturation").asDouble() * 100));
+        }
+        return out.toString();
+    }
+
+    static String compare(JsonNode a, JsonNode b) {
+        StringBuilder out = new StringBuilder(summary(a)).append(summary(b));
+        out.append(String.format("%n== %s vs %s%n", b.path("label").asText(), a.path("label").asText()));
+        out.append(String.format("throughput %+.1f%%%n", change(a.path("throughput"), b.path("throughput"))));
+        a.path("operations").fields().forEachRemaining(e -> {
+            JsonNode other = b.path("operations").path(e.getKey());
+            out.append(String.format("%-8s p50 %+.1f%%  p99 %+.1f%%%n", e.getKey(),
+                    change(e.getValue().path("p50Ms"), other.path("p50Ms")),
+                    change(e.getValue().path("p99Ms"), other.path("p99Ms"))));
+        });
+        return out.toString();
+    }
+
+    private static double change(JsonNode before, JsonNode after) {
+        return before.asDouble() == 0 ? 0 : (after.asDouble() - before.asDouble()) * 100 / before.asDouble();
+    }
+
+    /** Latencies in microseconds and outcomes per operation, recorded from any thread. */
+    private static final class Results {
+        private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+        final Histogram[] latencies = new Histogram[Operation.values().length];
+        private final LongAdder[][] outcomes = new LongAdder[Operation.values().length][4];
+
+        Results() {
+            for (int op = 0; op < latencies.length; op++) {
+                latencies[op] = new ConcurrentHistogram(MAX_MICROS, 3);
+                for (int outcome = 0; outcome < 4; outcome++) {
+                    outcomes[op][outcome] = new LongAdder();
+                }
+            }
+        }
+
+        void record(Operation op, int status, long nanos) {
+            latencies[op.ordinal()].recordValue(Math.min(MAX_MICROS, Math.max(1, nanos / 1000)));
+            if (status / 100 == 2) {
+                outcomes[op.ordinal()][0].increment();
+            } else if (status == 503 || status == 429) {
+                outcomes[op.ordinal()][1].increment();
+            } else {
+                outcomes[op.ordinal()][2].increment();
+            }
+        }
+
+        /** An arrival the driver could not send because too many requests were in flight. */
+        void dropped(Operation op) {
+            outcomes[op.ordinal()][3].increment();
+        }
+
+        Map<String, Object> stats(Operation op, double seconds) {
+            Histogram histogram = latencies[op.ordinal()];
+            long requests = histogram.getTotalCount() + outcomes[op.ordinal()][3].sum();
+            long errors = outcomes[op.ordinal()][2].sum();
+            long dropped = outcomes[op.ordinal()][3].sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", requests);
+            stats.put("ok", outcomes[op.ordinal()][0].sum());
+            stats.put("rejected", outcomes[op.ordinal()][1].sum());
+            stats.put("errors", errors);
+            stats.put("dropped", dropped);
+            stats.put("errorRate", ratio(errors + dropped, requests));
+            stats.put("throughput", round(histogram.getTotalCount() / seconds));
+            stats.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+            stats.put("p90Ms", millis(histogram.getValueAtPercentile(90)));
+            stats.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+            stats.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+            stats.put("maxMs", millis(histogram.getMaxValue()));
+            return stats;
+        }
+
+        private static double millis(long micros) {
+            return round(micros / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.taskapp.taskapp.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Samples the database connection pool of the app under test once a second
+ * through its actuator metrics: Hikari for the servlet app, r2dbc-pool for the
+ * reactive one. A sample is saturated when requests are waiting for a
+ * connection.
+ */
+final class PoolSampler implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String pool;
+    private final String activeMetric;
+    private final String pendingMetric;
+    private final String maxMetric;
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "loadtest-pool-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private int samples;
+    private int saturated;
+    private double activeSum;
+    private double activeMax;
+    private double pendingSum;
+    private double pendingMax;
+    private double max;
+
+    private PoolSampler(HttpClient client, String baseUrl, String pool, String activeMetric, String pendingMetric,
+            String maxMetric) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.pool = pool;
+        this.activeMetric = activeMetric;
+        this.pendingMetric = pendingMetric;
+        this.maxMetric = maxMetric;
+    }
+
+    /** Starts sampling the pool the app reports, or returns {@code null} if it reports none. */
+    static PoolSampler start(HttpClient client, String baseUrl) {
+        for (PoolSampler candidate : new PoolSampler[] {
+                new PoolSampler(client, baseUrl, "hikaricp", "hikaricp.connections.active",
+                        "hikaricp.connections.pending", "hikaricp.connections.max"),
+                new PoolSampler(client, baseUrl, "r2dbc", "r2dbc.pool.acquired", "r2dbc.pool.pending",
+                        "r2dbc.pool.max.allocated") }) {
+            if (candidate.read(candidate.activeMetric) != null) {
+                candidate.sampler.scheduleAtFixedRate(candidate::sample, 0, 1, TimeUnit.SECONDS);
+                return candidate;
+            }
+            candidate.sampler.shutdownNow();
+        }
+        return null;
+    }
+
+    private void sample() {
+        Double active = read(activeMetric);
+        Double pending = read(pendingMetric);
+        Double size = read(maxMetric);
+        if (active == null || pending == null) {
+            return;
+        }
+        synchronized (this) {
+            samples++;
+            activeSum += active;
+            activeMax = Math.max(activeMax, active);
+            pendingSum += pending;
+            pendingMax = Math.max(pendingMax, pending);
+            if (pending > 0) {
+                saturated++;
+            }
+            if (size != null) {
+                max = size;
+            }
+        }
+    }
+
+    private Double read(String metric) {
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + metric))
+                    .timeout(Duration.ofSeconds(2)).GET().build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            JsonNode value = MAPPER.readTree(response.body()).path("measurements").path(0).path("value");
+            return value.isNumber() ? value.asDouble() : null;
+        } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }
+    }
+
+    /** The samples taken so far, as a report section. */
+    synchronized Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("pool", pool);
+        report.put("samples", samples);
+        report.put("maxConnections", max);
+        report.put("activeMean", LoadTest.round(samples == 0 ? 0 : activeSum / samples));
+        report.put("activeMax", activeMax);
+        report.put("pendingMean", LoadTest.round(samples == 0 ? 0 : pendingSum / samples));
+        report.put("pendingMax", pendingMax);
+        report.put("saturation", LoadTest.round(samples == 0 ? 0 : (double) saturated / samples));
+        return report;
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+}
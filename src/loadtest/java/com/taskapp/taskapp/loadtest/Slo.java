@@ -0,0 +1,95 @@
+package com.taskapp.taskapp.loadtest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Service level objectives a load test report has to meet, from
+ * {@code loadtest.slo.*} properties; a blank or missing property checks
+ * nothing. Latency limits apply to every operation unless overridden per
+ * operation, e.g. {@code loadtest.slo.search.p99-ms}. With a baseline report,
+ * the p99 of an operation and the throughput may also be at most
+ * {@code loadtest.slo.max-regression} percent worse than in the baseline.
+ */
+final class Slo {
+    /** Operations with fewer requests than this are too noisy to compare against a baseline. */
+    private static final long MIN_BASELINE_REQUESTS = 100;
+
+    private final Properties properties;
+
+    Slo(Properties properties) {
+        this.properties = properties;
+    }
+
+    /** Returns the objectives the report misses, empty if it meets them all. */
+    List<String> check(JsonNode report, JsonNode baseline) {
+        List<String> violations = new ArrayList<>();
+        atMost(violations, "error rate", report.path("errorRate").asDouble(), number("error-rate"));
+        atMost(violations, "rejection rate", report.path("rejectionRate").asDouble(), number("rejection-rate"));
+        atLeast(violations, "throughput (req/s)", report.path("throughput").asDouble(), number("min-throughput"));
+        if (report.has("connectionPool")) {
+            atMost(violations, "pool saturation", report.path("connectionPool").path("saturation").asDouble(),
+                    number("pool-saturation"));
+        }
+
+        Iterator<Map.Entry<String, JsonNode>> operations = report.path("operations").fields();
+        while (operations.hasNext()) {
+            Map.Entry<String, JsonNode> operation = operations.next();
+            String op = operation.getKey();
+            JsonNode stats = operation.getValue();
+            if (stats.path("requests").asLong() == 0) {
+                continue;
+            }
+            for (String percentile : List.of("p50", "p90", "p99", "p999")) {
+                Double limit = number(op + "." + percentile + "-ms");
+                atMost(violations, op + " " + percentile + " (ms)", stats.path(percentile + "Ms").asDouble(),
+                        limit != null ? limit : number(percentile + "-ms"));
+            }
+            atMost(violations, op + " error rate", stats.path("errorRate").asDouble(), number(op + ".error-rate"));
+        }
+
+        Double maxRegression = number("max-regression");
+        if (baseline != null && maxRegression != null) {
+            double before = baseline.path("throughput").asDouble();
+            if (before > 0) {
+                atLeast(violations, "throughput (req/s) against " + baseline.path("label").asText(),
+                        report.path("throughput").asDouble(), before * (1 - maxRegression / 100));
+            }
+            operations = report.path("operations").fields();
+            while (operations.hasNext()) {
+                Map.Entry<String, JsonNode> operation = operations.next();
+                JsonNode previous = baseline.path("operations").path(operation.getKey());
+                if (operation.getValue().path("requests").asLong() < MIN_BASELINE_REQUESTS
+                        || previous.path("requests").asLong() < MIN_BASELINE_REQUESTS) {
+                    continue;
+                }
+                atMost(violations, operation.getKey() + " p99 (ms) against " + baseline.path("label").asText(),
+                        operation.getValue().path("p99Ms").asDouble(),
+                        previous.path("p99Ms").asDouble() * (1 + maxRegression / 100));
+            }
+        }
+        return violations;
+    }
+
+    private Double number(String name) {
+        String value = properties.getProperty("loadtest.slo." + name, "").trim();
+        return value.isEmpty() ? null : Double.valueOf(value);
+    }
+
+    private static void atMost(List<String> violations, String measure, double actual, Double limit) {
+        if (limit != null && actual > limit) {
+            violations.add(String.format("%s is %.4g, above the limit of %.4g", measure, actual, limit));
+        }
+    }
+
+    private static void atLeast(List<String> violations, String measure, double actual, Double limit) {
+        if (limit != null && actual < limit) {
+            violations.add(String.format("%s is %.4g, below the limit of %.4g", measure, actual, limit));
+        }
+    }
+}
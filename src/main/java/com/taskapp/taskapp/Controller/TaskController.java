@@ -4,14 +4,44 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.taskapp.taskapp.Models.BatchResult;
+import com.taskapp.taskapp.Models.CursorPage;
+import com.taskapp.taskapp.Models.ImportResult;
+import com.taskapp.taskapp.Models.IngestStatus;
 import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskCounts;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Models.TaskView;
+import com.taskapp.taskapp.Services.TaskBatchService;
+import com.taskapp.taskapp.Services.TaskChangeFeed;
+import com.taskapp.taskapp.Services.TaskIngestService;
 import com.taskapp.taskapp.Services.TaskService;
+import com.taskapp.taskapp.Services.TaskStatistics;
+import com.taskapp.taskapp.Services.TaskTransferService;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Util.ETags;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -19,36 +49,154 @@ import java.util.UUID;
 @Tag(name = "Task Management", description = "API endpoints for task management")
 public class TaskController {
     private final TaskService taskService;
+    private final TaskBatchService taskBatchService;
+    private final TaskTransferService taskTransferService;
+    private final TaskIngestService taskIngestService;
+    private final TaskChangeFeed taskChangeFeed;
+    private final TaskStatistics taskStatistics;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskBatchService taskBatchService,
+            TaskTransferService taskTransferService, TaskIngestService taskIngestService,
+            TaskChangeFeed taskChangeFeed, TaskStatistics taskStatistics) {
         this.taskService = taskService;
+        this.taskBatchService = taskBatchService;
+        this.taskTransferService = taskTransferService;
+        this.taskIngestService = taskIngestService;
+        this.taskChangeFeed = taskChangeFeed;
+        this.taskStatistics = taskStatistics;
     }
 
     @PostMapping
-    @Operation(summary = "Create a new task")
-    public ResponseEntity<Task> createTask(@Valid @RequestBody Task task) {
+    @Operation(summary = "Create a new task", description = "With Prefer: respond-async (when asynchronous ingestion "
+            + "is enabled) the task is queued and the response is 202 with its id; poll /api/tasks/ingest/{id}")
+    public ResponseEntity<Task> createTask(
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @Valid @RequestBody Task task) {
+        if (prefer != null && prefer.contains("respond-async") && taskIngestService.isEnabled()) {
+            Task acceptedTask = taskIngestService.submit(task);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/tasks/ingest/" + acceptedTask.getId()))
+                    .header("Preference-Applied", "respond-async")
+                    .body(acceptedTask);
+        }
         Task createdTask = taskService.createTask(task);
         URI location = URI.create("/tasks/" + createdTask.getId());
-        return ResponseEntity.created(location).body(createdTask);
+        return ResponseEntity.created(location).eTag(ETags.of(createdTask)).body(createdTask);
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update a task")
+    @Operation(summary = "Update a task", description = "Send the task's ETag in If-Match to fail with 412 "
+            + "instead of overwriting a concurrent change")
     public ResponseEntity<Task> updateTask(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody Task task) {
-        return ResponseEntity.ok(taskService.updateTask(id, task));
+        Task updatedTask = taskService.updateTask(id, task, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedTask)).body(updatedTask);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a task", description = "Answers 304 when If-None-Match still matches the task's ETag")
+    public ResponseEntity<Task> getTask(@PathVariable UUID id) {
+        Task task = taskService.getTask(id);
+        ResponseEntity.BodyBuilder response = revalidated().eTag(ETags.weak(task));
+        if (task.getUpdatedAt() != null) {
+            response.lastModified(task.getUpdatedAt());
+        }
+        return response.body(task);
     }
 
     @GetMapping
-    @Operation(summary = "Search tasks", description = "Search tasks with pagination and sorting")
-    public ResponseEntity<Page<Task>> searchTasks(
+    @Operation(summary = "Search tasks", description = "Search and filter tasks with pagination and sorting. "
+            + "sortBy is one of id, title, createdAt, updatedAt or relevance; time ranges are ISO-8601 instants, "
+            + "start inclusive and end exclusive. fields limits each task to the listed properties (id is always "
+            + "included), e.g. fields=title,completed")
+    public ResponseEntity<?> searchTasks(
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String titlePrefix,
+            @RequestParam(required = false) Instant createdFrom,
+            @RequestParam(required = false) Instant createdTo,
+            @RequestParam(required = false) Instant updatedFrom,
+            @RequestParam(required = false) Instant updatedTo,
+            @RequestParam(required = false) Set<String> fields,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(required = false) String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDir) {
-        return ResponseEntity.ok(taskService.searchTasks(search, page, size, sortBy, sortDir));
+        TaskFilter filter = TaskFilter.attributes(completed, titlePrefix, createdFrom, createdTo, updatedFrom, updatedTo);
+        if (fields == null || fields.isEmpty()) {
+            Page<Task> tasks = taskService.searchTasks(search, filter, page, size, sortBy, sortDir);
+            return revalidated().eTag(ETags.weak(tasks)).body(tasks);
+        }
+
+        Set<String> selected = new LinkedHashSet<>(fields);
+        selected.add("id");
+        Page<TaskView> views = taskService.searchTaskViews(search, filter, selected, page, size, sortBy, sortDir);
+        MappingJacksonValue body = new MappingJacksonValue(views);
+        body.setFilters(new SimpleFilterProvider()
+                .addFilter(TaskView.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(selected)));
+        return revalidated().eTag(ETags.weakViews(views)).body(body);
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Scroll tasks", description = "Keyset pagination; pass an empty cursor for the first page "
+            + "and the returned nextCursor for the following ones")
+    public ResponseEntity<CursorPage<Task>> scrollTasks(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String titlePrefix,
+            @RequestParam(required = false) Instant createdFrom,
+            @RequestParam(required = false) Instant createdTo,
+            @RequestParam(required = false) Instant updatedFrom,
+            @RequestParam(required = false) Instant updatedTo,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(defaultValue = "false") boolean count) {
+        TaskFilter filter = TaskFilter.attributes(completed, titlePrefix, createdFrom, createdTo, updatedFrom, updatedTo);
+        CursorPage<Task> tasks = taskService.scrollTasks(search, filter, cursor, size, sortBy, sortDir, count);
+        return revalidated().eTag(ETags.weak(tasks)).body(tasks);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream task changes", description = "Server-sent created, updated and deleted events "
+            + "after each commit. Reconnect with Last-Event-ID (or lastEventId) to receive the changes missed in "
+            + "between; a reset event means they are no longer buffered and the listing should be reloaded")
+    public SseEmitter taskChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId) {
+        return taskChangeFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Task counts", description = "Total, completed and open tasks of the tenant, kept up to "
+            + "date in memory by every write and reconciled with the database periodically")
+    public ResponseEntity<TaskCounts> taskStats() {
+        return ResponseEntity.ok(taskStatistics.counts(TenantContext.currentOrDefault()));
+    }
+
+    @GetMapping("/ingest")
+    @Operation(summary = "Asynchronous ingestion queue", description = "Pending task count and the first pending ids")
+    public ResponseEntity<Map<String, Object>> ingestQueue(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(Map.of(
+                "enabled", taskIngestService.isEnabled(),
+                "pending", taskIngestService.pendingCount(),
+                "capacity", taskIngestService.getCapacity(),
+                "pendingIds", taskIngestService.pendingIds(Math.min(limit, 1000))));
+    }
+
+    @GetMapping("/ingest/{id}")
+    @Operation(summary = "Status of an asynchronously created task")
+    public ResponseEntity<IngestStatus> ingestStatus(@PathVariable UUID id) {
+        return ResponseEntity.ok(taskIngestService.status(id));
+    }
+
+    @PostMapping("/search/rebuild")
+    @Operation(summary = "Rebuild the search index", description = "Re-indexes every task from the database")
+    public ResponseEntity<Map<String, Long>> rebuildSearchIndex() {
+        return ResponseEntity.ok(Map.of("indexed", taskService.rebuildSearchIndex()));
     }
 
     @DeleteMapping("/{id}")
@@ -58,10 +206,96 @@ public class TaskController {
     }
 
     @PatchMapping("/{id}")
-    @Operation(summary = "Partially update a task")
+    @Operation(summary = "Partially update a task", description = "With If-Match and Prefer: return=minimal the "
+            + "update is a single conditional statement and the response is 204 with the new ETag")
     public ResponseEntity<Task> partialUpdateTask(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
             @RequestBody Map<String, Object> updates) {
-        return ResponseEntity.ok(taskService.partialUpdate(id, updates));
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        if (expectedVersion != null && prefer != null && prefer.contains("return=minimal")) {
+            long newVersion = taskService.patchTask(id, updates, expectedVersion);
+            return ResponseEntity.noContent()
+                    .eTag(ETags.of(newVersion))
+                    .header("Preference-Applied", "return=minimal")
+                    .build();
+        }
+        Task updatedTask = taskService.partialUpdate(id, updates, expectedVersion);
+        return ResponseEntity.ok().eTag(ETags.of(updatedTask)).body(updatedTask);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create tasks in batch", description = "Set atomic=true to create all tasks or none")
+    public ResponseEntity<BatchResult> createTasks(
+            @RequestBody List<Task> tasks,
+            @RequestParam(defaultValue = "false") boolean atomic) {
+        return batchResponse(taskBatchService.createTasks(tasks, atomic));
+    }
+
+    @PatchMapping("/batch")
+    @Operation(summary = "Partially update tasks in batch", description = "Each item carries the task id and the fields to change")
+    public ResponseEntity<BatchResult> partialUpdateTasks(
+            @RequestBody List<Map<String, Object>> updates,
+            @RequestParam(defaultValue = "false") boolean atomic) {
+        return batchResponse(taskBatchService.updateTasks(updates, atomic));
+    }
+
+    @DeleteMapping("/batch")
+    @Operation(summary = "Delete tasks in batch")
+    public ResponseEntity<BatchResult> deleteTasks(
+            @RequestBody List<UUID> ids,
+            @RequestParam(defaultValue = "false") boolean atomic) {
+        return batchResponse(taskBatchService.deleteTasks(ids, atomic));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export all tasks", description = "Streams every task as NDJSON (default) or CSV")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        TaskTransferService.Format exportFormat = "csv".equalsIgnoreCase(format)
+                ? TaskTransferService.Format.CSV
+                : TaskTransferService.Format.NDJSON;
+        MediaType mediaType = exportFormat == TaskTransferService.Format.CSV
+                ? new MediaType("text", "csv")
+                : MediaType.APPLICATION_NDJSON;
+        String filename = "tasks." + exportFormat.name().toLowerCase();
+
+        // The body is written on an async thread, which does not have the request's tenant
+        String tenant = TenantContext.current();
+        StreamingResponseBody body = out -> {
+            TenantContext.set(tenant);
+            try {
+                taskTransferService.exportTasks(out, exportFormat);
+            } finally {
+                TenantContext.clear();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = { MediaType.APPLICATION_NDJSON_VALUE, "application/jsonl" })
+    @Operation(summary = "Import tasks", description = "Reads one task per line and creates them in batches")
+    public ResponseEntity<ImportResult> importTasks(InputStream body) throws IOException {
+        return ResponseEntity.ok(taskTransferService.importTasks(body));
+    }
+
+    /**
+     * Listings may be stored but must be revalidated; an unchanged page then costs a 304 and no serialization.
+     * Stored copies are kept per format, as the body depends on Accept.
+     */
+    private static ResponseEntity.BodyBuilder revalidated() {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT);
+    }
+
+    private ResponseEntity<BatchResult> batchResponse(BatchResult result) {
+        if (result.failed() == 0) {
+            return ResponseEntity.ok(result);
+        }
+        HttpStatus status = result.atomic() ? HttpStatus.BAD_REQUEST : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(result);
     }
 }
@@ -0,0 +1,91 @@
+package com.taskapp.taskapp.Models;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A task moved out of the {@code task} table by {@code TaskPurger}, either
+ * after it was deleted or after it stayed completed past the retention period.
+ * Rows are written with {@code INSERT ... SELECT} and never read by the API;
+ * the table only needs to be kept for as long as the data is.
+ */
+@Entity
+@Table(name = "task_archive", indexes = {
+    @Index(name = "idx_task_archive_tenant_archived", columnList = "tenant_id, archived_at")
+})
+public class ArchivedTask {
+  @Id
+  @Column(name = "id", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
+  private UUID id;
+
+  @Column(name = "tenant_id", nullable = false, length = 64)
+  private String tenantId;
+
+  @Column(nullable = false)
+  private String title;
+
+  private String description;
+
+  @Column(nullable = false)
+  private boolean completed;
+
+  private Long version;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+
+  @Column(name = "deleted_at")
+  private Instant deletedAt;
+
+  @Column(name = "archived_at", nullable = false)
+  private Instant archivedAt;
+
+  public UUID getId() {
+    return id;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public boolean isCompleted() {
+    return completed;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public Instant getDeletedAt() {
+    return deletedAt;
+  }
+
+  public Instant getArchivedAt() {
+    return archivedAt;
+  }
+}
@@ -0,0 +1,19 @@
+package com.taskapp.taskapp.Models;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates a time-ordered {@link com.taskapp.taskapp.Util.UuidV7} id on insert
+ * unless the entity already carries one, so ids handed out before the row is
+ * written are kept.
+ */
+@IdGeneratorType(AssignableUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface AssignableUuid {
+}
@@ -0,0 +1,32 @@
+package com.taskapp.taskapp.Models;
+
+import java.util.EnumSet;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import com.taskapp.taskapp.Util.UuidV7;
+
+public class AssignableUuidGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        // Persist passes no current value for ids, so read the one already set on the entity
+        Object assigned = currentValue != null ? currentValue
+                : session.getEntityPersister(null, owner).getIdentifier(owner, session);
+        return assigned != null ? assigned : UuidV7.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+}
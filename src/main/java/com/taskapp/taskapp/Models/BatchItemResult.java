@@ -0,0 +1,32 @@
+package com.taskapp.taskapp.Models;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record BatchItemResult(int index, UUID id, Status status, List<String> errors) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        FAILED,
+        SKIPPED
+    }
+
+    public static BatchItemResult of(int index, UUID id, Status status) {
+        return new BatchItemResult(index, id, status, List.of());
+    }
+
+    public static BatchItemResult failed(int index, UUID id, List<String> errors) {
+        return new BatchItemResult(index, id, Status.FAILED, errors);
+    }
+
+    @JsonIgnore
+    public boolean isFailed() {
+        return status == Status.FAILED;
+    }
+}
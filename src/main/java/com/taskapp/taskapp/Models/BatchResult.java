@@ -0,0 +1,14 @@
+package com.taskapp.taskapp.Models;
+
+import java.util.List;
+
+public record BatchResult(boolean atomic, int total, int succeeded, int failed, List<BatchItemResult> items) {
+
+    public static BatchResult of(boolean atomic, List<BatchItemResult> items) {
+        int failed = (int) items.stream().filter(BatchItemResult::isFailed).count();
+        int succeeded = (int) items.stream()
+            .filter(item -> !item.isFailed() && item.status() != BatchItemResult.Status.SKIPPED)
+            .count();
+        return new BatchResult(atomic, items.size(), succeeded, failed, items);
+    }
+}
@@ -0,0 +1,28 @@
+package com.taskapp.taskapp.Models.Constraints;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import jakarta.validation.constraints.Size;
+
+/** The rules for a task description, shared like {@link TaskTitle}. */
+@Size(max = 500, message = "Description cannot exceed 500 characters")
+@Constraint(validatedBy = {})
+@Documented
+@Retention(RUNTIME)
+@Target({ FIELD, PARAMETER })
+public @interface TaskDescription {
+
+    String message() default "Invalid description";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
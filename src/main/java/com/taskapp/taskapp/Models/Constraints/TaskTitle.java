@@ -0,0 +1,36 @@
+package com.taskapp.taskapp.Models.Constraints;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * The rules for a task title. Composed from standard constraints so every
+ * model of a task, including the reactive module's, checks the same rules and
+ * reports the same messages.
+ */
+@NotBlank(message = "Title is required")
+@NotNull(message = "Title cannot be null")
+@Size(min = 3, max = 100, message = "Title must be between 3 and 100 characters")
+@Constraint(validatedBy = {})
+@Documented
+@Retention(RUNTIME)
+@Target({ FIELD, PARAMETER })
+public @interface TaskTitle {
+
+    String message() default "Invalid title";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,9 @@
+package com.taskapp.taskapp.Models;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPage<T>(List<T> content, int size, boolean hasNext, String nextCursor, Long totalElements) {
+}
@@ -0,0 +1,6 @@
+package com.taskapp.taskapp.Models;
+
+import java.util.List;
+
+public record ImportResult(long imported, long failed, List<String> errors) {
+}
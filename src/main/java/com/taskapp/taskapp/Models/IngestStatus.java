@@ -0,0 +1,19 @@
+package com.taskapp.taskapp.Models;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IngestStatus(UUID id, State state, String error) {
+
+    public enum State { PENDING, WRITTEN, FAILED }
+
+    public static IngestStatus of(UUID id, State state) {
+        return new IngestStatus(id, state, null);
+    }
+
+    public static IngestStatus failed(UUID id, String error) {
+        return new IngestStatus(id, State.FAILED, error);
+    }
+}
@@ -0,0 +1,11 @@
+package com.taskapp.taskapp.Models;
+
+import java.util.UUID;
+
+/**
+ * An entry of {@code task_change_log}: a write another application made to
+ * a task, in the order given by {@code seq}. {@code type} is the name of a
+ * change event type, {@code CREATED}, {@code UPDATED} or {@code DELETED}.
+ */
+public record LoggedTaskChange(long seq, String tenantId, UUID id, String type) {
+}
@@ -1,36 +1,120 @@
 package com.taskapp.taskapp.Models;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.taskapp.taskapp.Models.Constraints.TaskDescription;
+import com.taskapp.taskapp.Models.Constraints.TaskTitle;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
-import jakarta.validation.constraints.NotBlank;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Size;
 
+/**
+ * Tasks belong to a tenant, and Hibernate restricts every query and load to
+ * the tenant of the session. The secondary indexes serve the list views: each
+ * one starts with the tenant and the filtered columns, ends with the sort
+ * column and {@code id}, and so answers the id query of a page from that
+ * tenant's part of the index without reading the rows. They end in
+ * {@code deleted_at} so the soft-delete restriction is checked in the index
+ * too. Deleted tasks keep their row with {@code deleted_at} set until
+ * {@code TaskPurger} moves them to {@link ArchivedTask}; the last two indexes
+ * serve its queries, which run across tenants.
+ */
 @Entity
+@Table(name = "task", indexes = {
+    @Index(name = "idx_task_tenant_completed_title", columnList = "tenant_id, completed, title, id, deleted_at"),
+    @Index(name = "idx_task_tenant_completed_created", columnList = "tenant_id, completed, created_at, id, deleted_at"),
+    @Index(name = "idx_task_tenant_completed_updated", columnList = "tenant_id, completed, updated_at, id, deleted_at"),
+    @Index(name = "idx_task_tenant_title", columnList = "tenant_id, title, id, deleted_at"),
+    @Index(name = "idx_task_tenant_created", columnList = "tenant_id, created_at, id, deleted_at"),
+    @Index(name = "idx_task_tenant_updated", columnList = "tenant_id, updated_at, id, deleted_at"),
+    @Index(name = "idx_task_deleted", columnList = "deleted_at"),
+    @Index(name = "idx_task_completed_updated", columnList = "completed, updated_at")
+})
+@SQLRestriction("deleted_at IS NULL")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "task")
 public class Task {
   @Id
-  @UuidGenerator
+  @AssignableUuid
   @Column(name = "id", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
   private UUID id;
 
-  @NotBlank(message = "Title is required")
-  @NotNull(message = "Title cannot be null")
-  @Size(min = 3, max = 100, message = "Title must be between 3 and 100 characters")
+  // Defaulted in the schema so that ddl-auto=update can add the column to a populated table
+  @TenantId
+  @ColumnDefault("'" + TenantContext.DEFAULT_TENANT + "'")
+  @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+  @JsonIgnore
+  private String tenantId;
+
+  @TaskTitle
   @Column(nullable = false)
   private String title;
 
-  @Size(max = 500, message = "Description cannot exceed 500 characters")
+  @TaskDescription
   private String description;
 
   @NotNull(message = "Completed status must be specified")
   @Column(nullable = false)
   private Boolean completed = false;
 
+  @Version
+  @Column(nullable = false)
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Long version;
+
+  // Defaulted in the schema so that ddl-auto=update can add the columns to a populated table
+  @ColumnDefault("CURRENT_TIMESTAMP(6)")
+  @Column(name = "created_at", nullable = false, updatable = false)
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Instant createdAt;
+
+  @ColumnDefault("CURRENT_TIMESTAMP(6)")
+  @Column(name = "updated_at", nullable = false)
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Instant updatedAt;
+
+  @JsonIgnore
+  @Column(name = "deleted_at")
+  private Instant deletedAt;
+
+  /** Current time at the precision the columns store, so cached entities and keyset cursors match the rows. */
+  public static Instant now() {
+    return Instant.now().truncatedTo(ChronoUnit.MICROS);
+  }
+
+  @PrePersist
+  void onCreate() {
+    if (tenantId == null) {
+      tenantId = TenantContext.currentOrDefault();
+    }
+    createdAt = now();
+    updatedAt = createdAt;
+  }
+
+  @PreUpdate
+  void onUpdate() {
+    updatedAt = now();
+  }
+
   public UUID getId() {
     return id;
   }
@@ -38,6 +122,14 @@ public class Task {
     this.id = id;
   }
 
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public void setTenantId(String tenantId) {
+    this.tenantId = tenantId;
+  }
+
   public String getTitle() {
     return title;
   }
@@ -62,6 +154,38 @@ public class Task {
     this.completed = completed;
   }
 
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+
+  public Instant getDeletedAt() {
+    return deletedAt;
+  }
+
+  public void setDeletedAt(Instant deletedAt) {
+    this.deletedAt = deletedAt;
+  }
+
 
 
 }
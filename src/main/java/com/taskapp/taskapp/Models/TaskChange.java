@@ -0,0 +1,15 @@
+package com.taskapp.taskapp.Models;
+
+import java.util.Map;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Payload of a change feed event. {@code task} is the state after the write;
+ * partial updates that were applied without loading the task carry the fields
+ * that were set in {@code changes} instead.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record TaskChange(String type, UUID id, Task task, Map<String, Object> changes) {
+}
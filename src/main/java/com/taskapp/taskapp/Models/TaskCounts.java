@@ -0,0 +1,14 @@
+package com.taskapp.taskapp.Models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** Number of tasks, and how many of them are completed. */
+public record TaskCounts(long total, long completed) {
+
+    public static final TaskCounts NONE = new TaskCounts(0, 0);
+
+    @JsonProperty
+    public long open() {
+        return total - completed;
+    }
+}
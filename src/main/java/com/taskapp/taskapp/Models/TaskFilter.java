@@ -0,0 +1,43 @@
+package com.taskapp.taskapp.Models;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Restrictions applied to task listings. A {@code null} component means the
+ * listing is not restricted on that attribute. Time ranges include their start
+ * and exclude their end.
+ */
+public record TaskFilter(String search, Collection<UUID> ids, Boolean completed, String titlePrefix,
+        Instant createdFrom, Instant createdTo, Instant updatedFrom, Instant updatedTo) {
+
+    public static TaskFilter none() {
+        return new TaskFilter(null, null, null, null, null, null, null, null);
+    }
+
+    public static TaskFilter matching(String search) {
+        return new TaskFilter(search, null, null, null, null, null, null, null);
+    }
+
+    public static TaskFilter ids(Collection<UUID> ids) {
+        return new TaskFilter(null, ids, null, null, null, null, null, null);
+    }
+
+    public static TaskFilter attributes(Boolean completed, String titlePrefix, Instant createdFrom, Instant createdTo,
+            Instant updatedFrom, Instant updatedTo) {
+        return new TaskFilter(null, null, completed, titlePrefix == null || titlePrefix.isEmpty() ? null : titlePrefix,
+                createdFrom, createdTo, updatedFrom, updatedTo);
+    }
+
+    public boolean hasAttributes() {
+        return completed != null || titlePrefix != null || createdFrom != null || createdTo != null
+                || updatedFrom != null || updatedTo != null;
+    }
+
+    /** This filter's attributes restricted further to the tasks {@code matches} selects. */
+    public TaskFilter and(TaskFilter matches) {
+        return new TaskFilter(matches.search(), matches.ids(), completed, titlePrefix, createdFrom, createdTo,
+                updatedFrom, updatedTo);
+    }
+}
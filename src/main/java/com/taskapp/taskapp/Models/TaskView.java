@@ -0,0 +1,26 @@
+package com.taskapp.taskapp.Models;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+/**
+ * Read-only projection of a task for sparse list responses. Only the
+ * requested fields are selected; the others stay {@code null} and are left out
+ * of the JSON by the {@value #FIELDS_FILTER} filter.
+ */
+@JsonFilter(TaskView.FIELDS_FILTER)
+public record TaskView(UUID id, String title, String description, Boolean completed, Long version,
+        Instant createdAt, Instant updatedAt) {
+
+    public static final String FIELDS_FILTER = "taskViewFields";
+    public static final List<String> FIELDS =
+            List.of("id", "title", "description", "completed", "version", "createdAt", "updatedAt");
+
+    public static TaskView of(Task task) {
+        return new TaskView(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted(),
+                task.getVersion(), task.getCreatedAt(), task.getUpdatedAt());
+    }
+}
@@ -0,0 +1,728 @@
+package com.taskapp.taskapp.Repository.Memory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.taskapp.taskapp.Models.LoggedTaskChange;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskCounts;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Models.TaskView;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Repository.Memory.TenantIndex.Column;
+import com.taskapp.taskapp.Repository.Memory.TenantIndex.Entry;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Util.SearchTokens;
+import com.taskapp.taskapp.Util.UuidV7;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+
+/**
+ * {@link TaskRepository} over a {@link TaskStore}, used instead of the JPA
+ * repository under the {@code memory} profile. It keeps the contract the
+ * services rely on: reads see the bound tenant only, versions are checked on
+ * save and bumped on change, new tasks are validated and time-stamped, and
+ * reads hand out detached copies.
+ * <p>
+ * Listings walk the store's list indexes the way the database walks its own:
+ * by the sort column, within the {@code completed} partition when the filter
+ * has one, seeking to the keyset position or the range of the sort column,
+ * and checking the other restrictions on each task. Sorts are on one column
+ * with the id as tie-breaker in the same direction, as {@code TaskService}
+ * builds them.
+ * <p>
+ * Deletes are always hard and the purge drops tasks instead of archiving
+ * them: there is no soft-delete state and no {@code task_archive}.
+ */
+public class InMemoryTaskRepository implements TaskRepository {
+
+    private final TaskStore store;
+    private final Validator validator;
+
+    public InMemoryTaskRepository(TaskStore store, Validator validator) {
+        this.store = store;
+        this.validator = validator;
+    }
+
+    // Reads
+
+    @Override
+    public Optional<Task> findById(UUID id) {
+        return Optional.ofNullable(visible(store.get(id))).map(TaskRecord::toTask);
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return visible(store.get(id)) != null;
+    }
+
+    @Override
+    public List<Task> findAllById(Iterable<UUID> ids) {
+        List<Task> tasks = new ArrayList<>();
+        for (UUID id : ids) {
+            TaskRecord task = visible(store.get(id));
+            if (task != null) {
+                tasks.add(task.toTask());
+            }
+        }
+        return tasks;
+    }
+
+    @Override
+    public List<UUID> findExistingIds(Collection<UUID> ids) {
+        return ids.stream().distinct().filter(id -> visible(store.get(id)) != null).toList();
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return findAll(Sort.unsorted());
+    }
+
+    @Override
+    public List<Task> findAll(Sort sort) {
+        List<Task> tasks = new ArrayList<>();
+        scan(TaskFilter.none(), sort, null).forEachRemaining(task -> tasks.add(task.toTask()));
+        return tasks;
+    }
+
+    @Override
+    public Page<Task> findAll(Pageable pageable) {
+        return findPage(TaskFilter.none(), pageable);
+    }
+
+    @Override
+    public long count() {
+        return count(TaskFilter.none());
+    }
+
+    @Override
+    public Page<Task> findByIdIn(Collection<UUID> ids, Pageable pageable) {
+        return findPage(TaskFilter.ids(ids), pageable);
+    }
+
+    @Override
+    public List<Task> findAllByOrderByIdAsc(Limit limit) {
+        return take(scan(TaskFilter.none(), Sort.by("id"), null), 0, limit.max(), TaskRecord::toTask);
+    }
+
+    @Override
+    public List<Task> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit) {
+        return take(scan(TaskFilter.none(), Sort.by("id"), Entry.of(null, id)), 0, limit.max(), TaskRecord::toTask);
+    }
+
+    @Override
+    public Page<Task> findPage(TaskFilter filter, Pageable pageable) {
+        List<Task> content = take(scan(filter, pageable.getSort(), null), pageable.getOffset(),
+                pageable.getPageSize(), TaskRecord::toTask);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    @Override
+    public Page<TaskView> findViews(TaskFilter filter, Pageable pageable, Collection<String> fields) {
+        Predicate<String> selected = field -> "id".equals(field) || fields.contains(field);
+        List<TaskView> content = take(scan(filter, pageable.getSort(), null), pageable.getOffset(),
+                pageable.getPageSize(), task -> new TaskView(task.id(),
+                        selected.test("title") ? task.title() : null,
+                        selected.test("description") ? task.description() : null,
+                        selected.test("completed") ? task.completed() : null,
+                        selected.test("version") ? task.version() : null,
+                        selected.test("createdAt") ? task.createdAt() : null,
+                        selected.test("updatedAt") ? task.updatedAt() : null));
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    @Override
+    public Window<Task> scroll(TaskFilter filter, Sort keyset, KeysetScrollPosition position, int limit) {
+        Entry after = null;
+        if (!position.isInitial()) {
+            Map<String, Object> keys = position.getKeys();
+            for (Sort.Order order : keyset) {
+                if (keys.get(order.getProperty()) == null) {
+                    throw new IllegalArgumentException("Cursor is missing sort key: " + order.getProperty());
+                }
+            }
+            Column column = column(keyset);
+            after = Entry.of(column == Column.ID ? null : keys.get(column.property), (UUID) keys.get("id"));
+        }
+        List<Task> results = take(scan(filter, keyset, after), 0, limit + 1, TaskRecord::toTask);
+        boolean hasNext = results.size() > limit;
+        List<Task> content = hasNext ? results.subList(0, limit) : results;
+        return Window.from(content, index -> ScrollPosition.forward(keysOf(content.get(index), keyset)), hasNext);
+    }
+
+    @Override
+    public long count(TaskFilter filter) {
+        String tenant = TenantContext.current();
+        boolean plain = (filter.search() == null || filter.search().isEmpty()) && filter.ids() == null
+                && filter.titlePrefix() == null && filter.createdFrom() == null && filter.createdTo() == null
+                && filter.updatedFrom() == null && filter.updatedTo() == null;
+        if (plain) {
+            long count = 0;
+            for (TenantIndex index : indexes(tenant)) {
+                if (filter.completed() == null || !filter.completed()) {
+                    count += index.count(false);
+                }
+                if (filter.completed() == null || filter.completed()) {
+                    count += index.count(true);
+                }
+            }
+            return count;
+        }
+        // Walk the index of whichever column the filter bounds, so the range is sought instead of scanned
+        String column = filter.titlePrefix() != null ? "title"
+                : filter.createdFrom() != null || filter.createdTo() != null ? "createdAt"
+                : filter.updatedFrom() != null || filter.updatedTo() != null ? "updatedAt" : "id";
+        Iterator<TaskRecord> tasks = scan(filter, Sort.by(column), null);
+        long count = 0;
+        while (tasks.hasNext()) {
+            tasks.next();
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public Stream<Task> streamAll(int fetchSize) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                scan(TaskFilter.none(), Sort.by("id"), null), Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .map(TaskRecord::toTask);
+    }
+
+    @Override
+    public Map<String, TaskCounts> countByTenant() {
+        Map<String, TaskCounts> counts = new LinkedHashMap<>();
+        store.indexesByTenant().forEach((tenant, index) -> {
+            long completed = index.count(true);
+            long total = index.count(false) + completed;
+            if (total > 0) {
+                counts.put(tenant, new TaskCounts(total, completed));
+            }
+        });
+        return counts;
+    }
+
+    // Nothing else writes to the store, so it has no change log and no entity cache
+
+    @Override
+    public long lastLoggedChange() {
+        return 0;
+    }
+
+    @Override
+    public List<LoggedTaskChange> findLoggedChangesAfter(long seq, int limit) {
+        return List.of();
+    }
+
+    @Override
+    public int pruneLoggedChanges(Instant before) {
+        return 0;
+    }
+
+    @Override
+    public void evict(Collection<UUID> ids, String tenantId) {
+    }
+
+    // Writes
+
+    /**
+     * Inserts tasks without a version and updates the others if they are
+     * still at their version, as JPA's save of a versioned entity does. An
+     * update that changes nothing keeps the version.
+     */
+    @Override
+    public <S extends Task> S save(S task) {
+        Set<ConstraintViolation<S>> violations = validator.validate(task);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        if (task.getVersion() == null) {
+            UUID id = task.getId() != null ? task.getId() : UuidV7.next();
+            String tenant = task.getTenantId() != null ? task.getTenantId() : TenantContext.currentOrDefault();
+            Instant now = Task.now();
+            TaskRecord inserted = new TaskRecord(id, tenant, task.getTitle(), task.getDescription(),
+                    task.isCompleted(), 0, now, now);
+            if (!store.write(id, null, inserted)) {
+                throw new DataIntegrityViolationException("Duplicate task id " + id);
+            }
+            copy(inserted, task);
+            return task;
+        }
+
+        TaskRecord current = visible(store.get(task.getId()));
+        if (current == null || current.version() != task.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, task.getId());
+        }
+        if (!current.differsFrom(task)) {
+            return task;
+        }
+        TaskRecord updated = new TaskRecord(current.id(), current.tenantId(), task.getTitle(), task.getDescription(),
+                task.isCompleted(), current.version() + 1, current.createdAt(), Task.now());
+        if (!store.write(current.id(), current, updated)) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, task.getId());
+        }
+        copy(updated, task);
+        return task;
+    }
+
+    @Override
+    public <S extends Task> List<S> saveAll(Iterable<S> tasks) {
+        List<S> saved = new ArrayList<>();
+        for (S task : tasks) {
+            saved.add(save(task));
+        }
+        return saved;
+    }
+
+    @Override
+    public <S extends Task> S saveAndFlush(S task) {
+        return save(task);
+    }
+
+    @Override
+    public <S extends Task> List<S> saveAllAndFlush(Iterable<S> tasks) {
+        return saveAll(tasks);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public int updateFields(UUID id, long expectedVersion, Map<String, Object> changes) {
+        while (true) {
+            TaskRecord current = visible(store.get(id));
+            if (current == null || current.version() != expectedVersion) {
+                return 0;
+            }
+            if (store.write(id, current, current.with(changes, Task.now()))) {
+                return 1;
+            }
+        }
+    }
+
+    @Override
+    public int removeAll(Collection<UUID> ids) {
+        return removeExisting(ids).size();
+    }
+
+    @Override
+    public Map<UUID, Boolean> removeExisting(Collection<UUID> ids) {
+        Map<UUID, Boolean> removed = new LinkedHashMap<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            while (true) {
+                TaskRecord current = visible(store.get(id));
+                if (current == null) {
+                    break;
+                }
+                if (store.write(id, current, null)) {
+                    removed.put(id, current.completed());
+                    break;
+                }
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        removeExisting(List.of(id));
+    }
+
+    @Override
+    public void delete(Task task) {
+        deleteById(task.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends UUID> ids) {
+        List<UUID> all = new ArrayList<>();
+        ids.forEach(all::add);
+        removeExisting(all);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Task> tasks) {
+        List<UUID> ids = new ArrayList<>();
+        tasks.forEach(task -> ids.add(task.getId()));
+        removeExisting(ids);
+    }
+
+    @Override
+    public void deleteAll() {
+        List<UUID> ids = new ArrayList<>();
+        scan(TaskFilter.none(), Sort.by("id"), null).forEachRemaining(task -> ids.add(task.id()));
+        removeExisting(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Task> tasks) {
+        deleteAll(tasks);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<UUID> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    // Purge: across tenants, like the native queries of the JPA repository
+
+    /** Deletes are hard, so there are never deleted tasks waiting to be archived. */
+    @Override
+    public List<UUID> lockDeleted(int limit) {
+        return List.of();
+    }
+
+    @Override
+    public Map<UUID, String> lockCompletedBefore(Instant before, int limit) {
+        List<Source> sources = new ArrayList<>();
+        for (TenantIndex index : store.indexes()) {
+            sources.add(new Source(index.set(true, Column.UPDATED_AT), true, Column.UPDATED_AT));
+        }
+        Iterator<TaskRecord> tasks = new Merge(sources, TenantIndex.ORDER,
+                task -> task.updatedAt().isBefore(before), task -> true);
+        Map<UUID, String> tenants = new LinkedHashMap<>();
+        while (tenants.size() < limit && tasks.hasNext()) {
+            TaskRecord task = tasks.next();
+            tenants.put(task.id(), task.tenantId());
+        }
+        return tenants;
+    }
+
+    /** Removes the tasks; the in-memory store keeps no archive. */
+    @Override
+    public int archive(Collection<UUID> ids, Instant archivedAt) {
+        int removed = 0;
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            TaskRecord current;
+            while ((current = store.get(id)) != null) {
+                if (store.write(id, current, null)) {
+                    removed++;
+                    break;
+                }
+            }
+        }
+        return removed;
+    }
+
+    // Not used by the application
+
+    @Override
+    @Deprecated
+    public Task getOne(UUID id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Task getById(UUID id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public Task getReferenceById(UUID id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("Task not found with id: " + id));
+    }
+
+    @Override
+    public <S extends Task> Optional<S> findOne(Example<S> example) {
+        throw queryByExample();
+    }
+
+    @Override
+    public <S extends Task> List<S> findAll(Example<S> example) {
+        throw queryByExample();
+    }
+
+    @Override
+    public <S extends Task> List<S> findAll(Example<S> example, Sort sort) {
+        throw queryByExample();
+    }
+
+    @Override
+    public <S extends Task> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw queryByExample();
+    }
+
+    @Override
+    public <S extends Task> long count(Example<S> example) {
+        throw queryByExample();
+    }
+
+    @Override
+    public <S extends Task> boolean exists(Example<S> example) {
+        throw queryByExample();
+    }
+
+    @Override
+    public <S extends Task, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> query) {
+        throw queryByExample();
+    }
+
+    private static UnsupportedOperationException queryByExample() {
+        return new UnsupportedOperationException("The in-memory task store does not support query by example");
+    }
+
+    // Scans
+
+    /**
+     * Tasks matching {@code filter} in {@code sort} order, after the keyset
+     * position {@code after} if there is one. Id filters are looked up and
+     * sorted; everything else walks the indexes of the sort column.
+     */
+    private Iterator<TaskRecord> scan(TaskFilter filter, Sort sort, Entry after) {
+        Column column = column(sort);
+        boolean ascending = !sort.isSorted() || sort.iterator().next().isAscending();
+        Comparator<Entry> order = ascending ? TenantIndex.ORDER : TenantIndex.ORDER.reversed();
+        Predicate<TaskRecord> matches = task -> matches(task, filter);
+
+        if (filter.ids() != null) {
+            List<TaskRecord> tasks = new ArrayList<>();
+            for (UUID id : new LinkedHashSet<>(filter.ids())) {
+                TaskRecord task = visible(store.get(id));
+                if (task != null && matches.test(task)
+                        && (after == null || order.compare(Entry.of(column.key(task), id), after) > 0)) {
+                    tasks.add(task);
+                }
+            }
+            tasks.sort((a, b) -> order.compare(Entry.of(column.key(a), a.id()), Entry.of(column.key(b), b.id())));
+            return tasks.iterator();
+        }
+
+        // Seek to the start of the sort column's range and stop at its end
+        Object low = null;
+        Object high = null;
+        Predicate<TaskRecord> within = task -> true;
+        if (column == Column.TITLE && filter.titlePrefix() != null) {
+            low = filter.titlePrefix();
+            high = filter.titlePrefix() + Character.MAX_VALUE;
+            within = task -> task.title().startsWith(filter.titlePrefix());
+        } else if (column == Column.CREATED_AT || column == Column.UPDATED_AT) {
+            Instant from = column == Column.CREATED_AT ? filter.createdFrom() : filter.updatedFrom();
+            Instant to = column == Column.CREATED_AT ? filter.createdTo() : filter.updatedTo();
+            low = from;
+            high = to;
+            within = task -> {
+                Instant value = (Instant) column.key(task);
+                return (from == null || !value.isBefore(from)) && (to == null || value.isBefore(to));
+            };
+        }
+        Entry start = ascending ? (low != null ? Entry.first(low) : null) : (high != null ? Entry.first(high) : null);
+        boolean startInclusive = ascending;
+        if (after != null && (start == null || order.compare(after, start) >= 0)) {
+            start = after;
+            startInclusive = false;
+        }
+
+        List<Source> sources = new ArrayList<>();
+        for (TenantIndex index : indexes(TenantContext.current())) {
+            for (boolean completed : new boolean[] { false, true }) {
+                if (filter.completed() == null || filter.completed() == completed) {
+                    NavigableSet<Entry> set = index.set(completed, column);
+                    NavigableSet<Entry> view = ascending ? set : set.descendingSet();
+                    if (start != null) {
+                        view = view.tailSet(start, startInclusive);
+                    }
+                    sources.add(new Source(view, completed, column));
+                }
+            }
+        }
+        return new Merge(sources, order, within, matches);
+    }
+
+    /** Index entries of one partition resolved to the tasks they still describe. */
+    private final class Source {
+        private final Iterator<Entry> entries;
+        private final boolean completed;
+        private final Column column;
+        Entry entry;
+        TaskRecord task;
+
+        Source(NavigableSet<Entry> entries, boolean completed, Column column) {
+            this.entries = entries.iterator();
+            this.completed = completed;
+            this.column = column;
+        }
+
+        boolean advance() {
+            while (entries.hasNext()) {
+                Entry next = entries.next();
+                TaskRecord candidate = store.get(next.msb(), next.lsb());
+                // Entries for a value the task no longer has are left over from a write in progress
+                if (candidate != null && candidate.completed() == completed
+                        && (column == Column.ID || column.key(candidate).equals(next.key()))) {
+                    entry = next;
+                    task = candidate;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /** Merges sources in index order until a task falls outside {@code within}, yielding those that match. */
+    private static final class Merge implements Iterator<TaskRecord> {
+        private final PriorityQueue<Source> heads;
+        private final Predicate<TaskRecord> within;
+        private final Predicate<TaskRecord> matches;
+        private TaskRecord next;
+
+        Merge(List<Source> sources, Comparator<Entry> order, Predicate<TaskRecord> within,
+                Predicate<TaskRecord> matches) {
+            this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> order.compare(a.entry, b.entry));
+            this.within = within;
+            this.matches = matches;
+            for (Source source : sources) {
+                if (source.advance()) {
+                    heads.add(source);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !heads.isEmpty()) {
+                Source head = heads.poll();
+                TaskRecord task = head.task;
+                if (!within.test(task)) {
+                    heads.clear();
+                    break;
+                }
+                if (head.advance()) {
+                    heads.add(head);
+                }
+                if (matches.test(task)) {
+                    next = task;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public TaskRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            TaskRecord task = next;
+            next = null;
+            return task;
+        }
+    }
+
+    private static boolean matches(TaskRecord task, TaskFilter filter) {
+        if (filter.search() != null && !filter.search().isEmpty()) {
+            Set<String> tokens = SearchTokens.tokenize(filter.search());
+            if (tokens.isEmpty()) {
+                return false;
+            }
+            String title = task.title().toLowerCase(Locale.ROOT);
+            String description = task.description() == null ? "" : task.description().toLowerCase(Locale.ROOT);
+            for (String token : tokens) {
+                if (!title.contains(token) && !description.contains(token)) {
+                    return false;
+                }
+            }
+        }
+        return (filter.completed() == null || filter.completed() == task.completed())
+                && (filter.titlePrefix() == null || task.title().startsWith(filter.titlePrefix()))
+                && (filter.createdFrom() == null || !task.createdAt().isBefore(filter.createdFrom()))
+                && (filter.createdTo() == null || task.createdAt().isBefore(filter.createdTo()))
+                && (filter.updatedFrom() == null || !task.updatedAt().isBefore(filter.updatedFrom()))
+                && (filter.updatedTo() == null || task.updatedAt().isBefore(filter.updatedTo()));
+    }
+
+    private static Column column(Sort sort) {
+        if (sort.isUnsorted()) {
+            return Column.ID;
+        }
+        String property = sort.iterator().next().getProperty();
+        Column column = Column.of(property);
+        if (column == null) {
+            throw new IllegalArgumentException("Cannot sort tasks by " + property);
+        }
+        return column;
+    }
+
+    private Collection<TenantIndex> indexes(String tenant) {
+        if (tenant == null) {
+            return store.indexes();
+        }
+        TenantIndex index = store.index(tenant);
+        return index == null ? List.of() : List.of(index);
+    }
+
+    /** {@code task} if the current tenant may see it; threads without a tenant see every task. */
+    private static TaskRecord visible(TaskRecord task) {
+        String tenant = TenantContext.current();
+        return task == null || tenant == null || tenant.equals(task.tenantId()) ? task : null;
+    }
+
+    private static <T> List<T> take(Iterator<TaskRecord> tasks, long offset, int limit,
+            Function<TaskRecord, T> mapper) {
+        for (long skipped = 0; skipped < offset && tasks.hasNext(); skipped++) {
+            tasks.next();
+        }
+        List<T> taken = new ArrayList<>(Math.min(limit, 1024));
+        while (taken.size() < limit && tasks.hasNext()) {
+            taken.add(mapper.apply(tasks.next()));
+        }
+        return taken;
+    }
+
+    private static Map<String, Object> keysOf(Task task, Sort keyset) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : keyset) {
+            Column column = Column.of(order.getProperty());
+            keys.put(order.getProperty(), column == Column.ID ? task.getId() : column.key(TaskRecord.of(task)));
+        }
+        return keys;
+    }
+
+    private static void copy(TaskRecord from, Task to) {
+        to.setId(from.id());
+        to.setTenantId(from.tenantId());
+        to.setVersion(from.version());
+        to.setCreatedAt(from.createdAt());
+        to.setUpdatedAt(from.updatedAt());
+    }
+}
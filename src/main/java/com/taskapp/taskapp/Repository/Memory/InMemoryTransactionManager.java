@@ -0,0 +1,86 @@
+package com.taskapp.taskapp.Repository.Memory;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transactions over a {@link TaskStore}, so {@code @Transactional} services,
+ * their after-commit listeners and rollbacks behave as they do on the
+ * database. Writes are visible to other threads before the commit (there is
+ * no isolation), and a rollback restores what the transaction replaced.
+ */
+public class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    private static final class Transaction implements SmartTransactionObject {
+        TaskStore.Changes changes;
+
+        @Override
+        public boolean isRollbackOnly() {
+            return changes.rollbackOnly;
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+
+    private final TaskStore store;
+
+    public InMemoryTransactionManager(TaskStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.changes = (TaskStore.Changes) TransactionSynchronizationManager.getResource(store);
+        return transaction;
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((Transaction) transaction).changes != null;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        TaskStore.Changes changes = new TaskStore.Changes();
+        ((Transaction) transaction).changes = changes;
+        TransactionSynchronizationManager.bindResource(store, changes);
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        ((Transaction) transaction).changes = null;
+        return TransactionSynchronizationManager.unbindResource(store);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(store, suspendedResources);
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        store.commit(((Transaction) status.getTransaction()).changes);
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        store.rollback(((Transaction) status.getTransaction()).changes);
+    }
+
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        // Shared with the outer transaction, which then rolls back instead of committing
+        ((Transaction) status.getTransaction()).changes.rollbackOnly = true;
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(store);
+    }
+}
@@ -0,0 +1,189 @@
+package com.taskapp.taskapp.Repository.Memory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * On-disk copy of the in-memory store: {@code tasks.snapshot} holds every
+ * task as of the last snapshot, one NDJSON record per line, and
+ * {@code tasks.log} the state each task was left in by every transaction
+ * since. Replaying the log over the snapshot restores the store. Appends from
+ * concurrent commits share fsyncs, as in the ingest journal.
+ */
+final class TaskJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(TaskJournal.class);
+
+    /** A task's state after a write: the task, or the id of a task that is gone. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Entry(TaskRecord put, UUID remove) {
+    }
+
+    private final Path snapshot;
+    private final Path log;
+    private final ObjectMapper objectMapper;
+    private final boolean fsync;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private FileChannel channel;
+    private volatile long written;
+    private volatile long synced;
+
+    private TaskJournal(Path directory, ObjectMapper objectMapper, boolean fsync) {
+        this.snapshot = directory.resolve("tasks.snapshot");
+        this.log = directory.resolve("tasks.log");
+        this.objectMapper = objectMapper;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Opens the journal in {@code directory}, handing the snapshot and then
+     * the log to {@code replay} in order.
+     */
+    static TaskJournal open(Path directory, ObjectMapper objectMapper, boolean fsync, Consumer<Entry> replay)
+            throws IOException {
+        Files.createDirectories(directory);
+        TaskJournal journal = new TaskJournal(directory, objectMapper, fsync);
+        journal.read(journal.snapshot, replay);
+        journal.read(journal.log, replay);
+        journal.channel = FileChannel.open(journal.log, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        journal.written = journal.channel.size();
+        journal.synced = journal.written;
+        return journal;
+    }
+
+    void append(List<Entry> entries) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (Entry entry : entries) {
+            lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        long end;
+        writeLock.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            written = channel.position();
+            end = written;
+        } finally {
+            writeLock.unlock();
+        }
+        if (fsync) {
+            sync(end);
+        }
+    }
+
+    /** Bytes in the log since the last snapshot. */
+    long logSize() {
+        return written;
+    }
+
+    /**
+     * Writes {@code tasks} as the new snapshot and empties the log. Appends
+     * wait meanwhile; writes already applied in memory but not yet appended
+     * are appended after the snapshot, so nothing is lost either way.
+     */
+    void snapshot(Consumer<Consumer<TaskRecord>> tasks) throws IOException {
+        Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        writeLock.lock();
+        syncLock.lock();
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                IOException[] failure = new IOException[1];
+                tasks.accept(task -> {
+                    if (failure[0] != null) {
+                        return;
+                    }
+                    try {
+                        out.write(objectMapper.writeValueAsString(new Entry(task, null)));
+                        out.write('\n');
+                    } catch (IOException ex) {
+                        failure[0] = ex;
+                    }
+                });
+                if (failure[0] != null) {
+                    throw failure[0];
+                }
+            }
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                out.force(true);
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel.truncate(0);
+            channel.force(false);
+            written = 0;
+            synced = 0;
+        } finally {
+            syncLock.unlock();
+            writeLock.unlock();
+        }
+    }
+
+    private void read(Path path, Consumer<Entry> replay) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    replay.accept(objectMapper.readValue(line, Entry.class));
+                } catch (JsonProcessingException ex) {
+                    // A torn last line from a crash mid-append
+                    logger.warn("Skipping unreadable line of {}: {}", path.getFileName(), ex.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    private void sync(long end) throws IOException {
+        if (synced >= end) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (synced < end) {
+                long target = written;
+                channel.force(false);
+                synced = target;
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.taskapp.taskapp.Repository.Memory;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.taskapp.taskapp.Models.Task;
+
+/**
+ * One task as the in-memory store holds it. Records are never changed: a
+ * write replaces the record, so readers need no locks and always see a
+ * consistent row, and the record a transaction replaced is what a rollback
+ * puts back.
+ */
+record TaskRecord(UUID id, String tenantId, String title, String description, boolean completed, long version,
+        Instant createdAt, Instant updatedAt) {
+
+    static TaskRecord of(Task task) {
+        return new TaskRecord(task.getId(), task.getTenantId(), task.getTitle(), task.getDescription(),
+                task.isCompleted(), task.getVersion(), task.getCreatedAt(), task.getUpdatedAt());
+    }
+
+    /** A detached copy, as a JPA load would hand out. */
+    Task toTask() {
+        Task task = new Task();
+        task.setId(id);
+        task.setTenantId(tenantId);
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setCompleted(completed);
+        task.setVersion(version);
+        task.setCreatedAt(createdAt);
+        task.setUpdatedAt(updatedAt);
+        return task;
+    }
+
+    /** Whether {@code task} holds different values for the fields a write can change. */
+    boolean differsFrom(Task task) {
+        return !title.equals(task.getTitle()) || !Objects.equals(description, task.getDescription())
+                || completed != task.isCompleted();
+    }
+
+    /** This task with the given fields set, as an {@code UPDATE ... SET} of them would leave it. */
+    TaskRecord with(Map<String, Object> changes, Instant now) {
+        String newTitle = title;
+        String newDescription = description;
+        boolean newCompleted = completed;
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            switch (change.getKey()) {
+                case "title" -> newTitle = (String) change.getValue();
+                case "description" -> newDescription = (String) change.getValue();
+                case "completed" -> newCompleted = (Boolean) change.getValue();
+                default -> throw new IllegalArgumentException("Cannot update task field " + change.getKey());
+            }
+        }
+        return new TaskRecord(id, tenantId, newTitle, newDescription, newCompleted, version + 1, createdAt, now);
+    }
+}
@@ -0,0 +1,199 @@
+package com.taskapp.taskapp.Repository.Memory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The tasks of every tenant held in memory, for deployments without a
+ * database: a {@link UuidMap} from id to {@link TaskRecord} and a
+ * {@link TenantIndex} of sorted list indexes per tenant. Optionally persisted
+ * to a {@link TaskJournal} so a restart picks up where the last run stopped.
+ * <p>
+ * Writes replace one record at a time and only if the record is still the
+ * one the writer read, which is how optimistic locking and conditional
+ * updates are checked. Writes inside a transaction of
+ * {@link InMemoryTransactionManager} are visible to other threads at once;
+ * a rollback puts back the records they replaced, and the journal gets the
+ * tasks' states when the transaction ends.
+ */
+public final class TaskStore implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(TaskStore.class);
+    private static final int LOCKS = 256;
+
+    /** A replaced record; {@code before} or {@code after} is null for an insert or a delete. */
+    record Change(UUID id, TaskRecord before, TaskRecord after) {
+    }
+
+    /** The changes of one transaction, bound as a transaction resource under the store. */
+    static final class Changes {
+        final List<Change> changes = new ArrayList<>();
+        boolean rollbackOnly;
+    }
+
+    private final UuidMap<TaskRecord> tasks = new UuidMap<>();
+    private final Map<String, TenantIndex> tenants = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCKS];
+    private final TaskJournal journal;
+
+    private TaskStore(Path directory, ObjectMapper objectMapper, boolean fsync) throws IOException {
+        for (int i = 0; i < LOCKS; i++) {
+            locks[i] = new Object();
+        }
+        if (directory == null) {
+            journal = null;
+            return;
+        }
+        journal = TaskJournal.open(directory, objectMapper, fsync, entry -> {
+            if (entry.put() != null) {
+                apply(entry.put().id(), entry.put());
+            } else if (entry.remove() != null) {
+                apply(entry.remove(), null);
+            }
+        });
+        logger.info("Loaded {} tasks from {}", tasks.size(), directory.toAbsolutePath());
+    }
+
+    /** A store that lives only as long as the process. */
+    public static TaskStore inMemory() {
+        try {
+            return new TaskStore(null, null, false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /** A store kept in {@code directory}, loaded from it now. */
+    public static TaskStore open(Path directory, ObjectMapper objectMapper, boolean fsync) throws IOException {
+        return new TaskStore(directory, objectMapper, fsync);
+    }
+
+    TaskRecord get(UUID id) {
+        return tasks.get(id);
+    }
+
+    TaskRecord get(long msb, long lsb) {
+        return tasks.get(msb, lsb);
+    }
+
+    int size() {
+        return tasks.size();
+    }
+
+    /** The index of {@code tenant}, or null if it never had a task. */
+    TenantIndex index(String tenant) {
+        return tenants.get(tenant);
+    }
+
+    Collection<TenantIndex> indexes() {
+        return tenants.values();
+    }
+
+    Map<String, TenantIndex> indexesByTenant() {
+        return tenants;
+    }
+
+    void forEach(Consumer<TaskRecord> action) {
+        tasks.forEach(action);
+    }
+
+    /**
+     * Replaces the record of {@code id} with {@code next}, or removes it if
+     * {@code next} is null, provided it is still {@code expected} (null: the
+     * task does not exist). Returns whether it was.
+     */
+    boolean write(UUID id, TaskRecord expected, TaskRecord next) {
+        synchronized (locks[Math.floorMod(id.hashCode(), LOCKS)]) {
+            if (tasks.get(id) != expected) {
+                return false;
+            }
+            apply(id, next);
+        }
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes != null) {
+            changes.changes.add(new Change(id, expected, next));
+        } else {
+            journal(List.of(id));
+        }
+        return true;
+    }
+
+    /** Puts back the records a rolled-back transaction replaced, unless they were replaced again since. */
+    void rollback(Changes changes) {
+        List<Change> undo = changes.changes;
+        for (int i = undo.size() - 1; i >= 0; i--) {
+            Change change = undo.get(i);
+            synchronized (locks[Math.floorMod(change.id().hashCode(), LOCKS)]) {
+                if (tasks.get(change.id()) == change.after()) {
+                    apply(change.id(), change.before());
+                }
+            }
+        }
+        // The journal may already hold the undone records, appended by a transaction that read them
+        commit(changes);
+    }
+
+    /** Appends the current state of the tasks {@code changes} touched. */
+    void commit(Changes changes) {
+        if (journal != null && !changes.changes.isEmpty()) {
+            journal(changes.changes.stream().map(Change::id).distinct().toList());
+        }
+    }
+
+    private void journal(List<UUID> ids) {
+        if (journal == null) {
+            return;
+        }
+        List<TaskJournal.Entry> entries = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            TaskRecord task = tasks.get(id);
+            entries.add(task != null ? new TaskJournal.Entry(task, null) : new TaskJournal.Entry(null, id));
+        }
+        try {
+            journal.append(entries);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append to the task journal", ex);
+        }
+    }
+
+    /** Writes a snapshot and empties the log, if there is a journal and the log has grown past {@code minLogSize}. */
+    public void snapshot(long minLogSize) throws IOException {
+        if (journal == null || journal.logSize() <= minLogSize) {
+            return;
+        }
+        long started = System.nanoTime();
+        journal.snapshot(tasks::forEach);
+        logger.info("Wrote snapshot of {} tasks in {} ms", tasks.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void apply(UUID id, TaskRecord next) {
+        TaskRecord previous = tasks.put(id, next);
+        TaskRecord any = next != null ? next : previous;
+        if (any == null) {
+            return;
+        }
+        tenants.computeIfAbsent(any.tenantId(), tenant -> new TenantIndex()).update(previous, next);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (journal != null) {
+            snapshot(0);
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.taskapp.taskapp.Repository.Memory;
+
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The list indexes of one tenant, the counterpart of the tenant-leading
+ * indexes of the {@code task} table: for open and for completed tasks, one
+ * sorted set per sortable column, ordered by the column and then the id.
+ * Listings without a {@code completed} filter merge the two.
+ * <p>
+ * Entries hold only the column value and the id; readers look the task up by
+ * id and skip entries whose value no longer matches it. A write therefore
+ * adds the entry for the new value before removing the old one, so a
+ * concurrent reader sees the task once, and columns a write leaves alone
+ * keep their entries.
+ */
+final class TenantIndex {
+
+    enum Column {
+        ID("id"), TITLE("title"), CREATED_AT("createdAt"), UPDATED_AT("updatedAt");
+
+        final String property;
+
+        Column(String property) {
+            this.property = property;
+        }
+
+        static Column of(String property) {
+            for (Column column : values()) {
+                if (column.property.equals(property)) {
+                    return column;
+                }
+            }
+            return null;
+        }
+
+        Object key(TaskRecord task) {
+            return switch (this) {
+                case ID -> null;
+                case TITLE -> task.title();
+                case CREATED_AT -> task.createdAt();
+                case UPDATED_AT -> task.updatedAt();
+            };
+        }
+    }
+
+    /** Column value and id; the value is null in the id index. */
+    record Entry(Object key, long msb, long lsb) {
+
+        static Entry of(Object key, UUID id) {
+            return new Entry(key, id.getMostSignificantBits(), id.getLeastSignificantBits());
+        }
+
+        /** Sorts before every entry with this value. */
+        static Entry first(Object key) {
+            return new Entry(key, 0, 0);
+        }
+
+        UUID id() {
+            return new UUID(msb, lsb);
+        }
+    }
+
+    /** Values first, then ids compared as unsigned bytes like the {@code BINARY(16)} column. */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static final Comparator<Entry> ORDER = (a, b) -> {
+        if (a.key != null) {
+            int byKey = ((Comparable) a.key).compareTo(b.key);
+            if (byKey != 0) {
+                return byKey;
+            }
+        }
+        int byMsb = Long.compareUnsigned(a.msb, b.msb);
+        return byMsb != 0 ? byMsb : Long.compareUnsigned(a.lsb, b.lsb);
+    };
+
+    private static final Column[] COLUMNS = Column.values();
+
+    @SuppressWarnings("unchecked")
+    private final NavigableSet<Entry>[][] sets = new NavigableSet[2][COLUMNS.length];
+    private final LongAdder open = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+
+    TenantIndex() {
+        for (NavigableSet<Entry>[] partition : sets) {
+            for (int column = 0; column < COLUMNS.length; column++) {
+                partition[column] = new ConcurrentSkipListSet<>(ORDER);
+            }
+        }
+    }
+
+    NavigableSet<Entry> set(boolean completed, Column column) {
+        return sets[completed ? 1 : 0][column.ordinal()];
+    }
+
+    long count(boolean completed) {
+        return (completed ? this.completed : open).sum();
+    }
+
+    /** Moves the index from {@code before} to {@code after}; either is null for an insert or a delete. */
+    void update(TaskRecord before, TaskRecord after) {
+        boolean moves = before == null || after == null || before.completed() != after.completed();
+        for (Column column : COLUMNS) {
+            if (after != null && (moves || !Objects.equals(column.key(before), column.key(after)))) {
+                set(after.completed(), column).add(Entry.of(column.key(after), after.id()));
+                if (before != null) {
+                    set(before.completed(), column).remove(Entry.of(column.key(before), before.id()));
+                }
+            } else if (after == null) {
+                set(before.completed(), column).remove(Entry.of(column.key(before), before.id()));
+            }
+        }
+        if (moves) {
+            if (before != null) {
+                (before.completed() ? completed : open).decrement();
+            }
+            if (after != null) {
+                (after.completed() ? completed : open).increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.taskapp.taskapp.Repository.Memory;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Concurrent hash map from a {@code UUID}, stored as its two {@code long}s, to
+ * a value. Keys live in flat {@code long[]} arrays with linear probing, so
+ * there are no entry objects and no boxed or {@code UUID} keys to allocate.
+ * The table is split into stripes by hash; each stripe is guarded by a
+ * {@link StampedLock} whose optimistic read lets lookups run without writing
+ * to shared memory unless a writer of the same stripe got in between.
+ */
+final class UuidMap<V> {
+    private static final int STRIPES = 64;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final class Stripe {
+        final StampedLock lock = new StampedLock();
+        long[] keys = new long[INITIAL_CAPACITY * 2];
+        Object[] values = new Object[INITIAL_CAPACITY];
+        int size;
+    }
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    UuidMap() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    V get(UUID id) {
+        return get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long msb, long lsb) {
+        int hash = hash(msb, lsb);
+        Stripe stripe = stripes[hash >>> 26];
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            long[] keys = stripe.keys;
+            Object[] values = stripe.values;
+            // A resize in progress may have replaced one array and not yet the other
+            Object value = keys.length == values.length * 2 ? find(keys, values, hash, msb, lsb) : null;
+            if (stripe.lock.validate(stamp)) {
+                return (V) value;
+            }
+        }
+        stamp = stripe.lock.readLock();
+        try {
+            return (V) find(stripe.keys, stripe.values, hash, msb, lsb);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /** Maps {@code id} to {@code value}, or removes it if {@code value} is null; returns the previous value. */
+    @SuppressWarnings("unchecked")
+    V put(UUID id, V value) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int hash = hash(msb, lsb);
+        Stripe stripe = stripes[hash >>> 26];
+        long stamp = stripe.lock.writeLock();
+        try {
+            int mask = stripe.values.length - 1;
+            int slot = hash & mask;
+            while (stripe.values[slot] != null) {
+                if (stripe.keys[slot * 2] == msb && stripe.keys[slot * 2 + 1] == lsb) {
+                    Object previous = stripe.values[slot];
+                    if (value != null) {
+                        stripe.values[slot] = value;
+                    } else {
+                        delete(stripe, slot);
+                    }
+                    return (V) previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (value != null) {
+                stripe.keys[slot * 2] = msb;
+                stripe.keys[slot * 2 + 1] = lsb;
+                stripe.values[slot] = value;
+                if (++stripe.size * 2 > stripe.values.length) {
+                    resize(stripe);
+                }
+            }
+            return null;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /** Visits every value; each stripe is read under its lock, so values of other stripes may change meanwhile. */
+    @SuppressWarnings("unchecked")
+    void forEach(Consumer<? super V> action) {
+        for (Stripe stripe : stripes) {
+            Object[] copy;
+            long stamp = stripe.lock.readLock();
+            try {
+                copy = stripe.values.clone();
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+            for (Object value : copy) {
+                if (value != null) {
+                    action.accept((V) value);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+            try {
+                stripe.keys = new long[INITIAL_CAPACITY * 2];
+                stripe.values = new Object[INITIAL_CAPACITY];
+                stripe.size = 0;
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    // May read a table a writer is changing; the caller validates the stamp, and the probe is bounded so it ends
+    private static Object find(long[] keys, Object[] values, int hash, long msb, long lsb) {
+        int mask = values.length - 1;
+        int slot = hash & mask;
+        for (int probes = 0; probes < values.length; probes++) {
+            Object value = values[slot];
+            if (value == null) {
+                return null;
+            }
+            if (keys[slot * 2] == msb && keys[slot * 2 + 1] == lsb) {
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /** Empties {@code slot} and shifts later entries of the same probe run back, so no tombstones are needed. */
+    private static void delete(Stripe stripe, int slot) {
+        long[] keys = stripe.keys;
+        Object[] values = stripe.values;
+        int mask = values.length - 1;
+        int gap = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (values[next] == null) {
+                break;
+            }
+            int home = hash(keys[next * 2], keys[next * 2 + 1]) & mask;
+            boolean stays = gap <= next ? gap < home && home <= next : gap < home || home <= next;
+            if (!stays) {
+                keys[gap * 2] = keys[next * 2];
+                keys[gap * 2 + 1] = keys[next * 2 + 1];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        values[gap] = null;
+        stripe.size--;
+    }
+
+    private static void resize(Stripe stripe) {
+        long[] oldKeys = stripe.keys;
+        Object[] oldValues = stripe.values;
+        long[] keys = new long[oldKeys.length * 2];
+        Object[] values = new Object[oldValues.length * 2];
+        int mask = values.length - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                long msb = oldKeys[i * 2];
+                long lsb = oldKeys[i * 2 + 1];
+                int slot = hash(msb, lsb) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot * 2] = msb;
+                keys[slot * 2 + 1] = lsb;
+                values[slot] = oldValues[i];
+            }
+        }
+        // Readers holding the old arrays fail validation and retry on these
+        stripe.keys = keys;
+        stripe.values = values;
+    }
+
+    /** Stripe from the top six bits, slot from the low bits. */
+    private static int hash(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,103 @@
+package com.taskapp.taskapp.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every repository call and records how many rows it returned, per
+ * repository method. Calls slower than the threshold are logged with their
+ * arguments and counted separately.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryMetricsInterceptor.class);
+
+    private final MeterRegistry registry;
+    private final String repository;
+    private final long slowThresholdNanos;
+
+    public RepositoryMetricsInterceptor(MeterRegistry registry, Class<?> repositoryInterface, Duration slowThreshold) {
+        this.registry = registry;
+        this.repository = repositoryInterface.getSimpleName();
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String method = invocation.getMethod().getName();
+        long start = System.nanoTime();
+        String outcome = "success";
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("taskapp.repository.invocations")
+                    .description("Repository method execution time")
+                    .tags("repository", repository, "method", method, "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+
+            long rows = rows(result);
+            if (rows >= 0) {
+                DistributionSummary.builder("taskapp.repository.rows")
+                        .description("Rows returned by repository methods")
+                        .baseUnit("rows")
+                        .tags("repository", repository, "method", method)
+                        .register(registry)
+                        .record(rows);
+            }
+
+            if (elapsed > slowThresholdNanos) {
+                registry.counter("taskapp.repository.slow", "repository", repository, "method", method).increment();
+                logger.warn("Slow repository call {}.{} took {} ms (rows: {}, args: {})", repository, method,
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), rows < 0 ? "n/a" : rows,
+                        describe(invocation.getArguments()));
+            }
+        }
+    }
+
+    static long rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+
+    private static String describe(Object[] arguments) {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < arguments.length; i++) {
+            Object argument = arguments[i];
+            out.append(i == 0 ? "" : ", ").append(argument instanceof Collection<?> collection
+                    ? collection.size() + " items"
+                    : String.valueOf(argument));
+        }
+        return out.append(']').toString();
+    }
+}
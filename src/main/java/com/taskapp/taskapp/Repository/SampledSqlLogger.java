@@ -0,0 +1,30 @@
+package com.taskapp.taskapp.Repository;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs a random sample of the SQL statements Hibernate prepares, as a cheap
+ * replacement for logging every statement. Statements slower than
+ * {@code hibernate.log_slow_query} are logged by Hibernate regardless.
+ */
+public class SampledSqlLogger implements StatementInspector {
+    private static final Logger logger = LoggerFactory.getLogger(SampledSqlLogger.class);
+
+    private final double sampleRate;
+
+    public SampledSqlLogger(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate && logger.isInfoEnabled()) {
+            logger.info("Sampled SQL: {}", sql);
+        }
+        return sql;
+    }
+}
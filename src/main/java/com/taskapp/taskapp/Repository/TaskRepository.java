@@ -1,7 +1,10 @@
 package com.taskapp.taskapp.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,11 +13,21 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskFilter;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, UUID> {
-    @Query("SELECT t FROM Task t WHERE " +
-           "LOWER(t.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    Page<Task> searchTasks(@Param("searchTerm") String searchTerm, Pageable pageable);
+public interface TaskRepository extends JpaRepository<Task, UUID>, TaskRepositoryCustom {
+    /** Tasks matching the search term as the search index matches it, with one {@code LIKE} per token. */
+    default Page<Task> searchTasks(String searchTerm, Pageable pageable) {
+        return findPage(TaskFilter.matching(searchTerm), pageable);
+    }
+
+    @Query("SELECT t.id FROM Task t WHERE t.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    Page<Task> findByIdIn(Collection<UUID> ids, Pageable pageable);
+
+    List<Task> findAllByOrderByIdAsc(Limit limit);
+
+    List<Task> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
 }
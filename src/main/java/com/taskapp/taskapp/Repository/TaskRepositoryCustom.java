@@ -0,0 +1,116 @@
+package com.taskapp.taskapp.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import com.taskapp.taskapp.Models.LoggedTaskChange;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskCounts;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Models.TaskView;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Offset page over the filtered tasks, read in two steps: the page's ids
+     * come from a query the list indexes cover, then the tasks are loaded by
+     * id through the entity cache.
+     */
+    Page<Task> findPage(TaskFilter filter, Pageable pageable);
+
+    /**
+     * Like {@link #findPage} but selects only {@code id} and the given fields
+     * into {@link TaskView}s, without loading entities. With the list indexes
+     * a page of ids, titles and states is read from the index alone.
+     */
+    Page<TaskView> findViews(TaskFilter filter, Pageable pageable, Collection<String> fields);
+
+    /**
+     * Keyset page over the filtered tasks. The sort must end in a unique
+     * property so every position identifies exactly one row.
+     */
+    Window<Task> scroll(TaskFilter filter, Sort keyset, KeysetScrollPosition position, int limit);
+
+    long count(TaskFilter filter);
+
+    /**
+     * Forward-only stream over every task. Rows are detached as they are
+     * handed out so the persistence context stays empty, and bypass the
+     * entity cache; the stream has to be consumed inside a transaction and
+     * closed.
+     */
+    Stream<Task> streamAll(int fetchSize);
+
+    /**
+     * Sets the given fields and bumps the version in a single
+     * {@code UPDATE ... WHERE id = ? AND version = ?}. Returns the number of
+     * rows changed, which is 0 if the task is missing or at another version.
+     * Only this task is evicted from the entity cache.
+     */
+    int updateFields(UUID id, long expectedVersion, Map<String, Object> changes);
+
+    /**
+     * Deletes the given tasks in one statement without loading them: with
+     * {@code taskapp.delete.soft} an {@code UPDATE} that sets
+     * {@code deleted_at} and bumps the version, otherwise a {@code DELETE}.
+     * Returns the number of tasks deleted; tasks that are missing or already
+     * deleted are not counted. Only these tasks are evicted from the entity
+     * cache.
+     */
+    int removeAll(Collection<UUID> ids);
+
+    /**
+     * {@link #removeAll} that tells which tasks it removed: maps the id of
+     * every task it deleted to whether the task was completed. The tasks are
+     * locked while they are read, so none can be deleted or completed in
+     * between.
+     */
+    Map<UUID, Boolean> removeExisting(Collection<UUID> ids);
+
+    /**
+     * Ids of up to {@code limit} soft-deleted tasks of any tenant, oldest
+     * deletion first, locked until the transaction ends.
+     */
+    List<UUID> lockDeleted(int limit);
+
+    /**
+     * Up to {@code limit} tasks of any tenant completed and last changed
+     * before {@code before}, least recently changed first, locked until the
+     * transaction ends. Maps their ids to their tenants.
+     */
+    Map<UUID, String> lockCompletedBefore(Instant before, int limit);
+
+    /**
+     * Copies the given tasks into {@code task_archive} and deletes them from
+     * {@code task}, soft-deleted or not. Returns the number of tasks moved.
+     */
+    int archive(Collection<UUID> ids, Instant archivedAt);
+
+    /** Counts the live tasks of every tenant, by tenant. */
+    Map<String, TaskCounts> countByTenant();
+
+    /** Sequence number of the last entry of {@code task_change_log}, 0 if there is none. */
+    long lastLoggedChange();
+
+    /** Up to {@code limit} entries of {@code task_change_log} after {@code seq}, in sequence order. */
+    List<LoggedTaskChange> findLoggedChangesAfter(long seq, int limit);
+
+    /** Deletes the entries of {@code task_change_log} logged before {@code before}. Returns how many. */
+    int pruneLoggedChanges(Instant before);
+
+    /**
+     * Evicts tasks of a tenant that were changed outside this application
+     * from the entity cache.
+     */
+    void evict(Collection<UUID> ids, String tenantId);
+}
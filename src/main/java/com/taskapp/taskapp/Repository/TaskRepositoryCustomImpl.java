@@ -0,0 +1,487 @@
+package com.taskapp.taskapp.Repository;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.taskapp.taskapp.Models.ArchivedTask;
+import com.taskapp.taskapp.Models.LoggedTaskChange;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskCounts;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Models.TaskView;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Util.SearchTokens;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    private static final String TASK_COLUMNS = "id, tenant_id, title, description, completed, version, created_at, updated_at, deleted_at";
+    // The fields a patch may set, which are named like their columns
+    private static final Set<String> UPDATABLE_COLUMNS = Set.of("title", "description", "completed");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${taskapp.delete.soft:true}")
+    private boolean softDelete;
+
+    @Override
+    public Page<Task> findPage(TaskFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(root.get("id"))
+            .where(filterPredicates(cb, root, filter).toArray(Predicate[]::new))
+            .orderBy(orders(cb, root, filter, pageable.getSort()));
+
+        List<UUID> ids = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+        List<Task> content = ids.isEmpty() ? List.of() : entityManager.unwrap(Session.class)
+            .byMultipleIds(Task.class)
+            .multiLoad(ids)
+            .stream()
+            .filter(Objects::nonNull)
+            .toList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    @Override
+    public Page<TaskView> findViews(TaskFilter filter, Pageable pageable, Collection<String> fields) {
+        List<String> columns = TaskView.FIELDS.stream()
+            .filter(field -> "id".equals(field) || fields.contains(field))
+            .toList();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+        List<Selection<?>> selections = new ArrayList<>();
+        columns.forEach(column -> selections.add(root.get(column).alias(column)));
+        query.multiselect(selections)
+            .where(filterPredicates(cb, root, filter).toArray(Predicate[]::new))
+            .orderBy(orders(cb, root, filter, pageable.getSort()));
+
+        List<TaskView> content = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultStream()
+            .map(row -> new TaskView(
+                row.get("id", UUID.class),
+                column(row, columns, "title", String.class),
+                column(row, columns, "description", String.class),
+                column(row, columns, "completed", Boolean.class),
+                column(row, columns, "version", Long.class),
+                column(row, columns, "createdAt", Instant.class),
+                column(row, columns, "updatedAt", Instant.class)))
+            .toList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    @Override
+    public Window<Task> scroll(TaskFilter filter, Sort keyset, KeysetScrollPosition position, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+
+        List<Predicate> predicates = filterPredicates(cb, root, filter);
+        if (!position.isInitial()) {
+            predicates.add(after(cb, root, keyset, position.getKeys()));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(orders(cb, root, filter, keyset));
+
+        List<Task> results = entityManager.createQuery(query)
+            .setMaxResults(limit + 1)
+            .getResultList();
+        boolean hasNext = results.size() > limit;
+        List<Task> content = hasNext ? results.subList(0, limit) : results;
+
+        return Window.from(content, index -> ScrollPosition.forward(keysOf(content.get(index), keyset)), hasNext);
+    }
+
+    @Override
+    public long count(TaskFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(cb.count(root)).where(filterPredicates(cb, root, filter).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public Stream<Task> streamAll(int fetchSize) {
+        // A query's own cache mode only lasts until the stream is opened, before its rows are read
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        return entityManager.createQuery("SELECT t FROM Task t", Task.class)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream()
+            .peek(entityManager::detach)
+            .onClose(() -> session.setCacheMode(cacheMode));
+    }
+
+    @Override
+    public int updateFields(UUID id, long expectedVersion, Map<String, Object> changes) {
+        StringBuilder sql = new StringBuilder("UPDATE task SET ");
+        changes.keySet().forEach(field -> {
+            if (!UPDATABLE_COLUMNS.contains(field)) {
+                throw new IllegalArgumentException("Not an updatable field: " + field);
+            }
+            sql.append(field).append(" = :").append(field).append(", ");
+        });
+        String tenant = tenant();
+        sql.append("version = version + 1, updated_at = :now WHERE id = :id AND version = :version")
+            .append(" AND deleted_at IS NULL")
+            .append(TenantContext.ALL_TENANTS.equals(tenant) ? "" : " AND tenant_id = :tenant");
+
+        NativeQuery<?> update = entityManager.createNativeQuery(sql.toString())
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace("")
+            .setParameter("now", Task.now())
+            .setParameter("id", bytes(id))
+            .setParameter("version", expectedVersion);
+        // Typed, so a null description is bound as a string
+        changes.forEach((field, value) -> {
+            if ("completed".equals(field)) {
+                update.setParameter(field, (Boolean) value, Boolean.class);
+            } else {
+                update.setParameter(field, (String) value, String.class);
+            }
+        });
+        if (!TenantContext.ALL_TENANTS.equals(tenant)) {
+            update.setParameter("tenant", tenant);
+        }
+        int updated = update.executeUpdate();
+        evict(List.of(id), List.of(tenant));
+        return updated;
+    }
+
+    @Override
+    public int removeAll(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String tenant = tenant();
+        String where = live(tenant);
+        NativeQuery<?> statement = softDelete
+            ? entityManager.createNativeQuery("UPDATE task SET deleted_at = :now, version = version + 1" + where)
+                .unwrap(NativeQuery.class)
+                .setParameter("now", Task.now())
+            : entityManager.createNativeQuery("DELETE FROM task" + where).unwrap(NativeQuery.class);
+        if (!TenantContext.ALL_TENANTS.equals(tenant)) {
+            statement.setParameter("tenant", tenant);
+        }
+        int removed = statement.addSynchronizedQuerySpace("")
+            .setParameterList("ids", ids.stream().map(TaskRepositoryCustomImpl::bytes).toList())
+            .executeUpdate();
+        evict(ids, List.of(tenant));
+        return removed;
+    }
+
+    @Override
+    public Map<UUID, Boolean> removeExisting(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        String tenant = tenant();
+        NativeQuery<?> select = entityManager.createNativeQuery("SELECT id, completed FROM task" + live(tenant)
+                + " FOR UPDATE")
+            .unwrap(NativeQuery.class)
+            .setParameterList("ids", ids.stream().map(TaskRepositoryCustomImpl::bytes).toList());
+        if (!TenantContext.ALL_TENANTS.equals(tenant)) {
+            select.setParameter("tenant", tenant);
+        }
+        Map<UUID, Boolean> existing = new LinkedHashMap<>();
+        for (Object row : select.getResultList()) {
+            Object[] columns = (Object[]) row;
+            existing.put(id(columns[0]), Boolean.TRUE.equals(columns[1])
+                || columns[1] instanceof Number number && number.intValue() != 0);
+        }
+        removeAll(existing.keySet());
+        return existing;
+    }
+
+    private static String live(String tenant) {
+        return " WHERE id IN (:ids) AND deleted_at IS NULL"
+            + (TenantContext.ALL_TENANTS.equals(tenant) ? "" : " AND tenant_id = :tenant");
+    }
+
+    /** The session's tenant, which Hibernate adds to entity statements and cache keys but not to native ones. */
+    private String tenant() {
+        return (String) entityManager.unwrap(Session.class).getTenantIdentifierValue();
+    }
+
+    // Native statements synchronized on the empty query space evict nothing from the entity cache, where Hibernate
+    // would otherwise drop the whole task region. The tasks they changed are evicted by id instead, once now and
+    // again when the transaction ends, so that a load racing the statement cannot leave the old state cached.
+    // Cache keys carry the tenant of the session that cached the task.
+    private void evict(Collection<UUID> ids, Collection<String> tenants) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(Task.class);
+        EntityDataAccess cache = persister.getCacheAccessStrategy();
+        List<UUID> evicted = List.copyOf(ids);
+        Runnable evict = () -> evicted.forEach(id -> tenants.forEach(tenant ->
+            cache.evict(cache.generateCacheKey(id, persister, factory, tenant))));
+        evict.run();
+        session.getActionQueue().registerProcess((success, completed) -> evict.run());
+    }
+
+    // The purge queries are native: the entity's soft-delete restriction would hide the rows they are after
+
+    @Override
+    public List<UUID> lockDeleted(int limit) {
+        return ids(entityManager.createNativeQuery(
+                "SELECT id FROM task WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT :limit FOR UPDATE")
+            .setParameter("limit", limit)
+            .getResultList());
+    }
+
+    @Override
+    public Map<UUID, String> lockCompletedBefore(Instant before, int limit) {
+        List<?> rows = entityManager.createNativeQuery("SELECT id, tenant_id FROM task WHERE completed = TRUE "
+                + "AND updated_at < :before AND deleted_at IS NULL ORDER BY updated_at, id LIMIT :limit FOR UPDATE")
+            .setParameter("before", before)
+            .setParameter("limit", limit)
+            .getResultList();
+        Map<UUID, String> tenants = new LinkedHashMap<>();
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            tenants.put(id(columns[0]), (String) columns[1]);
+        }
+        return tenants;
+    }
+
+    @Override
+    public int archive(Collection<UUID> ids, Instant archivedAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<byte[]> keys = ids.stream().map(TaskRepositoryCustomImpl::bytes).toList();
+        List<String> tenants = entityManager.unwrap(Session.class)
+            .createNativeQuery("SELECT DISTINCT tenant_id FROM task WHERE id IN (:ids)", String.class)
+            .setParameterList("ids", keys)
+            .getResultList();
+        entityManager.createNativeQuery("INSERT INTO task_archive (" + TASK_COLUMNS + ", archived_at) SELECT "
+                + TASK_COLUMNS + ", :archivedAt FROM task WHERE id IN (:ids)")
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(ArchivedTask.class)
+            .setParameter("archivedAt", archivedAt)
+            .setParameterList("ids", keys)
+            .executeUpdate();
+        int archived = entityManager.createNativeQuery("DELETE FROM task WHERE id IN (:ids)")
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace("")
+            .setParameterList("ids", keys)
+            .executeUpdate();
+        // The purge runs across tenants, so the tasks may be cached under their own tenant or the purge's
+        List<String> cachedUnder = new ArrayList<>(tenants);
+        cachedUnder.add(tenant());
+        evict(ids, cachedUnder);
+        return archived;
+    }
+
+    // Answered from the tenant-leading list indexes, which hold completed and deleted_at too
+    @Override
+    public Map<String, TaskCounts> countByTenant() {
+        List<?> rows = entityManager.createNativeQuery("SELECT tenant_id, COUNT(*), "
+                + "SUM(CASE WHEN completed = TRUE THEN 1 ELSE 0 END) FROM task WHERE deleted_at IS NULL "
+                + "GROUP BY tenant_id")
+            .getResultList();
+        Map<String, TaskCounts> counts = new LinkedHashMap<>();
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            counts.put((String) columns[0],
+                new TaskCounts(((Number) columns[1]).longValue(), ((Number) columns[2]).longValue()));
+        }
+        return counts;
+    }
+
+    @Override
+    public long lastLoggedChange() {
+        return ((Number) entityManager.createNativeQuery("SELECT COALESCE(MAX(seq), 0) FROM task_change_log")
+            .getSingleResult()).longValue();
+    }
+
+    @Override
+    public List<LoggedTaskChange> findLoggedChangesAfter(long seq, int limit) {
+        List<?> rows = entityManager.createNativeQuery("SELECT seq, tenant_id, task_id, change_type "
+                + "FROM task_change_log WHERE seq > :seq ORDER BY seq LIMIT :limit")
+            .setParameter("seq", seq)
+            .setParameter("limit", limit)
+            .getResultList();
+        List<LoggedTaskChange> changes = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            changes.add(new LoggedTaskChange(((Number) columns[0]).longValue(), (String) columns[1], id(columns[2]),
+                (String) columns[3]));
+        }
+        return changes;
+    }
+
+    @Override
+    public int pruneLoggedChanges(Instant before) {
+        return entityManager.createNativeQuery("DELETE FROM task_change_log WHERE changed_at < :before")
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace("")
+            .setParameter("before", before)
+            .executeUpdate();
+    }
+
+    // A task may be cached under its own tenant or, when loaded across tenants, under the session's
+    @Override
+    public void evict(Collection<UUID> ids, String tenantId) {
+        String session = tenant();
+        evict(ids, session.equals(tenantId) ? List.of(tenantId) : List.of(tenantId, session));
+    }
+
+    private static List<UUID> ids(List<?> rows) {
+        return rows.stream().map(TaskRepositoryCustomImpl::id).toList();
+    }
+
+    private static UUID id(Object column) {
+        ByteBuffer buffer = ByteBuffer.wrap((byte[]) column);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits())
+            .array();
+    }
+
+    private static Map<String, Object> keysOf(Task task, Sort keyset) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(task);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : keyset) {
+            keys.put(order.getProperty(), wrapper.getPropertyValue(order.getProperty()));
+        }
+        return keys;
+    }
+
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Task> root, TaskFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.search() != null && !filter.search().isEmpty()) {
+            // Matches like the search index: every token inside the title or the description. Tokens are letters
+            // and digits only, so they need no escaping.
+            Set<String> tokens = SearchTokens.tokenize(filter.search());
+            if (tokens.isEmpty()) {
+                predicates.add(cb.disjunction());
+            }
+            for (String token : tokens) {
+                String pattern = "%" + token + "%";
+                predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("title")), pattern),
+                    cb.like(cb.lower(root.get("description")), pattern)));
+            }
+        }
+        if (filter.ids() != null) {
+            predicates.add(filter.ids().isEmpty() ? cb.disjunction() : root.get("id").in(filter.ids()));
+        }
+        if (filter.completed() != null) {
+            predicates.add(cb.equal(root.get("completed"), filter.completed()));
+        }
+        if (filter.titlePrefix() != null) {
+            // No LOWER() here, it would keep the title index from being used; case follows the column collation
+            predicates.add(cb.like(root.get("title"), escapeLike(filter.titlePrefix()) + "%", '\\'));
+        }
+        range(cb, root.<Instant>get("createdAt"), filter.createdFrom(), filter.createdTo(), predicates);
+        range(cb, root.<Instant>get("updatedAt"), filter.updatedFrom(), filter.updatedTo(), predicates);
+        return predicates;
+    }
+
+    private static <T> T column(Tuple row, List<String> columns, String column, Class<T> type) {
+        return columns.contains(column) ? row.get(column, type) : null;
+    }
+
+    private static void range(CriteriaBuilder cb, Expression<Instant> path, Instant from, Instant to,
+            List<Predicate> predicates) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(path, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(path, to));
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Predicate after(CriteriaBuilder cb, Root<Task> root, Sort keyset, Map<String, Object> keys) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalities = new ArrayList<>();
+        for (Sort.Order order : keyset) {
+            Expression<Comparable> path = root.get(order.getProperty());
+            Comparable value = (Comparable) keys.get(order.getProperty());
+            if (value == null) {
+                throw new IllegalArgumentException("Cursor is missing sort key: " + order.getProperty());
+            }
+            Predicate beyond = order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+            List<Predicate> alternative = new ArrayList<>(equalities);
+            alternative.add(beyond);
+            alternatives.add(cb.and(alternative.toArray(Predicate[]::new)));
+            equalities.add(cb.equal(path, value));
+        }
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    private List<Order> orders(CriteriaBuilder cb, Root<Task> root, TaskFilter filter, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        // completed is fixed by the filter, so ordering by it first changes nothing but lets every database walk
+        // the (completed, ...) index in order instead of sorting
+        if (filter.completed() != null && sort.isSorted()) {
+            Sort.Order first = sort.iterator().next();
+            orders.add(first.isAscending() ? cb.asc(root.get("completed")) : cb.desc(root.get("completed")));
+        }
+        for (Sort.Order order : sort) {
+            orders.add(order.isAscending()
+                ? cb.asc(root.get(order.getProperty()))
+                : cb.desc(root.get(order.getProperty())));
+        }
+        return orders;
+    }
+}
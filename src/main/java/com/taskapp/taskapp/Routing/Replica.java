@@ -0,0 +1,56 @@
+package com.taskapp.taskapp.Routing;
+
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
+import javax.sql.DataSource;
+
+/**
+ * A read replica together with the state the router needs to pick it: how far
+ * it lags behind the primary, whether it answered the last health check and
+ * how many connections it is currently serving.
+ */
+public class Replica {
+    private final String name;
+    private final DataSource dataSource;
+    private final IntSupplier activeConnections;
+    private volatile Duration lag = Duration.ZERO;
+    private volatile boolean reachable = true;
+
+    public Replica(String name, DataSource dataSource, IntSupplier activeConnections) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.activeConnections = activeConnections;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections.getAsInt();
+    }
+
+    /** Replication delay, or {@code null} when replication is not running. */
+    public Duration getLag() {
+        return lag;
+    }
+
+    public boolean isReachable() {
+        return reachable;
+    }
+
+    void update(boolean reachable, Duration lag) {
+        this.reachable = reachable;
+        this.lag = lag;
+    }
+
+    boolean isUsable(Duration maxLag) {
+        Duration current = lag;
+        return reachable && current != null && current.compareTo(maxLag) <= 0;
+    }
+}
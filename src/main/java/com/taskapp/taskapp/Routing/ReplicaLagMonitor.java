@@ -0,0 +1,74 @@
+package com.taskapp.taskapp.Routing;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Polls every replica for its replication delay. Replicas that cannot be
+ * reached or have replication stopped are taken out of rotation until a later
+ * check succeeds. Databases that do not understand {@code SHOW REPLICA STATUS}
+ * (such as a local stand-in) are treated as up to date.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final List<Replica> replicas;
+
+    public ReplicaLagMonitor(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    @Scheduled(fixedDelayString = "${taskapp.datasource.replica-check-interval:5s}")
+    public void checkReplicas() {
+        replicas.forEach(this::check);
+    }
+
+    void check(Replica replica) {
+        Connection connection;
+        try {
+            connection = replica.getDataSource().getConnection();
+        } catch (SQLException ex) {
+            if (replica.isReachable()) {
+                logger.warn("Replica {} is unreachable, routing its reads elsewhere: {}", replica.getName(),
+                        ex.getMessage());
+            }
+            replica.update(false, replica.getLag());
+            return;
+        }
+        try (connection) {
+            Duration lag = lag(connection);
+            if (lag == null) {
+                logger.warn("Replication on {} is not running, routing its reads elsewhere", replica.getName());
+            }
+            replica.update(true, lag);
+        } catch (SQLException ex) {
+            logger.warn("Could not check replica {}: {}", replica.getName(), ex.getMessage());
+            replica.update(false, replica.getLag());
+        }
+    }
+
+    private static Duration lag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!status.next()) {
+                return Duration.ZERO;
+            }
+            long seconds = status.getLong("Seconds_Behind_Source");
+            return status.wasNull() ? null : Duration.ofSeconds(seconds);
+        } catch (SQLException ex) {
+            if (connection.isValid(1)) {
+                logger.debug("Replica does not report replication status, assuming no lag: {}", ex.getMessage());
+                return Duration.ZERO;
+            }
+            throw ex;
+        }
+    }
+}
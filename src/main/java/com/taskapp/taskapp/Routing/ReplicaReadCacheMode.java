@@ -0,0 +1,48 @@
+package com.taskapp.taskapp.Routing;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps replica reads out of the entity cache. A replica can be behind a
+ * write whose entry was already replaced or evicted, and a row loaded from it
+ * would be put back as the current state, so read-only transactions bound for
+ * a replica read the cache but bypass it when storing.
+ */
+public class ReplicaReadCacheMode implements TransactionExecutionListener {
+    private final EntityManagerFactory entityManagerFactory;
+    private final ReplicaRoutingDataSource routing;
+
+    public ReplicaReadCacheMode(EntityManagerFactory entityManagerFactory, ReplicaRoutingDataSource routing) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.routing = routing;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null || !transaction.isReadOnly() || !routing.routesReadsToReplica()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || !(TransactionSynchronizationManager.getResource(entityManagerFactory) instanceof EntityManagerHolder holder)) {
+            return;
+        }
+        // A property rather than the session's cache mode: finds by id take the mode from the properties
+        EntityManager entityManager = holder.getEntityManager();
+        Object storeMode = entityManager.getProperties().getOrDefault(SpecHints.HINT_SPEC_CACHE_STORE_MODE,
+                CacheStoreMode.USE);
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, storeMode);
+            }
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package com.taskapp.taskapp.Routing;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+
+/**
+ * Hands out the caches read-only while reads go to a replica. A write moves
+ * the search cache to its next generation as it commits, and a page loaded
+ * from a replica that has not caught up would be kept under that generation
+ * until it expires. Such reads still use the pages already cached.
+ */
+public class ReplicaReadCacheResolver extends SimpleCacheResolver {
+    private final ReplicaRoutingDataSource routing;
+
+    /** {@code routing} is null when reads are not split off to replicas. */
+    public ReplicaReadCacheResolver(CacheManager cacheManager, ReplicaRoutingDataSource routing) {
+        super(cacheManager);
+        this.routing = routing;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Collection<? extends Cache> caches = super.resolveCaches(context);
+        if (routing == null || !routing.routesReadsToReplica()) {
+            return caches;
+        }
+        return caches.stream().map(ReadOnlyCache::new).toList();
+    }
+
+    private record ReadOnlyCache(Cache cache) implements Cache {
+
+        @Override
+        public String getName() {
+            return cache.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return cache.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return cache.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return cache.get(key, type);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            ValueWrapper cached = cache.get(key);
+            if (cached != null) {
+                return (T) cached.get();
+            }
+            try {
+                return valueLoader.call();
+            } catch (Exception ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+        }
+
+        @Override
+        public void evict(Object key) {
+            cache.evict(key);
+        }
+
+        @Override
+        public void clear() {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.taskapp.taskapp.Routing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the
+ * primary. Replicas that lag more than {@code maxLag} or failed their last
+ * health check are skipped; with none left, reads fall back to the primary.
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is only chosen once the transaction's read-only flag is set.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    public static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final Duration maxLag;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, ReplicaSelection selection,
+            Duration maxLag) {
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.maxLag = maxLag;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Whether read-only work on this thread goes to a replica. It may still
+     * end up on the primary if no replica is usable by then.
+     */
+    public boolean routesReadsToReplica() {
+        return !replicas.isEmpty() && !RoutingContext.isPrimaryRequired();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !routesReadsToReplica()) {
+            return PRIMARY;
+        }
+        List<Replica> usable = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.isUsable(maxLag)) {
+                usable.add(replica);
+            }
+        }
+        return usable.isEmpty() ? PRIMARY : selection.select(usable, counter).getName();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
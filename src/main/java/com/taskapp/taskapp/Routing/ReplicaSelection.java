@@ -0,0 +1,23 @@
+package com.taskapp.taskapp.Routing;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** How a read-only transaction picks among the usable replicas. */
+public enum ReplicaSelection {
+    ROUND_ROBIN {
+        @Override
+        Replica select(List<Replica> candidates, AtomicInteger counter) {
+            return candidates.get(Math.floorMod(counter.getAndIncrement(), candidates.size()));
+        }
+    },
+    LEAST_LOADED {
+        @Override
+        Replica select(List<Replica> candidates, AtomicInteger counter) {
+            return candidates.stream().min(Comparator.comparingInt(Replica::getActiveConnections)).orElseThrow();
+        }
+    };
+
+    abstract Replica select(List<Replica> candidates, AtomicInteger counter);
+}
@@ -0,0 +1,24 @@
+package com.taskapp.taskapp.Routing;
+
+/**
+ * Per-thread override that pins read-only work to the primary, used to give a
+ * client read-your-writes consistency right after its own writes.
+ */
+public final class RoutingContext {
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
@@ -0,0 +1,45 @@
+package com.taskapp.taskapp.Search;
+
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Repository.TaskRepository;
+
+@Component
+@ConditionalOnProperty(name = "taskapp.search.engine", havingValue = "database")
+public class DatabaseTaskSearchEngine implements TaskSearchEngine {
+    private final TaskRepository taskRepository;
+
+    public DatabaseTaskSearchEngine(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    public Page<Task> search(String searchTerm, Pageable pageable) {
+        return taskRepository.searchTasks(searchTerm, pageable);
+    }
+
+    @Override
+    public TaskFilter filterFor(String searchTerm) {
+        return TaskFilter.matching(searchTerm);
+    }
+
+    @Override
+    public void index(Task task) {
+    }
+
+    @Override
+    public void remove(String tenantId, UUID id) {
+    }
+
+    @Override
+    public long rebuild() {
+        return 0;
+    }
+}
@@ -0,0 +1,236 @@
+package com.taskapp.taskapp.Search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Util.SearchTokens;
+
+/**
+ * Term to posting-list index over title and description tokens. Query tokens
+ * match every indexed term that contains them, as {@code LIKE '%token%'}
+ * does, and every query token has to match. The terms containing a token are
+ * found through a trigram index over the terms; tokens shorter than a trigram
+ * are looked up by scanning the terms.
+ *
+ * <p>An index being rebuilt also remembers the tasks removed from it, so rows
+ * read by the rebuild scan before a concurrent write never bring back an older
+ * version or a deleted task; see {@link #indexIfNewer(Task)}.
+ */
+class InvertedIndex {
+    private static final float TITLE_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final int GRAM = 3;
+
+    private final Map<String, Map<UUID, Float>> postings = new HashMap<>();
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+    private final Map<UUID, Set<String>> documentTerms = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> versions = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Set<UUID> removed;
+
+    record Hit(UUID id, double score) {
+    }
+
+    /** An index for a rebuild, which remembers removals until it is {@link #seal() sealed}. */
+    static InvertedIndex rebuilding() {
+        InvertedIndex index = new InvertedIndex();
+        index.removed = new HashSet<>();
+        return index;
+    }
+
+    void index(Task task) {
+        Map<String, Float> weights = weights(task);
+        lock.writeLock().lock();
+        try {
+            if (removed != null) {
+                removed.remove(task.getId());
+            }
+            put(task, weights);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a row read by a rebuild scan unless a newer version of it has
+     * been indexed, or it has been removed, since the rebuild started.
+     */
+    boolean indexIfNewer(Task task) {
+        Map<String, Float> weights = weights(task);
+        lock.writeLock().lock();
+        try {
+            if (removed != null && removed.contains(task.getId())) {
+                return false;
+            }
+            if (documentTerms.containsKey(task.getId())) {
+                Long indexed = versions.get(task.getId());
+                if (indexed == null || task.getVersion() == null || task.getVersion() <= indexed) {
+                    return false;
+                }
+            }
+            put(task, weights);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Stops remembering removals once the rebuilt index has replaced the old one. */
+    void seal() {
+        lock.writeLock().lock();
+        try {
+            removed = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<String, Float> weights(Task task) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String token : SearchTokens.tokenize(task.getTitle())) {
+            weights.merge(token, TITLE_WEIGHT, Float::sum);
+        }
+        for (String token : SearchTokens.tokenize(task.getDescription())) {
+            weights.merge(token, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        return weights;
+    }
+
+    private void put(Task task, Map<String, Float> weights) {
+        removeTerms(task.getId());
+        weights.forEach((term, weight) -> {
+            Map<UUID, Float> posting = postings.get(term);
+            if (posting == null) {
+                posting = new HashMap<>();
+                postings.put(term, posting);
+                grams(term).forEach(gram -> termsByGram.computeIfAbsent(gram, key -> new HashSet<>()).add(term));
+            }
+            posting.put(task.getId(), weight);
+        });
+        documentTerms.put(task.getId(), weights.keySet());
+        if (task.getVersion() != null) {
+            versions.put(task.getId(), task.getVersion());
+        } else {
+            versions.remove(task.getId());
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(id);
+            versions.remove(id);
+            if (removed != null) {
+                removed.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        return documentTerms.size();
+    }
+
+    List<Hit> search(String query) {
+        List<String> queryTokens = new ArrayList<>(SearchTokens.tokenize(query));
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = Math.max(documentTerms.size(), 1);
+            Map<UUID, Double> scores = null;
+            for (String token : queryTokens) {
+                Map<UUID, Double> tokenScores = new HashMap<>();
+                for (String term : termsContaining(token)) {
+                    Map<UUID, Float> posting = postings.get(term);
+                    double idf = Math.log(1.0 + (double) documentCount / posting.size());
+                    posting.forEach((id, weight) -> tokenScores.merge(id, weight * idf, Math::max));
+                }
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    for (Map.Entry<UUID, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new Hit(id, score)));
+            hits.sort((a, b) -> {
+                int byScore = Double.compare(b.score(), a.score());
+                return byScore != 0 ? byScore : a.id().compareTo(b.id());
+            });
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<String> termsContaining(String token) {
+        if (token.length() < GRAM) {
+            return postings.keySet().stream().filter(term -> term.contains(token)).toList();
+        }
+        Set<String> smallest = null;
+        for (String gram : grams(token)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms == null) {
+                return List.of();
+            }
+            if (smallest == null || terms.size() < smallest.size()) {
+                smallest = terms;
+            }
+        }
+        return smallest.stream().filter(term -> term.contains(token)).toList();
+    }
+
+    private void removeTerms(UUID id) {
+        Set<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<UUID, Float> posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                for (String gram : grams(term)) {
+                    Set<String> gramTerms = termsByGram.get(gram);
+                    gramTerms.remove(term);
+                    if (gramTerms.isEmpty()) {
+                        termsByGram.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String term) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,188 @@
+package com.taskapp.taskapp.Search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+
+/**
+ * Keeps one inverted index per tenant, so a search only looks at the terms and
+ * postings of the tenant it runs for. Sorted and filtered searches
+ * hand their hits to the database as an id list; a term with more hits than
+ * {@code taskapp.search.max-filter-ids} is matched by the database instead,
+ * which returns the same tasks, so no statement carries an unbounded list.
+ * Until the index of a tenant has been built, by a rebuild across all tenants
+ * or one bound to that tenant, its searches go to the database.
+ */
+@Component
+@ConditionalOnProperty(name = "taskapp.search.engine", havingValue = "index", matchIfMissing = true)
+public class InvertedIndexTaskSearchEngine implements TaskSearchEngine {
+    private static final Logger logger = LoggerFactory.getLogger(InvertedIndexTaskSearchEngine.class);
+
+    private final TaskRepository taskRepository;
+    private final int rebuildBatchSize;
+    private final int maxFilterIds;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Map<String, InvertedIndex> active = new ConcurrentHashMap<>();
+    private volatile Map<String, InvertedIndex> building;
+    private final Set<String> readyTenants = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    public InvertedIndexTaskSearchEngine(TaskRepository taskRepository,
+            @Value("${taskapp.search.rebuild-batch-size:1000}") int rebuildBatchSize,
+            @Value("${taskapp.search.max-filter-ids:1000}") int maxFilterIds) {
+        this.taskRepository = taskRepository;
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.maxFilterIds = maxFilterIds;
+    }
+
+    /** Whether searches of the current tenant use the index. */
+    public boolean isReady() {
+        return ready || readyTenants.contains(tenant(TenantContext.current()));
+    }
+
+    @Override
+    public Page<Task> search(String searchTerm, Pageable pageable) {
+        if (!isReady()) {
+            logger.debug("Search index not built yet, falling back to database search");
+            return taskRepository.searchTasks(searchTerm, pageable);
+        }
+
+        List<InvertedIndex.Hit> hits = search(searchTerm);
+        if (hits.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
+        if (pageable.getSort().isSorted()) {
+            if (hits.size() > maxFilterIds) {
+                return taskRepository.searchTasks(searchTerm, pageable);
+            }
+            List<UUID> ids = hits.stream().map(InvertedIndex.Hit::id).collect(Collectors.toList());
+            return taskRepository.findByIdIn(ids, pageable);
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<UUID> pageIds = hits.subList(from, to).stream().map(InvertedIndex.Hit::id).collect(Collectors.toList());
+        Map<UUID, Task> loaded = taskRepository.findAllById(pageIds).stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<Task> content = new ArrayList<>(pageIds.size());
+        for (UUID id : pageIds) {
+            Task task = loaded.get(id);
+            if (task != null) {
+                content.add(task);
+            }
+        }
+        return new PageImpl<>(content, pageable, hits.size());
+    }
+
+    @Override
+    public TaskFilter filterFor(String searchTerm) {
+        List<InvertedIndex.Hit> hits = isReady() ? search(searchTerm) : null;
+        if (hits == null || hits.size() > maxFilterIds) {
+            return TaskFilter.matching(searchTerm);
+        }
+        return TaskFilter.ids(hits.stream().map(InvertedIndex.Hit::id).collect(Collectors.toList()));
+    }
+
+    @Override
+    public void index(Task task) {
+        String tenant = tenant(task.getTenantId());
+        active.computeIfAbsent(tenant, key -> new InvertedIndex()).index(task);
+        Map<String, InvertedIndex> pending = building;
+        if (pending != null) {
+            pending.computeIfAbsent(tenant, key -> InvertedIndex.rebuilding()).index(task);
+        }
+    }
+
+    @Override
+    public void remove(String tenantId, UUID id) {
+        String tenant = tenant(tenantId);
+        InvertedIndex index = active.get(tenant);
+        if (index != null) {
+            index.remove(id);
+        }
+        Map<String, InvertedIndex> pending = building;
+        if (pending != null) {
+            pending.computeIfAbsent(tenant, key -> InvertedIndex.rebuilding()).remove(id);
+        }
+    }
+
+    @Override
+    public long rebuild() {
+        rebuildLock.lock();
+        try {
+            return rebuildIndex();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the indexes of every tenant, or only the index of the bound
+     * tenant on a thread that has one. Writes that arrive during the scan go
+     * to the new indexes as well, and a scanned row never replaces a newer
+     * version or a removal they applied.
+     */
+    private long rebuildIndex() {
+        String only = TenantContext.current();
+        logger.info("Rebuilding task search index{}", only != null ? " of tenant " + only : "");
+        Map<String, InvertedIndex> fresh = new ConcurrentHashMap<>();
+        building = fresh;
+        try {
+            Limit limit = Limit.of(rebuildBatchSize);
+            List<Task> batch = taskRepository.findAllByOrderByIdAsc(limit);
+            long indexed = 0;
+            while (!batch.isEmpty()) {
+                batch.forEach(task -> fresh.computeIfAbsent(tenant(task.getTenantId()), key -> InvertedIndex.rebuilding())
+                    .indexIfNewer(task));
+                indexed += batch.size();
+                batch = taskRepository.findByIdGreaterThanOrderByIdAsc(batch.get(batch.size() - 1).getId(), limit);
+            }
+            if (only != null) {
+                InvertedIndex index = fresh.computeIfAbsent(only, key -> InvertedIndex.rebuilding());
+                active.put(only, index);
+                readyTenants.add(only);
+            } else {
+                active = fresh;
+                ready = true;
+            }
+            building = null;
+            fresh.values().forEach(InvertedIndex::seal);
+            logger.info("Task search index rebuilt with {} tasks", indexed);
+            return indexed;
+        } finally {
+            building = null;
+        }
+    }
+
+    private List<InvertedIndex.Hit> search(String searchTerm) {
+        InvertedIndex index = active.get(tenant(TenantContext.current()));
+        return index != null ? index.search(searchTerm) : List.of();
+    }
+
+    private static String tenant(String tenantId) {
+        return tenantId != null ? tenantId : TenantContext.DEFAULT_TENANT;
+    }
+}
@@ -0,0 +1,27 @@
+package com.taskapp.taskapp.Search;
+
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskFilter;
+
+/**
+ * Full-text lookup over task titles and descriptions. An unsorted pageable
+ * asks the engine for its own relevance order. Searches cover the tasks of
+ * the current tenant.
+ */
+public interface TaskSearchEngine {
+
+    Page<Task> search(String searchTerm, Pageable pageable);
+
+    TaskFilter filterFor(String searchTerm);
+
+    void index(Task task);
+
+    void remove(String tenantId, UUID id);
+
+    long rebuild();
+}
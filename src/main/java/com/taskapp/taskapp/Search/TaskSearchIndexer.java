@@ -0,0 +1,55 @@
+package com.taskapp.taskapp.Search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Services.TaskChangedEvent;
+
+@Component
+public class TaskSearchIndexer {
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchIndexer.class);
+
+    private final TaskSearchEngine searchEngine;
+    private final TaskRepository taskRepository;
+    private final boolean rebuildOnStartup;
+
+    public TaskSearchIndexer(TaskSearchEngine searchEngine, TaskRepository taskRepository,
+            @Value("${taskapp.search.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.searchEngine = searchEngine;
+        this.taskRepository = taskRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.type() == TaskChangedEvent.Type.DELETED) {
+            searchEngine.remove(event.tenantId(), event.id());
+        } else if (event.task() != null) {
+            searchEngine.index(event.task());
+        } else if (event.changes().containsKey("title") || event.changes().containsKey("description")) {
+            taskRepository.findById(event.id()).ifPresent(searchEngine::index);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        Thread rebuild = new Thread(() -> {
+            try {
+                searchEngine.rebuild();
+            } catch (RuntimeException ex) {
+                logger.error("Search index rebuild failed", ex);
+            }
+        }, "task-search-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+}
@@ -0,0 +1,188 @@
+package com.taskapp.taskapp.Services;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+
+/**
+ * Append-only NDJSON log of accepted tasks and of the ids that have since been
+ * written. Appends from concurrent requests share fsyncs: a writer whose bytes
+ * were already covered by another thread's force returns without its own.
+ */
+final class IngestJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(IngestJournal.class);
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Entry(Task add, String tenant, List<UUID> done) {
+    }
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final boolean fsync;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private FileChannel channel;
+    private volatile long written;
+    private volatile long synced;
+
+    private IngestJournal(Path path, ObjectMapper objectMapper, boolean fsync) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Opens the journal, returning through {@code pending} the tasks that were
+     * accepted but never marked as written, in acceptance order. The file is
+     * compacted down to those tasks.
+     */
+    static IngestJournal open(Path path, ObjectMapper objectMapper, boolean fsync, LinkedHashMap<UUID, Task> pending)
+            throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    Entry entry;
+                    try {
+                        entry = objectMapper.readValue(line, Entry.class);
+                    } catch (JsonProcessingException ex) {
+                        logger.warn("Skipping unreadable ingest journal line: {}", ex.getOriginalMessage());
+                        continue;
+                    }
+                    if (entry.add() != null) {
+                        // Tasks journaled before tenants existed belong to the default one
+                        entry.add().setTenantId(entry.tenant() != null ? entry.tenant() : TenantContext.DEFAULT_TENANT);
+                        pending.put(entry.add().getId(), entry.add());
+                    }
+                    if (entry.done() != null) {
+                        entry.done().forEach(pending::remove);
+                    }
+                }
+            }
+        }
+        IngestJournal journal = new IngestJournal(path, objectMapper, fsync);
+        journal.rewrite(pending.values());
+        return journal;
+    }
+
+    void append(Task task) throws IOException {
+        long end = write(new Entry(task, task.getTenantId(), null));
+        if (fsync) {
+            sync(end);
+        }
+    }
+
+    /** Records written ids; not forced, since replaying an id that already exists is skipped anyway. */
+    void markDone(Collection<UUID> ids) throws IOException {
+        write(new Entry(null, null, List.copyOf(ids)));
+    }
+
+    long size() {
+        return written;
+    }
+
+    /** Replaces the journal with one that only holds the given pending tasks. */
+    void compact(Collection<Task> pending) throws IOException {
+        writeLock.lock();
+        syncLock.lock();
+        try {
+            rewrite(pending);
+        } finally {
+            syncLock.unlock();
+            writeLock.unlock();
+        }
+    }
+
+    private long write(Entry entry) throws IOException {
+        ByteBuffer line = encode(entry);
+        writeLock.lock();
+        try {
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            written = channel.position();
+            return written;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private ByteBuffer encode(Entry entry) throws JsonProcessingException {
+        return ByteBuffer.wrap((objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void sync(long end) throws IOException {
+        if (synced >= end) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (synced < end) {
+                long target = written;
+                channel.force(false);
+                synced = target;
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void rewrite(Collection<Task> pending) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Task task : pending) {
+                ByteBuffer line = encode(new Entry(task, task.getTenantId(), null));
+                while (line.hasRemaining()) {
+                    out.write(line);
+                }
+            }
+            out.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (channel != null) {
+            channel.close();
+        }
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        written = channel.size();
+        synced = written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
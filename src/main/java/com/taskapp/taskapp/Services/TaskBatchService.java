@@ -0,0 +1,314 @@
+package com.taskapp.taskapp.Services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.taskapp.taskapp.Models.BatchItemResult;
+import com.taskapp.taskapp.Models.BatchResult;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Util.Exceptions.InvalidRequestException;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
+
+/**
+ * Multi-task writes. Items are validated up front and written in chunks of
+ * {@code taskapp.batch.chunk-size} so Hibernate can send each chunk as JDBC
+ * batches. Atomic batches run in one transaction and are rejected as a whole
+ * if any item is invalid; otherwise every chunk commits on its own and a
+ * failing chunk is retried item by item to isolate the bad rows.
+ */
+@Service
+@Timed("taskapp.service")
+public class TaskBatchService {
+  private static final Logger logger = LoggerFactory.getLogger(TaskBatchService.class);
+
+  private final TaskRepository taskRepository;
+  private final Validator validator;
+  private final TransactionOperations transactionOperations;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TaskStatistics statistics;
+  private final int chunkSize;
+  private final int maxItems;
+
+  public TaskBatchService(TaskRepository taskRepository, Validator validator,
+      TransactionOperations transactionOperations, ApplicationEventPublisher eventPublisher,
+      TaskStatistics statistics,
+      @Value("${taskapp.batch.chunk-size:500}") int chunkSize,
+      @Value("${taskapp.batch.max-items:5000}") int maxItems) {
+    this.taskRepository = taskRepository;
+    this.validator = validator;
+    this.transactionOperations = transactionOperations;
+    this.eventPublisher = eventPublisher;
+    this.statistics = statistics;
+    this.chunkSize = chunkSize;
+    this.maxItems = maxItems;
+  }
+
+  public BatchResult createTasks(List<Task> tasks, boolean atomic) {
+    checkSize(tasks);
+    logger.debug("Creating {} tasks in batch (atomic: {})", tasks.size(), atomic);
+    BatchItemResult[] results = new BatchItemResult[tasks.size()];
+    for (int i = 0; i < tasks.size(); i++) {
+      Task task = tasks.get(i);
+      if (task == null) {
+        results[i] = BatchItemResult.failed(i, null, List.of("Task is required"));
+        continue;
+      }
+      task.setId(null);
+      List<String> errors = TaskUpdates.violations(validator.validate(task));
+      if (!errors.isEmpty()) {
+        results[i] = BatchItemResult.failed(i, null, errors);
+      }
+    }
+
+    return execute(results, atomic, i -> null, chunk -> {
+      chunk.forEach(i -> tasks.get(i).setId(null));
+      List<Task> saved = taskRepository.saveAllAndFlush(chunk.stream().map(tasks::get).collect(Collectors.toList()));
+      statistics.created(saved);
+      saved.forEach(task -> eventPublisher.publishEvent(TaskChangedEvent.created(task)));
+      Map<Integer, BatchItemResult> written = new HashMap<>();
+      for (int i = 0; i < chunk.size(); i++) {
+        written.put(chunk.get(i), BatchItemResult.of(chunk.get(i), saved.get(i).getId(), BatchItemResult.Status.CREATED));
+      }
+      return written;
+    });
+  }
+
+  /**
+   * Writes tasks under the ids they carry: a task that exists is updated to
+   * the given title, description and completed state, any other is created
+   * with its id, or a new one if it has none. Used by the import, so that
+   * importing an export again restores the tasks instead of copying them.
+   */
+  public BatchResult upsertTasks(List<Task> tasks, boolean atomic) {
+    checkSize(tasks);
+    logger.debug("Upserting {} tasks in batch (atomic: {})", tasks.size(), atomic);
+    BatchItemResult[] results = new BatchItemResult[tasks.size()];
+    for (int i = 0; i < tasks.size(); i++) {
+      Task task = tasks.get(i);
+      if (task == null) {
+        results[i] = BatchItemResult.failed(i, null, List.of("Task is required"));
+        continue;
+      }
+      List<String> errors = TaskUpdates.violations(validator.validate(task));
+      if (!errors.isEmpty()) {
+        results[i] = BatchItemResult.failed(i, task.getId(), errors);
+      }
+    }
+
+    return execute(results, atomic, i -> tasks.get(i).getId(), chunk -> {
+      Map<UUID, Task> existing = taskRepository.findAllById(chunk.stream().map(i -> tasks.get(i).getId())
+              .filter(Objects::nonNull).distinct().collect(Collectors.toList()))
+          .stream()
+          .collect(Collectors.toMap(Task::getId, Function.identity()));
+      long wereCompleted = existing.values().stream().filter(Task::isCompleted).count();
+      List<Integer> createdIndexes = new ArrayList<>();
+      List<Task> created = new ArrayList<>();
+      Map<Integer, BatchItemResult> written = new HashMap<>();
+      for (int index : chunk) {
+        Task task = tasks.get(index);
+        Task current = task.getId() != null ? existing.get(task.getId()) : null;
+        if (current == null) {
+          // A retry after a failed chunk must insert again, not merge a version the rolled-back insert set
+          task.setVersion(null);
+          createdIndexes.add(index);
+          created.add(task);
+          continue;
+        }
+        current.setTitle(task.getTitle());
+        current.setDescription(task.getDescription());
+        current.setCompleted(task.isCompleted());
+        written.put(index, BatchItemResult.of(index, current.getId(), BatchItemResult.Status.UPDATED));
+      }
+      List<Task> saved = taskRepository.saveAllAndFlush(created);
+      for (int i = 0; i < saved.size(); i++) {
+        written.put(createdIndexes.get(i),
+            BatchItemResult.of(createdIndexes.get(i), saved.get(i).getId(), BatchItemResult.Status.CREATED));
+      }
+      statistics.created(saved);
+      statistics.completedChanged(TenantContext.currentOrDefault(),
+          existing.values().stream().filter(Task::isCompleted).count() - wereCompleted);
+      saved.forEach(task -> eventPublisher.publishEvent(TaskChangedEvent.created(task)));
+      existing.values().forEach(task -> eventPublisher.publishEvent(TaskChangedEvent.updated(task)));
+      return written;
+    });
+  }
+
+  public BatchResult updateTasks(List<Map<String, Object>> updates, boolean atomic) {
+    checkSize(updates);
+    logger.debug("Updating {} tasks in batch (atomic: {})", updates.size(), atomic);
+    BatchItemResult[] results = new BatchItemResult[updates.size()];
+    UUID[] ids = new UUID[updates.size()];
+    for (int i = 0; i < updates.size(); i++) {
+      Map<String, Object> update = updates.get(i);
+      try {
+        ids[i] = UUID.fromString(String.valueOf(update.get("id")));
+      } catch (IllegalArgumentException | NullPointerException ex) {
+        results[i] = BatchItemResult.failed(i, null, List.of("A valid id is required"));
+        continue;
+      }
+      List<String> errors = new ArrayList<>();
+      update.forEach((field, value) -> {
+        if (!"id".equals(field)) {
+          errors.addAll(TaskUpdates.validate(validator, field, value));
+        }
+      });
+      if (!errors.isEmpty()) {
+        results[i] = BatchItemResult.failed(i, ids[i], errors);
+      }
+    }
+    markMissing(ids, results);
+
+    return execute(results, atomic, i -> ids[i], chunk -> {
+      Map<UUID, Task> tasks = taskRepository.findAllById(chunk.stream().map(i -> ids[i]).collect(Collectors.toList()))
+          .stream()
+          .collect(Collectors.toMap(Task::getId, Function.identity()));
+      Map<Integer, BatchItemResult> written = new HashMap<>();
+      long wereCompleted = tasks.values().stream().filter(Task::isCompleted).count();
+      for (int index : chunk) {
+        Task task = tasks.get(ids[index]);
+        if (task == null) {
+          throw new IllegalStateException("Task not found with id: " + ids[index]);
+        }
+        TaskUpdates.apply(task, updates.get(index));
+        written.put(index, BatchItemResult.of(index, task.getId(), BatchItemResult.Status.UPDATED));
+      }
+      List<Task> saved = taskRepository.saveAllAndFlush(tasks.values());
+      statistics.completedChanged(TenantContext.currentOrDefault(),
+          saved.stream().filter(Task::isCompleted).count() - wereCompleted);
+      saved.forEach(task -> eventPublisher.publishEvent(TaskChangedEvent.updated(task)));
+      return written;
+    });
+  }
+
+  public BatchResult deleteTasks(List<UUID> ids, boolean atomic) {
+    checkSize(ids);
+    logger.debug("Deleting {} tasks in batch (atomic: {})", ids.size(), atomic);
+    BatchItemResult[] results = new BatchItemResult[ids.size()];
+    UUID[] targets = ids.toArray(UUID[]::new);
+    for (int i = 0; i < targets.length; i++) {
+      if (targets[i] == null) {
+        results[i] = BatchItemResult.failed(i, null, List.of("A valid id is required"));
+      }
+    }
+    markMissing(targets, results);
+
+    return execute(results, atomic, i -> targets[i], chunk -> {
+      List<UUID> chunkIds = chunk.stream().map(i -> targets[i]).distinct().collect(Collectors.toList());
+      // Only the tasks the statement removed count as deleted; the rest went since markMissing, or are repeats
+      Map<UUID, Boolean> removed = taskRepository.removeExisting(chunkIds);
+      statistics.removed(TenantContext.currentOrDefault(), removed.size(),
+          removed.values().stream().filter(Boolean::booleanValue).count());
+      removed.keySet().forEach(id -> eventPublisher.publishEvent(TaskChangedEvent.deleted(id)));
+      Set<UUID> reported = new HashSet<>();
+      Map<Integer, BatchItemResult> written = new HashMap<>();
+      for (int index : chunk) {
+        UUID id = targets[index];
+        written.put(index, removed.containsKey(id) && reported.add(id)
+            ? BatchItemResult.of(index, id, BatchItemResult.Status.DELETED)
+            : BatchItemResult.failed(index, id, List.of("Task not found with id: " + id)));
+      }
+      return written;
+    });
+  }
+
+  /** {@code idOf} gives the task id to report for an item that is skipped or fails on its own. */
+  private BatchResult execute(BatchItemResult[] results, boolean atomic, IntFunction<UUID> idOf,
+      Function<List<Integer>, Map<Integer, BatchItemResult>> writer) {
+    List<Integer> pending = new ArrayList<>();
+    for (int i = 0; i < results.length; i++) {
+      if (results[i] == null) {
+        pending.add(i);
+      }
+    }
+
+    if (atomic) {
+      if (pending.size() < results.length) {
+        pending.forEach(i -> results[i] = BatchItemResult.of(i, idOf.apply(i), BatchItemResult.Status.SKIPPED));
+        logger.warn("Atomic batch rejected, {} of {} items invalid", results.length - pending.size(), results.length);
+        return BatchResult.of(true, Arrays.asList(results));
+      }
+      transactionOperations.executeWithoutResult(status -> chunks(pending).forEach(chunk -> store(results, writer.apply(chunk))));
+    } else {
+      for (List<Integer> chunk : chunks(pending)) {
+        try {
+          store(results, transactionOperations.execute(status -> writer.apply(chunk)));
+        } catch (RuntimeException ex) {
+          logger.warn("Batch chunk of {} items failed, retrying one by one: {}", chunk.size(), ex.getMessage());
+          for (int index : chunk) {
+            try {
+              store(results, transactionOperations.execute(status -> writer.apply(List.of(index))));
+            } catch (RuntimeException itemEx) {
+              String message = NestedExceptionUtils.getMostSpecificCause(itemEx).getMessage();
+              results[index] = BatchItemResult.failed(index, idOf.apply(index), List.of(message));
+            }
+          }
+        }
+      }
+    }
+
+    BatchResult result = BatchResult.of(atomic, Arrays.asList(results));
+    logger.info("Batch finished: {} succeeded, {} failed", result.succeeded(), result.failed());
+    return result;
+  }
+
+  private void markMissing(UUID[] ids, BatchItemResult[] results) {
+    List<UUID> candidates = new ArrayList<>();
+    for (int i = 0; i < ids.length; i++) {
+      if (results[i] == null) {
+        candidates.add(ids[i]);
+      }
+    }
+    Set<UUID> existing = new HashSet<>();
+    for (List<UUID> chunk : chunks(candidates)) {
+      existing.addAll(taskRepository.findExistingIds(chunk));
+    }
+    for (int i = 0; i < ids.length; i++) {
+      if (results[i] == null && !existing.contains(ids[i])) {
+        results[i] = BatchItemResult.failed(i, ids[i], List.of("Task not found with id: " + ids[i]));
+      }
+    }
+  }
+
+  private static void store(BatchItemResult[] results, Map<Integer, BatchItemResult> written) {
+    written.forEach((index, result) -> results[index] = result);
+  }
+
+  private <T> List<List<T>> chunks(List<T> items) {
+    List<List<T>> chunks = new ArrayList<>();
+    for (int from = 0; from < items.size(); from += chunkSize) {
+      chunks.add(items.subList(from, Math.min(from + chunkSize, items.size())));
+    }
+    return chunks;
+  }
+
+  private void checkSize(List<?> items) {
+    if (items == null || items.isEmpty()) {
+      throw new InvalidRequestException("Batch must contain at least one item");
+    }
+    if (items.size() > maxItems) {
+      throw new InvalidRequestException("Batch cannot contain more than " + maxItems + " items");
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package com.taskapp.taskapp.Services;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.taskapp.taskapp.Tenancy.TenantContext;
+
+/**
+ * Retires cached search pages once a write has committed. Any write can move
+ * tasks between pages and change the totals, so every page key carries the
+ * current generation and a commit simply moves to the next one; pages of older
+ * generations are never read again and age out of the cache. Clearing the
+ * cache instead would block on in-flight page loads while the writer still
+ * holds its connection. The entity cache is not touched here: session writes
+ * replace the entry of their own task, and the repository's bulk statements
+ * evict the entries of the tasks they change, by id and never the whole region.
+ * <p>
+ * Keys carry the tenant, and each tenant has a generation of its own, so a
+ * write retires only the pages of its own tenant.
+ */
+@Component
+public class TaskCacheInvalidator implements KeyGenerator {
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        generation(event.tenantId()).incrementAndGet();
+    }
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        String tenant = TenantContext.currentOrDefault();
+        Object[] key = new Object[params.length + 3];
+        key[0] = tenant;
+        key[1] = generation(tenant).get();
+        key[2] = method.getName();
+        System.arraycopy(params, 0, key, 3, params.length);
+        return new SimpleKey(key);
+    }
+
+    private AtomicLong generation(String tenant) {
+        return generations.computeIfAbsent(tenant != null ? tenant : TenantContext.DEFAULT_TENANT,
+                key -> new AtomicLong());
+    }
+}
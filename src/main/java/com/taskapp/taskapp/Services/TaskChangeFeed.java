@@ -0,0 +1,321 @@
+package com.taskapp.taskapp.Services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskapp.taskapp.Models.TaskChange;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Util.Exceptions.ChangeFeedFullException;
+import com.taskapp.taskapp.Util.Exceptions.InvalidRequestException;
+
+/**
+ * Server-sent events for committed task writes, behind
+ * {@code GET /api/tasks/changes}. Each change gets the next sequence number as
+ * its event id and is serialized once into a ring of the last
+ * {@code taskapp.changes.buffer-size} changes. A single dispatcher thread
+ * hands whatever each subscriber has not seen yet to a fixed pool of
+ * {@code taskapp.changes.senders} threads. A subscriber has at most one write
+ * queued or in flight, and is skipped while it has, so its pending changes
+ * coalesce into the next write and idle connections hold no thread. The ring
+ * is every subscriber's outbox: one that falls behind it gets a
+ * {@code reset} event and should reload its listing, and one whose write has
+ * not finished within {@code taskapp.changes.send-timeout} is dropped and its
+ * sender interrupted. Subscribers only get the changes of the tenant they
+ * subscribed in.
+ */
+@Service
+public class TaskChangeFeed implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(TaskChangeFeed.class);
+    public static final String RESET_EVENT = "reset";
+
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final long sendTimeoutNanos;
+    private final int senderThreads;
+
+    private final Change[] ring;
+    private final long firstSequence;
+    private volatile long lastSequence;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private Thread dispatcher;
+    private ExecutorService senders;
+    private volatile boolean running;
+
+    public TaskChangeFeed(ObjectMapper objectMapper,
+            @Value("${taskapp.changes.buffer-size:10000}") int bufferSize,
+            @Value("${taskapp.changes.max-subscribers:10000}") int maxSubscribers,
+            @Value("${taskapp.changes.heartbeat:15s}") Duration heartbeat,
+            @Value("${taskapp.changes.timeout:30m}") Duration timeout,
+            @Value("${taskapp.changes.send-timeout:10s}") Duration sendTimeout,
+            @Value("${taskapp.changes.senders:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.ring = new Change[bufferSize];
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.senderThreads = senderThreads;
+        // Starting from the clock keeps ids from before a restart below anything buffered now, so their clients reset
+        this.firstSequence = System.currentTimeMillis() * 1000;
+        this.lastSequence = firstSequence;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        String type = event.type().name().toLowerCase();
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(new TaskChange(type, event.id(), event.task(), event.changes()));
+        } catch (JsonProcessingException ex) {
+            logger.error("Could not serialize change of task {}: {}", event.id(), ex.getMessage());
+            return;
+        }
+        synchronized (ring) {
+            long sequence = lastSequence + 1;
+            ring[(int) (sequence % ring.length)] = new Change(sequence, tenant(event.tenantId()), SseEmitter.event()
+                    .id(Long.toString(sequence))
+                    .name(type)
+                    .data(data, MediaType.APPLICATION_JSON)
+                    .build());
+            lastSequence = sequence;
+        }
+        LockSupport.unpark(dispatcher);
+    }
+
+    /**
+     * Opens a stream of the changes after {@code lastEventId}, or of the
+     * changes from now on when it is {@code null}.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ChangeFeedFullException("Change feed is full (" + maxSubscribers + " subscribers)");
+        }
+        long position = lastSequence;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                position = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException ex) {
+                throw new InvalidRequestException("Last-Event-ID must be the id of a change event: " + lastEventId);
+            }
+        }
+
+        SseEmitter emitter = emitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, TenantContext.currentOrDefault(), position);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        subscribers.add(subscriber);
+        LockSupport.unpark(dispatcher);
+        return emitter;
+    }
+
+    /** The emitter of a new subscriber. */
+    protected SseEmitter emitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        // The queue holds at most one write per subscriber
+        AtomicInteger senderCount = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-change-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = new Thread(this::dispatch, "task-change-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void dispatch() {
+        long nextHeartbeat = System.nanoTime() + heartbeat.toNanos();
+        long wakeAt = nextHeartbeat;
+        while (running) {
+            LockSupport.parkNanos(this, Math.max(0, wakeAt - System.nanoTime()));
+            if (!running) {
+                return;
+            }
+            long now = System.nanoTime();
+            boolean heartbeatDue = now - nextHeartbeat >= 0;
+            if (heartbeatDue) {
+                nextHeartbeat = now + heartbeat.toNanos();
+            }
+            wakeAt = nextHeartbeat;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.sending) {
+                    Thread sender = subscriber.sender;
+                    if (sender == null) {
+                        continue;
+                    }
+                    if (now - subscriber.sendingSince > sendTimeoutNanos) {
+                        // The sender completes the emitter once the write returns; the emitter is locked until then
+                        logger.debug("Dropping change feed subscriber that has not taken a write for {} ms",
+                                TimeUnit.NANOSECONDS.toMillis(now - subscriber.sendingSince));
+                        subscribers.remove(subscriber);
+                        synchronized (subscriber) {
+                            if (subscriber.sender == sender) {
+                                sender.interrupt();
+                            }
+                        }
+                    } else {
+                        // Come back to time the write out
+                        wakeAt = Math.min(wakeAt, subscriber.sendingSince + sendTimeoutNanos + 1);
+                    }
+                } else if (subscriber.position != lastSequence || heartbeatDue) {
+                    subscriber.sending = true;
+                    senders.execute(() -> send(subscriber, heartbeatDue));
+                }
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, boolean heartbeatDue) {
+        // Time spent queued for a sender does not count against the subscriber
+        subscriber.sendingSince = System.nanoTime();
+        subscriber.sender = Thread.currentThread();
+        try {
+            deliver(subscriber, heartbeatDue);
+        } catch (IOException | RuntimeException ex) {
+            logger.debug("Dropping change feed subscriber: {}", ex.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(ex);
+            return;
+        } finally {
+            synchronized (subscriber) {
+                subscriber.sender = null;
+            }
+            subscriber.sending = false;
+        }
+        if (subscribers.contains(subscriber)) {
+            // Changes that arrived during the write are picked up on the next round
+            LockSupport.unpark(dispatcher);
+        } else {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void deliver(Subscriber subscriber, boolean heartbeatDue) throws IOException {
+        long head = lastSequence;
+        if (subscriber.position == head) {
+            if (heartbeatDue) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            return;
+        }
+        List<Change> missed = changesAfter(subscriber.position);
+        if (missed == null) {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(Long.toString(head))
+                    .name(RESET_EVENT)
+                    .data("{\"sequence\":" + head + "}", MediaType.APPLICATION_JSON));
+            subscriber.position = head;
+            return;
+        }
+        Set<DataWithMediaType> events = new LinkedHashSet<>();
+        missed.stream()
+                .filter(change -> change.tenant().equals(subscriber.tenant))
+                .forEach(change -> events.addAll(change.event()));
+        if (!events.isEmpty()) {
+            subscriber.emitter.send(events);
+        } else if (heartbeatDue) {
+            subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+        subscriber.position = missed.get(missed.size() - 1).sequence();
+    }
+
+    private static String tenant(String tenantId) {
+        return tenantId != null ? tenantId : TenantContext.DEFAULT_TENANT;
+    }
+
+    /** The buffered changes after {@code position}, or {@code null} when some have already been overwritten. */
+    private List<Change> changesAfter(long position) {
+        synchronized (ring) {
+            long oldest = Math.max(firstSequence + 1, lastSequence - ring.length + 1);
+            if (position < oldest - 1 || position > lastSequence) {
+                return null;
+            }
+            List<Change> changes = new ArrayList<>((int) (lastSequence - position));
+            for (long sequence = position + 1; sequence <= lastSequence; sequence++) {
+                changes.add(ring[(int) (sequence % ring.length)]);
+            }
+            return changes;
+        }
+    }
+
+    private record Change(long sequence, String tenant, Set<DataWithMediaType> event) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final String tenant;
+        private volatile long position;
+        /** A write is queued or in flight. */
+        private volatile boolean sending;
+        /** The thread writing, once it has started; interrupted if the write takes too long. */
+        private volatile Thread sender;
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter, String tenant, long position) {
+            this.emitter = emitter;
+            this.tenant = tenant;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.taskapp.taskapp.Services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.taskapp.taskapp.Models.LoggedTaskChange;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Repository.TaskRepository;
+
+/**
+ * Follows the writes other applications, such as the reactive API, make to
+ * the {@code task} table. They log each write in {@code task_change_log} in
+ * the transaction of the write; every {@code taskapp.change-log.poll-interval} the
+ * entries logged since the last poll are read, their tasks evicted from the
+ * entity cache and reloaded, and a {@link TaskChangedEvent} is published for
+ * each as for a write of this application, which retires the tenant's
+ * cached searches, reindexes the task and sends it on the change feed. The
+ * tenants' statistics are reconciled before they are read next.
+ * <p>
+ * Sequence numbers are taken when an entry is inserted but become visible
+ * when its transaction commits, so an entry can show up after later ones. A
+ * missing number is waited for up to {@code taskapp.change-log.gap-timeout}
+ * before it is given up, as a rolled-back write leaves it missing for good.
+ * Entries from before startup are not read: the search index and the
+ * statistics are built from the table then. Entries older than
+ * {@code taskapp.change-log.retention} are deleted.
+ */
+@Service
+public class TaskChangeLogReader {
+    private static final Logger logger = LoggerFactory.getLogger(TaskChangeLogReader.class);
+
+    private final TaskRepository taskRepository;
+    private final TransactionOperations transactionOperations;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskStatistics statistics;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration gapTimeout;
+    private final Duration retention;
+    private final NavigableSet<Long> applied = new TreeSet<>();
+    private long position = -1;
+    private Long gapSince;
+
+    public TaskChangeLogReader(TaskRepository taskRepository, TransactionOperations transactionOperations,
+            ApplicationEventPublisher eventPublisher, TaskStatistics statistics,
+            @Value("${taskapp.change-log.enabled:true}") boolean enabled,
+            @Value("${taskapp.change-log.batch-size:500}") int batchSize,
+            @Value("${taskapp.change-log.gap-timeout:10s}") Duration gapTimeout,
+            @Value("${taskapp.change-log.retention:1h}") Duration retention) {
+        this.taskRepository = taskRepository;
+        this.transactionOperations = transactionOperations;
+        this.eventPublisher = eventPublisher;
+        this.statistics = statistics;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.gapTimeout = gapTimeout;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${taskapp.change-log.poll-interval:1s}")
+    public void scheduledPoll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            poll();
+        } catch (RuntimeException ex) {
+            logger.warn("Reading the task change log failed: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${taskapp.change-log.retention:1h}",
+            initialDelayString = "${taskapp.change-log.retention:1h}")
+    public void scheduledPrune() {
+        if (enabled) {
+            int pruned = transactionOperations.execute(
+                    status -> taskRepository.pruneLoggedChanges(Instant.now().minus(retention)));
+            logger.debug("Pruned {} task change log entries", pruned);
+        }
+    }
+
+    /** Applies the entries logged since the last poll and returns how many there were. */
+    public synchronized int poll() {
+        if (position < 0) {
+            position = transactionOperations.execute(status -> taskRepository.lastLoggedChange());
+            return 0;
+        }
+        List<LoggedTaskChange> changes = transactionOperations.execute(status -> {
+            List<LoggedTaskChange> unapplied = taskRepository.findLoggedChangesAfter(position, batchSize).stream()
+                    .filter(change -> !applied.contains(change.seq()))
+                    .toList();
+            if (!unapplied.isEmpty()) {
+                apply(unapplied);
+            }
+            return unapplied;
+        });
+        changes.forEach(change -> applied.add(change.seq()));
+        advance();
+        return changes.size();
+    }
+
+    private void apply(List<LoggedTaskChange> changes) {
+        Map<UUID, LoggedTaskChange> latest = new LinkedHashMap<>();
+        changes.forEach(change -> latest.put(change.id(), change));
+        latest.values().stream()
+                .collect(Collectors.groupingBy(LoggedTaskChange::tenantId,
+                        Collectors.mapping(LoggedTaskChange::id, Collectors.toList())))
+                .forEach((tenant, ids) -> {
+                    taskRepository.evict(ids, tenant);
+                    statistics.recount(tenant);
+                });
+
+        Map<UUID, Task> live = taskRepository.findAllById(latest.keySet()).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        for (LoggedTaskChange change : latest.values()) {
+            Task task = live.get(change.id());
+            if (task == null) {
+                eventPublisher.publishEvent(TaskChangedEvent.deleted(change.tenantId(), change.id()));
+            } else if (TaskChangedEvent.Type.CREATED.name().equals(change.type())) {
+                eventPublisher.publishEvent(TaskChangedEvent.created(task));
+            } else {
+                eventPublisher.publishEvent(TaskChangedEvent.updated(task));
+            }
+        }
+    }
+
+    /** Moves the position past every entry applied without a gap before it, or past gaps waited on long enough. */
+    private void advance() {
+        while (applied.remove(position + 1)) {
+            position++;
+        }
+        if (applied.isEmpty()) {
+            gapSince = null;
+            return;
+        }
+        long now = System.nanoTime();
+        if (gapSince == null) {
+            gapSince = now;
+        } else if (now - gapSince >= gapTimeout.toNanos()) {
+            logger.warn("Skipped task change log entries {} to {}, which did not appear within {}", position + 1,
+                    applied.first() - 1, gapTimeout);
+            position = applied.first() - 1;
+            gapSince = null;
+            advance();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.taskapp.taskapp.Services;
+
+import java.util.Map;
+import java.util.UUID;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+
+/**
+ * Published by the services for every task write. {@code task} is the state
+ * after the write; it is {@code null} for deletes and for single-statement
+ * updates, where {@code changes} holds the fields that were set. Events
+ * without a task belong to the tenant bound when they are created, unless
+ * one is given.
+ */
+public record TaskChangedEvent(Type type, String tenantId, UUID id, Task task, Map<String, Object> changes) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static TaskChangedEvent created(Task task) {
+        return new TaskChangedEvent(Type.CREATED, task.getTenantId(), task.getId(), task, Map.of());
+    }
+
+    public static TaskChangedEvent updated(Task task) {
+        return new TaskChangedEvent(Type.UPDATED, task.getTenantId(), task.getId(), task, Map.of());
+    }
+
+    public static TaskChangedEvent patched(UUID id, Map<String, Object> changes) {
+        return new TaskChangedEvent(Type.UPDATED, TenantContext.current(), id, null, changes);
+    }
+
+    public static TaskChangedEvent deleted(UUID id) {
+        return deleted(TenantContext.current(), id);
+    }
+
+    public static TaskChangedEvent deleted(String tenantId, UUID id) {
+        return new TaskChangedEvent(Type.DELETED, tenantId, id, null, Map.of());
+    }
+}
@@ -0,0 +1,311 @@
+package com.taskapp.taskapp.Services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskapp.taskapp.Models.IngestStatus;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Util.Exceptions.IngestQueueFullException;
+import com.taskapp.taskapp.Util.Exceptions.TaskNotFoundException;
+import com.taskapp.taskapp.Util.UuidV7;
+
+/**
+ * Write-behind ingestion for {@code POST /api/tasks} with
+ * {@code Prefer: respond-async}. Accepted tasks get their id up front, are
+ * journaled and queued, and a single writer thread inserts them in batches of
+ * up to {@code taskapp.ingest.flush-size}, waiting at most
+ * {@code taskapp.ingest.flush-interval} for a batch to fill. Tasks still in the
+ * journal when the process stops are written after the next start.
+ */
+@Service
+public class TaskIngestService implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(TaskIngestService.class);
+    private static final int MAX_FAILED_REMEMBERED = 1000;
+    private static final long COMPACT_THRESHOLD_BYTES = 64L * 1024 * 1024;
+
+    private final TaskRepository taskRepository;
+    private final TransactionOperations transactionOperations;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskStatistics statistics;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int capacity;
+    private final int flushSize;
+    private final Duration flushInterval;
+    private final Path journalPath;
+    private final boolean journalFsync;
+
+    private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+    private final Map<UUID, Task> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<UUID, String> failed = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, String> eldest) {
+            return size() > MAX_FAILED_REMEMBERED;
+        }
+    });
+
+    private IngestJournal journal;
+    private Thread writer;
+    private volatile boolean running;
+
+    public TaskIngestService(TaskRepository taskRepository, TransactionOperations transactionOperations,
+            ApplicationEventPublisher eventPublisher, TaskStatistics statistics, ObjectMapper objectMapper,
+            @Value("${taskapp.ingest.enabled:false}") boolean enabled,
+            @Value("${taskapp.ingest.queue-capacity:10000}") int capacity,
+            @Value("${taskapp.ingest.flush-size:500}") int flushSize,
+            @Value("${taskapp.ingest.flush-interval:20ms}") Duration flushInterval,
+            @Value("${taskapp.ingest.journal:data/task-ingest.journal}") Path journalPath,
+            @Value("${taskapp.ingest.journal-fsync:true}") boolean journalFsync) {
+        this.taskRepository = taskRepository;
+        this.transactionOperations = transactionOperations;
+        this.eventPublisher = eventPublisher;
+        this.statistics = statistics;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.flushSize = flushSize;
+        this.flushInterval = flushInterval;
+        this.journalPath = journalPath;
+        this.journalFsync = journalFsync;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Assigns the task its id, journals it and queues it for the writer. */
+    public Task submit(Task task) {
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            throw new IngestQueueFullException("Ingest queue is full (" + capacity + " tasks pending)");
+        }
+        task.setId(UuidV7.next());
+        task.setTenantId(TenantContext.currentOrDefault());
+        task.setVersion(null);
+        pending.put(task.getId(), task);
+        try {
+            journal.append(task);
+        } catch (IOException ex) {
+            pending.remove(task.getId());
+            queued.decrementAndGet();
+            throw new UncheckedIOException("Could not journal task", ex);
+        }
+        queue.add(task);
+        logger.debug("Accepted task {} for asynchronous creation", task.getId());
+        return task;
+    }
+
+    public IngestStatus status(UUID id) {
+        Task queuedTask = pending.get(id);
+        if (queuedTask != null && queuedTask.getTenantId().equals(TenantContext.currentOrDefault())) {
+            return IngestStatus.of(id, IngestStatus.State.PENDING);
+        }
+        String error = failed.get(id);
+        if (error != null) {
+            return IngestStatus.failed(id, error);
+        }
+        if (taskRepository.existsById(id)) {
+            return IngestStatus.of(id, IngestStatus.State.WRITTEN);
+        }
+        throw new TaskNotFoundException("No task was accepted with id: " + id);
+    }
+
+    public int pendingCount() {
+        return queued.get();
+    }
+
+    public List<UUID> pendingIds(int limit) {
+        String tenant = TenantContext.currentOrDefault();
+        return pending.values().stream()
+                .filter(task -> task.getTenantId().equals(tenant))
+                .map(Task::getId)
+                .limit(limit)
+                .toList();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        LinkedHashMap<UUID, Task> recovered = new LinkedHashMap<>();
+        try {
+            journal = IngestJournal.open(journalPath, objectMapper, journalFsync, recovered);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open ingest journal " + journalPath, ex);
+        }
+        if (!recovered.isEmpty()) {
+            logger.info("Recovered {} unwritten tasks from {}", recovered.size(), journalPath);
+            pending.putAll(recovered);
+            queue.addAll(recovered.values());
+            queued.addAndGet(recovered.size());
+        }
+        running = true;
+        writer = new Thread(this::drain, "task-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+            journal.close();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            logger.warn("Could not close ingest journal: {}", ex.getMessage());
+        }
+        logger.info("Ingest writer stopped with {} tasks left in the journal", queue.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Starts before and stops after the web server, so no accepted task is left without a writer. */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<Task> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                nextBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void nextBatch(List<Task> batch) throws InterruptedException {
+        Task first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < flushSize) {
+            queue.drainTo(batch, flushSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= flushSize || remaining <= 0) {
+                break;
+            }
+            Task next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    void write(List<Task> batch) {
+        long backoff = 500;
+        while (true) {
+            try {
+                transactionOperations.executeWithoutResult(status -> insert(batch));
+                done(batch);
+                return;
+            } catch (TransientDataAccessException | RecoverableDataAccessException
+                    | CannotCreateTransactionException ex) {
+                if (!running) {
+                    logger.warn("Database unavailable during shutdown, {} tasks stay in the journal", batch.size());
+                    return;
+                }
+                logger.warn("Database unavailable, retrying {} tasks in {} ms: {}", batch.size(), backoff,
+                        ex.getMessage());
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, 30_000);
+            } catch (RuntimeException ex) {
+                if (batch.size() == 1) {
+                    Task task = batch.get(0);
+                    String message = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+                    logger.error("Could not create task {}: {}", task.getId(), message);
+                    failed.put(task.getId(), message);
+                    done(batch);
+                    return;
+                }
+                logger.warn("Batch of {} tasks failed, writing them one by one: {}", batch.size(), ex.getMessage());
+                batch.forEach(task -> write(List.of(task)));
+                return;
+            }
+        }
+    }
+
+    private void insert(List<Task> batch) {
+        Set<UUID> existing = new HashSet<>(taskRepository.findExistingIds(batch.stream().map(Task::getId).toList()));
+        List<Task> fresh = batch.stream().filter(task -> !existing.contains(task.getId())).toList();
+        List<Task> saved = taskRepository.saveAllAndFlush(fresh);
+        statistics.created(saved);
+        saved.forEach(task -> eventPublisher.publishEvent(TaskChangedEvent.created(task)));
+    }
+
+    private void done(List<Task> batch) {
+        List<UUID> ids = batch.stream().map(Task::getId).toList();
+        ids.forEach(pending::remove);
+        queued.addAndGet(-ids.size());
+        try {
+            journal.markDone(ids);
+            if (journal.size() > COMPACT_THRESHOLD_BYTES) {
+                journal.compact(List.copyOf(pending.values()));
+            }
+        } catch (IOException ex) {
+            logger.warn("Could not update ingest journal: {}", ex.getMessage());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.taskapp.taskapp.Services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Repository.TaskRepository;
+
+/**
+ * Keeps the {@code task} table down to live tasks. Every
+ * {@code taskapp.purge.interval} it moves soft-deleted tasks, and tasks that
+ * have been completed for longer than {@code taskapp.purge.completed-retention},
+ * to {@code task_archive}. Rows are moved in batches of
+ * {@code taskapp.purge.batch-size}, each in its own short transaction and
+ * followed by a pause, and at most {@code taskapp.purge.max-batches} per run,
+ * so the purge never holds many locks or competes with requests for long.
+ */
+@Service
+public class TaskPurger {
+    private static final Logger logger = LoggerFactory.getLogger(TaskPurger.class);
+
+    private final TaskRepository taskRepository;
+    private final TransactionOperations transactionOperations;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskStatistics statistics;
+    private final boolean enabled;
+    private final Duration completedRetention;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final int maxBatches;
+    private final LongAdder archivedDeleted = new LongAdder();
+    private final LongAdder archivedCompleted = new LongAdder();
+
+    public TaskPurger(TaskRepository taskRepository, TransactionOperations transactionOperations,
+            ApplicationEventPublisher eventPublisher, TaskStatistics statistics,
+            @Value("${taskapp.purge.enabled:true}") boolean enabled,
+            @Value("${taskapp.purge.completed-retention:90d}") Duration completedRetention,
+            @Value("${taskapp.purge.batch-size:500}") int batchSize,
+            @Value("${taskapp.purge.batch-pause:100ms}") Duration batchPause,
+            @Value("${taskapp.purge.max-batches:100}") int maxBatches) {
+        this.taskRepository = taskRepository;
+        this.transactionOperations = transactionOperations;
+        this.eventPublisher = eventPublisher;
+        this.statistics = statistics;
+        this.enabled = enabled;
+        this.completedRetention = completedRetention;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.maxBatches = maxBatches;
+    }
+
+    public long archivedDeletedCount() {
+        return archivedDeleted.sum();
+    }
+
+    public long archivedCompletedCount() {
+        return archivedCompleted.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${taskapp.purge.interval:1m}", initialDelayString = "${taskapp.purge.interval:1m}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    /** Runs one purge and returns the number of tasks archived. */
+    public int purge() {
+        Instant completedBefore = completedRetention.isZero() ? null : Instant.now().minus(completedRetention);
+        int archived = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                int[] moved = transactionOperations.execute(status -> archiveBatch(completedBefore));
+                archivedDeleted.add(moved[0]);
+                archivedCompleted.add(moved[1]);
+                archived += moved[0] + moved[1];
+                if (moved[0] + moved[1] < batchSize) {
+                    break;
+                }
+                Thread.sleep(batchPause.toMillis());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            logger.warn("Task purge stopped after {} tasks: {}", archived, ex.getMessage());
+        }
+        if (archived > 0) {
+            logger.info("Archived {} deleted or long-completed tasks", archived);
+        }
+        return archived;
+    }
+
+    /** Archives one batch and returns the number of deleted and of completed tasks moved. */
+    private int[] archiveBatch(Instant completedBefore) {
+        Instant now = Task.now();
+        int deleted = taskRepository.archive(taskRepository.lockDeleted(batchSize), now);
+        if (deleted >= batchSize || completedBefore == null) {
+            return new int[] { deleted, 0 };
+        }
+
+        // Completed tasks are still visible until now, so their removal is published and counted like a delete
+        Map<UUID, String> completed = taskRepository.lockCompletedBefore(completedBefore, batchSize - deleted);
+        int moved = taskRepository.archive(completed.keySet(), now);
+        completed.values().stream()
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+            .forEach((tenant, count) -> statistics.removed(tenant, count, count));
+        completed.forEach((id, tenant) -> eventPublisher.publishEvent(TaskChangedEvent.deleted(tenant, id)));
+        return new int[] { deleted, moved };
+    }
+}
@@ -1,96 +1,294 @@
 package com.taskapp.taskapp.Services;
 
+import com.taskapp.taskapp.Models.CursorPage;
 import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Models.TaskView;
 import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Search.TaskSearchEngine;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Util.CursorCodec;
+import com.taskapp.taskapp.Util.Exceptions.InvalidRequestException;
 import com.taskapp.taskapp.Util.Exceptions.TaskNotFoundException;
+import com.taskapp.taskapp.Util.Exceptions.TaskVersionConflictException;
+import com.taskapp.taskapp.config.CacheConfig;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 @Transactional
+@Timed("taskapp.service")
 public class TaskService {
+  public static final String SORT_BY_RELEVANCE = "relevance";
+  public static final Set<String> SORTABLE_FIELDS = new LinkedHashSet<>(List.of("id", "title", "createdAt", "updatedAt"));
+
   private final TaskRepository taskRepository;
+  private final TaskSearchEngine searchEngine;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Validator validator;
+  private final TaskStatistics statistics;
   private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
 
-  public TaskService(TaskRepository taskRepository) {
+  public TaskService(TaskRepository taskRepository, TaskSearchEngine searchEngine,
+      ApplicationEventPublisher eventPublisher, Validator validator, TaskStatistics statistics) {
     this.taskRepository = taskRepository;
+    this.searchEngine = searchEngine;
+    this.eventPublisher = eventPublisher;
+    this.validator = validator;
+    this.statistics = statistics;
   }
 
   public Task createTask(Task task) {
     logger.debug("Creating task with title: {}", task.getTitle());
+    task.setId(null);
     Task savedTask = taskRepository.save(task);
+    statistics.created(savedTask);
+    eventPublisher.publishEvent(TaskChangedEvent.created(savedTask));
     logger.info("Task created successfully with ID: {}", savedTask.getId());
     return savedTask;
   }
 
   public Task updateTask(UUID id, Task task) {
+    return updateTask(id, task, null);
+  }
+
+  public Task updateTask(UUID id, Task task, Long expectedVersion) {
     logger.debug("Updating task with ID: {}", id);
     Task existingTask = taskRepository.findById(id)
         .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
+    checkVersion(existingTask, expectedVersion);
 
     logger.debug("Found task: {}", existingTask);
+    boolean wasCompleted = existingTask.isCompleted();
     existingTask.setTitle(task.getTitle());
     existingTask.setDescription(task.getDescription());
     existingTask.setCompleted(task.isCompleted());
     Task updatedTask = taskRepository.save(existingTask);
+    completedChanged(updatedTask, wasCompleted);
+    eventPublisher.publishEvent(TaskChangedEvent.updated(updatedTask));
     logger.info("Task updated successfully with ID: {}", updatedTask.getId());
     return updatedTask;
   }
 
-  public Page<Task> searchTasks(String searchTerm, int page, int size, String sortBy, String sortDir) {
-    logger.debug("Searching tasks with term: {}", searchTerm);
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
+  @Transactional(readOnly = true)
+  public Task getTask(UUID id) {
+    return taskRepository.findById(id)
+        .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
+  }
+
+  /**
+   * Pages through tasks. Attribute filters and plain listings go through the
+   * indexed list query; a search term alone is ranked by the search engine
+   * unless another order is requested.
+   */
+  @Cacheable(cacheNames = CacheConfig.TASK_SEARCH_CACHE, keyGenerator = "taskCacheInvalidator",
+      cacheResolver = "taskSearchCacheResolver", sync = true)
+  @Transactional(readOnly = true)
+  public Page<Task> searchTasks(String searchTerm, TaskFilter filter, int page, int size, String sortBy,
+      String sortDir) {
+    logger.debug("Searching tasks with term: {} and filter: {}", searchTerm, filter);
+        boolean hasSearchTerm = searchTerm != null && !searchTerm.isEmpty();
+        boolean ranked = hasSearchTerm && !filter.hasAttributes()
+            && (sortBy == null || sortBy.isEmpty() || SORT_BY_RELEVANCE.equals(sortBy));
+        if (sortBy == null || sortBy.isEmpty() || SORT_BY_RELEVANCE.equals(sortBy)) {
+            sortBy = "id";
+        }
+        Sort sort = ranked ? Sort.unsorted() : listSort(sortBy, Sort.Direction.fromString(sortDir));
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Task> taskPage = (searchTerm == null || searchTerm.isEmpty())
-            ? taskRepository.findAll(pageable)
-            : taskRepository.searchTasks(searchTerm, pageable);
+        Page<Task> taskPage;
+        if (hasSearchTerm && !filter.hasAttributes()) {
+            taskPage = searchEngine.search(searchTerm, pageable);
+        } else {
+            TaskFilter listFilter = hasSearchTerm ? filter.and(searchEngine.filterFor(searchTerm)) : filter;
+            taskPage = taskRepository.findPage(listFilter, pageable);
+        }
 
         logger.info("Found {} tasks", taskPage.getTotalElements());
         return taskPage;
   }
 
+  /**
+   * {@link #searchTasks} for a sparse fieldset: only the requested columns
+   * are selected and no entities are loaded. Relevance-ranked searches come
+   * from the search engine as entities and are projected afterwards.
+   */
+  @Cacheable(cacheNames = CacheConfig.TASK_SEARCH_CACHE, keyGenerator = "taskCacheInvalidator",
+      cacheResolver = "taskSearchCacheResolver", sync = true)
+  @Transactional(readOnly = true)
+  public Page<TaskView> searchTaskViews(String searchTerm, TaskFilter filter, Set<String> fields, int page, int size,
+      String sortBy, String sortDir) {
+    logger.debug("Searching task fields {} with term: {} and filter: {}", fields, searchTerm, filter);
+    for (String field : fields) {
+      if (!TaskView.FIELDS.contains(field)) {
+        throw new InvalidRequestException("Unknown field: " + field + "; fields are " + TaskView.FIELDS);
+      }
+    }
+    boolean hasSearchTerm = searchTerm != null && !searchTerm.isEmpty();
+    boolean relevance = sortBy == null || sortBy.isEmpty() || SORT_BY_RELEVANCE.equals(sortBy);
+    if (hasSearchTerm && !filter.hasAttributes() && relevance) {
+      return searchEngine.search(searchTerm, PageRequest.of(page, size)).map(TaskView::of);
+    }
+
+    Sort sort = listSort(relevance ? "id" : sortBy, Sort.Direction.fromString(sortDir));
+    TaskFilter listFilter = hasSearchTerm ? filter.and(searchEngine.filterFor(searchTerm)) : filter;
+    Page<TaskView> viewPage = taskRepository.findViews(listFilter, PageRequest.of(page, size, sort), fields);
+
+    logger.info("Found {} tasks", viewPage.getTotalElements());
+    return viewPage;
+  }
+
+  /**
+   * Keyset pagination. A search term is matched by the database on each page
+   * rather than handed over as the index's hits, so a page costs the rows up
+   * to its limit and the cursor is all the state a scroll carries.
+   */
+  @Transactional(readOnly = true)
+  public CursorPage<Task> scrollTasks(String searchTerm, TaskFilter filter, String cursor, int size, String sortBy,
+      String sortDir, boolean includeTotal) {
+    logger.debug("Scrolling tasks with term: {} after cursor: {}", searchTerm, cursor);
+    Sort keyset = listSort(sortBy, Sort.Direction.fromString(sortDir));
+    KeysetScrollPosition position = CursorCodec.decode(cursor, keyset, Task.class);
+    TaskFilter scrollFilter = (searchTerm == null || searchTerm.isEmpty())
+        ? filter
+        : filter.and(TaskFilter.matching(searchTerm));
+
+    Window<Task> window = taskRepository.scroll(scrollFilter, keyset, position, size);
+    String nextCursor = null;
+    if (window.hasNext()) {
+      KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+      nextCursor = CursorCodec.encode(keyset, last.getKeys());
+    }
+    Long total = includeTotal ? taskRepository.count(scrollFilter) : null;
+
+    logger.info("Scrolled {} tasks", window.size());
+    return new CursorPage<>(window.getContent(), window.size(), window.hasNext(), nextCursor, total);
+  }
+
+  /**
+   * Deletes in one statement without reading the task, soft or hard as
+   * {@code taskapp.delete.soft} says, and evicts only this task from the
+   * entity cache. Whether it was completed is left to the statistics to
+   * recount.
+   */
   public void deleteTask(UUID id) {
     logger.debug("Deleting task with ID: {}", id);
-    if (taskRepository.existsById(id)) {
-        taskRepository.deleteById(id);
-        logger.info("Task deleted successfully with ID: {}", id);
-    } else {
-        logger.error("Task not found with ID: {}", id);
-        throw new TaskNotFoundException("Task not found with id: " + id);
+    if (taskRepository.removeAll(List.of(id)) == 0) {
+      logger.error("Task not found with ID: {}", id);
+      throw new TaskNotFoundException("Task not found with id: " + id);
     }
+    statistics.removed(TenantContext.currentOrDefault(), 1);
+    eventPublisher.publishEvent(TaskChangedEvent.deleted(id));
+    logger.info("Task deleted successfully with ID: {}", id);
+  }
+
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public long rebuildSearchIndex() {
+    logger.info("Rebuilding search index on request");
+    return searchEngine.rebuild();
   }
 
   public Task partialUpdate(UUID id, Map<String, Object> updates) {
+    return partialUpdate(id, updates, null);
+  }
+
+  public Task partialUpdate(UUID id, Map<String, Object> updates, Long expectedVersion) {
     logger.debug("Partially updating task with ID: {}", id);
     Task task = taskRepository.findById(id)
         .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
+    checkVersion(task, expectedVersion);
 
-    updates.forEach((key, value) -> {
-        logger.debug("Updating field: {} with value: {}", key, value);
-        switch (key) {
-            case "title":
-                task.setTitle((String) value);
-                break;
-            case "description":
-                task.setDescription((String) value);
-                break;
-            case "completed":
-                task.setCompleted((Boolean) value);
-                break;
-            default:
-                logger.warn("Unknown field: {}", key);
-        }
-    });
+    boolean wasCompleted = task.isCompleted();
+    TaskUpdates.apply(task, updates);
 
     Task updatedTask = taskRepository.save(task);
+    completedChanged(updatedTask, wasCompleted);
+    eventPublisher.publishEvent(TaskChangedEvent.updated(updatedTask));
     logger.info("Task partially updated successfully with ID: {}", updatedTask.getId());
     return updatedTask;
   }
-}
\ No newline at end of file
+
+  /**
+   * Applies a partial update with a single conditional UPDATE, which leaves
+   * the entity cache entries of other tasks alone. A patch of
+   * {@code completed} first loads the task, normally from the entity cache,
+   * so the statistics learn whether the state flips; other patches read
+   * nothing. Returns the new version of the task.
+   */
+  public long patchTask(UUID id, Map<String, Object> updates, long expectedVersion) {
+    logger.debug("Patching task with ID: {} at version: {}", id, expectedVersion);
+    if (updates.isEmpty()) {
+      throw new InvalidRequestException("At least one field to update is required");
+    }
+    List<String> errors = new ArrayList<>();
+    updates.forEach((field, value) -> errors.addAll(TaskUpdates.validate(validator, field, value)));
+    if (!errors.isEmpty()) {
+      throw new InvalidRequestException(String.join("; ", errors));
+    }
+
+    Boolean completed = (Boolean) updates.get("completed");
+    boolean wasCompleted = false;
+    if (completed != null) {
+      // The state at the expected version is the one the update replaces, as every write bumps the version
+      Task task = taskRepository.findById(id)
+          .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
+      checkVersion(task, expectedVersion);
+      wasCompleted = task.isCompleted();
+    }
+    if (taskRepository.updateFields(id, expectedVersion, updates) == 0) {
+      if (!taskRepository.existsById(id)) {
+        throw new TaskNotFoundException("Task not found with id: " + id);
+      }
+      throw new TaskVersionConflictException("Task " + id + " is no longer at version " + expectedVersion);
+    }
+    if (completed != null && completed != wasCompleted) {
+      statistics.completedChanged(TenantContext.currentOrDefault(), completed ? 1 : -1);
+    }
+
+    long newVersion = expectedVersion + 1;
+    eventPublisher.publishEvent(TaskChangedEvent.patched(id, updates));
+    logger.info("Task patched successfully with ID: {} to version: {}", id, newVersion);
+    return newVersion;
+  }
+
+  /**
+   * Sorts only on the indexed columns, with the id as tie-breaker so pages and
+   * cursors are stable.
+   */
+  private static Sort listSort(String sortBy, Sort.Direction direction) {
+    if (!SORTABLE_FIELDS.contains(sortBy)) {
+      throw new InvalidRequestException("Cannot sort by " + sortBy + "; sortable fields are " + SORTABLE_FIELDS);
+    }
+    Sort sort = Sort.by(direction, sortBy);
+    return "id".equals(sortBy) ? sort : sort.and(Sort.by(direction, "id"));
+  }
+
+  private void completedChanged(Task task, boolean wasCompleted) {
+    if (task.isCompleted() != wasCompleted) {
+      statistics.completedChanged(task.getTenantId(), wasCompleted ? -1 : 1);
+    }
+  }
+
+  private static void checkVersion(Task task, Long expectedVersion) {
+    if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+      throw new TaskVersionConflictException(
+          "Task " + task.getId() + " is at version " + task.getVersion() + ", not " + expectedVersion);
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package com.taskapp.taskapp.Services;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskCounts;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+
+/**
+ * Task counts per tenant, kept in memory so {@code GET /api/tasks/stats}
+ * never counts rows. The services report every write that changes a count,
+ * and the change is applied when its transaction commits. Every
+ * {@code taskapp.stats.reconcile-interval}, and before the first read, the
+ * counts are compared with the database and corrected; that fills them after
+ * a restart and repairs writes that raced a previous reconciliation. A
+ * tenant whose changes were not counted exactly, such as deletes that did not
+ * read the task or writes of other applications, is reconciled before its
+ * counts are read next.
+ */
+@Service
+public class TaskStatistics {
+    private static final Logger logger = LoggerFactory.getLogger(TaskStatistics.class);
+
+    private static final class Counts {
+        final LongAdder total = new LongAdder();
+        final LongAdder completed = new LongAdder();
+
+        TaskCounts get() {
+            return new TaskCounts(total.sum(), completed.sum());
+        }
+    }
+
+    private final TaskRepository taskRepository;
+    private final Map<String, Counts> tenants = new ConcurrentHashMap<>();
+    private final Set<String> recount = ConcurrentHashMap.newKeySet();
+    private final LongAdder corrections = new LongAdder();
+    private volatile boolean reconciled;
+
+    public TaskStatistics(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    public TaskCounts counts(String tenantId) {
+        if (!reconciled || recount.contains(tenantId)) {
+            reconcileFor(tenantId);
+        }
+        Counts counts = tenants.get(tenantId);
+        return counts == null ? TaskCounts.NONE : counts.get();
+    }
+
+    /** Counts of all tenants together, as far as known; does not wait for the first reconciliation. */
+    public TaskCounts totals() {
+        long total = 0;
+        long completed = 0;
+        for (Counts counts : tenants.values()) {
+            total += counts.total.sum();
+            completed += counts.completed.sum();
+        }
+        return new TaskCounts(total, completed);
+    }
+
+    /** Number of tenant counts found wrong, and corrected, by reconciliations since startup. */
+    public long correctionCount() {
+        return corrections.sum();
+    }
+
+    public void created(Task task) {
+        add(task.getTenantId(), 1, task.isCompleted() ? 1 : 0);
+    }
+
+    public void created(Collection<Task> tasks) {
+        Map<String, long[]> added = new HashMap<>();
+        for (Task task : tasks) {
+            long[] counts = added.computeIfAbsent(task.getTenantId(), tenant -> new long[2]);
+            counts[0]++;
+            counts[1] += task.isCompleted() ? 1 : 0;
+        }
+        added.forEach((tenant, counts) -> add(tenant, counts[0], counts[1]));
+    }
+
+    /** {@code delta} tasks were completed, or reopened if negative. */
+    public void completedChanged(String tenantId, long delta) {
+        add(tenantId, 0, delta);
+    }
+
+    /** {@code count} tasks were deleted or archived, {@code completed} of them completed. */
+    public void removed(String tenantId, long count, long completed) {
+        add(tenantId, -count, -completed);
+    }
+
+    /** {@code count} tasks were deleted without reading whether they were completed. */
+    public void removed(String tenantId, long count) {
+        add(tenantId, -count, 0);
+        recount(tenantId);
+    }
+
+    /** The tenant's tasks were changed in ways not reported here; its counts are reconciled before the next read. */
+    public void recount(String tenantId) {
+        afterCommit(() -> recount.add(tenant(tenantId)));
+    }
+
+    private void add(String tenantId, long total, long completed) {
+        if (total != 0 || completed != 0) {
+            afterCommit(() -> apply(tenantId, total, completed));
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private void apply(String tenantId, long total, long completed) {
+        Counts counts = tenants.computeIfAbsent(tenant(tenantId), tenant -> new Counts());
+        counts.total.add(total);
+        counts.completed.add(completed);
+    }
+
+    private static String tenant(String tenantId) {
+        return tenantId != null ? tenantId : TenantContext.DEFAULT_TENANT;
+    }
+
+    /** Readers that queued behind a reconciliation find it done. */
+    private synchronized void reconcileFor(String tenantId) {
+        if (!reconciled || recount.contains(tenantId)) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Corrects every tenant's counts by the difference between the database
+     * and the counts as they were just before it was read, so writes applied
+     * while the query runs are kept.
+     */
+    @Scheduled(fixedDelayString = "${taskapp.stats.reconcile-interval:5m}")
+    public synchronized void reconcile() {
+        Set<String> recounted = new HashSet<>(recount);
+        recount.removeAll(recounted);
+        Map<String, TaskCounts> before = new HashMap<>();
+        tenants.forEach((tenant, counts) -> before.put(tenant, counts.get()));
+        Map<String, TaskCounts> actual = taskRepository.countByTenant();
+
+        Set<String> all = new HashSet<>(before.keySet());
+        all.addAll(actual.keySet());
+        for (String tenant : all) {
+            TaskCounts was = before.getOrDefault(tenant, TaskCounts.NONE);
+            TaskCounts is = actual.getOrDefault(tenant, TaskCounts.NONE);
+            if (was.equals(is)) {
+                continue;
+            }
+            apply(tenant, is.total() - was.total(), is.completed() - was.completed());
+            if (reconciled && !recounted.contains(tenant)) {
+                corrections.increment();
+                logger.info("Corrected task counts of tenant {} from {} to {}", tenant, was, is);
+            }
+        }
+        reconciled = true;
+    }
+}
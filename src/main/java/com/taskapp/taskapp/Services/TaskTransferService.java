@@ -0,0 +1,170 @@
+package com.taskapp.taskapp.Services;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.taskapp.taskapp.Models.BatchItemResult;
+import com.taskapp.taskapp.Models.BatchResult;
+import com.taskapp.taskapp.Models.ImportResult;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Repository.TaskRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Bulk export and import of the task table. Both directions work row by row
+ * on the underlying streams so memory use does not depend on the table size.
+ * Imported tasks keep their ids, so importing an export restores its tasks.
+ */
+@Service
+@Timed("taskapp.service")
+public class TaskTransferService {
+  private static final Logger logger = LoggerFactory.getLogger(TaskTransferService.class);
+  private static final int MAX_REPORTED_ERRORS = 100;
+
+  public enum Format {
+    NDJSON,
+    CSV
+  }
+
+  private final TaskRepository taskRepository;
+  private final TaskBatchService taskBatchService;
+  private final ObjectMapper objectMapper;
+  private final int fetchSize;
+  private final int flushEvery;
+  private final int importChunkSize;
+
+  public TaskTransferService(TaskRepository taskRepository, TaskBatchService taskBatchService, ObjectMapper objectMapper,
+      @Value("${taskapp.export.fetch-size:-2147483648}") int fetchSize,
+      @Value("${taskapp.export.flush-every:1000}") int flushEvery,
+      @Value("${taskapp.batch.chunk-size:500}") int importChunkSize) {
+    this.taskRepository = taskRepository;
+    this.taskBatchService = taskBatchService;
+    this.objectMapper = objectMapper;
+    this.fetchSize = fetchSize;
+    this.flushEvery = flushEvery;
+    this.importChunkSize = importChunkSize;
+  }
+
+  @Transactional(readOnly = true)
+  public long exportTasks(OutputStream out, Format format) throws IOException {
+    logger.info("Exporting tasks as {}", format);
+    long exported = 0;
+    try (Stream<Task> tasks = taskRepository.streamAll(fetchSize)) {
+      Iterator<Task> iterator = tasks.iterator();
+      if (format == Format.CSV) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,title,description,completed\n");
+        while (iterator.hasNext()) {
+          Task task = iterator.next();
+          writer.write(task.getId() + "," + csv(task.getTitle()) + "," + csv(task.getDescription()) + ","
+              + task.isCompleted() + "\n");
+          if (++exported % flushEvery == 0) {
+            writer.flush();
+          }
+        }
+        writer.flush();
+      } else {
+        SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out);
+        while (iterator.hasNext()) {
+          writer.write(iterator.next());
+          if (++exported % flushEvery == 0) {
+            writer.flush();
+          }
+        }
+        writer.flush();
+        if (exported > 0) {
+          out.write('\n');
+        }
+      }
+    }
+    out.flush();
+    logger.info("Exported {} tasks", exported);
+    return exported;
+  }
+
+  public ImportResult importTasks(InputStream in) throws IOException {
+    logger.info("Importing tasks");
+    ObjectReader reader = objectMapper.readerFor(Task.class);
+    BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    List<Task> chunk = new ArrayList<>(importChunkSize);
+    List<Long> chunkLines = new ArrayList<>(importChunkSize);
+    long[] counts = new long[2];
+    List<String> errors = new ArrayList<>();
+
+    String line;
+    long lineNumber = 0;
+    while ((line = lines.readLine()) != null) {
+      lineNumber++;
+      if (line.isBlank()) {
+        continue;
+      }
+      try {
+        chunk.add(reader.readValue(line));
+        chunkLines.add(lineNumber);
+      } catch (JsonProcessingException ex) {
+        recordError(counts, errors, lineNumber, "Malformed task: " + ex.getOriginalMessage());
+        continue;
+      }
+      if (chunk.size() == importChunkSize) {
+        writeChunk(chunk, chunkLines, counts, errors);
+      }
+    }
+    if (!chunk.isEmpty()) {
+      writeChunk(chunk, chunkLines, counts, errors);
+    }
+
+    logger.info("Imported {} tasks, {} failed", counts[0], counts[1]);
+    return new ImportResult(counts[0], counts[1], errors);
+  }
+
+  private void writeChunk(List<Task> chunk, List<Long> chunkLines, long[] counts, List<String> errors) {
+    BatchResult result = taskBatchService.upsertTasks(new ArrayList<>(chunk), false);
+    counts[0] += result.succeeded();
+    for (BatchItemResult item : result.items()) {
+      if (item.isFailed()) {
+        recordError(counts, errors, chunkLines.get(item.index()), String.join("; ", item.errors()));
+      }
+    }
+    chunk.clear();
+    chunkLines.clear();
+  }
+
+  private static void recordError(long[] counts, List<String> errors, long lineNumber, String message) {
+    counts[1]++;
+    if (errors.size() < MAX_REPORTED_ERRORS) {
+      errors.add("Line " + lineNumber + ": " + message);
+    }
+  }
+
+  private static String csv(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
@@ -0,0 +1,70 @@
+package com.taskapp.taskapp.Services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.taskapp.taskapp.Models.Task;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Field-level handling of partial task updates shared by the single and batch
+ * write paths.
+ */
+final class TaskUpdates {
+    private static final Logger logger = LoggerFactory.getLogger(TaskUpdates.class);
+
+    static final Set<String> UPDATABLE_FIELDS = Set.of("title", "description", "completed");
+
+    private TaskUpdates() {
+    }
+
+    static void apply(Task task, Map<String, Object> updates) {
+        updates.forEach((key, value) -> {
+            logger.debug("Updating field: {} with value: {}", key, value);
+            switch (key) {
+                case "title":
+                    task.setTitle((String) value);
+                    break;
+                case "description":
+                    task.setDescription((String) value);
+                    break;
+                case "completed":
+                    task.setCompleted((Boolean) value);
+                    break;
+                case "id":
+                    break;
+                default:
+                    logger.warn("Unknown field: {}", key);
+            }
+        });
+    }
+
+    static List<String> validate(Validator validator, String field, Object value) {
+        switch (field) {
+            case "title":
+            case "description":
+                if (value != null && !(value instanceof String)) {
+                    return List.of(field + " must be a string");
+                }
+                return violations(validator.validateValue(Task.class, field, value));
+            case "completed":
+                if (!(value instanceof Boolean)) {
+                    return List.of("completed must be a boolean");
+                }
+                return List.of();
+            default:
+                return List.of("Unknown field: " + field);
+        }
+    }
+
+    static List<String> violations(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.toList());
+    }
+}
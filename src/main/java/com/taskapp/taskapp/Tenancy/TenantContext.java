@@ -0,0 +1,36 @@
+package com.taskapp.taskapp.Tenancy;
+
+/**
+ * The tenant the current thread works for, bound for each API request from
+ * its {@code X-Tenant-Id} header. Threads without a tenant, such as startup
+ * and background jobs, work across all tenants; tasks they create without a
+ * tenant of their own belong to {@link #DEFAULT_TENANT}.
+ */
+public final class TenantContext {
+    public static final String DEFAULT_TENANT = "default";
+    /** Hibernate's root tenant: sessions opened for it see every tenant's rows. */
+    public static final String ALL_TENANTS = "*";
+
+    private static final ThreadLocal<String> TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static void set(String tenant) {
+        TENANT.set(tenant);
+    }
+
+    /** The bound tenant, or {@code null} on a thread working across tenants. */
+    public static String current() {
+        return TENANT.get();
+    }
+
+    public static String currentOrDefault() {
+        String tenant = TENANT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    public static void clear() {
+        TENANT.remove();
+    }
+}
@@ -0,0 +1,28 @@
+package com.taskapp.taskapp.Tenancy;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Opens every Hibernate session for the thread's tenant, so the
+ * {@code @TenantId} restriction is added to all queries and loads of
+ * {@code Task}. Threads without a tenant get the root tenant, for which
+ * Hibernate adds no restriction.
+ */
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String tenant = TenantContext.current();
+        return tenant != null ? tenant : TenantContext.ALL_TENANTS;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String tenantId) {
+        return TenantContext.ALL_TENANTS.equals(tenantId);
+    }
+}
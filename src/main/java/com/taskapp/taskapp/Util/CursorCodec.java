@@ -0,0 +1,78 @@
+package com.taskapp.taskapp.Util;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.taskapp.taskapp.Util.Exceptions.InvalidRequestException;
+
+/**
+ * Encodes keyset positions as opaque URL-safe tokens. The token carries the
+ * sort it was produced for so it cannot be replayed against another order.
+ */
+public final class CursorCodec {
+    // Timestamps as ISO strings: as JSON numbers they would come back as doubles and lose microseconds
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private static final TypeReference<Map<String, Object>> TOKEN_TYPE = new TypeReference<>() {
+    };
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Sort sort, Map<String, ?> keys) {
+        Map<String, Object> token = new LinkedHashMap<>();
+        token.put("s", sort.toString());
+        token.put("k", keys);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(token));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not encode cursor", ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static KeysetScrollPosition decode(String cursor, Sort sort, Class<?> type) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> token;
+        try {
+            token = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), TOKEN_TYPE);
+        } catch (IllegalArgumentException | IOException ex) {
+            throw new InvalidRequestException("Malformed cursor");
+        }
+        if (!sort.toString().equals(token.get("s")) || !(token.get("k") instanceof Map)) {
+            throw new InvalidRequestException("Cursor does not match the requested sort order");
+        }
+
+        Map<String, Object> rawKeys = (Map<String, Object>) token.get("k");
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            PropertyDescriptor property = BeanUtils.getPropertyDescriptor(type, order.getProperty());
+            Object raw = rawKeys.get(order.getProperty());
+            if (property == null || raw == null) {
+                throw new InvalidRequestException("Cursor is missing sort key: " + order.getProperty());
+            }
+            try {
+                keys.put(order.getProperty(), MAPPER.convertValue(raw, property.getPropertyType()));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidRequestException("Malformed cursor");
+            }
+        }
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,95 @@
+package com.taskapp.taskapp.Util;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+
+import com.taskapp.taskapp.Models.CursorPage;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskView;
+import com.taskapp.taskapp.Util.Exceptions.InvalidRequestException;
+
+/**
+ * Entity tags for single tasks, derived from the optimistic-locking version,
+ * and for pages of tasks. Write responses carry strong tags for
+ * {@code If-Match}; read responses carry weak ones, because Tomcat does not
+ * compress responses with a strong tag.
+ */
+public final class ETags {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ETags() {
+    }
+
+    public static String of(Task task) {
+        return of(task.getVersion());
+    }
+
+    public static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    public static String weak(Task task) {
+        return task.getVersion() == null ? null : "W/" + of(task.getVersion());
+    }
+
+    /** A weak tag that changes when a task on the page or the total number of matches changes. */
+    public static String weak(Page<Task> page) {
+        return weak(hash(page.getTotalElements(), page.getContent()));
+    }
+
+    public static String weak(CursorPage<Task> page) {
+        long total = page.totalElements() == null ? -1 : page.totalElements();
+        return weak(hash(total * 2 + (page.hasNext() ? 1 : 0), page.content()));
+    }
+
+    /** Views carry no version unless it was selected, so their tag covers every selected value. */
+    public static String weakViews(Page<TaskView> page) {
+        long hash = mix(FNV_OFFSET, page.getTotalElements());
+        for (TaskView view : page) {
+            hash = mix(hash, view.hashCode());
+        }
+        return weak(hash);
+    }
+
+    /**
+     * Returns the version an {@code If-Match} header refers to, or
+     * {@code null} if the header is absent or {@code *}.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException ex) {
+            throw new InvalidRequestException("If-Match must be an ETag returned by this API");
+        }
+    }
+
+    private static long hash(long seed, List<Task> tasks) {
+        long hash = mix(FNV_OFFSET, seed);
+        for (Task task : tasks) {
+            hash = mix(hash, task.getId().getMostSignificantBits());
+            hash = mix(hash, task.getId().getLeastSignificantBits());
+            hash = mix(hash, task.getVersion() == null ? -1 : task.getVersion());
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    private static String weak(long hash) {
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+}
@@ -0,0 +1,7 @@
+package com.taskapp.taskapp.Util.Exceptions;
+
+public class ChangeFeedFullException extends RuntimeException {
+    public ChangeFeedFullException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,8 @@ package com.taskapp.taskapp.Util.Exceptions;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -31,6 +33,70 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleVersionConflict(TaskVersionConflictException ex) {
+        logger.error("TaskVersionConflictException: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.PRECONDITION_FAILED.value(),
+            "Task version mismatch",
+            List.of(ex.getMessage())
+        );
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        logger.error("Concurrent modification: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.CONFLICT.value(),
+            "Concurrent modification",
+            List.of("The task was modified by another request, reload it and retry")
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IngestQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleIngestQueueFull(IngestQueueFullException ex) {
+        logger.error("IngestQueueFullException: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            "Too many pending tasks",
+            List.of(ex.getMessage())
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(error);
+    }
+
+    @ExceptionHandler(ChangeFeedFullException.class)
+    public ResponseEntity<ErrorResponse> handleChangeFeedFull(ChangeFeedFullException ex) {
+        logger.error("ChangeFeedFullException: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Too many change feed subscribers",
+            List.of(ex.getMessage())
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "5")
+            .body(error);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(InvalidRequestException ex) {
+        logger.error("InvalidRequestException: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.BAD_REQUEST.value(),
+            "Invalid request",
+            List.of(ex.getMessage())
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
         logger.error("Validation failed: {}", ex.getBindingResult().getFieldErrors());
@@ -0,0 +1,7 @@
+package com.taskapp.taskapp.Util.Exceptions;
+
+public class IngestQueueFullException extends RuntimeException {
+    public IngestQueueFullException(String message) {
+        super(message);
+    }
+}
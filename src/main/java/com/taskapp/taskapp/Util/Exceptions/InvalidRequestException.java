@@ -0,0 +1,7 @@
+package com.taskapp.taskapp.Util.Exceptions;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
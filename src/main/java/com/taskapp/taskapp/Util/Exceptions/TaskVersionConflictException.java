@@ -0,0 +1,7 @@
+package com.taskapp.taskapp.Util.Exceptions;
+
+public class TaskVersionConflictException extends RuntimeException {
+    public TaskVersionConflictException(String message) {
+        super(message);
+    }
+}
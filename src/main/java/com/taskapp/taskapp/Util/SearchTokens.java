@@ -0,0 +1,39 @@
+package com.taskapp.taskapp.Util;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits search terms and task text into lower-case runs of letters and
+ * digits. A search matches a task when each of its tokens occurs inside a
+ * token of the title or the description, so every engine, the index as well
+ * as the LIKE queries, tokenizes with this one method.
+ */
+public final class SearchTokens {
+
+    private SearchTokens() {
+    }
+
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+}
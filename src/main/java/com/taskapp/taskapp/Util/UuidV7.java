@@ -0,0 +1,35 @@
+package com.taskapp.taskapp.Util;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered (version 7) UUIDs: a millisecond Unix timestamp in the top 48
+ * bits, then a 12-bit counter and 62 random bits. Stored as
+ * {@code BINARY(16)} they sort by creation time, so new rows are appended to
+ * the end of the primary key instead of landing on random pages. Ids from one
+ * process are strictly increasing; when more than 4096 are taken within a
+ * millisecond the timestamp runs slightly ahead of the clock.
+ */
+public final class UuidV7 {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long timeAndCounter = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        long msb = (timeAndCounter >>> 12) << 16 | 0x7000L | (timeAndCounter & 0xFFFL);
+        long lsb = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /** When a version 7 id was generated, or {@code null} for other ids. */
+    public static Instant timestampOf(UUID id) {
+        return id.version() == 7 ? Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16) : null;
+    }
+}
@@ -0,0 +1,120 @@
+package com.taskapp.taskapp.Web;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Caps the number of API requests that may work against the database at the
+ * same time. Requests beyond the cap wait up to the acquire timeout and are
+ * then turned away with 503, so a flood of (virtual) request threads queues
+ * here instead of piling up inside the connection pool.
+ */
+@Component
+public class DatabaseBulkheadFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseBulkheadFilter.class);
+    private static final String CHANGE_FEED_PATH = "/api/tasks/changes";
+    private static final String STATS_PATH = "/api/tasks/stats";
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final boolean enabled;
+
+    public DatabaseBulkheadFilter(
+            @Value("${taskapp.bulkhead.enabled:true}") boolean enabled,
+            @Value("${taskapp.bulkhead.max-concurrent-requests:40}") int maxConcurrentRequests,
+            @Value("${taskapp.bulkhead.acquire-timeout:500ms}") Duration acquireTimeout) {
+        this.enabled = enabled;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int queueLength() {
+        return permits.getQueueLength();
+    }
+
+    /** The change feed never touches the database, and its streams would hold a permit for as long as they are open. */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/")
+                || request.getRequestURI().equals(CHANGE_FEED_PATH) || request.getRequestURI().equals(STATS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            logger.warn("Rejecting {} {}: database bulkhead full", request.getMethod(), request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server busy, retry later");
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private record ReleasingAsyncListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.taskapp.taskapp.Web;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskapp.taskapp.Util.Exceptions.ErrorResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Per-client admission control for the API, applied before the database
+ * bulkhead so a single client cannot take the capacity everyone shares.
+ * Every request is charged to the budget of its address; one with an
+ * {@code X-API-Key} is charged to the key's budget as well, so a key narrows
+ * what its address may do but never widens it. Budgets are separate token
+ * buckets for reads, writes and searches.
+ * A search costs more the more words it has and the shorter they are. Page
+ * sizes and search terms beyond the configured maximums are refused with 400,
+ * requests over budget with 429 and {@code Retry-After}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+    public static final String API_KEY_HEADER = "X-API-Key";
+    private static final String LIST_PATH = "/api/tasks";
+
+    public enum Budget { READ, WRITE, SEARCH }
+
+    private record Limit(double perSecond, int burst) {
+    }
+
+    private final boolean enabled;
+    private final Map<Budget, Limit> limits = new EnumMap<>(Budget.class);
+    private final int maxPageSize;
+    private final int maxSearchWords;
+    private final int maxSearchLength;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Map<Budget, TokenBucket>> addresses;
+    // Keys are unchecked, so they get a cache of their own and cannot push addresses out
+    private final Cache<String, Map<Budget, TokenBucket>> keys;
+    private final Map<Budget, LongAdder> admitted = new EnumMap<>(Budget.class);
+    private final Map<Budget, LongAdder> rejected = new EnumMap<>(Budget.class);
+
+    public RateLimitFilter(ObjectMapper objectMapper,
+            @Value("${taskapp.ratelimit.enabled:true}") boolean enabled,
+            @Value("${taskapp.ratelimit.read.per-second:50}") double readsPerSecond,
+            @Value("${taskapp.ratelimit.read.burst:100}") int readBurst,
+            @Value("${taskapp.ratelimit.write.per-second:20}") double writesPerSecond,
+            @Value("${taskapp.ratelimit.write.burst:40}") int writeBurst,
+            @Value("${taskapp.ratelimit.search.per-second:10}") double searchesPerSecond,
+            @Value("${taskapp.ratelimit.search.burst:30}") int searchBurst,
+            @Value("${taskapp.ratelimit.max-page-size:200}") int maxPageSize,
+            @Value("${taskapp.ratelimit.max-search-words:8}") int maxSearchWords,
+            @Value("${taskapp.ratelimit.max-search-length:100}") int maxSearchLength,
+            @Value("${taskapp.ratelimit.max-clients:100000}") long maxClients,
+            @Value("${taskapp.ratelimit.idle-client-expiry:10m}") Duration idleClientExpiry) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        limits.put(Budget.READ, new Limit(readsPerSecond, readBurst));
+        limits.put(Budget.WRITE, new Limit(writesPerSecond, writeBurst));
+        limits.put(Budget.SEARCH, new Limit(searchesPerSecond, searchBurst));
+        this.maxPageSize = maxPageSize;
+        this.maxSearchWords = maxSearchWords;
+        this.maxSearchLength = maxSearchLength;
+        this.addresses = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleClientExpiry)
+                .build();
+        this.keys = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleClientExpiry)
+                .build();
+        for (Budget budget : Budget.values()) {
+            admitted.put(budget, new LongAdder());
+            rejected.put(budget, new LongAdder());
+        }
+    }
+
+    public long admittedCount(Budget budget) {
+        return admitted.get(budget).sum();
+    }
+
+    public long rejectedCount(Budget budget) {
+        return rejected.get(budget).sum();
+    }
+
+    public long trackedClients() {
+        return addresses.estimatedSize() + keys.estimatedSize();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        String search = read ? request.getParameter("search") : null;
+        Budget budget = !read ? Budget.WRITE : search != null && !search.isBlank() ? Budget.SEARCH : Budget.READ;
+
+        String invalid = read && LIST_PATH.equals(request.getRequestURI()) ? checkListing(request, search) : null;
+        if (invalid != null) {
+            rejected.get(budget).increment();
+            reject(response, HttpStatus.BAD_REQUEST, "Request refused", invalid, null);
+            return;
+        }
+
+        int cost = budget == Budget.SEARCH ? searchCost(search) : 1;
+        // Not per tenant: the tenant header is not authenticated, and a new tenant per request would get a new budget
+        String client = request.getRemoteAddr();
+        long now = System.nanoTime();
+        TokenBucket addressBucket = addresses.get(client, key -> newBuckets()).get(budget);
+        long waitNanos = addressBucket.tryTake(cost, now);
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (waitNanos == 0 && apiKey != null && !apiKey.isBlank()) {
+            // Only a request its address could afford creates a key bucket
+            client = "key:" + apiKey.trim();
+            waitNanos = keys.get(client, key -> newBuckets()).get(budget).tryTake(cost, now);
+            if (waitNanos > 0) {
+                addressBucket.giveBack(cost);
+            }
+        }
+        if (waitNanos > 0) {
+            rejected.get(budget).increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            logger.debug("Rate limited {} {} for {}", request.getMethod(), request.getRequestURI(), client);
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests",
+                    budget.name().toLowerCase() + " budget exhausted, retry in " + retryAfter + "s", retryAfter);
+            return;
+        }
+        admitted.get(budget).increment();
+        chain.doFilter(request, response);
+    }
+
+    /** Returns why a listing cannot be admitted at any rate, or {@code null}. */
+    private String checkListing(HttpServletRequest request, String search) {
+        String size = request.getParameter("size");
+        if (size != null && size.trim().matches("\\d{1,9}") && Integer.parseInt(size.trim()) > maxPageSize) {
+            return "size must not exceed " + maxPageSize;
+        }
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        if (search.length() > maxSearchLength) {
+            return "search must not exceed " + maxSearchLength + " characters";
+        }
+        if (words(search).length > maxSearchWords) {
+            return "search must not have more than " + maxSearchWords + " words";
+        }
+        if (searchCost(search) > limits.get(Budget.SEARCH).burst()) {
+            return "search is too broad; use fewer or longer words";
+        }
+        return null;
+    }
+
+    /**
+     * One token per search plus one per word; one- and two-letter words occur
+     * in a large share of all tasks, so they cost four and two.
+     */
+    private static int searchCost(String search) {
+        int cost = 1;
+        for (String word : words(search)) {
+            cost += word.length() >= 3 ? 1 : word.length() == 2 ? 2 : 4;
+        }
+        return cost;
+    }
+
+    private static String[] words(String search) {
+        String trimmed = search.replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        return trimmed.isEmpty() ? new String[0] : trimmed.split(" ");
+    }
+
+    private Map<Budget, TokenBucket> newBuckets() {
+        long now = System.nanoTime();
+        Map<Budget, TokenBucket> buckets = new EnumMap<>(Budget.class);
+        limits.forEach((budget, limit) -> buckets.put(budget, new TokenBucket(limit.perSecond(), limit.burst(), now)));
+        return buckets;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message, String detail,
+            Long retryAfterSeconds) throws IOException {
+        response.setStatus(status.value());
+        if (retryAfterSeconds != null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(LocalDateTime.now(), status.value(), message, List.of(detail)));
+    }
+}
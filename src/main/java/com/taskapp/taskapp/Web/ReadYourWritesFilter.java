@@ -0,0 +1,74 @@
+package com.taskapp.taskapp.Web;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.taskapp.taskapp.Routing.RoutingContext;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Gives a client read-your-writes consistency while replicas catch up. Every
+ * write hands the client a short-lived cookie; requests carrying it read from
+ * the primary until it expires.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String COOKIE_NAME = "taskapp-recent-write";
+
+    private final Duration stickiness;
+
+    public ReadYourWritesFilter(Duration stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean write = !isSafe(request.getMethod());
+        if (write) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, "1")
+                    .path("/api")
+                    .maxAge(stickiness)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader("Set-Cookie", cookie.toString());
+        }
+        if (write || hasRecentWrite(request)) {
+            RoutingContext.requirePrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RoutingContext.clear();
+        }
+    }
+
+    private static boolean isSafe(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private static boolean hasRecentWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
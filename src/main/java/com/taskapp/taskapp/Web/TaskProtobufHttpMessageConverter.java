@@ -0,0 +1,237 @@
+package com.taskapp.taskapp.Web;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.taskapp.taskapp.Models.CursorPage;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskView;
+import com.taskapp.taskapp.Models.Protobuf.ErrorMessage;
+import com.taskapp.taskapp.Models.Protobuf.TaskCursorPage;
+import com.taskapp.taskapp.Models.Protobuf.TaskMessage;
+import com.taskapp.taskapp.Models.Protobuf.TaskPage;
+import com.taskapp.taskapp.Util.Exceptions.ErrorResponse;
+
+/**
+ * The task API in Protobuf, with the messages of {@code task.proto}: tasks,
+ * the offset and cursor pages (including sparse fieldsets, whose unselected
+ * fields are simply absent) and error responses. A PATCH body is a
+ * {@link TaskMessage} whose present fields are the ones to change. Batches,
+ * counts and the other bodies stay JSON-only and are answered with 406 or 415.
+ */
+public class TaskProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public TaskProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == Task.class || Map.class.isAssignableFrom(clazz) || Page.class.isAssignableFrom(clazz)
+                || clazz == CursorPage.class || clazz == MappingJacksonValue.class || clazz == ErrorResponse.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return (clazz == Task.class || Map.class.isAssignableFrom(clazz) && clazz.isAssignableFrom(LinkedHashMap.class))
+                && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return !Map.class.isAssignableFrom(clazz) && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            TaskMessage message = TaskMessage.parseFrom(inputMessage.getBody());
+            return clazz == Task.class ? task(message) : updates(message);
+        } catch (InvalidProtocolBufferException | IllegalArgumentException ex) {
+            throw new HttpMessageNotReadableException("Invalid Protobuf task: " + ex.getMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        Message message = message(body);
+        outputMessage.getHeaders().setContentLength(message.getSerializedSize());
+        message.writeTo(outputMessage.getBody());
+    }
+
+    private static Message message(Object body) {
+        if (body instanceof MappingJacksonValue value) {
+            return message(value.getValue());
+        }
+        if (body instanceof Task task) {
+            return taskMessage(task);
+        }
+        if (body instanceof Page<?> page) {
+            return TaskPage.newBuilder()
+                    .addAllContent(taskMessages(page.getContent()))
+                    .setNumber(page.getNumber())
+                    .setSize(page.getSize())
+                    .setTotalElements(page.getTotalElements())
+                    .setTotalPages(page.getTotalPages())
+                    .build();
+        }
+        if (body instanceof CursorPage<?> page) {
+            TaskCursorPage.Builder builder = TaskCursorPage.newBuilder()
+                    .addAllContent(taskMessages(page.content()))
+                    .setSize(page.size())
+                    .setHasNext(page.hasNext());
+            if (page.nextCursor() != null) {
+                builder.setNextCursor(page.nextCursor());
+            }
+            if (page.totalElements() != null) {
+                builder.setTotalElements(page.totalElements());
+            }
+            return builder.build();
+        }
+        if (body instanceof ErrorResponse error) {
+            ErrorMessage.Builder builder = ErrorMessage.newBuilder().setStatus(error.getStatus());
+            if (error.getTimestamp() != null) {
+                builder.setTimestamp(error.getTimestamp().toString());
+            }
+            if (error.getMessage() != null) {
+                builder.setMessage(error.getMessage());
+            }
+            if (error.getDetails() != null) {
+                builder.addAllDetails(error.getDetails());
+            }
+            return builder.build();
+        }
+        throw new HttpMessageNotWritableException("No Protobuf message for " + body.getClass().getName());
+    }
+
+    private static List<TaskMessage> taskMessages(List<?> content) {
+        return content.stream().map(element -> {
+            if (element instanceof Task task) {
+                return taskMessage(task);
+            }
+            if (element instanceof TaskView view) {
+                return taskMessage(view);
+            }
+            throw new HttpMessageNotWritableException("No Protobuf message for " + element.getClass().getName());
+        }).toList();
+    }
+
+    private static TaskMessage taskMessage(Task task) {
+        TaskMessage.Builder builder = TaskMessage.newBuilder().setCompleted(task.isCompleted());
+        if (task.getId() != null) {
+            builder.setId(bytes(task.getId()));
+        }
+        if (task.getTitle() != null) {
+            builder.setTitle(task.getTitle());
+        }
+        if (task.getDescription() != null) {
+            builder.setDescription(task.getDescription());
+        }
+        if (task.getVersion() != null) {
+            builder.setVersion(task.getVersion());
+        }
+        if (task.getCreatedAt() != null) {
+            builder.setCreatedAt(micros(task.getCreatedAt()));
+        }
+        if (task.getUpdatedAt() != null) {
+            builder.setUpdatedAt(micros(task.getUpdatedAt()));
+        }
+        return builder.build();
+    }
+
+    private static TaskMessage taskMessage(TaskView view) {
+        TaskMessage.Builder builder = TaskMessage.newBuilder();
+        if (view.id() != null) {
+            builder.setId(bytes(view.id()));
+        }
+        if (view.title() != null) {
+            builder.setTitle(view.title());
+        }
+        if (view.description() != null) {
+            builder.setDescription(view.description());
+        }
+        if (view.completed() != null) {
+            builder.setCompleted(view.completed());
+        }
+        if (view.version() != null) {
+            builder.setVersion(view.version());
+        }
+        if (view.createdAt() != null) {
+            builder.setCreatedAt(micros(view.createdAt()));
+        }
+        if (view.updatedAt() != null) {
+            builder.setUpdatedAt(micros(view.updatedAt()));
+        }
+        return builder.build();
+    }
+
+    /** Like the JSON body, a request sets neither the version nor the timestamps. */
+    private static Task task(TaskMessage message) {
+        Task task = new Task();
+        if (message.hasId()) {
+            task.setId(uuid(message.getId()));
+        }
+        if (message.hasTitle()) {
+            task.setTitle(message.getTitle());
+        }
+        if (message.hasDescription()) {
+            task.setDescription(message.getDescription());
+        }
+        task.setCompleted(message.getCompleted());
+        return task;
+    }
+
+    /** The fields a PATCH body sets, as the JSON body would have given them. */
+    private static Map<String, Object> updates(TaskMessage message) {
+        Map<String, Object> updates = new LinkedHashMap<>();
+        if (message.hasTitle()) {
+            updates.put("title", message.getTitle());
+        }
+        if (message.hasDescription()) {
+            updates.put("description", message.getDescription());
+        }
+        if (message.hasCompleted()) {
+            updates.put("completed", message.getCompleted());
+        }
+        return updates;
+    }
+
+    private static ByteString bytes(UUID id) {
+        return ByteString.copyFrom(ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array());
+    }
+
+    private static UUID uuid(ByteString bytes) {
+        if (bytes.size() != 16) {
+            throw new IllegalArgumentException("A task id has 16 bytes, not " + bytes.size());
+        }
+        ByteBuffer buffer = bytes.asReadOnlyByteBuffer();
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+}
@@ -0,0 +1,79 @@
+package com.taskapp.taskapp.Web;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Util.Exceptions.ErrorResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Binds the tenant named by the {@code X-Tenant-Id} header to the request
+ * thread for everything behind it, including the rate limiter. Requests
+ * without the header work in the default tenant unless
+ * {@code taskapp.tenant.header-required} is set.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TenantFilter extends OncePerRequestFilter {
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.-]{0,63}");
+
+    private final ObjectMapper objectMapper;
+    private final boolean headerRequired;
+
+    public TenantFilter(ObjectMapper objectMapper,
+            @Value("${taskapp.tenant.header-required:false}") boolean headerRequired) {
+        this.objectMapper = objectMapper;
+        this.headerRequired = headerRequired;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(TENANT_HEADER);
+        if (tenant == null || tenant.isBlank()) {
+            if (headerRequired) {
+                reject(response, TENANT_HEADER + " header is required");
+                return;
+            }
+            tenant = TenantContext.DEFAULT_TENANT;
+        } else if (!TENANT_ID.matcher(tenant.trim()).matches()) {
+            reject(response, TENANT_HEADER + " must be 1 to 64 letters, digits, '.', '_' or '-'");
+            return;
+        }
+        TenantContext.set(tenant.trim());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private void reject(HttpServletResponse response, String detail) throws IOException {
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(LocalDateTime.now(),
+                HttpStatus.BAD_REQUEST.value(), "Request refused", List.of(detail)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.taskapp.taskapp.Web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as the single instant at which the bucket
+ * would be full again (the generic cell rate algorithm). Taking tokens moves
+ * that instant forward by their cost; a take is refused when it would move it
+ * more than the burst ahead of now.
+ */
+final class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(double tokensPerSecond, int burst, long now) {
+        this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond);
+        this.burstNanos = burst * nanosPerToken;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes {@code cost} tokens and returns 0, or takes nothing and returns
+     * the nanoseconds until that many tokens will be available.
+     */
+    long tryTake(int cost, long now) {
+        long increment = cost * nanosPerToken;
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + increment;
+            long ahead = next - now;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Returns {@code cost} tokens taken for a request that was refused further on. */
+    void giveBack(int cost) {
+        fullAt.addAndGet(-cost * nanosPerToken);
+    }
+}
@@ -0,0 +1,24 @@
+package com.taskapp.taskapp.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.taskapp.taskapp.Routing.ReplicaReadCacheResolver;
+import com.taskapp.taskapp.Routing.ReplicaRoutingDataSource;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TASK_SEARCH_CACHE = "taskSearch";
+
+    @Bean
+    public CacheResolver taskSearchCacheResolver(CacheManager cacheManager,
+            ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        return new ReplicaReadCacheResolver(cacheManager, replicaRoutingDataSource.getIfAvailable());
+    }
+}
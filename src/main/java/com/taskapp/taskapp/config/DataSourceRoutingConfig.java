@@ -0,0 +1,119 @@
+package com.taskapp.taskapp.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.taskapp.taskapp.Routing.Replica;
+import com.taskapp.taskapp.Routing.ReplicaLagMonitor;
+import com.taskapp.taskapp.Routing.ReplicaReadCacheMode;
+import com.taskapp.taskapp.Routing.ReplicaRoutingDataSource;
+import com.taskapp.taskapp.Routing.ReplicaSelection;
+import com.taskapp.taskapp.Web.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Read/write split: {@code spring.datasource.*} stays the primary and
+ * {@code taskapp.datasource.replica-urls} lists the read replicas that serve
+ * {@code @Transactional(readOnly = true)} work. Reads bound for a replica
+ * use the entity and search caches without adding to them.
+ */
+@Configuration
+@ConditionalOnProperty(name = "taskapp.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+            DataSourceProperties properties, MeterRegistry meterRegistry,
+            @Value("${taskapp.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${taskapp.datasource.replica-username:${spring.datasource.username:}}") String username,
+            @Value("${taskapp.datasource.replica-password:${spring.datasource.password:}}") String password,
+            @Value("${taskapp.datasource.replica-pool-size:20}") int poolSize,
+            @Value("${taskapp.datasource.replica-selection:round-robin}") String selection,
+            @Value("${taskapp.datasource.max-replica-lag:5s}") Duration maxLag) {
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setMinimumIdle(poolSize);
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new Replica(replica.getPoolName(), replica, () -> activeConnections(replica)));
+        }
+        ReplicaSelection strategy = ReplicaSelection.valueOf(selection.replace('-', '_').toUpperCase(Locale.ROOT));
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, strategy, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaReadCacheMode replicaReadCacheMode(EntityManagerFactory entityManagerFactory,
+            ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaReadCacheMode(entityManagerFactory, replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource.getReplicas());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${taskapp.datasource.read-your-writes:10s}") Duration stickiness) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(stickiness));
+    }
+
+    @Bean
+    public MeterBinder replicaLagMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> replicaRoutingDataSource.getReplicas().forEach(replica -> Gauge
+                .builder("taskapp.datasource.replica.lag", replica,
+                        r -> r.isReachable() && r.getLag() != null ? r.getLag().toMillis() / 1000.0 : Double.NaN)
+                .description("Replication delay; NaN while the replica is unreachable or not replicating")
+                .baseUnit("seconds")
+                .tag("replica", replica.getName())
+                .register(registry));
+    }
+
+    private static int activeConnections(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+}
@@ -0,0 +1,62 @@
+package com.taskapp.taskapp.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Repository.Memory.InMemoryTaskRepository;
+import com.taskapp.taskapp.Repository.Memory.InMemoryTransactionManager;
+import com.taskapp.taskapp.Repository.Memory.TaskStore;
+
+import jakarta.validation.Validator;
+
+/**
+ * The {@code memory} profile keeps tasks in a {@link TaskStore} instead of the
+ * database, for instances that have to run without one. The profile's
+ * properties switch off the DataSource, JPA and Flyway auto-configuration;
+ * the repository and transaction manager here take their place.
+ */
+@Configuration
+@Profile("memory")
+public class MemoryStoreConfig {
+
+    @Bean
+    public TaskStore taskStore(ObjectMapper objectMapper,
+            @Value("${taskapp.memory.data-dir:}") String dataDir,
+            @Value("${taskapp.memory.fsync:true}") boolean fsync) throws IOException {
+        return dataDir.isBlank() ? TaskStore.inMemory() : TaskStore.open(Path.of(dataDir), objectMapper, fsync);
+    }
+
+    @Bean
+    public TaskRepository taskRepository(TaskStore taskStore, Validator validator) {
+        return new InMemoryTaskRepository(taskStore, validator);
+    }
+
+    @Bean
+    public InMemoryTransactionManager transactionManager(TaskStore taskStore) {
+        return new InMemoryTransactionManager(taskStore);
+    }
+
+    @Bean
+    public SchedulingConfigurer taskStoreSnapshots(TaskStore taskStore,
+            @Value("${taskapp.memory.snapshot-interval:5m}") Duration interval,
+            @Value("${taskapp.memory.snapshot-min-log-size:64MB}") DataSize minLogSize) {
+        return registrar -> registrar.addFixedDelayTask(() -> {
+            try {
+                taskStore.snapshot(minLogSize.toBytes());
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not write a task store snapshot", ex);
+            }
+        }, interval);
+    }
+}
@@ -0,0 +1,186 @@
+package com.taskapp.taskapp.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import com.taskapp.taskapp.Repository.RepositoryMetricsInterceptor;
+import com.taskapp.taskapp.Repository.SampledSqlLogger;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Repository.Memory.InMemoryTaskRepository;
+import com.taskapp.taskapp.Routing.ReplicaRoutingDataSource;
+import com.taskapp.taskapp.Services.TaskChangeFeed;
+import com.taskapp.taskapp.Services.TaskIngestService;
+import com.taskapp.taskapp.Services.TaskPurger;
+import com.taskapp.taskapp.Services.TaskStatistics;
+import com.taskapp.taskapp.Web.DatabaseBulkheadFilter;
+import com.taskapp.taskapp.Web.RateLimitFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registry,
+            @Value("${taskapp.repository.slow-threshold:200ms}") Duration slowThreshold) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    new RepositoryMetricsInterceptor(registry.getObject(),
+                                            repositoryInformation.getRepositoryInterface(), slowThreshold))));
+                }
+                return bean;
+            }
+
+            // The in-memory repository is no Spring Data proxy, so it gets the same interceptor by proxying it here
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof InMemoryTaskRepository) {
+                    ProxyFactory proxyFactory = new ProxyFactory(bean);
+                    proxyFactory.addAdvice(new RepositoryMetricsInterceptor(registry.getObject(), TaskRepository.class,
+                            slowThreshold));
+                    return proxyFactory.getProxy();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sampledSqlLogging(
+            @Value("${taskapp.sql.log-sample-rate:0}") double sampleRate) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SampledSqlLogger(sampleRate));
+    }
+
+    /** Share of each pool in use or waited for; above 1 means requests are queueing for connections. */
+    @Bean
+    public MeterBinder connectionPoolSaturation(ObjectProvider<HikariDataSource> pools,
+            ObjectProvider<ReplicaRoutingDataSource> routing) {
+        return registry -> {
+            List<DataSource> dataSources = new ArrayList<>(pools.orderedStream().toList());
+            routing.ifAvailable(router -> router.getReplicas()
+                    .forEach(replica -> dataSources.add(replica.getDataSource())));
+            for (DataSource dataSource : dataSources) {
+                if (dataSource instanceof HikariDataSource hikari) {
+                    Gauge.builder("taskapp.db.pool.saturation", hikari, MetricsConfig::saturation)
+                            .description("(active + pending) connections / maximum pool size")
+                            .tag("pool", String.valueOf(hikari.getPoolName()))
+                            .register(registry);
+                }
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(DatabaseBulkheadFilter bulkhead) {
+        return registry -> {
+            Gauge.builder("taskapp.bulkhead.available", bulkhead, DatabaseBulkheadFilter::availablePermits)
+                    .description("Free database bulkhead permits")
+                    .register(registry);
+            Gauge.builder("taskapp.bulkhead.queued", bulkhead, DatabaseBulkheadFilter::queueLength)
+                    .description("Requests waiting for a database bulkhead permit")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(RateLimitFilter rateLimit) {
+        return registry -> {
+            for (RateLimitFilter.Budget budget : RateLimitFilter.Budget.values()) {
+                String tag = budget.name().toLowerCase();
+                FunctionCounter.builder("taskapp.ratelimit.admitted", rateLimit, filter -> filter.admittedCount(budget))
+                        .description("API requests admitted by the per-client rate limiter")
+                        .tag("budget", tag)
+                        .register(registry);
+                FunctionCounter.builder("taskapp.ratelimit.rejected", rateLimit, filter -> filter.rejectedCount(budget))
+                        .description("API requests refused with 429, or with 400 for oversized pages and searches")
+                        .tag("budget", tag)
+                        .register(registry);
+            }
+            Gauge.builder("taskapp.ratelimit.clients", rateLimit, RateLimitFilter::trackedClients)
+                    .description("Clients with rate limit state")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder ingestMetrics(TaskIngestService ingestService) {
+        return registry -> Gauge.builder("taskapp.ingest.pending", ingestService, TaskIngestService::pendingCount)
+                .description("Tasks accepted with Prefer: respond-async and not yet written")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder changeFeedMetrics(TaskChangeFeed changeFeed) {
+        return registry -> Gauge.builder("taskapp.changes.subscribers", changeFeed, TaskChangeFeed::subscriberCount)
+                .description("Open GET /api/tasks/changes streams")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder purgeMetrics(TaskPurger purger) {
+        return registry -> {
+            FunctionCounter.builder("taskapp.purge.archived", purger, TaskPurger::archivedDeletedCount)
+                    .description("Tasks moved to task_archive by the purge")
+                    .tag("reason", "deleted")
+                    .register(registry);
+            FunctionCounter.builder("taskapp.purge.archived", purger, TaskPurger::archivedCompletedCount)
+                    .description("Tasks moved to task_archive by the purge")
+                    .tag("reason", "completed")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder taskStatisticsMetrics(TaskStatistics statistics) {
+        return registry -> {
+            Gauge.builder("taskapp.tasks", statistics, stats -> stats.totals().open())
+                    .description("Tasks of all tenants, from the in-memory counts")
+                    .tag("state", "open")
+                    .register(registry);
+            Gauge.builder("taskapp.tasks", statistics, stats -> stats.totals().completed())
+                    .description("Tasks of all tenants, from the in-memory counts")
+                    .tag("state", "completed")
+                    .register(registry);
+            FunctionCounter.builder("taskapp.tasks.corrections", statistics, TaskStatistics::correctionCount)
+                    .description("Tenant task counts found wrong and corrected by a reconciliation")
+                    .register(registry);
+        };
+    }
+
+    private static double saturation(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0;
+        }
+        return (double) (pool.getActiveConnections() + pool.getThreadsAwaitingConnection())
+                / hikari.getMaximumPoolSize();
+    }
+}
@@ -1,16 +1,38 @@
 package com.taskapp.taskapp.config;
 
 import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.responses.ApiResponse;
 
+import java.util.List;
+import java.util.Map;
+
+import org.springdoc.core.customizers.OpenApiCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import io.swagger.v3.oas.models.OpenAPI;
 
 @Configuration
-
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", matchIfMissing = true)
 public class SwaggerConfig {
 
+    private static final String JSON = "application/json";
+    private static final String[] JACKSON_BINARY = { "application/x-jackson-smile", "application/cbor" };
+    private static final String PROTOBUF = "application/x-protobuf";
+    private static final String STREAMED = "#/components/schemas/StreamingResponseBody";
+
+    /** The task.proto messages of the operations that speak Protobuf, request body first. */
+    private static final Map<String, List<String>> PROTOBUF_MESSAGES = Map.of(
+            "createTask", List.of("TaskMessage", "TaskMessage"),
+            "updateTask", List.of("TaskMessage", "TaskMessage"),
+            "partialUpdateTask", List.of("TaskMessage", "TaskMessage"),
+            "getTask", List.of("", "TaskMessage"),
+            "searchTasks", List.of("", "TaskPage, or TaskCursorPage with cursor"));
+
     @Bean
     public OpenAPI customOpenAPI() {
         return new OpenAPI()
@@ -19,5 +41,38 @@ public class SwaggerConfig {
                         .version("1.0")
                         .description("API documentation for Task App"));
     }
- 
+
+    /** Lists the binary formats of WireFormatConfig next to JSON on the task endpoints. */
+    @Bean
+    public OpenApiCustomizer wireFormats() {
+        return openApi -> openApi.getPaths().forEach((path, item) -> {
+            if (!path.startsWith("/api/tasks")) {
+                return;
+            }
+            item.readOperations().forEach(operation -> {
+                List<String> messages = PROTOBUF_MESSAGES.getOrDefault(operation.getOperationId(), List.of("", ""));
+                if (operation.getRequestBody() != null) {
+                    addWireFormats(operation.getRequestBody().getContent(), messages.get(0));
+                }
+                ApiResponse ok = operation.getResponses().get("200");
+                if (ok != null) {
+                    addWireFormats(ok.getContent(), messages.get(1));
+                }
+            });
+        });
+    }
+
+    private static void addWireFormats(Content content, String protobufMessage) {
+        MediaType json = content == null ? null : content.containsKey(JSON) ? content.get(JSON) : content.get("*/*");
+        if (json == null || json.getSchema() == null || STREAMED.equals(json.getSchema().get$ref())) {
+            return;
+        }
+        for (String format : JACKSON_BINARY) {
+            content.addMediaType(format, json);
+        }
+        if (!protobufMessage.isEmpty()) {
+            content.addMediaType(PROTOBUF, new MediaType().schema(new Schema<>().type("string").format("binary")
+                    .description("taskapp." + protobufMessage + ", see task.proto")));
+        }
+    }
 }
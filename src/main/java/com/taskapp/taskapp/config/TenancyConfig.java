@@ -0,0 +1,22 @@
+package com.taskapp.taskapp.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.taskapp.taskapp.Tenancy.TenantIdentifierResolver;
+
+/**
+ * Tasks are partitioned by a {@code tenant_id} column. The tenant of each
+ * request is bound by {@code TenantFilter} and handed to Hibernate here.
+ */
+@Configuration
+public class TenancyConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantIdentifierResolver() {
+        return properties -> properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER,
+                new TenantIdentifierResolver());
+    }
+}
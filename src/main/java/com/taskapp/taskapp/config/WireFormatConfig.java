@@ -0,0 +1,41 @@
+package com.taskapp.taskapp.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.taskapp.taskapp.Web.TaskProtobufHttpMessageConverter;
+
+/**
+ * Binary bodies next to JSON, chosen by {@code Accept} and
+ * {@code Content-Type}: Smile ({@code application/x-jackson-smile}) and CBOR
+ * ({@code application/cbor}) for every endpoint, and Protobuf
+ * ({@code application/x-protobuf}) for tasks and task pages. JSON stays first,
+ * so clients that accept anything keep getting it.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public WireFormatConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring registers these two with default mappers; copies of the application's keep its modules and features
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())));
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())));
+        converters.add(new TaskProtobufHttpMessageConverter());
+    }
+}
@@ -0,0 +1,10 @@
+-- The table of the first release, as ddl-auto=update created it on MySQL. Databases created that way are baselined
+-- at version 1 (spring.flyway.baseline-on-migrate) and skip this script; V2 and later apply to them as to new ones.
+
+create table task (
+    completed bit not null,
+    id binary(16) not null,
+    description varchar(255),
+    title varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
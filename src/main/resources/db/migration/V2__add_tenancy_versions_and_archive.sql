@@ -0,0 +1,33 @@
+-- Columns, indexes and the archive table added since the first release. Rows from before take the default tenant,
+-- version 0 and the time of the migration as their creation and update time.
+
+alter table task add column tenant_id varchar(64) default 'default' not null;
+alter table task add column version bigint default 0 not null;
+alter table task add column created_at datetime(6) default current_timestamp(6) not null;
+alter table task add column updated_at datetime(6) default current_timestamp(6) not null;
+alter table task add column deleted_at datetime(6);
+
+create index idx_task_tenant_completed_title on task (tenant_id, completed, title, id, deleted_at);
+create index idx_task_tenant_completed_created on task (tenant_id, completed, created_at, id, deleted_at);
+create index idx_task_tenant_completed_updated on task (tenant_id, completed, updated_at, id, deleted_at);
+create index idx_task_tenant_title on task (tenant_id, title, id, deleted_at);
+create index idx_task_tenant_created on task (tenant_id, created_at, id, deleted_at);
+create index idx_task_tenant_updated on task (tenant_id, updated_at, id, deleted_at);
+create index idx_task_deleted on task (deleted_at);
+create index idx_task_completed_updated on task (completed, updated_at);
+
+create table task_archive (
+    id binary(16) not null,
+    tenant_id varchar(64) not null,
+    title varchar(255) not null,
+    description varchar(255),
+    completed bit not null,
+    version bigint,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    deleted_at datetime(6),
+    archived_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_task_archive_tenant_archived on task_archive (tenant_id, archived_at);
@@ -0,0 +1,13 @@
+-- Writes made to the task table by other applications, such as the reactive API, logged in the same transaction so
+-- this application can evict, reindex and publish the tasks they changed.
+
+create table task_change_log (
+    seq bigint not null auto_increment,
+    tenant_id varchar(64) not null,
+    task_id binary(16) not null,
+    change_type varchar(16) not null,
+    changed_at datetime(6) not null,
+    primary key (seq)
+) engine=InnoDB;
+
+create index idx_task_change_log_changed on task_change_log (changed_at);
@@ -0,0 +1,213 @@
+package com.taskapp.taskapp.startup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Measures how fast the packaged app starts and answers its first request,
+ * as deployed today (the executable jar) and with the startup optimizations
+ * built by the {@code startup} Maven profile: the jar extracted for class
+ * loading, Spring AOT, and a class-data-sharing archive recorded by a
+ * training run. Each variant is started {@code startup.runs} times and the
+ * medians are reported.
+ *
+ * <p>Configuration comes from system properties ({@code startup.*}).
+ */
+public final class StartupReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Pattern STARTED = Pattern.compile(
+            "Started \\S+ in ([0-9.]+) seconds \\(process running for ([0-9.]+)\\)");
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(3);
+
+    private record Variant(String name, List<String> command) {
+    }
+
+    private final Path jar;
+    private final Path dir;
+    private final List<String> appArguments;
+    private final int port;
+    private final int runs;
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+    StartupReport(Path jar, Path dir, List<String> appArguments, int port, int runs) {
+        this.jar = jar;
+        this.dir = dir;
+        this.appArguments = appArguments;
+        this.port = port;
+        this.runs = runs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> appArguments = new ArrayList<>();
+        appArguments.add("--spring.profiles.active=" + System.getProperty("startup.profiles", "prod"));
+        String extra = System.getProperty("startup.app.arguments", "").trim();
+        if (!extra.isEmpty()) {
+            appArguments.addAll(Arrays.asList(extra.split("\\s+")));
+        }
+        StartupReport report = new StartupReport(
+                Path.of(System.getProperty("startup.jar", "target/taskapp-0.0.1-SNAPSHOT.jar")),
+                Path.of(System.getProperty("startup.report-dir", "target/startup")),
+                appArguments,
+                Integer.getInteger("startup.port", 18081),
+                Integer.getInteger("startup.runs", 3));
+
+        Map<String, Object> results = report.run();
+        Path file = report.dir.resolve("report.json");
+        MAPPER.writeValue(file.toFile(), results);
+        System.out.println(summary(results));
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    private Map<String, Object> run() throws IOException, InterruptedException {
+        Files.createDirectories(dir);
+        Path extracted = dir.resolve("app");
+        exec(List.of(java, "-Djarmode=tools", "-jar", jar.toString(), "extract", "--force",
+                "--destination", extracted.toString()), "extract");
+        Path extractedJar = extracted.resolve(jar.getFileName());
+        Path archive = extracted.resolve("application.jsa");
+
+        // The training run starts the context and exits; the JVM records the classes it loaded on the way
+        List<String> training = new ArrayList<>(List.of(java, "-XX:ArchiveClassesAtExit=" + archive,
+                "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh", "-jar", extractedJar.toString()));
+        training.addAll(appArguments);
+        training.add("--server.port=" + port);
+        exec(training, "training");
+
+        List<Variant> variants = List.of(
+                new Variant("jar", List.of(java, "-jar", jar.toString())),
+                new Variant("extracted+aot", List.of(java, "-Dspring.aot.enabled=true",
+                        "-jar", extractedJar.toString())),
+                new Variant("extracted+aot+cds", List.of(java, "-XX:SharedArchiveFile=" + archive,
+                        "-Dspring.aot.enabled=true", "-jar", extractedJar.toString())));
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("runs", runs);
+        results.put("javaVersion", System.getProperty("java.version"));
+        Map<String, Object> perVariant = new LinkedHashMap<>();
+        for (Variant variant : variants) {
+            List<Map<String, Double>> samples = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                samples.add(start(variant, i));
+            }
+            perVariant.put(variant.name(), medians(samples));
+        }
+        results.put("variants", perVariant);
+        return results;
+    }
+
+    /** Starts the app once and returns its start and first-request times. */
+    private Map<String, Double> start(Variant variant, int run) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(variant.command());
+        command.addAll(appArguments);
+        command.add("--server.port=" + port);
+        Path log = dir.resolve(variant.name() + "-" + run + ".log");
+
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long deadline = launched + START_TIMEOUT.toNanos();
+            while (status("/actuator/health") != 200) {
+                if (!process.isAlive() || System.nanoTime() > deadline) {
+                    throw new IllegalStateException(variant.name() + " did not start, see " + log);
+                }
+                Thread.sleep(20);
+            }
+            long ready = System.nanoTime();
+            int first = status("/api/tasks?size=20");
+            long answered = System.nanoTime();
+            if (first != 200) {
+                throw new IllegalStateException(variant.name() + " answered its first request with " + first);
+            }
+            status("/api/tasks?size=20");
+            long second = System.nanoTime();
+
+            Map<String, Double> sample = new LinkedHashMap<>();
+            sample.put("readyMs", millis(ready - launched));
+            sample.put("firstRequestMs", millis(answered - ready));
+            sample.put("secondRequestMs", millis(second - answered));
+            Matcher started = STARTED.matcher(Files.readString(log));
+            if (started.find()) {
+                sample.put("contextStartedMs", Double.parseDouble(started.group(1)) * 1000);
+                sample.put("processStartedMs", Double.parseDouble(started.group(2)) * 1000);
+            }
+            return sample;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private int status(String path) throws InterruptedException {
+        try {
+            return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .timeout(Duration.ofSeconds(30)).GET().build(), HttpResponse.BodyHandlers.discarding())
+                    .statusCode();
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    private void exec(List<String> command, String step) throws IOException, InterruptedException {
+        Path log = dir.resolve(step + ".log");
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        if (!process.waitFor(START_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new IllegalStateException(step + " timed out, see " + log);
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException(step + " failed with exit code " + process.exitValue() + ", see " + log);
+        }
+    }
+
+    private static Map<String, Object> medians(List<Map<String, Double>> samples) {
+        Map<String, Object> medians = new LinkedHashMap<>();
+        for (String key : samples.get(0).keySet()) {
+            double[] values = samples.stream().filter(s -> s.containsKey(key))
+                    .mapToDouble(s -> s.get(key)).sorted().toArray();
+            medians.put(key, round(values[values.length / 2]));
+        }
+        return medians;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    @SuppressWarnings("unchecked")
+    static String summary(Map<String, Object> report) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%n== Startup, median of %s runs (Java %s)%n", report.get("runs"),
+                report.get("javaVersion")));
+        out.append(String.format("%-20s %12s %12s %12s %12s%n",
+                "variant", "context ms", "ready ms", "1st req ms", "2nd req ms"));
+        ((Map<String, Map<String, Object>>) report.get("variants")).forEach((name, s) ->
+                out.append(String.format("%-20s %12s %12s %12s %12s%n", name, s.getOrDefault("contextStartedMs", "-"),
+                        s.get("readyMs"), s.get("firstRequestMs"), s.get("secondRequestMs"))));
+        return out.toString();
+    }
+}
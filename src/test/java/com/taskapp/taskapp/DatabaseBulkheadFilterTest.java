@@ -0,0 +1,66 @@
+package com.taskapp.taskapp;
+
+import com.taskapp.taskapp.Web.DatabaseBulkheadFilter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DatabaseBulkheadFilterTest {
+
+    private final DatabaseBulkheadFilter filter = new DatabaseBulkheadFilter(true, 1, Duration.ofMillis(10));
+
+    @Test
+    public void testRequestHoldsPermitUntilDone() throws Exception {
+        AtomicInteger availableDuringRequest = new AtomicInteger(-1);
+        FilterChain chain = (request, response) -> availableDuringRequest.set(filter.availablePermits());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(availableDuringRequest.get()).isZero();
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRejectsWhenBulkheadIsFull() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        FilterChain chain = (request, response) ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks"), rejected, new MockFilterChain());
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/tasks"), new MockHttpServletResponse(), chain);
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void testIgnoresNonApiRequests() throws Exception {
+        FilterChain chain = (request, response) ->
+                assertThat(filter.availablePermits()).isEqualTo(1);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void testChangeFeedDoesNotHoldPermit() throws Exception {
+        FilterChain chain = (request, response) ->
+                assertThat(filter.availablePermits()).isEqualTo(1);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/changes"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+}
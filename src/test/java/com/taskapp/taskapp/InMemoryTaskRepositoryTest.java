@@ -0,0 +1,265 @@
+package com.taskapp.taskapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.taskapp.taskapp.Models.CursorPage;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskCounts;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Repository.Memory.InMemoryTaskRepository;
+import com.taskapp.taskapp.Repository.Memory.InMemoryTransactionManager;
+import com.taskapp.taskapp.Repository.Memory.TaskStore;
+import com.taskapp.taskapp.Search.TaskSearchEngine;
+import com.taskapp.taskapp.Services.TaskService;
+import com.taskapp.taskapp.Services.TaskStatistics;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Util.Exceptions.TaskNotFoundException;
+import com.taskapp.taskapp.Util.Exceptions.TaskVersionConflictException;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InMemoryTaskRepositoryTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private TaskStore store;
+    private InMemoryTaskRepository repository;
+
+    @TempDir
+    Path dataDir;
+
+    @BeforeEach
+    public void setup() {
+        store = TaskStore.inMemory();
+        repository = new InMemoryTaskRepository(store, validator);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    private static Task task(String title, boolean completed) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription("About " + title.toLowerCase());
+        task.setCompleted(completed);
+        return task;
+    }
+
+    private List<Task> seed(String tenant, int count) {
+        TenantContext.set(tenant);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(repository.save(task("Task " + (i * 7919 % count) + " " + tenant, i % 3 == 0)));
+        }
+        return tasks;
+    }
+
+    @Test
+    public void testListings_MatchFilteringAndSortingEveryTask() {
+        seed("beta", 40);
+        List<Task> all = seed("acme", 300);
+        Instant middle = all.get(150).getCreatedAt();
+        // Changes the sort keys of some tasks, leaving entries for their old values in the indexes
+        for (Task task : all.subList(0, 60)) {
+            task.setTitle("Renamed " + task.getTitle());
+            task.setCompleted(!task.isCompleted());
+            repository.save(task);
+        }
+
+        Map<TaskFilter, Predicate<Task>> filters = Map.of(
+                TaskFilter.none(), task -> true,
+                TaskFilter.attributes(true, null, null, null, null, null), Task::isCompleted,
+                TaskFilter.attributes(false, "Task 1", null, null, null, null),
+                task -> !task.isCompleted() && task.getTitle().startsWith("Task 1"),
+                TaskFilter.attributes(null, null, middle, null, null, null), task -> !task.getCreatedAt().isBefore(middle),
+                TaskFilter.matching("RENAMED task 2"), task -> List.of("renamed", "task", "2").stream()
+                        .allMatch(word -> (task.getTitle() + " " + task.getDescription()).toLowerCase().contains(word)));
+        for (Map.Entry<TaskFilter, Predicate<Task>> filter : filters.entrySet()) {
+            for (String property : List.of("id", "title", "createdAt", "updatedAt")) {
+                for (Sort.Direction direction : Sort.Direction.values()) {
+                    Sort sort = property.equals("id") ? Sort.by(direction, "id")
+                            : Sort.by(direction, property).and(Sort.by(direction, "id"));
+                    List<UUID> expected = repository.findAll(Sort.by("id")).stream()
+                            .filter(filter.getValue())
+                            .sorted(comparator(property, direction))
+                            .map(Task::getId)
+                            .toList();
+
+                    Page<Task> page = repository.findPage(filter.getKey(), PageRequest.of(1, 25, sort));
+                    assertThat(page.getTotalElements()).isEqualTo(expected.size());
+                    assertThat(page.getContent()).extracting(Task::getId)
+                            .containsExactlyElementsOf(expected.subList(Math.min(25, expected.size()),
+                                    Math.min(50, expected.size())));
+                    assertThat(page.getContent()).allMatch(task -> "acme".equals(task.getTenantId()));
+                }
+            }
+        }
+    }
+
+    private static Comparator<Task> comparator(String property, Sort.Direction direction) {
+        Comparator<UUID> ids = Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+                .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+        Comparator<Task> byId = Comparator.comparing(Task::getId, ids);
+        Comparator<Task> order = switch (property) {
+            case "title" -> Comparator.comparing(Task::getTitle).thenComparing(byId);
+            case "createdAt" -> Comparator.comparing(Task::getCreatedAt).thenComparing(byId);
+            case "updatedAt" -> Comparator.comparing(Task::getUpdatedAt).thenComparing(byId);
+            default -> byId;
+        };
+        return direction.isAscending() ? order : order.reversed();
+    }
+
+    @Test
+    public void testScrollTasks_VisitsEveryMatchingTaskOnce() {
+        seed("acme", 101);
+        TaskService taskService = new TaskService(repository, Mockito.mock(TaskSearchEngine.class),
+                Mockito.mock(ApplicationEventPublisher.class), validator, new TaskStatistics(repository));
+        TaskFilter open = TaskFilter.attributes(false, null, null, null, null, null);
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Task> page = taskService.scrollTasks(null, open, cursor, 10, "title", "desc", false);
+            page.content().forEach(task -> seen.add(task.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).doesNotHaveDuplicates().hasSize((int) repository.count(open)).hasSize(67);
+    }
+
+    @Test
+    public void testSave_ChecksAndBumpsVersionsWithinTheTenant() {
+        TenantContext.set("acme");
+        Task created = repository.save(task("First task", false));
+        assertThat(created.getId()).isNotNull();
+        assertThat(created.getVersion()).isZero();
+        assertThat(created.getTenantId()).isEqualTo("acme");
+
+        Task loaded = repository.findById(created.getId()).orElseThrow();
+        loaded.setCompleted(true);
+        assertThat(repository.save(loaded).getVersion()).isEqualTo(1);
+        assertThat(repository.save(loaded).getVersion()).isEqualTo(1);
+
+        created.setTitle("Stale update");
+        assertThatThrownBy(() -> repository.save(created)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        Task duplicate = task("Duplicate task", false);
+        duplicate.setId(created.getId());
+        assertThatThrownBy(() -> repository.save(duplicate)).isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> repository.save(task("x", false))).isInstanceOf(ConstraintViolationException.class);
+
+        TenantContext.set("beta");
+        assertThat(repository.findById(created.getId())).isEmpty();
+        assertThat(repository.removeAll(List.of(created.getId()))).isZero();
+        TenantContext.clear();
+        assertThat(repository.countByTenant()).isEqualTo(Map.of("acme", new TaskCounts(1, 1)));
+    }
+
+    @Test
+    public void testServiceWrites_WorkWithoutADatabase() {
+        TenantContext.set("acme");
+        TaskStatistics statistics = new TaskStatistics(repository);
+        TaskService taskService = new TaskService(repository, Mockito.mock(TaskSearchEngine.class),
+                Mockito.mock(ApplicationEventPublisher.class), validator, statistics);
+        Task task = taskService.createTask(task("Write report", false));
+
+        assertThat(taskService.patchTask(task.getId(), Map.of("completed", true), 0)).isEqualTo(1);
+        assertThatThrownBy(() -> taskService.patchTask(task.getId(), Map.of("title", "Late patch"), 0))
+                .isInstanceOf(TaskVersionConflictException.class);
+        assertThat(taskService.getTask(task.getId()).isCompleted()).isTrue();
+        assertThat(statistics.counts("acme")).isEqualTo(new TaskCounts(1, 1));
+
+        taskService.deleteTask(task.getId());
+        assertThatThrownBy(() -> taskService.deleteTask(task.getId())).isInstanceOf(TaskNotFoundException.class);
+        assertThat(statistics.counts("acme")).isEqualTo(TaskCounts.NONE);
+    }
+
+    @Test
+    public void testRollback_PutsBackWhatTheTransactionReplaced() {
+        Task kept = repository.save(task("Kept task", false));
+        TransactionTemplate transaction = new TransactionTemplate(new InMemoryTransactionManager(store));
+
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+            repository.save(task("Rolled back task", false));
+            kept.setTitle("Changed title");
+            repository.save(kept);
+            repository.removeAll(List.of(kept.getId()));
+            throw new IllegalStateException("fail");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(repository.findAll()).extracting(Task::getTitle).containsExactly("Kept task");
+        assertThat(repository.findPage(TaskFilter.attributes(null, "Changed", null, null, null, null),
+                PageRequest.of(0, 10, Sort.by("title")))).isEmpty();
+
+        AtomicBoolean committed = new AtomicBoolean();
+        transaction.executeWithoutResult(status -> {
+            repository.save(task("Committed task", true));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed.set(true);
+                }
+            });
+        });
+        assertThat(committed).isTrue();
+        assertThat(repository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testJournal_RestoresTheStoreOnReopen() throws Exception {
+        TaskStore first = TaskStore.open(dataDir, objectMapper, false);
+        InMemoryTaskRepository firstRepository = new InMemoryTaskRepository(first, validator);
+        Task kept = firstRepository.save(task("Kept task", false));
+        Task removed = firstRepository.save(task("Removed task", false));
+        firstRepository.removeAll(List.of(removed.getId()));
+        kept.setCompleted(true);
+        firstRepository.save(kept);
+
+        // Not closed, as after a crash: the log alone restores the tasks
+        TaskStore second = TaskStore.open(dataDir, objectMapper, false);
+        InMemoryTaskRepository secondRepository = new InMemoryTaskRepository(second, validator);
+        assertThat(secondRepository.findAll()).singleElement().satisfies(task -> {
+            assertThat(task.getId()).isEqualTo(kept.getId());
+            assertThat(task.isCompleted()).isTrue();
+            assertThat(task.getVersion()).isEqualTo(1);
+        });
+        secondRepository.save(task("Added task", false));
+        second.close();
+
+        TaskStore third = TaskStore.open(dataDir, objectMapper, false);
+        assertThat(new InMemoryTaskRepository(third, validator).findAll(Sort.by("title")))
+                .extracting(Task::getTitle).containsExactly("Added task", "Kept task");
+        third.close();
+    }
+}
@@ -0,0 +1,263 @@
+package com.taskapp.taskapp;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Search.InvertedIndexTaskSearchEngine;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class InvertedIndexTaskSearchEngineTest {
+
+    private TaskRepository taskRepository;
+    private InvertedIndexTaskSearchEngine searchEngine;
+    private final Map<UUID, Task> tasks = new LinkedHashMap<>();
+
+    @BeforeEach
+    public void setup() {
+        taskRepository = Mockito.mock(TaskRepository.class);
+        searchEngine = new InvertedIndexTaskSearchEngine(taskRepository, 2, 2);
+
+        when(taskRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Task> found = new ArrayList<>();
+            for (UUID id : invocation.<Iterable<UUID>>getArgument(0)) {
+                if (tasks.containsKey(id)) {
+                    found.add(tasks.get(id));
+                }
+            }
+            return found;
+        });
+    }
+
+    private Task task(String title, String description) {
+        Task task = new Task();
+        task.setId(UUID.randomUUID());
+        task.setTitle(title);
+        task.setDescription(description);
+        tasks.put(task.getId(), task);
+        return task;
+    }
+
+    @Test
+    public void testSearchFallsBackToDatabaseBeforeRebuild() {
+        when(taskRepository.searchTasks(eq("report"), any(PageRequest.class))).thenReturn(Page.empty());
+
+        searchEngine.search("report", PageRequest.of(0, 10));
+
+        verify(taskRepository, times(1)).searchTasks(eq("report"), any(PageRequest.class));
+    }
+
+    @Test
+    public void testRebuildIndexesAllTasksInBatches() {
+        Task first = task("Quarterly report", "Prepare numbers");
+        Task second = task("Team lunch", "Book a table");
+        Task third = task("Report review", null);
+        List<Task> ordered = new ArrayList<>(tasks.values());
+        ordered.sort(Comparator.comparing(Task::getId));
+
+        when(taskRepository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(ordered.subList(0, 2));
+        when(taskRepository.findByIdGreaterThanOrderByIdAsc(eq(ordered.get(1).getId()), any(Limit.class)))
+            .thenReturn(ordered.subList(2, 3));
+        when(taskRepository.findByIdGreaterThanOrderByIdAsc(eq(ordered.get(2).getId()), any(Limit.class)))
+            .thenReturn(Collections.emptyList());
+
+        assertThat(searchEngine.rebuild()).isEqualTo(3);
+        assertThat(searchEngine.isReady()).isTrue();
+
+        Page<Task> result = searchEngine.search("report", PageRequest.of(0, 10));
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).containsExactlyInAnyOrder(first, third);
+        assertThat(result.getContent()).doesNotContain(second);
+        verify(taskRepository, never()).searchTasks(anyString(), any(PageRequest.class));
+    }
+
+    @Test
+    public void testSearchRanksTitleMatchesFirstAndMatchesPrefixes() {
+        when(taskRepository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(Collections.emptyList());
+        searchEngine.rebuild();
+
+        Task inDescription = task("Weekly sync", "Discuss the deployment plan");
+        Task inTitle = task("Deployment checklist", "Steps for the release");
+        searchEngine.index(inDescription);
+        searchEngine.index(inTitle);
+
+        Page<Task> result = searchEngine.search("deploy", PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).containsExactly(inTitle, inDescription);
+    }
+
+    @Test
+    public void testSearchMatchesTokensInsideWords() {
+        when(taskRepository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(Collections.emptyList());
+        searchEngine.rebuild();
+
+        Task report = task("Quarterly report", "Numbers for the board");
+        Task portal = task("Customer portal", null);
+        Task lunch = task("Team lunch", "Book a table");
+        List.of(report, portal, lunch).forEach(searchEngine::index);
+
+        assertThat(searchEngine.search("port", PageRequest.of(0, 10)).getContent())
+                .containsExactlyInAnyOrder(report, portal);
+        assertThat(searchEngine.search("uarter umber", PageRequest.of(0, 10)).getContent()).containsExactly(report);
+        assertThat(searchEngine.search("ch", PageRequest.of(0, 10)).getContent()).containsExactly(lunch);
+        assertThat(searchEngine.search("%", PageRequest.of(0, 10)).getContent()).isEmpty();
+
+        searchEngine.remove(portal.getTenantId(), portal.getId());
+        assertThat(searchEngine.search("port", PageRequest.of(0, 10)).getContent()).containsExactly(report);
+    }
+
+    @Test
+    public void testIncrementalUpdatesAndRemoval() {
+        when(taskRepository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(Collections.emptyList());
+        searchEngine.rebuild();
+
+        Task task = task("Write tests", "Cover the search engine");
+        searchEngine.index(task);
+        assertThat(searchEngine.search("search engine", PageRequest.of(0, 10)).getContent()).containsExactly(task);
+
+        task.setDescription("Cover the controller");
+        searchEngine.index(task);
+        assertThat(searchEngine.search("engine", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(searchEngine.search("controller", PageRequest.of(0, 10)).getContent()).containsExactly(task);
+
+        searchEngine.remove(task.getTenantId(), task.getId());
+        assertThat(searchEngine.search("controller", PageRequest.of(0, 10)).getTotalElements()).isZero();
+    }
+
+    @Test
+    public void testSearchOnlySeesTasksOfTheCurrentTenant() {
+        when(taskRepository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(Collections.emptyList());
+        searchEngine.rebuild();
+        Task acme = task("Quarterly budget", null);
+        acme.setTenantId("acme");
+        Task beta = task("Budget review", null);
+        beta.setTenantId("beta");
+        searchEngine.index(acme);
+        searchEngine.index(beta);
+
+        TenantContext.set("acme");
+        try {
+            assertThat(searchEngine.search("budget", PageRequest.of(0, 10)).getContent()).containsExactly(acme);
+            searchEngine.remove("acme", acme.getId());
+            assertThat(searchEngine.search("budget", PageRequest.of(0, 10)).getTotalElements()).isZero();
+        } finally {
+            TenantContext.clear();
+        }
+        TenantContext.set("beta");
+        try {
+            assertThat(searchEngine.search("budget", PageRequest.of(0, 10)).getContent()).containsExactly(beta);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    @Test
+    public void testSortedSearchHydratesHitsThroughRepository() {
+        when(taskRepository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(Collections.emptyList());
+        searchEngine.rebuild();
+        Task task = task("Plan sprint", null);
+        searchEngine.index(task);
+
+        PageRequest sorted = PageRequest.of(0, 10, org.springframework.data.domain.Sort.by("title"));
+        when(taskRepository.findByIdIn(anyCollection(), eq(sorted))).thenReturn(Page.empty());
+
+        searchEngine.search("sprint", sorted);
+
+        verify(taskRepository, times(1)).findByIdIn(eq(List.of(task.getId())), eq(sorted));
+    }
+
+    @Test
+    public void testSearchesWithMoreHitsThanTheIdLimitAreMatchedByTheDatabase() {
+        when(taskRepository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(Collections.emptyList());
+        searchEngine.rebuild();
+        Task first = task("Sprint planning", null);
+        Task second = task("Sprint review", null);
+        Task third = task("Sprint retro", null);
+        List.of(first, second, third).forEach(searchEngine::index);
+
+        PageRequest sorted = PageRequest.of(0, 10, org.springframework.data.domain.Sort.by("title"));
+        when(taskRepository.searchTasks(eq("sprint"), eq(sorted))).thenReturn(Page.empty());
+        searchEngine.search("sprint", sorted);
+
+        verify(taskRepository, never()).findByIdIn(anyCollection(), any());
+        verify(taskRepository, times(1)).searchTasks(eq("sprint"), eq(sorted));
+        assertThat(searchEngine.filterFor("sprint")).isEqualTo(TaskFilter.matching("sprint"));
+        assertThat(searchEngine.filterFor("sprint re").ids()).containsExactlyInAnyOrder(second.getId(), third.getId());
+    }
+
+    @Test
+    public void testRebuildForOneTenantMakesOnlyThatTenantsSearchesUseTheIndex() {
+        Task acme = task("Quarterly budget", null);
+        acme.setTenantId("acme");
+        when(taskRepository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(List.of(acme));
+        when(taskRepository.findByIdGreaterThanOrderByIdAsc(eq(acme.getId()), any(Limit.class)))
+            .thenReturn(Collections.emptyList());
+        when(taskRepository.searchTasks(eq("budget"), any(PageRequest.class))).thenReturn(Page.empty());
+
+        TenantContext.set("acme");
+        try {
+            searchEngine.rebuild();
+            assertThat(searchEngine.isReady()).isTrue();
+            assertThat(searchEngine.search("budget", PageRequest.of(0, 10)).getContent()).containsExactly(acme);
+        } finally {
+            TenantContext.clear();
+        }
+        TenantContext.set("beta");
+        try {
+            assertThat(searchEngine.isReady()).isFalse();
+            searchEngine.search("budget", PageRequest.of(0, 10));
+        } finally {
+            TenantContext.clear();
+        }
+        verify(taskRepository, times(1)).searchTasks(eq("budget"), any(PageRequest.class));
+    }
+
+    @Test
+    public void testRebuildKeepsWritesMadeWhileItScans() {
+        Task renamed = task("Old title", null);
+        renamed.setVersion(1L);
+        Task deleted = task("Deleted draft", null);
+        deleted.setVersion(1L);
+        Task staleRenamed = copy(renamed);
+        Task staleDeleted = copy(deleted);
+        when(taskRepository.findAllByOrderByIdAsc(any(Limit.class))).thenAnswer(invocation -> {
+            renamed.setTitle("New title");
+            renamed.setVersion(2L);
+            searchEngine.index(renamed);
+            searchEngine.remove(deleted.getTenantId(), deleted.getId());
+            return List.of(staleRenamed, staleDeleted);
+        });
+        when(taskRepository.findByIdGreaterThanOrderByIdAsc(any(UUID.class), any(Limit.class)))
+            .thenReturn(Collections.emptyList());
+
+        searchEngine.rebuild();
+
+        assertThat(searchEngine.search("new", PageRequest.of(0, 10)).getContent()).containsExactly(renamed);
+        assertThat(searchEngine.search("old", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(searchEngine.search("draft", PageRequest.of(0, 10)).getContent()).isEmpty();
+
+        searchEngine.index(deleted);
+        assertThat(searchEngine.search("draft", PageRequest.of(0, 10)).getContent()).containsExactly(deleted);
+    }
+
+    private static Task copy(Task task) {
+        Task copy = new Task();
+        copy.setId(task.getId());
+        copy.setTitle(task.getTitle());
+        copy.setDescription(task.getDescription());
+        copy.setVersion(task.getVersion());
+        return copy;
+    }
+}
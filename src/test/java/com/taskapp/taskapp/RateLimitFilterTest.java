@@ -0,0 +1,128 @@
+package com.taskapp.taskapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Web.RateLimitFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(new ObjectMapper().findAndRegisterModules(), true,
+            1, 2, 1, 1, 1, 5, 100, 3, 50, 1000, Duration.ofMinutes(1));
+
+    private MockHttpServletResponse send(String method, String uri, String apiKey, String... params) throws Exception {
+        return sendFrom("127.0.0.1", method, uri, apiKey, params);
+    }
+
+    private MockHttpServletResponse sendFrom(String address, String method, String uri, String apiKey,
+            String... params) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        if (apiKey != null) {
+            request.addHeader(RateLimitFilter.API_KEY_HEADER, apiKey);
+        }
+        for (int i = 0; i < params.length; i += 2) {
+            request.setParameter(params[i], params[i + 1]);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    public void testRejectsReadsBeyondBurstWithRetryAfter() throws Exception {
+        assertThat(send("GET", "/api/tasks", null).getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/api/tasks", null).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = send("GET", "/api/tasks", null);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("read budget exhausted");
+        assertThat(filter.admittedCount(RateLimitFilter.Budget.READ)).isEqualTo(2);
+        assertThat(filter.rejectedCount(RateLimitFilter.Budget.READ)).isEqualTo(1);
+    }
+
+    @Test
+    public void testKeepsSeparateBudgetsPerClientAndKind() throws Exception {
+        sendFrom("10.0.0.1", "GET", "/api/tasks", "client-a");
+        sendFrom("10.0.0.1", "GET", "/api/tasks", "client-a");
+        assertThat(sendFrom("10.0.0.1", "GET", "/api/tasks", "client-a").getStatus()).isEqualTo(429);
+
+        assertThat(sendFrom("10.0.0.2", "GET", "/api/tasks", "client-b").getStatus()).isEqualTo(200);
+        assertThat(sendFrom("10.0.0.1", "POST", "/api/tasks", "client-a").getStatus()).isEqualTo(200);
+        assertThat(sendFrom("10.0.0.1", "POST", "/api/tasks", "client-a").getStatus()).isEqualTo(429);
+        assertThat(filter.trackedClients()).isEqualTo(4);
+    }
+
+    @Test
+    public void testNewKeysDoNotRefillTheAddressBudget() throws Exception {
+        assertThat(send("GET", "/api/tasks", "key-1").getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/api/tasks", "key-2").getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/api/tasks", "key-3").getStatus()).isEqualTo(429);
+        assertThat(send("GET", "/api/tasks", null).getStatus()).isEqualTo(429);
+
+        // The refused key never got a bucket
+        assertThat(filter.trackedClients()).isEqualTo(3);
+    }
+
+    @Test
+    public void testNewTenantsDoNotRefillTheAddressBudget() throws Exception {
+        try {
+            for (String tenant : List.of("tenant-1", "tenant-2")) {
+                TenantContext.set(tenant);
+                assertThat(send("GET", "/api/tasks", null).getStatus()).isEqualTo(200);
+            }
+            TenantContext.set("tenant-3");
+            assertThat(send("GET", "/api/tasks", null).getStatus()).isEqualTo(429);
+            assertThat(filter.trackedClients()).isEqualTo(1);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    @Test
+    public void testKeyBudgetIsSharedAcrossAddresses() throws Exception {
+        assertThat(sendFrom("10.0.0.1", "GET", "/api/tasks", "shared").getStatus()).isEqualTo(200);
+        assertThat(sendFrom("10.0.0.2", "GET", "/api/tasks", "shared").getStatus()).isEqualTo(200);
+        assertThat(sendFrom("10.0.0.3", "GET", "/api/tasks", "shared").getStatus()).isEqualTo(429);
+
+        // The request the key refused did not spend the address budget
+        assertThat(sendFrom("10.0.0.3", "GET", "/api/tasks", null).getStatus()).isEqualTo(200);
+        assertThat(sendFrom("10.0.0.3", "GET", "/api/tasks", null).getStatus()).isEqualTo(200);
+        assertThat(sendFrom("10.0.0.3", "GET", "/api/tasks", null).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    public void testChargesSearchesByTheirWords() throws Exception {
+        assertThat(send("GET", "/api/tasks", null, "search", "weekly report").getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/api/tasks", null, "search", "to do").getStatus()).isEqualTo(429);
+        assertThat(send("GET", "/api/tasks", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void testRefusesOversizedPagesAndSearches() throws Exception {
+        MockHttpServletResponse tooLarge = send("GET", "/api/tasks", null, "size", "100000");
+        assertThat(tooLarge.getStatus()).isEqualTo(400);
+        assertThat(tooLarge.getContentAsString()).contains("size must not exceed 100");
+
+        assertThat(send("GET", "/api/tasks", null, "search", "a b").getStatus()).isEqualTo(400);
+        assertThat(send("GET", "/api/tasks", null, "search", "one two three four").getStatus()).isEqualTo(400);
+        assertThat(send("GET", "/api/tasks", null, "size", "100").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void testIgnoresNonApiRequests() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(send("GET", "/actuator/health", null).getStatus()).isEqualTo(200);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.taskapp.taskapp;
+
+import com.taskapp.taskapp.Routing.Replica;
+import com.taskapp.taskapp.Routing.ReplicaLagMonitor;
+import com.taskapp.taskapp.Routing.ReplicaReadCacheMode;
+import com.taskapp.taskapp.Routing.ReplicaReadCacheResolver;
+import com.taskapp.taskapp.Routing.ReplicaRoutingDataSource;
+import com.taskapp.taskapp.Routing.ReplicaSelection;
+import com.taskapp.taskapp.Routing.RoutingContext;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.jpa.SpecHints;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheableOperation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    private final List<AtomicInteger> loads = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        RoutingContext.clear();
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing" + databases.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private Replica replica(String name) {
+        AtomicInteger load = new AtomicInteger();
+        loads.add(load);
+        return new Replica(name, database(name), load::get);
+    }
+
+    private String node(ReplicaRoutingDataSource router, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(router);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    public void testWritesGoToPrimaryAndReadsToReplica() {
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(database("primary"),
+                List.of(replica("replica-1")), ReplicaSelection.ROUND_ROBIN, Duration.ofSeconds(5));
+
+        assertThat(node(router, false)).isEqualTo("primary");
+        assertThat(node(router, true)).isEqualTo("replica-1");
+    }
+
+    @Test
+    public void testRoundRobinAlternatesReplicas() {
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(database("primary"),
+                List.of(replica("replica-1"), replica("replica-2")), ReplicaSelection.ROUND_ROBIN,
+                Duration.ofSeconds(5));
+
+        assertThat(List.of(node(router, true), node(router, true), node(router, true)))
+                .containsExactly("replica-1", "replica-2", "replica-1");
+    }
+
+    @Test
+    public void testLeastLoadedPicksIdlestReplica() {
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(database("primary"),
+                List.of(replica("replica-1"), replica("replica-2")), ReplicaSelection.LEAST_LOADED,
+                Duration.ofSeconds(5));
+        loads.get(0).set(7);
+        loads.get(1).set(2);
+
+        assertThat(node(router, true)).isEqualTo("replica-2");
+    }
+
+    @Test
+    public void testRecentWriterReadsFromPrimary() {
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(database("primary"),
+                List.of(replica("replica-1")), ReplicaSelection.ROUND_ROBIN, Duration.ofSeconds(5));
+
+        RoutingContext.requirePrimary();
+
+        assertThat(node(router, true)).isEqualTo("primary");
+    }
+
+    @Test
+    public void testReplicaReadsOnlyReadTheSearchCache() {
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(database("primary"),
+                List.of(replica("replica-1")), ReplicaSelection.ROUND_ROBIN, Duration.ofSeconds(5));
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("pages");
+        ReplicaReadCacheResolver resolver = new ReplicaReadCacheResolver(cacheManager, router);
+        CacheableOperation.Builder operation = new CacheableOperation.Builder();
+        operation.setCacheName("pages");
+        CacheOperationInvocationContext<?> context = mock(CacheOperationInvocationContext.class);
+        doReturn(operation.build()).when(context).getOperation();
+        cacheManager.getCache("pages").put("cached", "cached page");
+
+        Cache replicaView = resolver.resolveCaches(context).iterator().next();
+        assertThat(replicaView.get("cached", () -> "reloaded")).isEqualTo("cached page");
+        assertThat(replicaView.get("loaded", () -> "replica page")).isEqualTo("replica page");
+        assertThat(cacheManager.getCache("pages").get("loaded")).isNull();
+
+        RoutingContext.requirePrimary();
+        Cache primaryView = resolver.resolveCaches(context).iterator().next();
+        assertThat(primaryView.get("loaded", () -> "primary page")).isEqualTo("primary page");
+        assertThat(cacheManager.getCache("pages").get("loaded").get()).isEqualTo("primary page");
+    }
+
+    @Test
+    public void testReplicaReadsOnlyReadTheEntityCache() {
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(database("primary"),
+                List.of(replica("replica-1")), ReplicaSelection.ROUND_ROBIN, Duration.ofSeconds(5));
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getProperties()).thenReturn(Map.of());
+        TransactionExecution transaction = mock(TransactionExecution.class);
+        when(transaction.isReadOnly()).thenReturn(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            new ReplicaReadCacheMode(entityManagerFactory, router).afterBegin(transaction, null);
+            verify(entityManager).setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            verify(entityManager).setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.USE);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testUnreachableReplicaFallsBackToPrimary() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("Connection refused"));
+        Replica replica = new Replica("replica-1", broken, () -> 0);
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(database("primary"),
+                List.of(replica), ReplicaSelection.ROUND_ROBIN, Duration.ofSeconds(5));
+
+        new ReplicaLagMonitor(List.of(replica)).checkReplicas();
+
+        assertThat(replica.isReachable()).isFalse();
+        assertThat(node(router, true)).isEqualTo("primary");
+    }
+
+    @Test
+    public void testStandInWithoutReplicationStatusCountsAsCurrent() {
+        Replica replica = replica("replica-1");
+
+        new ReplicaLagMonitor(List.of(replica)).checkReplicas();
+
+        assertThat(replica.isReachable()).isTrue();
+        assertThat(replica.getLag()).isEqualTo(Duration.ZERO);
+    }
+}
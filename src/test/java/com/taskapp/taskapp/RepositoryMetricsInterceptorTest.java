@@ -0,0 +1,70 @@
+package com.taskapp.taskapp;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Repository.RepositoryMetricsInterceptor;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class RepositoryMetricsInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private MethodInvocation invocation(String method, Class<?>... parameterTypes) throws Exception {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(TaskRepository.class.getMethod(method, parameterTypes));
+        when(invocation.getArguments()).thenReturn(new Object[parameterTypes.length]);
+        return invocation;
+    }
+
+    @Test
+    public void testRecordsTimingAndRowCount() throws Throwable {
+        MethodInvocation invocation = invocation("findAll");
+        when(invocation.proceed()).thenReturn(List.of(new Task(), new Task(), new Task()));
+
+        new RepositoryMetricsInterceptor(registry, TaskRepository.class, Duration.ofSeconds(1)).invoke(invocation);
+
+        assertThat(registry.get("taskapp.repository.invocations")
+                .tags("repository", "TaskRepository", "method", "findAll", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("taskapp.repository.rows").tag("method", "findAll").summary().totalAmount())
+                .isEqualTo(3);
+        assertThat(registry.find("taskapp.repository.slow").counter()).isNull();
+    }
+
+    @Test
+    public void testCountsSlowCalls() throws Throwable {
+        MethodInvocation invocation = invocation("findById", Object.class);
+        when(invocation.proceed()).thenReturn(Optional.empty());
+
+        new RepositoryMetricsInterceptor(registry, TaskRepository.class, Duration.ZERO).invoke(invocation);
+
+        assertThat(registry.get("taskapp.repository.slow").tag("method", "findById").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("taskapp.repository.rows").tag("method", "findById").summary().totalAmount())
+                .isZero();
+    }
+
+    @Test
+    public void testTagsFailuresWithExceptionName() throws Throwable {
+        MethodInvocation invocation = invocation("count");
+        when(invocation.proceed()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatThrownBy(() -> new RepositoryMetricsInterceptor(registry, TaskRepository.class, Duration.ofSeconds(1)).invoke(invocation))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(registry.get("taskapp.repository.invocations")
+                .tag("outcome", "DataAccessResourceFailureException").timer().count()).isEqualTo(1);
+        assertThat(registry.find("taskapp.repository.rows").summary()).isNull();
+    }
+}
@@ -0,0 +1,83 @@
+package com.taskapp.taskapp;
+
+import com.taskapp.taskapp.Models.ArchivedTask;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Tenancy.TenantIdentifierResolver;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+public class SchemaMigrationTest {
+
+    @Test
+    public void testMigrationsCreateTheSchemaTheEntitiesExpect() {
+        JdbcDataSource dataSource = dataSource("migration");
+        assertThat(Flyway.configure().dataSource(dataSource).load().migrate().migrationsExecuted).isPositive();
+        assertMatchesEntities(dataSource);
+
+        // Rows written before tenants existed, and by ddl-auto=update, take the default tenant
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO task (id, title, completed, version) VALUES (X'00000000000000000000000000000001', 'a', 0, 0)");
+        assertThat(jdbc.queryForObject("SELECT tenant_id FROM task", String.class)).isEqualTo("default");
+    }
+
+    @Test
+    public void testMigratesADatabaseOfTheFirstRelease() {
+        JdbcDataSource dataSource = dataSource("first-release");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // The table as the first release's ddl-auto=update left it, with a task in it
+        jdbc.execute("create table task (completed bit not null, id binary(16) not null, description varchar(255), "
+                + "title varchar(255) not null, primary key (id)) engine=InnoDB");
+        jdbc.update("INSERT INTO task (id, title, description, completed) "
+                + "VALUES (X'00000000000000000000000000000002', 'Old task', 'From before', 1)");
+
+        // As configured in application.properties
+        assertThat(Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load()
+                .migrate().migrationsExecuted).isEqualTo(2);
+        assertMatchesEntities(dataSource);
+
+        Map<String, Object> task = jdbc.queryForMap("SELECT * FROM task");
+        assertThat(task).containsEntry("TITLE", "Old task").containsEntry("COMPLETED", true)
+                .containsEntry("TENANT_ID", "default").containsEntry("VERSION", 0L)
+                .containsEntry("DELETED_AT", null);
+        assertThat(task.get("CREATED_AT")).isNotNull();
+        assertThat(task.get("UPDATED_AT")).isNotNull();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM task_archive", Integer.class)).isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM task_change_log", Integer.class)).isZero();
+    }
+
+    private static JdbcDataSource dataSource(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static void assertMatchesEntities(JdbcDataSource dataSource) {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(AvailableSettings.JAKARTA_JDBC_URL, dataSource.getURL());
+        settings.put(AvailableSettings.HBM2DDL_AUTO, "validate");
+        settings.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new TenantIdentifierResolver());
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder().applySettings(settings).build();
+        try {
+            MetadataSources sources = new MetadataSources(registry)
+                    .addAnnotatedClass(Task.class)
+                    .addAnnotatedClass(ArchivedTask.class);
+            assertThatCode(() -> SchemaManagementToolCoordinator.process(sources.buildMetadata(), registry, settings,
+                    action -> { })).doesNotThrowAnyException();
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+}
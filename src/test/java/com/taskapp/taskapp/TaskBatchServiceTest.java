@@ -0,0 +1,220 @@
+package com.taskapp.taskapp;
+
+import com.taskapp.taskapp.Models.BatchItemResult;
+import com.taskapp.taskapp.Models.BatchResult;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskCounts;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Services.TaskBatchService;
+import com.taskapp.taskapp.Services.TaskChangedEvent;
+import com.taskapp.taskapp.Services.TaskStatistics;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Util.Exceptions.InvalidRequestException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskBatchServiceTest {
+
+    private TaskRepository taskRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private TaskStatistics statistics;
+    private TaskBatchService taskBatchService;
+
+    @BeforeEach
+    public void setup() {
+        taskRepository = Mockito.mock(TaskRepository.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        statistics = new TaskStatistics(taskRepository);
+        taskBatchService = new TaskBatchService(taskRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                TransactionOperations.withoutTransaction(),
+                eventPublisher,
+                statistics,
+                2, 10);
+
+        when(taskRepository.saveAllAndFlush(anyIterable())).thenAnswer(invocation -> {
+            List<Task> saved = new ArrayList<>();
+            for (Task task : invocation.<Iterable<Task>>getArgument(0)) {
+                task.setId(UUID.randomUUID());
+                saved.add(task);
+            }
+            return saved;
+        });
+    }
+
+    private Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        return task;
+    }
+
+    @Test
+    public void testCreateTasks_WritesInChunks() {
+        BatchResult result = taskBatchService.createTasks(
+                List.of(task("Task one"), task("Task two"), task("Task three")), false);
+
+        assertThat(result.succeeded()).isEqualTo(3);
+        assertThat(result.failed()).isZero();
+        assertThat(result.items()).extracting(BatchItemResult::status).containsOnly(BatchItemResult.Status.CREATED);
+        verify(taskRepository, times(2)).saveAllAndFlush(anyIterable());
+    }
+
+    @Test
+    public void testCreateTasks_PartialSkipsInvalidItems() {
+        BatchResult result = taskBatchService.createTasks(List.of(task("Task one"), task("x")), false);
+
+        assertThat(result.succeeded()).isEqualTo(1);
+        assertThat(result.items().get(1).status()).isEqualTo(BatchItemResult.Status.FAILED);
+        assertThat(result.items().get(1).errors()).containsExactly("Title must be between 3 and 100 characters");
+    }
+
+    @Test
+    public void testCreateTasks_AtomicRejectsWholeBatch() {
+        BatchResult result = taskBatchService.createTasks(List.of(task("Task one"), task("x")), true);
+
+        assertThat(result.succeeded()).isZero();
+        assertThat(result.items().get(0).status()).isEqualTo(BatchItemResult.Status.SKIPPED);
+        verify(taskRepository, never()).saveAllAndFlush(anyIterable());
+    }
+
+    @Test
+    public void testCreateTasks_FailingChunkIsRetriedItemByItem() {
+        Task bad = task("Broken task");
+        when(taskRepository.saveAllAndFlush(argThat(tasks -> ((List<?>) tasks).contains(bad))))
+                .thenThrow(new DataIntegrityViolationException("constraint violated"));
+
+        BatchResult result = taskBatchService.createTasks(List.of(task("Task one"), bad), false);
+
+        assertThat(result.succeeded()).isEqualTo(1);
+        assertThat(result.items().get(0).status()).isEqualTo(BatchItemResult.Status.CREATED);
+        assertThat(result.items().get(1).errors()).containsExactly("constraint violated");
+    }
+
+    @Test
+    public void testUpsertTasks_KeepsIdsAndUpdatesTasksThatExist() {
+        Task current = task("Old title");
+        current.setId(UUID.randomUUID());
+        current.setVersion(3L);
+        Task exported = task("New title");
+        exported.setId(current.getId());
+        exported.setCompleted(true);
+        Task missing = task("Missing task");
+        missing.setId(UUID.randomUUID());
+        missing.setVersion(5L);
+        when(taskRepository.findAllById(List.of(current.getId(), missing.getId()))).thenReturn(List.of(current));
+        when(taskRepository.saveAllAndFlush(anyIterable())).thenAnswer(invocation -> {
+            List<Task> saved = new ArrayList<>();
+            invocation.<Iterable<Task>>getArgument(0).forEach(saved::add);
+            return saved;
+        });
+
+        BatchResult result = taskBatchService.upsertTasks(List.of(exported, missing), true);
+
+        assertThat(result.succeeded()).isEqualTo(2);
+        assertThat(result.items()).extracting(BatchItemResult::id).containsExactly(current.getId(), missing.getId());
+        assertThat(result.items()).extracting(BatchItemResult::status)
+                .containsExactly(BatchItemResult.Status.UPDATED, BatchItemResult.Status.CREATED);
+        assertThat(current.getTitle()).isEqualTo("New title");
+        assertThat(current.isCompleted()).isTrue();
+        assertThat(missing.getVersion()).isNull();
+        verify(taskRepository).saveAllAndFlush(List.of(missing));
+    }
+
+    @Test
+    public void testUpdateTasks_ReportsMissingAndInvalidItems() {
+        UUID existingId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        Task existing = task("Old title");
+        existing.setId(existingId);
+
+        when(taskRepository.findExistingIds(anyCollection())).thenReturn(List.of(existingId));
+        when(taskRepository.findAllById(List.of(existingId))).thenReturn(List.of(existing));
+
+        BatchResult result = taskBatchService.updateTasks(List.of(
+                Map.of("id", existingId.toString(), "title", "New title", "completed", true),
+                Map.of("id", missingId.toString(), "completed", true),
+                Map.of("id", existingId.toString(), "completed", "yes")), false);
+
+        assertThat(result.succeeded()).isEqualTo(1);
+        assertThat(existing.getTitle()).isEqualTo("New title");
+        assertThat(existing.isCompleted()).isTrue();
+        assertThat(result.items().get(1).errors()).containsExactly("Task not found with id: " + missingId);
+        assertThat(result.items().get(2).errors()).containsExactly("completed must be a boolean");
+    }
+
+    @Test
+    public void testDeleteTasks_DeletesExistingIdsInOneStatement() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(taskRepository.findExistingIds(anyCollection())).thenReturn(List.of(first, second));
+        when(taskRepository.removeExisting(List.of(first, second))).thenReturn(Map.of(first, true, second, false));
+
+        BatchResult result = taskBatchService.deleteTasks(List.of(first, second), true);
+
+        assertThat(result.succeeded()).isEqualTo(2);
+        verify(taskRepository, times(1)).removeExisting(List.of(first, second));
+    }
+
+    @Test
+    public void testDeleteTasks_ItemFailingOnRetryIsReportedWithItsId() {
+        UUID first = UUID.randomUUID();
+        UUID broken = UUID.randomUUID();
+        when(taskRepository.findExistingIds(anyCollection())).thenReturn(List.of(first, broken));
+        when(taskRepository.removeExisting(argThat(ids -> ids.contains(broken))))
+                .thenThrow(new DataIntegrityViolationException("constraint violated"));
+        when(taskRepository.removeExisting(List.of(first))).thenReturn(Map.of(first, false));
+
+        BatchResult result = taskBatchService.deleteTasks(List.of(first, broken), false);
+
+        assertThat(result.succeeded()).isEqualTo(1);
+        assertThat(result.items().get(1).status()).isEqualTo(BatchItemResult.Status.FAILED);
+        assertThat(result.items().get(1).id()).isEqualTo(broken);
+        assertThat(result.items().get(1).errors()).containsExactly("constraint violated");
+    }
+
+    @Test
+    public void testDeleteTasks_ReportsWhatWasRemoved() {
+        UUID kept = UUID.randomUUID();
+        UUID gone = UUID.randomUUID();
+        UUID repeated = UUID.randomUUID();
+        when(taskRepository.countByTenant()).thenReturn(Map.of());
+        statistics.reconcile();
+        when(taskRepository.findExistingIds(anyCollection())).thenReturn(List.of(kept, gone, repeated));
+        // gone was deleted by someone else after the existence check
+        when(taskRepository.removeExisting(List.of(kept, gone))).thenReturn(Map.of(kept, true));
+        when(taskRepository.removeExisting(List.of(repeated))).thenReturn(Map.of(repeated, false));
+
+        BatchResult result = taskBatchService.deleteTasks(List.of(kept, gone, repeated, repeated, kept), false);
+
+        assertThat(result.items()).extracting(BatchItemResult::status).containsExactly(
+                BatchItemResult.Status.DELETED, BatchItemResult.Status.FAILED, BatchItemResult.Status.DELETED,
+                BatchItemResult.Status.FAILED, BatchItemResult.Status.FAILED);
+        assertThat(result.items().get(1).errors()).containsExactly("Task not found with id: " + gone);
+        assertThat(result.items().get(3).errors()).containsExactly("Task not found with id: " + repeated);
+        assertThat(statistics.counts(TenantContext.DEFAULT_TENANT)).isEqualTo(new TaskCounts(-2, -1));
+        verify(eventPublisher, times(2)).publishEvent(any(TaskChangedEvent.class));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(kept));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(repeated));
+    }
+
+    @Test
+    public void testBatchSizeIsLimited() {
+        List<UUID> ids = Collections.nCopies(11, UUID.randomUUID());
+
+        assertThatThrownBy(() -> taskBatchService.deleteTasks(ids, false))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Batch cannot contain more than 10 items");
+    }
+}
@@ -0,0 +1,215 @@
+package com.taskapp.taskapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskapp.taskapp.Controller.TaskController;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Services.TaskBatchService;
+import com.taskapp.taskapp.Services.TaskChangeFeed;
+import com.taskapp.taskapp.Services.TaskChangedEvent;
+import com.taskapp.taskapp.Services.TaskIngestService;
+import com.taskapp.taskapp.Services.TaskService;
+import com.taskapp.taskapp.Services.TaskStatistics;
+import com.taskapp.taskapp.Services.TaskTransferService;
+import com.taskapp.taskapp.Util.Exceptions.GlobalExceptionHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class TaskChangeFeedTest {
+
+    private final List<TaskChangeFeed> feeds = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        feeds.forEach(TaskChangeFeed::stop);
+    }
+
+    private TaskChangeFeed feed(int bufferSize, int maxSubscribers) {
+        TaskChangeFeed feed = new TaskChangeFeed(new ObjectMapper().findAndRegisterModules(), bufferSize,
+                maxSubscribers, Duration.ofSeconds(15), Duration.ofMinutes(1), Duration.ofSeconds(10), 2);
+        feed.start();
+        feeds.add(feed);
+        return feed;
+    }
+
+    private MockMvc mockMvc(TaskChangeFeed feed) {
+        TaskController controller = new TaskController(mock(TaskService.class), mock(TaskBatchService.class),
+                mock(TaskTransferService.class), mock(TaskIngestService.class), feed, mock(TaskStatistics.class));
+        return MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(new GlobalExceptionHandler()).build();
+    }
+
+    private Task task(String title) {
+        Task task = new Task();
+        task.setId(UUID.randomUUID());
+        task.setTitle(title);
+        task.setVersion(0L);
+        return task;
+    }
+
+    private static String contentOf(MvcResult result) throws Exception {
+        return result.getResponse().getContentAsString();
+    }
+
+    @Test
+    public void testStreamsChangesWithSequenceIds() throws Exception {
+        TaskChangeFeed feed = feed(100, 10);
+        MvcResult result = mockMvc(feed).perform(get("/api/tasks/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Task task = task("Streamed");
+        feed.onTaskChanged(TaskChangedEvent.created(task));
+        long created = feed.lastSequence();
+        feed.onTaskChanged(TaskChangedEvent.patched(task.getId(), Map.of("completed", true)));
+        feed.onTaskChanged(TaskChangedEvent.deleted(task.getId()));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> contentOf(result).contains("event:deleted"));
+        String content = contentOf(result);
+        assertThat(content).contains("id:" + created + "\nevent:created\ndata:{\"type\":\"created\",\"id\":\""
+                + task.getId() + "\",\"task\":{");
+        assertThat(content).contains("id:" + (created + 1) + "\nevent:updated\ndata:{\"type\":\"updated\",\"id\":\""
+                + task.getId() + "\",\"changes\":{\"completed\":true}}");
+        assertThat(content.indexOf("event:created")).isLessThan(content.indexOf("event:updated"));
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testResumesAfterLastEventId() throws Exception {
+        TaskChangeFeed feed = feed(100, 10);
+        feed.onTaskChanged(TaskChangedEvent.created(task("Seen")));
+        long seen = feed.lastSequence();
+        Task missed = task("Missed");
+        feed.onTaskChanged(TaskChangedEvent.created(missed));
+
+        MvcResult result = mockMvc(feed).perform(get("/api/tasks/changes").header("Last-Event-ID", seen))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> contentOf(result).contains("Missed"));
+        assertThat(contentOf(result)).startsWith("id:" + (seen + 1) + "\nevent:created\n").doesNotContain("Seen");
+    }
+
+    @Test
+    public void testResetsWhenResumePointLeftTheBuffer() throws Exception {
+        TaskChangeFeed feed = feed(3, 10);
+        long start = feed.lastSequence();
+        for (int i = 0; i < 5; i++) {
+            feed.onTaskChanged(TaskChangedEvent.created(task("Task " + i)));
+        }
+
+        MvcResult result = mockMvc(feed).perform(get("/api/tasks/changes").param("lastEventId", Long.toString(start)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> contentOf(result).contains("event:reset"));
+        assertThat(contentOf(result)).isEqualTo("id:" + feed.lastSequence() + "\nevent:reset\ndata:{\"sequence\":"
+                + feed.lastSequence() + "}\n\n");
+    }
+
+    @Test
+    public void testSlowSubscriberIsDroppedAndFreesItsSender() throws Exception {
+        AtomicInteger blockedWrites = new AtomicInteger();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        // A single sender, so the others only get their changes once the stuck write lets go of it
+        TaskChangeFeed feed = new TaskChangeFeed(new ObjectMapper().findAndRegisterModules(), 100, 10,
+                Duration.ofSeconds(15), Duration.ofMinutes(1), Duration.ofMillis(200), 1) {
+            private boolean first = true;
+
+            @Override
+            protected SseEmitter emitter(long timeoutMillis) {
+                if (!first) {
+                    return super.emitter(timeoutMillis);
+                }
+                first = false;
+                // A client that stopped reading: its writes block until interrupted
+                return new SseEmitter(timeoutMillis) {
+                    @Override
+                    public void send(Set<DataWithMediaType> items) throws IOException {
+                        blockedWrites.incrementAndGet();
+                        try {
+                            new CountDownLatch(1).await();
+                        } catch (InterruptedException ex) {
+                            interrupted.set(true);
+                            throw new IOException("Write interrupted");
+                        }
+                    }
+                };
+            }
+        };
+        feed.start();
+        feeds.add(feed);
+        feed.subscribe(null);
+        MvcResult result = mockMvc(feed).perform(get("/api/tasks/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        feed.onTaskChanged(TaskChangedEvent.created(task("First")));
+        await().atMost(Duration.ofSeconds(5)).until(() -> blockedWrites.get() == 1);
+        feed.onTaskChanged(TaskChangedEvent.created(task("Second")));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> contentOf(result).contains("Second"));
+        assertThat(contentOf(result)).contains("First");
+        assertThat(interrupted).isTrue();
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+        assertThat(blockedWrites.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testHeartbeatsOfIdleSubscribersShareTheSenders() throws Exception {
+        Set<String> senders = ConcurrentHashMap.newKeySet();
+        AtomicInteger heartbeats = new AtomicInteger();
+        TaskChangeFeed feed = new TaskChangeFeed(new ObjectMapper().findAndRegisterModules(), 100, 100,
+                Duration.ofMillis(20), Duration.ofMinutes(1), Duration.ofSeconds(10), 2) {
+            @Override
+            protected SseEmitter emitter(long timeoutMillis) {
+                return new SseEmitter(timeoutMillis) {
+                    @Override
+                    public void send(SseEventBuilder event) {
+                        senders.add(Thread.currentThread().getName());
+                        heartbeats.incrementAndGet();
+                    }
+                };
+            }
+        };
+        feed.start();
+        feeds.add(feed);
+        for (int i = 0; i < 50; i++) {
+            feed.subscribe(null);
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> heartbeats.get() >= 500);
+        assertThat(senders).hasSizeLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void testRejectsSubscribersBeyondLimit() throws Exception {
+        TaskChangeFeed feed = feed(100, 1);
+        MockMvc mockMvc = mockMvc(feed);
+        mockMvc.perform(get("/api/tasks/changes")).andExpect(request().asyncStarted());
+
+        mockMvc.perform(get("/api/tasks/changes"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
@@ -0,0 +1,122 @@
+package com.taskapp.taskapp;
+
+import com.taskapp.taskapp.Models.LoggedTaskChange;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskCounts;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Services.TaskChangeLogReader;
+import com.taskapp.taskapp.Services.TaskChangedEvent;
+import com.taskapp.taskapp.Services.TaskStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskChangeLogReaderTest {
+
+    private TaskRepository taskRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private TaskStatistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        taskRepository = Mockito.mock(TaskRepository.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        statistics = new TaskStatistics(taskRepository);
+    }
+
+    private TaskChangeLogReader reader(Duration gapTimeout) {
+        return new TaskChangeLogReader(taskRepository, TransactionOperations.withoutTransaction(), eventPublisher,
+                statistics, true, 10, gapTimeout, Duration.ofHours(1));
+    }
+
+    private static Task task(UUID id, String tenant) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTenantId(tenant);
+        task.setTitle("Changed elsewhere");
+        return task;
+    }
+
+    @Test
+    public void testPoll_PublishesTheChangesLoggedSinceStartup() {
+        UUID created = UUID.randomUUID();
+        UUID updated = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        when(taskRepository.lastLoggedChange()).thenReturn(5L);
+        when(taskRepository.findLoggedChangesAfter(5L, 10)).thenReturn(List.of(
+                new LoggedTaskChange(6, "acme", created, "CREATED"),
+                new LoggedTaskChange(7, "acme", updated, "CREATED"),
+                new LoggedTaskChange(8, "acme", updated, "UPDATED"),
+                new LoggedTaskChange(9, "beta", deleted, "DELETED")));
+        Task createdTask = task(created, "acme");
+        Task updatedTask = task(updated, "acme");
+        when(taskRepository.findAllById(anyIterable())).thenReturn(List.of(createdTask, updatedTask));
+        when(taskRepository.countByTenant()).thenReturn(Map.of("acme", new TaskCounts(2, 0)));
+        statistics.reconcile();
+        TaskChangeLogReader reader = reader(Duration.ofSeconds(10));
+
+        // Entries from before startup are covered by the index rebuild and the first reconciliation
+        assertThat(reader.poll()).isZero();
+        verify(taskRepository, never()).findLoggedChangesAfter(anyLong(), anyInt());
+
+        assertThat(reader.poll()).isEqualTo(4);
+        verify(taskRepository).evict(List.of(created, updated), "acme");
+        verify(taskRepository).evict(List.of(deleted), "beta");
+        verify(eventPublisher).publishEvent(TaskChangedEvent.created(createdTask));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.updated(updatedTask));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted("beta", deleted));
+        verify(eventPublisher, times(3)).publishEvent(any(TaskChangedEvent.class));
+
+        assertThat(statistics.counts("acme")).isEqualTo(new TaskCounts(2, 0));
+        verify(taskRepository, times(2)).countByTenant();
+
+        assertThat(reader.poll()).isZero();
+        verify(taskRepository).findLoggedChangesAfter(9L, 10);
+    }
+
+    @Test
+    public void testPoll_WaitsForEntriesCommittedOutOfOrder() {
+        UUID late = UUID.randomUUID();
+        UUID early = UUID.randomUUID();
+        when(taskRepository.findLoggedChangesAfter(0L, 10)).thenReturn(
+                List.of(new LoggedTaskChange(2, "acme", early, "DELETED")),
+                List.of(new LoggedTaskChange(1, "acme", late, "DELETED"),
+                        new LoggedTaskChange(2, "acme", early, "DELETED")));
+        TaskChangeLogReader reader = reader(Duration.ofHours(1));
+        reader.poll();
+
+        assertThat(reader.poll()).isEqualTo(1);
+        assertThat(reader.poll()).isEqualTo(1);
+        assertThat(reader.poll()).isZero();
+
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted("acme", early));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted("acme", late));
+        verify(taskRepository, times(2)).findLoggedChangesAfter(0L, 10);
+        verify(taskRepository).findLoggedChangesAfter(2L, 10);
+    }
+
+    @Test
+    public void testPoll_SkipsEntriesThatNeverAppear() {
+        when(taskRepository.findLoggedChangesAfter(0L, 10))
+                .thenReturn(List.of(new LoggedTaskChange(2, "acme", UUID.randomUUID(), "DELETED")));
+        TaskChangeLogReader reader = reader(Duration.ZERO);
+        reader.poll();
+
+        assertThat(reader.poll()).isEqualTo(1);
+        assertThat(reader.poll()).isZero();
+        assertThat(reader.poll()).isZero();
+
+        verify(taskRepository, times(2)).findLoggedChangesAfter(0L, 10);
+        verify(taskRepository).findLoggedChangesAfter(2L, 10);
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+}
@@ -1,8 +1,27 @@
 package com.taskapp.taskapp;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.taskapp.taskapp.Controller.TaskController;
+import com.taskapp.taskapp.Models.BatchItemResult;
+import com.taskapp.taskapp.Models.BatchResult;
+import com.taskapp.taskapp.Models.CursorPage;
+import com.taskapp.taskapp.Models.ImportResult;
+import com.taskapp.taskapp.Models.IngestStatus;
 import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskCounts;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Models.TaskView;
+import com.taskapp.taskapp.Models.Protobuf.TaskMessage;
+import com.taskapp.taskapp.Services.TaskBatchService;
+import com.taskapp.taskapp.Services.TaskChangeFeed;
+import com.taskapp.taskapp.Services.TaskIngestService;
 import com.taskapp.taskapp.Services.TaskService;
+import com.taskapp.taskapp.Services.TaskStatistics;
+import com.taskapp.taskapp.Services.TaskTransferService;
+import com.taskapp.taskapp.Util.Exceptions.IngestQueueFullException;
+import com.taskapp.taskapp.Util.Exceptions.TaskVersionConflictException;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,17 +29,29 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
 
 @WebMvcTest(TaskController.class)
 public class TaskControllerTest {
@@ -31,6 +62,21 @@ public class TaskControllerTest {
     @MockitoBean
     private TaskService taskService;
 
+    @MockitoBean
+    private TaskBatchService taskBatchService;
+
+    @MockitoBean
+    private TaskTransferService taskTransferService;
+
+    @MockitoBean
+    private TaskIngestService taskIngestService;
+
+    @MockitoBean
+    private TaskChangeFeed taskChangeFeed;
+
+    @MockitoBean
+    private TaskStatistics taskStatistics;
+
     @Test
     public void testCreateTaskShouldReturn_IsCreated() throws Exception {
         Task task = new Task();
@@ -56,6 +102,76 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.completed").value(false));
     }
 
+    @Test
+    public void testCreateTaskAsyncShouldReturn_Accepted() throws Exception {
+        UUID taskId = UUID.randomUUID();
+        Task task = new Task();
+        task.setId(taskId);
+        task.setTitle("New Task");
+        task.setCompleted(false);
+
+        when(taskIngestService.isEnabled()).thenReturn(true);
+        when(taskIngestService.submit(any(Task.class))).thenReturn(task);
+
+        mockMvc.perform(post("/api/tasks")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {
+                          "title": "New Task",
+                          "completed": false
+                        }
+                        """))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/tasks/ingest/" + taskId))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.id").value(taskId.toString()));
+
+        verify(taskService, never()).createTask(any(Task.class));
+    }
+
+    @Test
+    public void testTaskStatsShouldReturn_CountsOfTheTenant() throws Exception {
+        when(taskStatistics.counts("acme")).thenReturn(new TaskCounts(5, 2));
+
+        mockMvc.perform(get("/api/tasks/stats").header("X-Tenant-Id", "acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.completed").value(2))
+                .andExpect(jsonPath("$.open").value(3));
+
+        verify(taskService, never()).searchTasks(any(), any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    public void testCreateTaskAsyncWhenQueueFullShouldReturn_TooManyRequests() throws Exception {
+        when(taskIngestService.isEnabled()).thenReturn(true);
+        when(taskIngestService.submit(any(Task.class)))
+                .thenThrow(new IngestQueueFullException("Ingest queue is full (10 tasks pending)"));
+
+        mockMvc.perform(post("/api/tasks")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {
+                          "title": "New Task",
+                          "completed": false
+                        }
+                        """))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    public void testIngestStatusShouldReturn_Ok() throws Exception {
+        UUID taskId = UUID.randomUUID();
+        when(taskIngestService.status(taskId)).thenReturn(IngestStatus.of(taskId, IngestStatus.State.PENDING));
+
+        mockMvc.perform(get("/api/tasks/ingest/{id}", taskId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("PENDING"));
+    }
+
     @Test
     public void testUpdateTaskShouldReturn_Ok() throws Exception {
         UUID taskId = UUID.randomUUID();
@@ -65,7 +181,7 @@ public class TaskControllerTest {
         updatedTask.setDescription("This is an updated task");
         updatedTask.setCompleted(true);
 
-        when(taskService.updateTask(eq(taskId), any(Task.class))).thenReturn(updatedTask);
+        when(taskService.updateTask(eq(taskId), any(Task.class), isNull())).thenReturn(updatedTask);
 
         mockMvc.perform(put("/api/tasks/{id}", taskId)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -92,7 +208,7 @@ public class TaskControllerTest {
 
         Page<Task> page = new PageImpl<>(Collections.singletonList(task));
 
-        when(taskService.searchTasks(anyString(), anyInt(), anyInt(), anyString(), anyString()))
+        when(taskService.searchTasks(anyString(), any(TaskFilter.class), anyInt(), anyInt(), anyString(), anyString()))
                 .thenReturn(page);
 
         mockMvc.perform(get("/api/tasks")
@@ -107,6 +223,48 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.content[0].completed").value(false));
     }
 
+    @Test
+    public void testSearchTasksWithFieldsShouldReturn_OnlySelectedFields() throws Exception {
+        UUID id = UUID.randomUUID();
+        TaskView view = new TaskView(id, "Sparse Task", null, false, null, null, null);
+
+        when(taskService.searchTaskViews(isNull(), eq(TaskFilter.attributes(false, null, null, null, null, null)),
+                eq(Set.of("id", "title", "completed")), eq(0), eq(10), isNull(), eq("DESC")))
+                .thenReturn(new PageImpl<>(List.of(view)));
+
+        mockMvc.perform(get("/api/tasks")
+                .param("completed", "false")
+                .param("fields", "title,completed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.content[0].title").value("Sparse Task"))
+                .andExpect(jsonPath("$.content[0].completed").value(false))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.content[0].version").doesNotExist());
+        verify(taskService, never()).searchTasks(any(), any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    public void testScrollTasksShouldReturn_CursorPage() throws Exception {
+        Task task = new Task();
+        task.setId(UUID.randomUUID());
+        task.setTitle("Scrolled Task");
+
+        when(taskService.scrollTasks(isNull(), eq(TaskFilter.none()), eq(""), eq(20), eq("title"), eq("ASC"), eq(false)))
+                .thenReturn(new CursorPage<>(List.of(task), 1, true, "next-token", null));
+
+        mockMvc.perform(get("/api/tasks")
+                .param("cursor", "")
+                .param("size", "20")
+                .param("sortBy", "title")
+                .param("sortDir", "ASC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Scrolled Task"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
     @Test
     public void testDeleteTaskShouldReturn_NoContent() throws Exception {
         UUID taskId = UUID.randomUUID();
@@ -125,7 +283,7 @@ public class TaskControllerTest {
         updatedTask.setTitle("Partially Updated Task");
         updatedTask.setCompleted(true);
 
-        when(taskService.partialUpdate(eq(taskId), any(Map.class))).thenReturn(updatedTask);
+        when(taskService.partialUpdate(eq(taskId), any(Map.class), isNull())).thenReturn(updatedTask);
 
         mockMvc.perform(patch("/api/tasks/{id}", taskId)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -139,4 +297,276 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.title").value("Partially Updated Task"))
                 .andExpect(jsonPath("$.completed").value(true));
     }
+
+    @Test
+    public void testCreateTasksBatchShouldReturn_Ok() throws Exception {
+        UUID taskId = UUID.randomUUID();
+        BatchResult result = BatchResult.of(false,
+                List.of(BatchItemResult.of(0, taskId, BatchItemResult.Status.CREATED)));
+
+        when(taskBatchService.createTasks(any(List.class), eq(false))).thenReturn(result);
+
+        mockMvc.perform(post("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        [
+                          { "title": "Batch Task", "completed": false }
+                        ]
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(taskId.toString()))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"));
+    }
+
+    @Test
+    public void testPartialBatchWithFailuresShouldReturn_MultiStatus() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        BatchResult result = BatchResult.of(false,
+                List.of(BatchItemResult.failed(0, missingId, List.of("Task not found with id: " + missingId))));
+
+        when(taskBatchService.deleteTasks(eq(List.of(missingId)), eq(false))).thenReturn(result);
+
+        mockMvc.perform(delete("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"" + missingId + "\"]"))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].errors[0]").value("Task not found with id: " + missingId));
+    }
+
+    @Test
+    public void testAtomicBatchWithFailuresShouldReturn_BadRequest() throws Exception {
+        BatchResult result = BatchResult.of(true, List.of(
+                BatchItemResult.failed(0, null, List.of("Title is required")),
+                BatchItemResult.of(1, null, BatchItemResult.Status.SKIPPED)));
+
+        when(taskBatchService.createTasks(any(List.class), eq(true))).thenReturn(result);
+
+        mockMvc.perform(post("/api/tasks/batch")
+                .param("atomic", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        [
+                          { "title": "", "completed": false },
+                          { "title": "Valid Task", "completed": false }
+                        ]
+                        """))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.succeeded").value(0))
+                .andExpect(jsonPath("$.items[1].status").value("SKIPPED"));
+    }
+
+    @Test
+    public void testExportTasksShouldStream_Ndjson() throws Exception {
+        when(taskService.searchTasks(any(), any(), anyInt(), anyInt(), any(), any())).thenReturn(Page.empty());
+        when(taskTransferService.exportTasks(any(OutputStream.class), eq(TaskTransferService.Format.NDJSON)))
+                .thenAnswer(invocation -> {
+                    invocation.<OutputStream>getArgument(0).write("{\"title\":\"Exported\"}\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"tasks.ndjson\""))
+                .andExpect(content().string("{\"title\":\"Exported\"}\n"));
+    }
+
+    @Test
+    public void testImportTasksShouldReturn_Counts() throws Exception {
+        when(taskTransferService.importTasks(any(InputStream.class)))
+                .thenReturn(new ImportResult(2, 1, List.of("Line 3: Title is required")));
+
+        mockMvc.perform(post("/api/tasks/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"title\":\"One\"}\n{\"title\":\"Two\"}\n{\"title\":\"\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0]").value("Line 3: Title is required"));
+    }
+
+    @Test
+    public void testUpdateTaskWithIfMatchShouldReturn_ETag() throws Exception {
+        UUID taskId = UUID.randomUUID();
+        Task updatedTask = new Task();
+        updatedTask.setId(taskId);
+        updatedTask.setTitle("Updated Task");
+        updatedTask.setVersion(8L);
+
+        when(taskService.updateTask(eq(taskId), any(Task.class), eq(7L))).thenReturn(updatedTask);
+
+        mockMvc.perform(put("/api/tasks/{id}", taskId)
+                .header("If-Match", "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {
+                          "title": "Updated Task",
+                          "completed": false
+                        }
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"8\""))
+                .andExpect(jsonPath("$.version").value(8));
+    }
+
+    @Test
+    public void testPartialUpdateWithStaleIfMatchShouldReturn_PreconditionFailed() throws Exception {
+        UUID taskId = UUID.randomUUID();
+
+        when(taskService.partialUpdate(eq(taskId), any(Map.class), eq(2L)))
+                .thenThrow(new TaskVersionConflictException("Task " + taskId + " is at version 3, not 2"));
+
+        mockMvc.perform(patch("/api/tasks/{id}", taskId)
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"completed\": true}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Task version mismatch"));
+    }
+
+    @Test
+    public void testMinimalPatchShouldReturn_NoContentWithNewETag() throws Exception {
+        UUID taskId = UUID.randomUUID();
+
+        when(taskService.patchTask(eq(taskId), eq(Map.of("completed", true)), eq(5L))).thenReturn(6L);
+
+        mockMvc.perform(patch("/api/tasks/{id}", taskId)
+                .header("If-Match", "\"5\"")
+                .header("Prefer", "return=minimal")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"completed\": true}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"6\""))
+                .andExpect(header().string("Preference-Applied", "return=minimal"));
+    }
+
+    @Test
+    public void testGetTaskShouldReturn_TaskWithWeakETag() throws Exception {
+        UUID taskId = UUID.randomUUID();
+        Task task = new Task();
+        task.setId(taskId);
+        task.setTitle("Cached Task");
+        task.setCompleted(false);
+        task.setVersion(3L);
+        task.setUpdatedAt(Instant.parse("2024-05-01T10:15:30Z"));
+
+        when(taskService.getTask(taskId)).thenReturn(task);
+
+        mockMvc.perform(get("/api/tasks/{id}", taskId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"3\""))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(header().string("Last-Modified", "Wed, 01 May 2024 10:15:30 GMT"))
+                .andExpect(jsonPath("$.title").value("Cached Task"));
+
+        mockMvc.perform(get("/api/tasks/{id}", taskId).header("If-None-Match", "W/\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void testSearchTasksWithMatchingIfNoneMatchShouldReturn_NotModified() throws Exception {
+        Task task = new Task();
+        task.setId(UUID.randomUUID());
+        task.setTitle("Listed Task");
+        task.setVersion(1L);
+        when(taskService.searchTasks(any(), any(TaskFilter.class), anyInt(), anyInt(), any(), anyString()))
+                .thenReturn(new PageImpl<>(List.of(task)));
+
+        String etag = mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).startsWith("W/");
+
+        mockMvc.perform(get("/api/tasks").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        task.setVersion(2L);
+        mockMvc.perform(get("/api/tasks").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    public void testSearchTasksAsSmileShouldReturn_SameContentAsJson() throws Exception {
+        Task task = new Task();
+        task.setId(UUID.randomUUID());
+        task.setTitle("Binary Task");
+        task.setVersion(1L);
+        task.setCreatedAt(Instant.parse("2024-05-01T10:15:30.123456Z"));
+        when(taskService.searchTasks(any(), any(TaskFilter.class), anyInt(), anyInt(), any(), anyString()))
+                .thenReturn(new PageImpl<>(List.of(task)));
+
+        byte[] body = mockMvc.perform(get("/api/tasks").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new ObjectMapper(new SmileFactory()).readTree(body);
+        // Ids are written as 16 bytes, which Smile and CBOR can hold without text encoding
+        ByteBuffer id = ByteBuffer.wrap(page.at("/content/0/id").binaryValue());
+        assertThat(new UUID(id.getLong(), id.getLong())).isEqualTo(task.getId());
+        assertThat(page.at("/content/0/createdAt").asText()).isEqualTo("2024-05-01T10:15:30.123456Z");
+        assertThat(page.at("/totalElements").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCreateTaskAsProtobufShouldReturn_ProtobufTask() throws Exception {
+        UUID taskId = UUID.randomUUID();
+        when(taskService.createTask(any(Task.class))).thenAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+            task.setId(taskId);
+            task.setVersion(0L);
+            task.setCreatedAt(Instant.parse("2024-05-01T10:15:30.000001Z"));
+            return task;
+        });
+
+        byte[] body = mockMvc.perform(post("/api/tasks")
+                .contentType("application/x-protobuf")
+                .accept("application/x-protobuf")
+                .content(TaskMessage.newBuilder().setTitle("Proto Task").setCompleted(true).build().toByteArray()))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType("application/x-protobuf"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        TaskMessage created = TaskMessage.parseFrom(body);
+        assertThat(ByteBuffer.wrap(created.getId().toByteArray()).getLong()).isEqualTo(taskId.getMostSignificantBits());
+        assertThat(created.getTitle()).isEqualTo("Proto Task");
+        assertThat(created.getCompleted()).isTrue();
+        assertThat(created.hasDescription()).isFalse();
+        assertThat(created.getCreatedAt()).isEqualTo(1714558530000001L);
+    }
+
+    @Test
+    public void testProtobufPatchShouldApply_OnlyPresentFields() throws Exception {
+        UUID taskId = UUID.randomUUID();
+        when(taskService.patchTask(eq(taskId), any(), eq(2L))).thenReturn(3L);
+
+        mockMvc.perform(patch("/api/tasks/{id}", taskId)
+                .contentType("application/x-protobuf")
+                .header("If-Match", "\"2\"")
+                .header("Prefer", "return=minimal")
+                .content(TaskMessage.newBuilder().setCompleted(false).build().toByteArray()))
+                .andExpect(status().isNoContent());
+
+        verify(taskService).patchTask(taskId, Map.of("completed", false), 2L);
+    }
+
+    @Test
+    public void testProtobufWithoutMessageShouldReturn_NotAcceptable() throws Exception {
+        when(taskStatistics.counts(anyString())).thenReturn(new TaskCounts(2, 1));
+
+        mockMvc.perform(get("/api/tasks/stats").accept("application/x-protobuf"))
+                .andExpect(status().isNotAcceptable());
+        mockMvc.perform(post("/api/tasks/batch").contentType("application/x-protobuf").content(new byte[0]))
+                .andExpect(status().isUnsupportedMediaType());
+    }
 }
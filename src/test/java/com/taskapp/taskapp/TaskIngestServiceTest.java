@@ -0,0 +1,148 @@
+package com.taskapp.taskapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskapp.taskapp.Models.IngestStatus;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Services.TaskIngestService;
+import com.taskapp.taskapp.Services.TaskStatistics;
+import com.taskapp.taskapp.Util.Exceptions.IngestQueueFullException;
+import com.taskapp.taskapp.Util.Exceptions.TaskNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskIngestServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TaskRepository taskRepository;
+    private final Map<UUID, Task> stored = new ConcurrentHashMap<>();
+    private final List<TaskIngestService> services = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        taskRepository = Mockito.mock(TaskRepository.class);
+        when(taskRepository.saveAllAndFlush(anyIterable())).thenAnswer(invocation -> {
+            List<Task> saved = new ArrayList<>();
+            for (Task task : invocation.<Iterable<Task>>getArgument(0)) {
+                stored.put(task.getId(), task);
+                saved.add(task);
+            }
+            return saved;
+        });
+        when(taskRepository.findExistingIds(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<UUID>>getArgument(0).stream().filter(stored::containsKey).toList());
+        when(taskRepository.existsById(any())).thenAnswer(invocation -> stored.containsKey(invocation.<UUID>getArgument(0)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        services.forEach(TaskIngestService::stop);
+    }
+
+    private TaskIngestService service(int capacity, boolean start) {
+        TaskIngestService service = new TaskIngestService(taskRepository, TransactionOperations.withoutTransaction(),
+                Mockito.mock(ApplicationEventPublisher.class), new TaskStatistics(taskRepository), new ObjectMapper(),
+                true, capacity, 10, Duration.ofMillis(5), tempDir.resolve("ingest.journal"), false);
+        if (start) {
+            service.start();
+            services.add(service);
+        }
+        return service;
+    }
+
+    private Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        return task;
+    }
+
+    @Test
+    public void testSubmit_AssignsIdAndWritesInBackground() {
+        TaskIngestService service = service(100, true);
+
+        Task accepted = service.submit(task("Queued task"));
+
+        assertThat(accepted.getId().version()).isEqualTo(7);
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.pendingCount() == 0);
+        assertThat(stored).containsKey(accepted.getId());
+        assertThat(service.status(accepted.getId()).state()).isEqualTo(IngestStatus.State.WRITTEN);
+    }
+
+    @Test
+    public void testSubmit_RejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskRepository.saveAllAndFlush(anyIterable())).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+        TaskIngestService service = service(1, true);
+
+        try {
+            service.submit(task("First task"));
+
+            assertThatThrownBy(() -> service.submit(task("Second task"))).isInstanceOf(IngestQueueFullException.class);
+            assertThat(service.pendingCount()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testStart_ReplaysJournalAndKeepsIds() throws Exception {
+        UUID id = UUID.randomUUID();
+        Files.writeString(tempDir.resolve("ingest.journal"),
+                "{\"add\":{\"id\":\"" + id + "\",\"title\":\"Survives restart\",\"completed\":false}}\n");
+
+        TaskIngestService service = service(100, true);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.pendingCount() == 0);
+        assertThat(stored).containsKey(id);
+        assertThat(stored.get(id).getTitle()).isEqualTo("Survives restart");
+        assertThat(service.status(id).state()).isEqualTo(IngestStatus.State.WRITTEN);
+    }
+
+    @Test
+    public void testStart_ReplaySkipsTasksAlreadyWritten() throws Exception {
+        UUID written = UUID.randomUUID();
+        UUID done = UUID.randomUUID();
+        stored.put(written, task("Written before crash"));
+        Files.writeString(tempDir.resolve("ingest.journal"),
+                "{\"add\":{\"id\":\"" + written + "\",\"title\":\"Written before crash\"}}\n"
+                        + "{\"add\":{\"id\":\"" + done + "\",\"title\":\"Marked done\"}}\n"
+                        + "{\"done\":[\"" + done + "\"]}\n");
+
+        TaskIngestService service = service(100, true);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.pendingCount() == 0);
+        assertThat(stored).doesNotContainKey(done);
+        verify(taskRepository, never()).saveAllAndFlush(argThat(tasks -> tasks.iterator().hasNext()));
+    }
+
+    @Test
+    public void testStatus_UnknownIdIsNotFound() {
+        TaskIngestService service = service(100, true);
+
+        assertThatThrownBy(() -> service.status(UUID.randomUUID()))
+                .isInstanceOf(TaskNotFoundException.class);
+    }
+}
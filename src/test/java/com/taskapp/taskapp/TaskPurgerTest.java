@@ -0,0 +1,80 @@
+package com.taskapp.taskapp;
+
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Services.TaskChangedEvent;
+import com.taskapp.taskapp.Services.TaskPurger;
+import com.taskapp.taskapp.Services.TaskStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskPurgerTest {
+
+    private TaskRepository taskRepository;
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    public void setup() {
+        taskRepository = Mockito.mock(TaskRepository.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        when(taskRepository.archive(anyCollection(), any(Instant.class)))
+                .thenAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0).size());
+    }
+
+    private TaskPurger purger(Duration completedRetention) {
+        return new TaskPurger(taskRepository, TransactionOperations.withoutTransaction(), eventPublisher,
+                new TaskStatistics(taskRepository), true,
+                completedRetention, 2, Duration.ZERO, 10);
+    }
+
+    @Test
+    public void testPurge_ArchivesInBatchesUntilABatchIsShort() {
+        List<UUID> deleted = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(taskRepository.lockDeleted(2)).thenReturn(deleted.subList(0, 2), deleted.subList(2, 3));
+        when(taskRepository.lockCompletedBefore(any(Instant.class), eq(1))).thenReturn(Map.of());
+
+        TaskPurger purger = purger(Duration.ofDays(30));
+
+        assertThat(purger.purge()).isEqualTo(3);
+        assertThat(purger.archivedDeletedCount()).isEqualTo(3);
+        verify(taskRepository).archive(eq(deleted.subList(0, 2)), any(Instant.class));
+        verify(taskRepository).archive(eq(deleted.subList(2, 3)), any(Instant.class));
+        verify(taskRepository, times(2)).lockDeleted(2);
+        // Already published when the tasks were deleted
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testPurge_ArchivesCompletedTasksPastRetentionAsDeletes() {
+        UUID completed = UUID.randomUUID();
+        when(taskRepository.lockDeleted(2)).thenReturn(List.of());
+        when(taskRepository.lockCompletedBefore(any(Instant.class), eq(2))).thenReturn(Map.of(completed, "acme"));
+
+        TaskPurger purger = purger(Duration.ofDays(30));
+        Instant before = Instant.now().minus(Duration.ofDays(30));
+
+        assertThat(purger.purge()).isEqualTo(1);
+        assertThat(purger.archivedCompletedCount()).isEqualTo(1);
+        verify(taskRepository).lockCompletedBefore(
+                argThat(cutoff -> !cutoff.isBefore(before) && cutoff.isBefore(before.plusSeconds(60))), eq(2));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted("acme", completed));
+    }
+
+    @Test
+    public void testPurge_KeepsCompletedTasksWithZeroRetention() {
+        when(taskRepository.lockDeleted(2)).thenReturn(List.of());
+
+        assertThat(purger(Duration.ZERO).purge()).isZero();
+        verify(taskRepository, never()).lockCompletedBefore(any(Instant.class), anyInt());
+    }
+}
@@ -0,0 +1,370 @@
+package com.taskapp.taskapp;
+
+import com.taskapp.taskapp.Models.LoggedTaskChange;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Search.InvertedIndexTaskSearchEngine;
+import com.taskapp.taskapp.Search.TaskSearchEngine;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.config.TenancyConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository's own queries and statements against H2 in MySQL mode,
+ * with the schema from the migrations and the entity cache switched on. Each
+ * test works in a tenant of its own and commits, as requests do.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:repository;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TenancyConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TaskRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        TenantContext.set("tenant-" + UUID.randomUUID());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void testWrites_KeepOtherTasksCached() {
+        Task cached = create("Cached", false);
+        Task written = create("Written", false);
+
+        EntityStatistics statistics = cacheStatistics();
+        long hits = statistics.getCacheHitCount();
+        long misses = statistics.getCacheMissCount();
+        assertThat(inTransaction(() -> taskRepository.findById(cached.getId()))).isPresent();
+        assertThat(statistics.getCacheHitCount()).isEqualTo(hits + 1);
+
+        create("Created", true);
+        inTransaction(() -> {
+            Task task = taskRepository.findById(written.getId()).orElseThrow();
+            task.setTitle("Written twice");
+            return taskRepository.saveAndFlush(task);
+        });
+        inTransaction(() -> taskRepository.updateFields(written.getId(), 1L, Map.of("completed", true)));
+        long hitsBefore = statistics.getCacheHitCount();
+
+        assertThat(inTransaction(() -> taskRepository.findById(cached.getId()))).isPresent();
+        assertThat(statistics.getCacheHitCount()).isEqualTo(hitsBefore + 1);
+        assertThat(statistics.getCacheMissCount()).isEqualTo(misses);
+    }
+
+    @Test
+    public void testRemove_KeepsOtherTasksCached() {
+        Task kept = create("Kept", false);
+        Task removed = create("Removed", false);
+        Task removedInBulk = create("Removed in bulk", true);
+
+        EntityStatistics statistics = cacheStatistics();
+        inTransaction(() -> taskRepository.findById(kept.getId()));
+        long hits = statistics.getCacheHitCount();
+
+        Map<UUID, Boolean> removedInBulkIds = inTransaction(() -> {
+            assertThat(taskRepository.removeAll(List.of(removed.getId()))).isEqualTo(1);
+            return taskRepository.removeExisting(List.of(removedInBulk.getId(), removed.getId(), UUID.randomUUID()));
+        });
+        // Only what the statement removed is reported, with its completed state
+        assertThat(removedInBulkIds).isEqualTo(Map.of(removedInBulk.getId(), true));
+        long misses = statistics.getCacheMissCount();
+
+        assertThat(inTransaction(() -> taskRepository.findById(kept.getId()))).isPresent();
+        assertThat(statistics.getCacheMissCount()).isEqualTo(misses);
+        assertThat(statistics.getCacheHitCount()).isEqualTo(hits + 1);
+        assertThat(inTransaction(() -> taskRepository.findById(removed.getId()))).isEmpty();
+        assertThat(inTransaction(() -> taskRepository.findById(removedInBulk.getId()))).isEmpty();
+    }
+
+    @Test
+    public void testUpdateFields_ChangesOnlyTheTaskAtTheExpectedVersion() {
+        Task patched = create("Patched", false);
+        Task other = create("Other", false);
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("completed", true);
+        changes.put("description", null);
+
+        assertThat(inTransaction(() -> taskRepository.updateFields(patched.getId(), 1L, changes))).isZero();
+        assertThat(inTransaction(() -> taskRepository.updateFields(patched.getId(), 0L, changes))).isEqualTo(1);
+        assertThat(inTransaction(() -> taskRepository.updateFields(patched.getId(), 0L, changes))).isZero();
+        assertThat(inTransaction(() -> taskRepository.updateFields(UUID.randomUUID(), 0L, changes))).isZero();
+
+        Task reloaded = inTransaction(() -> taskRepository.findById(patched.getId())).orElseThrow();
+        assertThat(reloaded.isCompleted()).isTrue();
+        assertThat(reloaded.getVersion()).isEqualTo(1L);
+        assertThat(reloaded.getUpdatedAt()).isAfterOrEqualTo(patched.getUpdatedAt());
+
+        // Other tenants and deleted tasks are out of reach
+        String tenant = TenantContext.current();
+        TenantContext.set("other-" + tenant);
+        assertThat(inTransaction(() -> taskRepository.updateFields(other.getId(), 0L, Map.of("title", "Taken")))).isZero();
+        TenantContext.set(tenant);
+        inTransaction(() -> taskRepository.removeAll(List.of(other.getId())));
+        assertThat(inTransaction(() -> taskRepository.updateFields(other.getId(), 1L, Map.of("title", "Late")))).isZero();
+    }
+
+    @Test
+    public void testUpdateFields_KeepsOtherTasksCached() {
+        Task patched = create("Patched", false);
+        Task kept = create("Kept", false);
+
+        EntityStatistics statistics = cacheStatistics();
+        inTransaction(() -> taskRepository.findById(kept.getId()));
+        long misses = statistics.getCacheMissCount();
+        inTransaction(() -> taskRepository.updateFields(patched.getId(), 0L, Map.of("title", "Patched again")));
+
+        assertThat(inTransaction(() -> taskRepository.findById(kept.getId()))).isPresent();
+        assertThat(statistics.getCacheMissCount()).isEqualTo(misses);
+        // The patched task itself is reloaded rather than served in its old state
+        assertThat(inTransaction(() -> taskRepository.findById(patched.getId())).orElseThrow().getTitle())
+                .isEqualTo("Patched again");
+        assertThat(statistics.getCacheMissCount()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    public void testStreamAll_LeavesTheEntityCacheAlone() {
+        Task first = create("First", false);
+        Task second = create("Second", true);
+        entityManagerFactory.getCache().evict(Task.class);
+        EntityStatistics statistics = cacheStatistics();
+        long puts = statistics.getCachePutCount();
+
+        List<UUID> streamed = inTransaction(() -> {
+            try (Stream<Task> tasks = taskRepository.streamAll(10)) {
+                return tasks.map(Task::getId).toList();
+            }
+        });
+
+        assertThat(streamed).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(statistics.getCachePutCount()).isEqualTo(puts);
+    }
+
+    @Test
+    public void testLoggedChanges_AreReadInOrderAndTheirTasksEvicted() {
+        Task task = create("Before", false);
+        String tenant = TenantContext.current();
+        assertThat(inTransaction(() -> taskRepository.findById(task.getId())).orElseThrow().getTitle())
+                .isEqualTo("Before");
+        long last = inTransaction(() -> taskRepository.lastLoggedChange());
+
+        // As another application writes: the row and its log entry, past this application's session
+        Instant now = Instant.now();
+        jdbcTemplate.update("UPDATE task SET title = 'After', version = version + 1 WHERE id = ?", bytes(task.getId()));
+        jdbcTemplate.update("INSERT INTO task_change_log (tenant_id, task_id, change_type, changed_at) "
+                + "VALUES (?, ?, 'UPDATED', ?)", tenant, bytes(task.getId()), Timestamp.from(now));
+        jdbcTemplate.update("INSERT INTO task_change_log (tenant_id, task_id, change_type, changed_at) "
+                + "VALUES (?, ?, 'DELETED', ?)", tenant, bytes(UUID.randomUUID()), Timestamp.from(now.minusSeconds(7200)));
+
+        List<LoggedTaskChange> changes = inTransaction(() -> taskRepository.findLoggedChangesAfter(last, 10));
+        assertThat(changes).extracting(LoggedTaskChange::type).containsExactly("UPDATED", "DELETED");
+        assertThat(changes.get(0)).isEqualTo(new LoggedTaskChange(changes.get(0).seq(), tenant, task.getId(), "UPDATED"));
+        assertThat(inTransaction(() -> taskRepository.lastLoggedChange())).isEqualTo(changes.get(1).seq());
+
+        assertThat(inTransaction(() -> taskRepository.findById(task.getId())).orElseThrow().getTitle())
+                .isEqualTo("Before");
+        inTransaction(() -> {
+            taskRepository.evict(List.of(task.getId()), tenant);
+            return null;
+        });
+        assertThat(inTransaction(() -> taskRepository.findById(task.getId())).orElseThrow().getTitle())
+                .isEqualTo("After");
+
+        assertThat(inTransaction(() -> taskRepository.pruneLoggedChanges(now.minusSeconds(3600)))).isEqualTo(1);
+        assertThat(inTransaction(() -> taskRepository.findLoggedChangesAfter(last, 10))).containsExactly(changes.get(0));
+    }
+
+    @Test
+    public void testSearchTasks_MatchesTokensInsideWordsLikeTheIndex() {
+        Task report = create("Quarterly report", false);
+        Task portal = create("Customer portal", false);
+        create("Team lunch", false);
+        Task done = create("100% done_right", false);
+
+        assertThat(search("port")).containsExactlyInAnyOrder(report.getId(), portal.getId());
+        assertThat(search("uarter REP")).containsExactly(report.getId());
+        assertThat(search("port lunch")).isEmpty();
+        // Wildcards in the term are separators, not patterns
+        assertThat(search("%")).isEmpty();
+        assertThat(search("_")).isEmpty();
+        assertThat(search("done_right")).containsExactly(done.getId());
+    }
+
+    @Test
+    public void testScroll_VisitsEveryTaskOnceInBothDirections() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            tasks.add(create("task " + (char) ('a' + i % 4), i % 2 == 0));
+        }
+        // Several tasks share each creation time, so the id has to break the ties
+        Instant base = Instant.parse("2024-05-01T10:00:00Z");
+        for (int i = 0; i < tasks.size(); i++) {
+            jdbcTemplate.update("UPDATE task SET created_at = ? WHERE id = ?",
+                    Timestamp.from(base.plusSeconds(i % 5)), bytes(tasks.get(i).getId()));
+        }
+        entityManagerFactory.getCache().evictAll();
+
+        for (TaskFilter filter : List.of(TaskFilter.none(), TaskFilter.attributes(true, null, null, null, null, null))) {
+            for (String property : List.of("title", "createdAt")) {
+                for (Sort.Direction direction : Sort.Direction.values()) {
+                    Sort keyset = Sort.by(direction, property).and(Sort.by(direction, "id"));
+                    List<UUID> expected = inTransaction(() -> taskRepository.findPage(filter,
+                            PageRequest.of(0, 100, keyset)).map(Task::getId).getContent());
+
+                    List<UUID> scrolled = new ArrayList<>();
+                    KeysetScrollPosition position = ScrollPosition.keyset();
+                    while (true) {
+                        KeysetScrollPosition from = position;
+                        Window<Task> window = inTransaction(() -> taskRepository.scroll(filter, keyset, from, 4));
+                        window.forEach(task -> scrolled.add(task.getId()));
+                        if (!window.hasNext()) {
+                            break;
+                        }
+                        position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+                    }
+
+                    assertThat(expected).hasSize(filter.completed() == null ? 23 : 12);
+                    assertThat(scrolled).as("%s %s %s", filter, property, direction).containsExactlyElementsOf(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFindPage_FiltersSearchesAndOrdersCompletedFirstLikeTheIndex() {
+        List<Task> tasks = List.of(
+                create("Sprint review notes", true),
+                create("Sprint review demo", true),
+                create("Sprint planning", true),
+                create("Sprint review slides", false),
+                create("Design review", true),
+                create("Sprint retro review", true),
+                create("Sprint review archive", true));
+        Instant base = Instant.parse("2024-05-01T10:00:00Z");
+        for (int i = 0; i < tasks.size(); i++) {
+            Timestamp at = Timestamp.from(base.plusSeconds(i < 6 ? i : 60));
+            jdbcTemplate.update("UPDATE task SET created_at = ?, updated_at = ? WHERE id = ?", at, at,
+                    bytes(tasks.get(i).getId()));
+        }
+        entityManagerFactory.getCache().evictAll();
+        InvertedIndexTaskSearchEngine ids = new InvertedIndexTaskSearchEngine(taskRepository, 100, 10);
+        InvertedIndexTaskSearchEngine matching = new InvertedIndexTaskSearchEngine(taskRepository, 100, 3);
+        // Built across tenants, as at startup, so the index is ready
+        String tenant = TenantContext.current();
+        TenantContext.clear();
+        ids.rebuild();
+        matching.rebuild();
+        TenantContext.set(tenant);
+        assertThat(ids.filterFor("review").ids()).hasSize(6);
+        assertThat(matching.filterFor("review").ids()).isNull();
+
+        TaskFilter completedSprints = TaskFilter.attributes(true, "Sprint", base, base.plusSeconds(30), null, null);
+        TaskFilter updated = TaskFilter.attributes(null, null, null, null, base.plusSeconds(1), base.plusSeconds(5));
+        Sort titleDesc = Sort.by(Sort.Direction.DESC, "title").and(Sort.by(Sort.Direction.DESC, "id"));
+        for (TaskSearchEngine engine : List.of(ids, matching)) {
+            assertThat(ids(completedSprints.and(engine.filterFor("review")), titleDesc)).containsExactly(
+                    tasks.get(0).getId(), tasks.get(1).getId(), tasks.get(5).getId());
+            assertThat(ids(updated.and(engine.filterFor("REVIEW")), titleDesc)).containsExactly(
+                    tasks.get(3).getId(), tasks.get(1).getId(), tasks.get(4).getId());
+        }
+
+        // The completed column leads the ORDER BY of a completed filter; pages still follow the requested sort
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            Sort byTitle = Sort.by(direction, "title").and(Sort.by(direction, "id"));
+            List<UUID> expected = tasks.stream().filter(Task::isCompleted)
+                    .sorted(direction.isAscending() ? Comparator.comparing(Task::getTitle)
+                            : Comparator.comparing(Task::getTitle).reversed())
+                    .map(Task::getId).toList();
+            List<UUID> paged = new ArrayList<>();
+            for (int page = 0; page < 3; page++) {
+                int number = page;
+                paged.addAll(inTransaction(() -> taskRepository.findPage(
+                        TaskFilter.attributes(true, null, null, null, null, null),
+                        PageRequest.of(number, 2, byTitle)).map(Task::getId).getContent()));
+            }
+            assertThat(paged).as("%s", direction).containsExactlyElementsOf(expected);
+        }
+    }
+
+    private List<UUID> ids(TaskFilter filter, Sort sort) {
+        return inTransaction(() -> taskRepository.findPage(filter, PageRequest.of(0, 10, sort)).map(Task::getId)
+                .getContent());
+    }
+
+    private List<UUID> search(String term) {
+        return inTransaction(() -> taskRepository.searchTasks(term, PageRequest.of(0, 10)).map(Task::getId).getContent());
+    }
+
+    private Task create(String title, boolean completed) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setCompleted(completed);
+        return inTransaction(() -> taskRepository.save(task));
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private EntityStatistics cacheStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getEntityStatistics(Task.class.getName());
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+}
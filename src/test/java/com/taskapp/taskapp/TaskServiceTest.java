@@ -1,32 +1,55 @@
 package com.taskapp.taskapp;
 
 
+import com.taskapp.taskapp.Models.CursorPage;
 import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskCounts;
+import com.taskapp.taskapp.Models.TaskFilter;
+import com.taskapp.taskapp.Models.TaskView;
 import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Search.DatabaseTaskSearchEngine;
+import com.taskapp.taskapp.Services.TaskChangedEvent;
 import com.taskapp.taskapp.Services.TaskService;
+import com.taskapp.taskapp.Services.TaskStatistics;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Util.CursorCodec;
+import com.taskapp.taskapp.Util.Exceptions.InvalidRequestException;
 import com.taskapp.taskapp.Util.Exceptions.TaskNotFoundException;
+import com.taskapp.taskapp.Util.Exceptions.TaskVersionConflictException;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.*;
 
 public class TaskServiceTest {
 
     private TaskRepository taskRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private TaskStatistics statistics;
     private TaskService taskService;
 
     @BeforeEach
     public void setup() {
         taskRepository = Mockito.mock(TaskRepository.class);
-        taskService = new TaskService(taskRepository);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        statistics = new TaskStatistics(taskRepository);
+        taskService = new TaskService(taskRepository, new DatabaseTaskSearchEngine(taskRepository), eventPublisher,
+                Validation.buildDefaultValidatorFactory().getValidator(), statistics);
     }
 
     @Test
@@ -50,6 +73,7 @@ public class TaskServiceTest {
         assertThat(createdTask.isCompleted()).isFalse();
 
         verify(taskRepository, times(1)).save(task);
+        verify(eventPublisher, times(1)).publishEvent(TaskChangedEvent.created(createdTask));
     }
 
     @Test
@@ -79,6 +103,16 @@ public class TaskServiceTest {
         verify(taskRepository, times(1)).save(existingTask);
     }
 
+    @Test
+    public void testGetTask_NotFound() {
+        UUID taskId = UUID.randomUUID();
+        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> taskService.getTask(taskId))
+                .isInstanceOf(TaskNotFoundException.class)
+                .hasMessage("Task not found with id: " + taskId);
+    }
+
     @Test
     public void testUpdateTask_NotFound() {
         UUID taskId = UUID.randomUUID();
@@ -106,7 +140,7 @@ public class TaskServiceTest {
         Page<Task> taskPage = new PageImpl<>(Collections.singletonList(task));
         when(taskRepository.searchTasks(eq("search"), any(PageRequest.class))).thenReturn(taskPage);
 
-        Page<Task> result = taskService.searchTasks("search", 0, 10, "title", "ASC");
+        Page<Task> result = taskService.searchTasks("search", TaskFilter.none(), 0, 10, "title", "ASC");
 
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getTitle()).isEqualTo("Search Task");
@@ -114,28 +148,170 @@ public class TaskServiceTest {
         verify(taskRepository, times(1)).searchTasks(eq("search"), any(PageRequest.class));
     }
 
+    @Test
+    public void testSearchTasks_DefaultsToRelevanceOrderForSearchTerm() {
+        when(taskRepository.searchTasks(eq("search"), any(PageRequest.class))).thenReturn(Page.empty());
+
+        taskService.searchTasks("search", TaskFilter.none(), 0, 10, null, "DESC");
+
+        verify(taskRepository, times(1)).searchTasks(eq("search"), eq(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    public void testSearchTasks_FiltersUseListQueryWithIdTieBreaker() {
+        TaskFilter filter = TaskFilter.attributes(false, "Rep", null, null, null, null);
+        when(taskRepository.findPage(any(TaskFilter.class), any(Pageable.class))).thenReturn(Page.empty());
+
+        taskService.searchTasks(null, filter, 0, 10, "title", "ASC");
+
+        verify(taskRepository, times(1)).findPage(eq(filter),
+                eq(PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "title").and(Sort.by(Sort.Direction.ASC, "id")))));
+        verify(taskRepository, never()).searchTasks(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    public void testSearchTasks_CombinesSearchTermWithFilters() {
+        TaskFilter filter = TaskFilter.attributes(true, null, null, null, null, null);
+        when(taskRepository.findPage(any(TaskFilter.class), any(Pageable.class))).thenReturn(Page.empty());
+
+        taskService.searchTasks("search", filter, 0, 10, null, "DESC");
+
+        verify(taskRepository, times(1)).findPage(eq(filter.and(TaskFilter.matching("search"))),
+                eq(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id"))));
+    }
+
+    @Test
+    public void testSearchTasks_RejectsUnindexedSort() {
+        assertThatThrownBy(() -> taskService.searchTasks(null, TaskFilter.none(), 0, 10, "description", "ASC"))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("Cannot sort by description");
+
+        verify(taskRepository, never()).findPage(any(), any());
+    }
+
+    @Test
+    public void testSearchTaskViews_SelectsOnlyRequestedFields() {
+        TaskFilter filter = TaskFilter.attributes(false, null, null, null, null, null);
+        Set<String> fields = Set.of("id", "title");
+        when(taskRepository.findViews(any(TaskFilter.class), any(Pageable.class), anyCollection())).thenReturn(Page.empty());
+
+        taskService.searchTaskViews(null, filter, fields, 0, 50, "title", "ASC");
+
+        verify(taskRepository, times(1)).findViews(eq(filter),
+                eq(PageRequest.of(0, 50, Sort.by(Sort.Direction.ASC, "title").and(Sort.by(Sort.Direction.ASC, "id")))),
+                eq(fields));
+        verify(taskRepository, never()).findPage(any(), any());
+    }
+
+    @Test
+    public void testSearchTaskViews_ProjectsRankedSearchResults() {
+        Task task = new Task();
+        task.setId(UUID.randomUUID());
+        task.setTitle("Search Task");
+        task.setDescription("Task for search");
+        when(taskRepository.searchTasks(eq("search"), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(task)));
+
+        Page<TaskView> result = taskService.searchTaskViews("search", TaskFilter.none(), Set.of("id", "title"), 0, 10,
+                null, "DESC");
+
+        assertThat(result.getContent()).extracting(TaskView::id, TaskView::title)
+                .containsExactly(tuple(task.getId(), "Search Task"));
+        verify(taskRepository, never()).findViews(any(), any(), any());
+    }
+
+    @Test
+    public void testSearchTaskViews_RejectsUnknownField() {
+        assertThatThrownBy(() -> taskService.searchTaskViews(null, TaskFilter.none(), Set.of("id", "owner"), 0, 10,
+                null, "DESC"))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("Unknown field: owner");
+    }
+
+    @Test
+    public void testScrollTasks_FirstPageReturnsCursorWithoutCount() {
+        Task task = new Task();
+        task.setId(UUID.randomUUID());
+        task.setTitle("Scroll Task");
+        Sort keyset = Sort.by(Sort.Direction.ASC, "title").and(Sort.by(Sort.Direction.ASC, "id"));
+        Window<Task> window = Window.from(List.of(task),
+                index -> ScrollPosition.forward(Map.of("title", "Scroll Task", "id", task.getId())), true);
+
+        when(taskRepository.scroll(eq(TaskFilter.none()), eq(keyset), eq(ScrollPosition.keyset()), eq(1)))
+                .thenReturn(window);
+
+        CursorPage<Task> result = taskService.scrollTasks(null, TaskFilter.none(), "", 1, "title", "ASC", false);
+
+        assertThat(result.content()).containsExactly(task);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.totalElements()).isNull();
+        assertThat(CursorCodec.decode(result.nextCursor(), keyset, Task.class).getKeys())
+                .containsEntry("title", "Scroll Task")
+                .containsEntry("id", task.getId());
+        verify(taskRepository, never()).count(any(TaskFilter.class));
+    }
+
+    @Test
+    public void testScrollTasks_ResumesFromCursorAndCounts() {
+        UUID lastId = UUID.randomUUID();
+        Sort keyset = Sort.by(Sort.Direction.DESC, "id");
+        String cursor = CursorCodec.encode(keyset, Map.of("id", lastId));
+
+        when(taskRepository.scroll(eq(TaskFilter.matching("search")), eq(keyset),
+                eq(ScrollPosition.forward(Map.of("id", lastId))), eq(10)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
+        when(taskRepository.count(TaskFilter.matching("search"))).thenReturn(42L);
+
+        CursorPage<Task> result = taskService.scrollTasks("search", TaskFilter.none(), cursor, 10, "id", "DESC", true);
+
+        assertThat(result.content()).isEmpty();
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+        assertThat(result.totalElements()).isEqualTo(42L);
+    }
+
+    @Test
+    public void testScrollTasks_RejectsCursorFromAnotherSort() {
+        String cursor = CursorCodec.encode(Sort.by(Sort.Direction.DESC, "id"), Map.of("id", UUID.randomUUID()));
+
+        assertThatThrownBy(() -> taskService.scrollTasks(null, TaskFilter.none(), cursor, 10, "title", "ASC", false))
+                .isInstanceOf(InvalidRequestException.class);
+
+        verify(taskRepository, never()).scroll(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void testScrollTasks_RejectsCursorWithTamperedKey() {
+        String cursor = CursorCodec.encode(Sort.by(Sort.Direction.DESC, "id"), Map.of("id", "not-a-uuid"));
+
+        assertThatThrownBy(() -> taskService.scrollTasks(null, TaskFilter.none(), cursor, 10, "id", "DESC", false))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Malformed cursor");
+
+        verify(taskRepository, never()).scroll(any(), any(), any(), anyInt());
+    }
+
     @Test
     public void testDeleteTask_Success() {
         UUID taskId = UUID.randomUUID();
-        when(taskRepository.existsById(taskId)).thenReturn(true);
+        when(taskRepository.removeAll(List.of(taskId))).thenReturn(1);
 
         taskService.deleteTask(taskId);
 
-        verify(taskRepository, times(1)).existsById(taskId);
-        verify(taskRepository, times(1)).deleteById(taskId);
+        verify(taskRepository, times(1)).removeAll(List.of(taskId));
+        verify(taskRepository, never()).findById(any(UUID.class));
+        verify(eventPublisher, times(1)).publishEvent(TaskChangedEvent.deleted(taskId));
     }
 
     @Test
     public void testDeleteTask_NotFound() {
         UUID taskId = UUID.randomUUID();
-        when(taskRepository.existsById(taskId)).thenReturn(false);
+        when(taskRepository.removeAll(List.of(taskId))).thenReturn(0);
 
         assertThatThrownBy(() -> taskService.deleteTask(taskId))
                 .isInstanceOf(TaskNotFoundException.class)
                 .hasMessage("Task not found with id: " + taskId);
 
-        verify(taskRepository, times(1)).existsById(taskId);
-        verify(taskRepository, never()).deleteById(any(UUID.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -176,4 +352,139 @@ public class TaskServiceTest {
         verify(taskRepository, times(1)).findById(taskId);
         verify(taskRepository, never()).save(any(Task.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUpdateTask_VersionMismatch() {
+        UUID taskId = UUID.randomUUID();
+        Task existingTask = new Task();
+        existingTask.setId(taskId);
+        existingTask.setTitle("Old Task");
+        existingTask.setVersion(3L);
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(existingTask));
+
+        assertThatThrownBy(() -> taskService.updateTask(taskId, new Task(), 2L))
+                .isInstanceOf(TaskVersionConflictException.class);
+
+        assertThat(existingTask.getTitle()).isEqualTo("Old Task");
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    public void testPartialUpdate_MatchingVersion() {
+        UUID taskId = UUID.randomUUID();
+        Task existingTask = new Task();
+        existingTask.setId(taskId);
+        existingTask.setTitle("Old Task");
+        existingTask.setVersion(3L);
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(existingTask));
+        when(taskRepository.save(existingTask)).thenReturn(existingTask);
+
+        Task result = taskService.partialUpdate(taskId, Map.of("completed", true), 3L);
+
+        assertThat(result.isCompleted()).isTrue();
+        verify(taskRepository, times(1)).save(existingTask);
+    }
+
+    @Test
+    public void testPatchTask_SingleConditionalUpdate() {
+        UUID taskId = UUID.randomUUID();
+        Map<String, Object> updates = Map.of("title", "New Task");
+        when(taskRepository.updateFields(taskId, 4L, updates)).thenReturn(1);
+
+        long newVersion = taskService.patchTask(taskId, updates, 4L);
+
+        assertThat(newVersion).isEqualTo(5L);
+        verify(taskRepository, never()).findById(any(UUID.class));
+        verify(taskRepository, never()).existsById(any(UUID.class));
+        verify(eventPublisher, times(1)).publishEvent(TaskChangedEvent.patched(taskId, updates));
+    }
+
+    @Test
+    public void testPatchTask_CompletedAtAnotherVersionIsRejectedBeforeUpdate() {
+        UUID taskId = UUID.randomUUID();
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task(taskId, false, 5L)));
+
+        assertThatThrownBy(() -> taskService.patchTask(taskId, Map.of("completed", true), 4L))
+                .isInstanceOf(TaskVersionConflictException.class);
+
+        verify(taskRepository, never()).updateFields(any(), anyLong(), anyMap());
+    }
+
+    @Test
+    public void testWrites_KeepTaskCounts() {
+        UUID completedId = UUID.randomUUID();
+        UUID openId = UUID.randomUUID();
+        UUID doneId = UUID.randomUUID();
+        Map<String, Object> complete = Map.of("completed", true);
+        // The delete does not read whether the task was completed, so the counts are reconciled after it
+        when(taskRepository.countByTenant()).thenReturn(Map.of(TenantContext.DEFAULT_TENANT, new TaskCounts(5, 2)),
+                Map.of(TenantContext.DEFAULT_TENANT, new TaskCounts(5, 1)));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(taskRepository.removeAll(List.of(completedId))).thenReturn(1);
+        when(taskRepository.findById(openId)).thenReturn(Optional.of(task(openId, false, 1L)));
+        when(taskRepository.findById(doneId)).thenReturn(Optional.of(task(doneId, true, 1L)));
+        when(taskRepository.updateFields(any(UUID.class), eq(1L), eq(complete))).thenReturn(1);
+        statistics.reconcile();
+
+        Task task = new Task();
+        task.setTitle("New Task");
+        taskService.createTask(task);
+        taskService.deleteTask(completedId);
+        assertThat(statistics.counts(TenantContext.DEFAULT_TENANT)).isEqualTo(new TaskCounts(5, 1));
+        taskService.patchTask(openId, complete, 1L);
+        taskService.patchTask(doneId, complete, 1L);
+
+        assertThat(statistics.counts(TenantContext.DEFAULT_TENANT)).isEqualTo(new TaskCounts(5, 2));
+        assertThat(statistics.correctionCount()).isZero();
+        verify(taskRepository, times(2)).countByTenant();
+        verify(taskRepository, times(1)).updateFields(openId, 1L, complete);
+        verify(taskRepository, times(1)).updateFields(doneId, 1L, complete);
+    }
+
+    @Test
+    public void testPatchTask_StaleVersion() {
+        UUID taskId = UUID.randomUUID();
+        Map<String, Object> updates = Map.of("title", "New Task");
+        when(taskRepository.updateFields(taskId, 4L, updates)).thenReturn(0);
+        when(taskRepository.existsById(taskId)).thenReturn(true);
+
+        assertThatThrownBy(() -> taskService.patchTask(taskId, updates, 4L))
+                .isInstanceOf(TaskVersionConflictException.class);
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testPatchTask_NotFound() {
+        UUID taskId = UUID.randomUUID();
+        Map<String, Object> updates = Map.of("title", "New Task");
+        when(taskRepository.updateFields(taskId, 4L, updates)).thenReturn(0);
+        when(taskRepository.existsById(taskId)).thenReturn(false);
+
+        assertThatThrownBy(() -> taskService.patchTask(taskId, updates, 4L))
+                .isInstanceOf(TaskNotFoundException.class)
+                .hasMessage("Task not found with id: " + taskId);
+    }
+
+    @Test
+    public void testPatchTask_InvalidFieldIsRejectedBeforeUpdate() {
+        UUID taskId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> taskService.patchTask(taskId, Map.of("title", "x"), 4L))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Title must be between 3 and 100 characters");
+
+        verify(taskRepository, never()).updateFields(any(), anyLong(), anyMap());
+    }
+
+    private static Task task(UUID id, boolean completed, long version) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Existing Task");
+        task.setCompleted(completed);
+        task.setVersion(version);
+        return task;
+    }
+}
@@ -0,0 +1,126 @@
+package com.taskapp.taskapp;
+
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Models.TaskCounts;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Services.TaskStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class TaskStatisticsTest {
+
+    private TaskRepository taskRepository;
+    private TaskStatistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        taskRepository = Mockito.mock(TaskRepository.class);
+        statistics = new TaskStatistics(taskRepository);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Task task(String tenant, boolean completed) {
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setTenantId(tenant);
+        task.setCompleted(completed);
+        return task;
+    }
+
+    @Test
+    public void testReconcile_CorrectsCountsAndKeepsWritesMadeWhileCounting() {
+        when(taskRepository.countByTenant()).thenReturn(Map.of());
+        statistics.reconcile();
+        statistics.created(List.of(task("acme", true), task("acme", false), task("acme", false)));
+
+        when(taskRepository.countByTenant()).thenAnswer(invocation -> {
+            statistics.created(task("acme", false));
+            return Map.of("acme", new TaskCounts(4, 1), "beta", new TaskCounts(2, 0));
+        });
+        statistics.reconcile();
+
+        assertThat(statistics.counts("acme")).isEqualTo(new TaskCounts(5, 1));
+        assertThat(statistics.counts("beta")).isEqualTo(new TaskCounts(2, 0));
+        assertThat(statistics.counts("gamma")).isEqualTo(TaskCounts.NONE);
+        assertThat(statistics.totals()).isEqualTo(new TaskCounts(7, 1));
+        assertThat(statistics.correctionCount()).isEqualTo(2);
+        verify(taskRepository, times(2)).countByTenant();
+    }
+
+    @Test
+    public void testCounts_ReconcileBeforeTheFirstRead() {
+        when(taskRepository.countByTenant()).thenReturn(Map.of("acme", new TaskCounts(10, 4)));
+
+        assertThat(statistics.counts("acme").open()).isEqualTo(6);
+        assertThat(statistics.counts("acme").open()).isEqualTo(6);
+        assertThat(statistics.correctionCount()).isZero();
+        verify(taskRepository, times(1)).countByTenant();
+    }
+
+    @Test
+    public void testCounts_ConcurrentFirstReadsReconcileOnce() throws Exception {
+        when(taskRepository.countByTenant()).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return Map.of("acme", new TaskCounts(10, 4));
+        });
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<TaskCounts>> reads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                reads.add(readers.submit(() -> {
+                    start.await();
+                    return statistics.counts("acme");
+                }));
+            }
+            start.countDown();
+            for (Future<TaskCounts> read : reads) {
+                assertThat(read.get(5, TimeUnit.SECONDS)).isEqualTo(new TaskCounts(10, 4));
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+        verify(taskRepository, times(1)).countByTenant();
+    }
+
+    @Test
+    public void testWrites_CountOnlyOnceTheirTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        statistics.created(task("acme", true));
+        statistics.removed("beta", 1, 0);
+        assertThat(statistics.totals()).isEqualTo(TaskCounts.NONE);
+
+        List<TransactionSynchronization> committed = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        committed.forEach(TransactionSynchronization::afterCommit);
+
+        TransactionSynchronizationManager.initSynchronization();
+        statistics.created(task("acme", false));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(statistics.totals()).isEqualTo(new TaskCounts(0, 1));
+    }
+}
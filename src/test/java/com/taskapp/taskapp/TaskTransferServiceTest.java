@@ -0,0 +1,95 @@
+package com.taskapp.taskapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskapp.taskapp.Models.BatchItemResult;
+import com.taskapp.taskapp.Models.BatchResult;
+import com.taskapp.taskapp.Models.ImportResult;
+import com.taskapp.taskapp.Models.Task;
+import com.taskapp.taskapp.Repository.TaskRepository;
+import com.taskapp.taskapp.Services.TaskBatchService;
+import com.taskapp.taskapp.Services.TaskTransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskTransferServiceTest {
+
+    private TaskRepository taskRepository;
+    private TaskBatchService taskBatchService;
+    private TaskTransferService taskTransferService;
+
+    @BeforeEach
+    public void setup() {
+        taskRepository = Mockito.mock(TaskRepository.class);
+        taskBatchService = Mockito.mock(TaskBatchService.class);
+        taskTransferService = new TaskTransferService(taskRepository, taskBatchService, new ObjectMapper(), 100, 1, 2);
+    }
+
+    private Task task(String title, String description) {
+        Task task = new Task();
+        task.setId(UUID.fromString("c9bdf5c8-01f2-4e1e-8be7-91fe8a5c338a"));
+        task.setTitle(title);
+        task.setDescription(description);
+        return task;
+    }
+
+    @Test
+    public void testExportTasks_WritesOneJsonObjectPerLine() throws Exception {
+        when(taskRepository.streamAll(100)).thenReturn(Stream.of(task("First", null), task("Second", "More")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = taskTransferService.exportTasks(out, TaskTransferService.Format.NDJSON);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"title\":\"First\"");
+        assertThat(lines[1]).contains("\"description\":\"More\"");
+    }
+
+    @Test
+    public void testExportTasks_EscapesCsvValues() throws Exception {
+        when(taskRepository.streamAll(100)).thenReturn(Stream.of(task("Say \"hi\", then leave", null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        taskTransferService.exportTasks(out, TaskTransferService.Format.CSV);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,title,description,completed\n"
+                + "c9bdf5c8-01f2-4e1e-8be7-91fe8a5c338a,\"Say \"\"hi\"\", then leave\",,false\n");
+    }
+
+    @Test
+    public void testImportTasks_WritesChunksAndReportsLineNumbers() throws Exception {
+        when(taskBatchService.upsertTasks(anyList(), eq(false))).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            List<BatchItemResult> items = new ArrayList<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                items.add(tasks.get(i).getTitle() == null
+                        ? BatchItemResult.failed(i, null, List.of("Title is required"))
+                        : BatchItemResult.of(i, UUID.randomUUID(), BatchItemResult.Status.CREATED));
+            }
+            return BatchResult.of(false, items);
+        });
+        String body = "{\"title\":\"One\"}\n\n{\"completed\":true}\nnot json\n{\"title\":\"Four\"}\n";
+
+        ImportResult result = taskTransferService.importTasks(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.errors()).hasSize(2);
+        assertThat(result.errors().get(0)).isEqualTo("Line 3: Title is required");
+        assertThat(result.errors().get(1)).startsWith("Line 4: Malformed task");
+        verify(taskBatchService, times(2)).upsertTasks(anyList(), eq(false));
+    }
+}
@@ -0,0 +1,52 @@
+package com.taskapp.taskapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskapp.taskapp.Tenancy.TenantContext;
+import com.taskapp.taskapp.Web.TenantFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TenantFilterTest {
+
+    private final List<String> seen = new ArrayList<>();
+
+    private MockHttpServletResponse send(TenantFilter filter, String tenant) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        if (tenant != null) {
+            request.addHeader(TenantFilter.TENANT_HEADER, tenant);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> seen.add(TenantContext.current()));
+        return response;
+    }
+
+    @Test
+    public void testBindsTenantForTheRequestOnly() throws Exception {
+        TenantFilter filter = new TenantFilter(new ObjectMapper().findAndRegisterModules(), false);
+
+        send(filter, "acme");
+        send(filter, null);
+
+        assertThat(seen).containsExactly("acme", TenantContext.DEFAULT_TENANT);
+        assertThat(TenantContext.current()).isNull();
+    }
+
+    @Test
+    public void testRejectsInvalidOrMissingTenant() throws Exception {
+        TenantFilter filter = new TenantFilter(new ObjectMapper().findAndRegisterModules(), true);
+
+        MockHttpServletResponse missing = send(filter, null);
+        MockHttpServletResponse root = send(filter, TenantContext.ALL_TENANTS);
+
+        assertThat(missing.getStatus()).isEqualTo(400);
+        assertThat(missing.getContentAsString()).contains("X-Tenant-Id header is required");
+        assertThat(root.getStatus()).isEqualTo(400);
+        assertThat(seen).isEmpty();
+    }
+}
@@ -0,0 +1,39 @@
+package com.taskapp.taskapp;
+
+import com.taskapp.taskapp.Util.UuidV7;
+import org.hibernate.type.descriptor.java.UUIDJavaType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UuidV7Test {
+
+    @Test
+    public void testNext_IsVersion7WithCurrentTimestamp() {
+        Instant before = Instant.ofEpochMilli(System.currentTimeMillis());
+        UUID id = UuidV7.next();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(UuidV7.timestampOf(id)).isBetween(before, before.plusSeconds(1));
+        assertThat(UuidV7.timestampOf(UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    public void testNext_ColumnBytesIncreaseInGenerationOrder() {
+        List<byte[]> columns = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            columns.add(UUIDJavaType.INSTANCE.unwrap(UuidV7.next(), byte[].class, null));
+        }
+
+        for (int i = 1; i < columns.size(); i++) {
+            assertThat(Arrays.compareUnsigned(columns.get(i - 1), columns.get(i))).isNegative();
+        }
+    }
+}